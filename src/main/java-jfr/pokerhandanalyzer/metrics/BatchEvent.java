@@ -0,0 +1,21 @@
+package pokerhandanalyzer.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+@Name("pokerhandanalyzer.Batch")
+@Label("Analyzer Batch")
+@Category("Poker Hand Analyzer")
+@Description("A batch of analyses that took longer than the slow call threshold")
+class BatchEvent extends Event {
+    @Label("Batch Size")
+    int size;
+
+    @Label("Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    long durationNanos;
+}
@@ -0,0 +1,25 @@
+package pokerhandanalyzer.metrics;
+
+import pokerhandanalyzer.enums.AnalyzerStage;
+
+class JdkFlightRecorderEvents implements FlightRecorderEvents {
+    @Override
+    public void emitSlowCall(AnalyzerStage stage, long durationNanos) {
+        SlowCallEvent slowCallEvent = new SlowCallEvent();
+        if (slowCallEvent.shouldCommit()) {
+            slowCallEvent.stage = stage.name();
+            slowCallEvent.durationNanos = durationNanos;
+            slowCallEvent.commit();
+        }
+    }
+
+    @Override
+    public void emitBatch(int size, long durationNanos) {
+        BatchEvent batchEvent = new BatchEvent();
+        if (batchEvent.shouldCommit()) {
+            batchEvent.size = size;
+            batchEvent.durationNanos = durationNanos;
+            batchEvent.commit();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package pokerhandanalyzer.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+@Name("pokerhandanalyzer.SlowCall")
+@Label("Slow Analyzer Call")
+@Category("Poker Hand Analyzer")
+@Description("A stage of the analyzers that took longer than the slow call threshold")
+class SlowCallEvent extends Event {
+    @Label("Stage")
+    String stage;
+
+    @Label("Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    long durationNanos;
+}
@@ -0,0 +1,78 @@
+package pokerhandanalyzer;
+
+/**
+ * Indexes sets of cards, packed as card masks, in colexicographic order: sets of the same size are ordered by their
+ * highest card, then their next highest card, and so on, which is also the numeric order of their card masks. The
+ * index of a set of k cards c1 &lt; c2 &lt; ... &lt; ck is the sum of the binomial coefficients C(ci, i), so the sets
+ * of k of the 52 cards are numbered 0 to C(52, k) - 1 without gaps, and their index space can be split into ranges.
+ * Sets may also hold card 52, the joker of a video poker deck.
+ */
+public final class Combinations {
+    // BINOMIALS[n][k] is the number of ways to choose k of n cards, for up to 53 cards, a deck with a joker, and 7
+    // chosen
+    private static final long[][] BINOMIALS = new long[PackedPokerHandAnalyzer.NUMBER_OF_CARDS + 2][8];
+
+    static {
+        for (int n = 0; n < BINOMIALS.length; n++) {
+            BINOMIALS[n][0] = 1;
+            for (int k = 1; k < BINOMIALS[n].length && k <= n; k++) {
+                BINOMIALS[n][k] = BINOMIALS[n - 1][k - 1] + (k < n ? BINOMIALS[n - 1][k] : 0);
+            }
+        }
+    }
+
+    private Combinations() {
+    }
+
+    /**
+     * @param n the number of cards to choose from, up to 53
+     * @param k the number of cards chosen, up to 7
+     * @return the number of ways to choose k of n cards
+     */
+    public static long binomial(int n, int k) {
+        return k > n ? 0 : BINOMIALS[n][k];
+    }
+
+    /**
+     * @param cardMask a set of up to 7 cards
+     * @return the colexicographic index of the set among the sets of as many cards
+     */
+    public static long getIndex(long cardMask) {
+        long index = 0;
+        int i = 1;
+        for (long remainingCards = cardMask; remainingCards != 0; remainingCards &= remainingCards - 1) {
+            index += binomial(Long.numberOfTrailingZeros(remainingCards), i++);
+        }
+        return index;
+    }
+
+    /**
+     * @param index the colexicographic index of a set of cards
+     * @param numberOfCards the number of cards in the set, up to 7
+     * @return the set of cards
+     */
+    public static long getCardMask(long index, int numberOfCards) {
+        long cardMask = 0;
+        for (int k = numberOfCards; k > 0; k--) {
+            // the highest card c with C(c, k) no greater than what remains of the index
+            int card = k - 1;
+            while (binomial(card + 1, k) <= index) {
+                card++;
+            }
+            cardMask |= 1L << card;
+            index -= binomial(card, k);
+        }
+        return cardMask;
+    }
+
+    /**
+     * @param cardMask a set of cards
+     * @return the next set of as many cards in colexicographic order, which is the next greater number with as many
+     * bits set; past the last set of 52 cards it holds cards beyond the 52nd
+     */
+    public static long next(long cardMask) {
+        long lowestCard = cardMask & -cardMask;
+        long ripple = cardMask + lowestCard;
+        return ripple | ((cardMask ^ ripple) >>> 2) / lowestCard;
+    }
+}
@@ -0,0 +1,355 @@
+package pokerhandanalyzer;
+
+import pokerhandanalyzer.enums.PokerHandType;
+import pokerhandanalyzer.enums.Rank;
+import pokerhandanalyzer.enums.Suit;
+
+import java.nio.ByteBuffer;
+
+/**
+ * An allocation-free analyzer working on cards packed into ints, for hot paths where creating
+ * {@link pokerhandanalyzer.models.Card} objects and histograms for every hand is too slow. It ranks hands exactly as
+ * {@link PokerHandAnalyzer} and {@link PokerHandComparator} do.
+ *
+ * A card is packed as its rank ordinal times four plus its suit ordinal, so the 52 cards are numbered 0 to 51. A hand
+ * is evaluated to a strength: an int whose order is the order of the hands, holding the hand type ordinal in bits 20
+ * and up, followed by the ranks of the hand in the order the comparator compares them, one rank ordinal every four
+ * bits. The ace of a wheel, A-2-3-4-5, is compared last.
+ *
+ * Sets of cards, such as the five to seven cards a player can make a hand from, are packed as a card mask: a long with
+ * bit n set for each card n in the set.
+ */
+public final class PackedPokerHandAnalyzer {
+    public static final int NUMBER_OF_CARDS = 52;
+    public static final int INVALID_CARD = -1;
+
+    /**
+     * Returned by {@link #analyzeHands(ByteBuffer, int, int)} for lines that are not a valid pair of hands.
+     */
+    public static final int ERROR = Integer.MIN_VALUE;
+
+    private static final int HAND_TYPE_SHIFT = 20;
+    private static final int WHEEL_RANK_MASK = 0x100F; // A, 5, 4, 3 and 2
+    private static final int ROYAL_RANK_MASK = 0x1F00; // A, K, Q, J and T
+    // the ranks of a wheel in comparison order, the ace played low
+    private static final int WHEEL_RANKS = 0x3210C;
+    private static final PokerHandType[] POKER_HAND_TYPES = PokerHandType.values();
+    private static final Rank[] RANKS = Rank.values();
+    private static final Suit[] SUITS = Suit.values();
+    private static final byte[] RANK_ORDINAL_BY_CHARACTER = new byte[128];
+    private static final byte[] SUIT_ORDINAL_BY_CHARACTER = new byte[128];
+
+    static {
+        for (int i = 0; i < 128; i++) {
+            RANK_ORDINAL_BY_CHARACTER[i] = -1;
+            SUIT_ORDINAL_BY_CHARACTER[i] = -1;
+        }
+        for (Rank rank : RANKS) {
+            RANK_ORDINAL_BY_CHARACTER[rank.getCharacterRepresentation()] = (byte) rank.ordinal();
+        }
+        for (Suit suit : SUITS) {
+            SUIT_ORDINAL_BY_CHARACTER[suit.getCharacterRepresentation()] = (byte) suit.ordinal();
+        }
+    }
+
+    private PackedPokerHandAnalyzer() {
+    }
+
+    public static int getCard(Rank rank, Suit suit) {
+        return rank.ordinal() * 4 + suit.ordinal();
+    }
+
+    public static Rank getRank(int card) {
+        return RANKS[card >>> 2];
+    }
+
+    public static Suit getSuit(int card) {
+        return SUITS[card & 3];
+    }
+
+    /**
+     * Packs a card from its two character representation, e.g., 'A' and 'H' for the ace of hearts.
+     * @param rankCharacter the character representation of the rank
+     * @param suitCharacter the character representation of the suit
+     * @return the packed card, or {@link #INVALID_CARD} if either character is not a valid representation
+     */
+    public static int parseCard(int rankCharacter, int suitCharacter) {
+        if ((rankCharacter | suitCharacter) >>> 7 != 0)
+            return INVALID_CARD;
+
+        int rankOrdinal = RANK_ORDINAL_BY_CHARACTER[rankCharacter];
+        int suitOrdinal = SUIT_ORDINAL_BY_CHARACTER[suitCharacter];
+        if ((rankOrdinal | suitOrdinal) < 0)
+            return INVALID_CARD;
+
+        return rankOrdinal * 4 + suitOrdinal;
+    }
+
+    /**
+     * Evaluates the strength of a five-card hand held in an array.
+     * @param cards the array holding the packed cards
+     * @param offset the index of the first of the five cards
+     * @return the strength of the hand
+     */
+    public static int evaluate(int[] cards, int offset) {
+        return evaluate(cards[offset], cards[offset + 1], cards[offset + 2], cards[offset + 3], cards[offset + 4]);
+    }
+
+    /**
+     * Evaluates the strength of a five-card hand. The stronger hand has the greater strength, and hands of equal value
+     * have equal strengths.
+     * @return the strength of the hand
+     */
+    public static int evaluate(int card0, int card1, int card2, int card3, int card4) {
+        // the number of cards of each rank, four bits per rank
+        long rankCounts = (1L << ((card0 >>> 2) << 2)) + (1L << ((card1 >>> 2) << 2)) + (1L << ((card2 >>> 2) << 2))
+                + (1L << ((card3 >>> 2) << 2)) + (1L << ((card4 >>> 2) << 2));
+        int rankMask = (1 << (card0 >>> 2)) | (1 << (card1 >>> 2)) | (1 << (card2 >>> 2)) | (1 << (card3 >>> 2))
+                | (1 << (card4 >>> 2));
+        int suit = card0 & 3;
+        boolean isFlush = (card1 & 3) == suit && (card2 & 3) == suit && (card3 & 3) == suit && (card4 & 3) == suit;
+        int numberOfDifferentCardRanks = Integer.bitCount(rankMask);
+        boolean isStraight = numberOfDifferentCardRanks == 5
+                && ((31 - Integer.numberOfLeadingZeros(rankMask)) - Integer.numberOfTrailingZeros(rankMask) == 4
+                || rankMask == WHEEL_RANK_MASK);
+
+        // orders the ranks the way the comparator does: largest sets first, and higher ranks first among equal sets. Each
+        // rank is keyed by its count times sixteen plus its ordinal, and the keys are sorted by setting them as bits of
+        // a 128-bit mask, held in two longs, and reading them back from the highest bit down.
+        long keyMaskHigh = 0;
+        long keyMaskLow = 0;
+        for (int remainingRanks = rankMask; remainingRanks != 0; remainingRanks &= remainingRanks - 1) {
+            int rank = Integer.numberOfTrailingZeros(remainingRanks);
+            int key = ((int) (rankCounts >>> (rank << 2)) & 0xF) << 4 | rank;
+            if (key < 64) {
+                keyMaskLow |= 1L << key;
+            } else {
+                keyMaskHigh |= 1L << key;
+            }
+        }
+        int largestSet = (keyMaskHigh != 0 ? 127 - Long.numberOfLeadingZeros(keyMaskHigh)
+                : 63 - Long.numberOfLeadingZeros(keyMaskLow)) >>> 4;
+        int ranks = 0;
+        for (; keyMaskHigh != 0; keyMaskHigh &= ~Long.highestOneBit(keyMaskHigh)) {
+            ranks = (ranks << 4) | (63 - Long.numberOfLeadingZeros(keyMaskHigh)) & 0xF;
+        }
+        for (; keyMaskLow != 0; keyMaskLow &= ~Long.highestOneBit(keyMaskLow)) {
+            ranks = (ranks << 4) | (63 - Long.numberOfLeadingZeros(keyMaskLow)) & 0xF;
+        }
+        ranks <<= (5 - numberOfDifferentCardRanks) << 2;
+        if (rankMask == WHEEL_RANK_MASK)
+            ranks = WHEEL_RANKS;
+
+        PokerHandType pokerHandType;
+        if (isFlush && rankMask == ROYAL_RANK_MASK) {
+            pokerHandType = PokerHandType.ROYAL_FLUSH;
+        } else if (isFlush && isStraight) {
+            pokerHandType = PokerHandType.STRAIGHT_FLUSH;
+        } else if (numberOfDifferentCardRanks == 2 && largestSet == 4) {
+            pokerHandType = PokerHandType.FOUR_OF_A_KIND;
+        } else if (numberOfDifferentCardRanks == 2 && largestSet == 3) {
+            pokerHandType = PokerHandType.FULL_HOUSE;
+        } else if (isFlush) {
+            pokerHandType = PokerHandType.FLUSH;
+        } else if (isStraight) {
+            pokerHandType = PokerHandType.STRAIGHT;
+        } else if (numberOfDifferentCardRanks == 3 && largestSet == 3) {
+            pokerHandType = PokerHandType.THREE_OF_A_KIND;
+        } else if (numberOfDifferentCardRanks == 3 && largestSet == 2) {
+            pokerHandType = PokerHandType.TWO_PAIR;
+        } else if (numberOfDifferentCardRanks == 4 && largestSet == 2) {
+            pokerHandType = PokerHandType.PAIR;
+        } else {
+            pokerHandType = PokerHandType.HIGH_CARD;
+        }
+
+        return (pokerHandType.ordinal() << HAND_TYPE_SHIFT) | ranks;
+    }
+
+    /**
+     * Evaluates the strength of the best five-card hand that can be made from a set of five to seven cards, as
+     * {@link #evaluate(int, int, int, int, int)} would for those five cards.
+     * @param cardMask the set of cards
+     * @return the strength of the best hand
+     */
+    public static int evaluate(long cardMask) {
+        // the number of cards of each rank, four bits per rank, and the ranks held in each suit, sixteen bits per suit
+        long rankCounts = 0;
+        long suitRankMasks = 0;
+        for (long remainingCards = cardMask; remainingCards != 0; remainingCards &= remainingCards - 1) {
+            int card = Long.numberOfTrailingZeros(remainingCards);
+            rankCounts += 1L << ((card >>> 2) << 2);
+            suitRankMasks |= 1L << ((card & 3) << 4 | card >>> 2);
+        }
+
+        int flushRankMask = 0;
+        for (int suit = 0; suit < 4; suit++) {
+            int suitRankMask = (int) (suitRankMasks >>> (suit << 4)) & 0x1FFF;
+            if (Integer.bitCount(suitRankMask) >= 5)
+                flushRankMask = suitRankMask;
+        }
+        if ((flushRankMask & ROYAL_RANK_MASK) == ROYAL_RANK_MASK)
+            return toStrength(PokerHandType.ROYAL_FLUSH, getStraightRanks(flushRankMask), 5);
+        int straightFlushRanks = getStraightRanks(flushRankMask);
+        if (straightFlushRanks != 0)
+            return toStrength(PokerHandType.STRAIGHT_FLUSH, straightFlushRanks, 5);
+
+        // the ranks held once or more, twice or more, three times or more, and four times
+        int rankMask = 0, pairMask = 0, tripsMask = 0, quadsMask = 0;
+        for (int rank = 0; rank < 13; rank++) {
+            int count = (int) (rankCounts >>> (rank << 2)) & 0xF;
+            int bit = count == 0 ? 0 : 1 << rank;
+            rankMask |= bit;
+            pairMask |= count >= 2 ? bit : 0;
+            tripsMask |= count >= 3 ? bit : 0;
+            quadsMask |= count >= 4 ? bit : 0;
+        }
+
+        if (quadsMask != 0) {
+            int quads = Integer.highestOneBit(quadsMask);
+            return toStrength(PokerHandType.FOUR_OF_A_KIND, getRanks(quads, 1) << 4 | getRanks(rankMask & ~quads, 1), 2);
+        }
+        if (tripsMask != 0 && Integer.bitCount(pairMask) >= 2) {
+            int trips = Integer.highestOneBit(tripsMask);
+            return toStrength(PokerHandType.FULL_HOUSE, getRanks(trips, 1) << 4 | getRanks(pairMask & ~trips, 1), 2);
+        }
+        if (flushRankMask != 0)
+            return toStrength(PokerHandType.FLUSH, getRanks(flushRankMask, 5), 5);
+        int straightRanks = getStraightRanks(rankMask);
+        if (straightRanks != 0)
+            return toStrength(PokerHandType.STRAIGHT, straightRanks, 5);
+        if (tripsMask != 0) {
+            return toStrength(PokerHandType.THREE_OF_A_KIND,
+                    getRanks(tripsMask, 1) << 8 | getRanks(rankMask & ~tripsMask, 2), 3);
+        }
+        if (Integer.bitCount(pairMask) >= 2) {
+            int pairs = Integer.highestOneBit(pairMask);
+            pairs |= Integer.highestOneBit(pairMask & ~pairs);
+            return toStrength(PokerHandType.TWO_PAIR, getRanks(pairs, 2) << 4 | getRanks(rankMask & ~pairs, 1), 3);
+        }
+        if (pairMask != 0)
+            return toStrength(PokerHandType.PAIR, getRanks(pairMask, 1) << 12 | getRanks(rankMask & ~pairMask, 3), 4);
+        return toStrength(PokerHandType.HIGH_CARD, getRanks(rankMask, 5), 5);
+    }
+
+    // the ranks of the highest straight within a rank mask in comparison order, or zero if it holds no straight
+    private static int getStraightRanks(int rankMask) {
+        int straightLowRanks = rankMask & rankMask >>> 1 & rankMask >>> 2 & rankMask >>> 3 & rankMask >>> 4;
+        if (straightLowRanks != 0) {
+            int lowRank = 31 - Integer.numberOfLeadingZeros(straightLowRanks);
+            return (lowRank + 4) << 16 | (lowRank + 3) << 12 | (lowRank + 2) << 8 | (lowRank + 1) << 4 | lowRank;
+        }
+        return (rankMask & WHEEL_RANK_MASK) == WHEEL_RANK_MASK ? WHEEL_RANKS : 0;
+    }
+
+    // the given number of highest ranks of a rank mask, highest first, one rank ordinal every four bits
+    private static int getRanks(int rankMask, int numberOfRanks) {
+        int ranks = 0;
+        for (int i = 0; i < numberOfRanks; i++) {
+            int rank = 31 - Integer.numberOfLeadingZeros(rankMask);
+            ranks = ranks << 4 | rank;
+            rankMask &= ~(1 << rank);
+        }
+        return ranks;
+    }
+
+    // the strength of a hand, from its type and its ranks in comparison order, which are left-aligned to five ranks
+    private static int toStrength(PokerHandType pokerHandType, int ranks, int numberOfRanks) {
+        return (pokerHandType.ordinal() << HAND_TYPE_SHIFT) | ranks << ((5 - numberOfRanks) << 2);
+    }
+
+    public static PokerHandType getPokerHandType(int strength) {
+        return POKER_HAND_TYPES[strength >>> HAND_TYPE_SHIFT];
+    }
+
+    /**
+     * Analyzes a line holding a string representation of two five-card poker hands, e.g.,
+     * "AH TD 5C 9S JS 3D 7H 5S JC 5H", straight from the bytes of a buffer without copying them.
+     * @param buffer the buffer holding the line
+     * @param start the index of the first byte of the line
+     * @param end the index one past the last byte of the line, not counting the line terminator
+     * @return a positive value if the left hand won, a negative value if the right hand won, zero if neither won, or
+     * {@link #ERROR} if the line is not a valid pair of hands
+     */
+    public static int analyzeHands(ByteBuffer buffer, int start, int end) {
+        int card0 = 0, card1 = 0, card2 = 0, card3 = 0, card4 = 0;
+        int leftStrength = 0;
+        int numberOfCards = 0;
+        int i = start;
+        while (numberOfCards < 10) {
+            i = findCard(buffer, i, end);
+            if (i < 0)
+                return ERROR;
+
+            int card = parseCard(buffer.get(i), buffer.get(i + 1));
+            if (card == INVALID_CARD)
+                return ERROR;
+            i += 2;
+
+            switch (numberOfCards++ % 5) {
+                case 0: card0 = card; break;
+                case 1: card1 = card; break;
+                case 2: card2 = card; break;
+                case 3: card3 = card; break;
+                default:
+                    card4 = card;
+                    if (numberOfCards == 5)
+                        leftStrength = evaluate(card0, card1, card2, card3, card4);
+            }
+        }
+        if (!isBlank(buffer, i, end))
+            return ERROR;
+
+        return Integer.compare(leftStrength, evaluate(card0, card1, card2, card3, card4));
+    }
+
+    /**
+     * Parses a line holding a whitespace separated list of cards, e.g., "AH TD 5C 9S JS", straight from the bytes of a
+     * buffer without copying them.
+     * @param buffer the buffer holding the line
+     * @param start the index of the first byte of the line
+     * @param end the index one past the last byte of the line, not counting the line terminator
+     * @param cards the array to store the packed cards in
+     * @param offset the index in the array to store the first card at
+     * @param numberOfCards the number of cards the line must hold
+     * @return whether the line held exactly the given number of valid cards
+     */
+    public static boolean parseCards(ByteBuffer buffer, int start, int end, int[] cards, int offset, int numberOfCards) {
+        int i = start;
+        for (int j = offset; j < offset + numberOfCards; j++) {
+            i = findCard(buffer, i, end);
+            if (i < 0)
+                return false;
+
+            cards[j] = parseCard(buffer.get(i), buffer.get(i + 1));
+            if (cards[j] == INVALID_CARD)
+                return false;
+            i += 2;
+        }
+        return isBlank(buffer, i, end);
+    }
+
+    // skips the whitespace from index i on, and returns the index of the two character card found after it, or -1 if
+    // no two character card follows
+    private static int findCard(ByteBuffer buffer, int i, int end) {
+        while (i < end && isWhitespace(buffer.get(i))) {
+            i++;
+        }
+        if (i + 2 > end || (i + 2 < end && !isWhitespace(buffer.get(i + 2))))
+            return -1;
+
+        return i;
+    }
+
+    private static boolean isBlank(ByteBuffer buffer, int i, int end) {
+        for (; i < end; i++) {
+            if (!isWhitespace(buffer.get(i)))
+                return false;
+        }
+        return true;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+}
@@ -1,8 +1,10 @@
 package pokerhandanalyzer;
 
+import pokerhandanalyzer.enums.AnalyzerStage;
 import pokerhandanalyzer.enums.PokerHandType;
 import pokerhandanalyzer.enums.Rank;
 import pokerhandanalyzer.enums.Suit;
+import pokerhandanalyzer.metrics.AnalyzerMetrics;
 import pokerhandanalyzer.models.Card;
 import pokerhandanalyzer.models.PokerHand;
 
@@ -22,8 +24,11 @@ public class PokerHandAnalyzer {
     }
 
     public PokerHandType getPokerHandType() {
-        if (pokerHandType == null)
+        if (pokerHandType == null) {
+            long start = AnalyzerMetrics.start();
             pokerHandType = evaluatePokerHandType();
+            AnalyzerMetrics.stop(AnalyzerStage.EVALUATE, start);
+        }
 
         return pokerHandType;
     }
@@ -53,11 +58,22 @@ public class PokerHandAnalyzer {
             return false;
         } else {
             Collections.sort(cards);
-            // if there are 5 cards in order, and the last card's rank is 4 less than the first card, then the hand is a straight
-            return (cards.get(4).getRank().getOrdinal() - cards.get(0).getRank().getOrdinal() == 4);
+            // if there are 5 cards in order, and the last card's rank is 4 less than the first card, then the hand is a
+            // straight. The wheel, A-2-3-4-5, is a straight too, with the ace played low.
+            return (cards.get(4).getRank().getOrdinal() - cards.get(0).getRank().getOrdinal() == 4) || isWheel();
         }
     }
 
+    /**
+     * determines if hand is a wheel, the five-high straight A-2-3-4-5 in which the ace is played low
+     * @return true if the hand holds exactly an ace, a two, a three, a four and a five
+     */
+    public boolean isWheel() {
+        return handRankHistogram.size() == 5 && handRankHistogram.containsKey(Rank.ACE)
+                && handRankHistogram.containsKey(Rank.TWO) && handRankHistogram.containsKey(Rank.THREE)
+                && handRankHistogram.containsKey(Rank.FOUR) && handRankHistogram.containsKey(Rank.FIVE);
+    }
+
     // gets a list of the values in the handRankHistogram
     private List<Integer> getHandRankHistogramValueList() {
         List<Integer> handRankHistogramValueList = new ArrayList<>();
@@ -74,7 +90,9 @@ public class PokerHandAnalyzer {
         int numberOfDifferentCardRanks = handRankHistogramValueList.size(); // number of different types of cards in the hand
 
         PokerHandType pokerHandType;
-        if (isFlush && isStraight) {
+        if (isFlush && isStraight && handRankHistogram.containsKey(Rank.ACE) && !isWheel()) {
+            pokerHandType = PokerHandType.ROYAL_FLUSH;
+        } else if (isFlush && isStraight) {
             pokerHandType = PokerHandType.STRAIGHT_FLUSH;
         } else if (numberOfDifferentCardRanks == 2 && handRankHistogramValueList.get(0) == 4) {
             pokerHandType = PokerHandType.FOUR_OF_A_KIND;
@@ -1,6 +1,8 @@
 package pokerhandanalyzer;
 
+import pokerhandanalyzer.enums.AnalyzerStage;
 import pokerhandanalyzer.enums.Rank;
+import pokerhandanalyzer.metrics.AnalyzerMetrics;
 import pokerhandanalyzer.models.PokerHand;
 
 import java.util.*;
@@ -27,7 +29,9 @@ public class PokerHandComparator implements Comparator<PokerHand> {
 
         // if the hand types are the same, then compare by value of individual cards
         if (result == 0) {
+            long start = AnalyzerMetrics.start();
             result = compareHandsOfSameType(pokerHandAnalyzer1, pokerHandAnalyzer2);
+            AnalyzerMetrics.stop(AnalyzerStage.TIE_BREAK, start);
         }
 
         return result;
@@ -39,8 +43,8 @@ public class PokerHandComparator implements Comparator<PokerHand> {
         LinkedHashMap<Rank, Integer> sortedHandRankHistogram1 = getSortedMapByValDescBreakTieByKeyDesc(pokerHandAnalyzer1.getHandRankHistogram());
         LinkedHashMap<Rank, Integer> sortedHandRankHistogram2 = getSortedMapByValDescBreakTieByKeyDesc(pokerHandAnalyzer2.getHandRankHistogram());
 
-        List<Rank> keyList1 = new ArrayList<>(sortedHandRankHistogram1.keySet());
-        List<Rank> keyList2 = new ArrayList<>(sortedHandRankHistogram2.keySet());
+        List<Rank> keyList1 = getRanksInComparisonOrder(pokerHandAnalyzer1, sortedHandRankHistogram1);
+        List<Rank> keyList2 = getRanksInComparisonOrder(pokerHandAnalyzer2, sortedHandRankHistogram2);
 
         int result = 0;
         for (int i = 0; i < keyList1.size(); i++) {
@@ -52,6 +56,16 @@ public class PokerHandComparator implements Comparator<PokerHand> {
         return result;
     }
 
+    // The ace of a wheel (A-2-3-4-5) is played low, so it is compared last, making the wheel the lowest straight.
+    private List<Rank> getRanksInComparisonOrder(PokerHandAnalyzer pokerHandAnalyzer, LinkedHashMap<Rank, Integer> sortedHandRankHistogram) {
+        List<Rank> keyList = new ArrayList<>(sortedHandRankHistogram.keySet());
+        if (pokerHandAnalyzer.isWheel()) {
+            keyList.remove(Rank.ACE);
+            keyList.add(Rank.ACE);
+        }
+        return keyList;
+    }
+
     // This method orders a map based on value descending, and breaks ties based on key descending. This is useful
     // for sorting a hand representation, since when comparing hands you always compare them first by the largest set
     // (e.g. you compare the three of a kind before the pair in a full house), and if you have two sets that are equal
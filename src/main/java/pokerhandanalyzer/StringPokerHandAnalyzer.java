@@ -1,7 +1,9 @@
 package pokerhandanalyzer;
 
+import pokerhandanalyzer.enums.AnalyzerStage;
 import pokerhandanalyzer.enums.Rank;
 import pokerhandanalyzer.enums.Suit;
+import pokerhandanalyzer.metrics.AnalyzerMetrics;
 import pokerhandanalyzer.models.Card;
 import pokerhandanalyzer.models.PokerHand;
 
@@ -19,6 +21,8 @@ public class StringPokerHandAnalyzer {
      * @return 'left', 'right', or 'neither' depending on which hand won.
      */
     public static String analyzeHands(String hands) {
+        long start = AnalyzerMetrics.start();
+
         // Split the string into individual card representations
         String[] twoHandArray = hands.split(" ");
 
@@ -27,9 +31,12 @@ public class StringPokerHandAnalyzer {
 
         // Create the right hand
         PokerHand rightPokerHand = getHandFromTwoHandArray(twoHandArray, 5);
+        AnalyzerMetrics.stop(AnalyzerStage.PARSE, start);
 
-        // Return who won
-        return getWhoWon(leftPokerHand, rightPokerHand);
+        // Determine who won
+        String whoWon = getWhoWon(leftPokerHand, rightPokerHand);
+        AnalyzerMetrics.stop(AnalyzerStage.ANALYZE_HANDS, start);
+        return whoWon;
     }
 
     // extracts a single hand from the two hand array
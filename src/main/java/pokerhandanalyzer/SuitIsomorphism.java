@@ -0,0 +1,96 @@
+package pokerhandanalyzer;
+
+/**
+ * Maps sets of cards, packed as card masks, to a canonical representative of every set that differs only by a
+ * permutation of the suits. As no suit ranks above another, such sets make hands of equal strength, so anything
+ * computed for the representative holds for every set it stands for, e.g., the 22,100 flops reduce to 1,755.
+ *
+ * The representative gives the suits, in suit ordinal order, the ranks the suits of the set hold in decreasing order of
+ * their rank masks. A suit permutation is packed as an int holding the new suit ordinal of each suit, two bits per
+ * suit, so the cards of the same deal, such as hole cards, can be mapped with the permutation that canonicalized the
+ * board.
+ */
+public final class SuitIsomorphism {
+    private static final int NUMBER_OF_SUITS = 4;
+
+    private SuitIsomorphism() {
+    }
+
+    /**
+     * @param cardMask a set of cards
+     * @return the canonical representative of the set
+     */
+    public static long canonicalize(long cardMask) {
+        return permute(cardMask, getCanonicalPermutation(cardMask));
+    }
+
+    /**
+     * @param cardMask a set of cards
+     * @return a suit permutation mapping the set to its canonical representative
+     */
+    public static int getCanonicalPermutation(long cardMask) {
+        return getCanonicalPermutation(cardMask, 0L);
+    }
+
+    /**
+     * Canonicalizes a board and the hole cards dealt with it together, keeping the two apart: the suits are ordered by
+     * the ranks they hold on the board, and suits holding the same ranks on the board by the ranks they hold in the
+     * hole, so the board is mapped to its own canonical representative.
+     * @param boardCardMask the cards of a board
+     * @param holeCardMask the hole cards dealt with it
+     * @return a suit permutation mapping the board and the hole cards to their canonical representative
+     */
+    public static int getCanonicalPermutation(long boardCardMask, long holeCardMask) {
+        int[] rankMasks = getRankMasks(boardCardMask);
+        int[] holeRankMasks = getRankMasks(holeCardMask);
+        long[] keys = new long[NUMBER_OF_SUITS];
+        for (int suit = 0; suit < NUMBER_OF_SUITS; suit++) {
+            keys[suit] = (long) rankMasks[suit] << 16 | holeRankMasks[suit];
+        }
+
+        // each suit takes the place of the number of suits ranked before it: those with a greater key, and those with
+        // an equal key but a lower ordinal
+        int permutation = 0;
+        for (int suit = 0; suit < NUMBER_OF_SUITS; suit++) {
+            int newSuit = 0;
+            for (int otherSuit = 0; otherSuit < NUMBER_OF_SUITS; otherSuit++) {
+                if (keys[otherSuit] > keys[suit] || (keys[otherSuit] == keys[suit] && otherSuit < suit))
+                    newSuit++;
+            }
+            permutation |= newSuit << (suit << 1);
+        }
+        return permutation;
+    }
+
+    // the ranks held in each suit
+    private static int[] getRankMasks(long cardMask) {
+        int[] rankMasks = new int[NUMBER_OF_SUITS];
+        for (long remainingCards = cardMask; remainingCards != 0; remainingCards &= remainingCards - 1) {
+            int card = Long.numberOfTrailingZeros(remainingCards);
+            rankMasks[card & 3] |= 1 << (card >>> 2);
+        }
+        return rankMasks;
+    }
+
+    /**
+     * @param cardMask a set of cards
+     * @param permutation a suit permutation
+     * @return the set with the suit of each card permuted
+     */
+    public static long permute(long cardMask, int permutation) {
+        long permutedCardMask = 0;
+        for (long remainingCards = cardMask; remainingCards != 0; remainingCards &= remainingCards - 1) {
+            permutedCardMask |= 1L << permuteCard(Long.numberOfTrailingZeros(remainingCards), permutation);
+        }
+        return permutedCardMask;
+    }
+
+    /**
+     * @param card a packed card
+     * @param permutation a suit permutation
+     * @return the card with its suit permuted
+     */
+    public static int permuteCard(int card, int permutation) {
+        return (card & ~3) | (permutation >>> ((card & 3) << 1) & 3);
+    }
+}
@@ -0,0 +1,290 @@
+package pokerhandanalyzer.analytics;
+
+import pokerhandanalyzer.PackedPokerHandAnalyzer;
+import pokerhandanalyzer.enums.PokerHandType;
+import pokerhandanalyzer.io.HandRecordReader;
+import pokerhandanalyzer.io.LineReader;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Computes distributions over hand histories of matchups: how often each poker hand type appears, how often hands of
+ * each type win or tie, and how often the left hand, the right hand, or neither wins. Matchups are evaluated in
+ * parallel and counted in striped {@link LongAdder} counters indexed by the ordinal of the hand type, so threads
+ * recording at the same time do not contend on a lock or a shared counter.
+ *
+ * While a hand history is being analyzed, snapshots of the counters can be taken at any time, from any thread, or
+ * delivered periodically to a listener. Counters are read one after another, so a snapshot taken while matchups are
+ * still being recorded may be off by the few matchups recorded while it was being taken.
+ */
+public class HandHistoryAnalytics {
+    private static final int NUMBER_OF_HAND_TYPES = PokerHandType.values().length;
+    private static final int BATCH_SIZE = 4096;
+    private static final int CARDS_PER_MATCHUP = 10;
+    private static final int LINE_BUFFER_SIZE = 1 << 20;
+
+    private final LongAdder[] handTypeCounts = newCounters(NUMBER_OF_HAND_TYPES);
+    private final LongAdder[] winCounts = newCounters(NUMBER_OF_HAND_TYPES);
+    private final LongAdder[] tieCounts = newCounters(NUMBER_OF_HAND_TYPES);
+    private final LongAdder leftCount = new LongAdder();
+    private final LongAdder rightCount = new LongAdder();
+    private final LongAdder neitherCount = new LongAdder();
+
+    private static LongAdder[] newCounters(int numberOfCounters) {
+        LongAdder[] counters = new LongAdder[numberOfCounters];
+        for (int i = 0; i < numberOfCounters; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    /**
+     * Records a single matchup. Safe to call from any number of threads at once.
+     * @param leftStrength the strength of the left hand, as evaluated by {@link PackedPokerHandAnalyzer}
+     * @param rightStrength the strength of the right hand, as evaluated by {@link PackedPokerHandAnalyzer}
+     */
+    public void record(int leftStrength, int rightStrength) {
+        int leftHandType = PackedPokerHandAnalyzer.getPokerHandType(leftStrength).ordinal();
+        int rightHandType = PackedPokerHandAnalyzer.getPokerHandType(rightStrength).ordinal();
+        handTypeCounts[leftHandType].increment();
+        handTypeCounts[rightHandType].increment();
+
+        if (leftStrength > rightStrength) {
+            winCounts[leftHandType].increment();
+            leftCount.increment();
+        } else if (leftStrength < rightStrength) {
+            winCounts[rightHandType].increment();
+            rightCount.increment();
+        } else {
+            tieCounts[leftHandType].increment();
+            tieCounts[rightHandType].increment();
+            neitherCount.increment();
+        }
+    }
+
+    public HandHistorySnapshot snapshot() {
+        return new HandHistorySnapshot(sum(handTypeCounts), sum(winCounts), sum(tieCounts), leftCount.sum(),
+                rightCount.sum(), neitherCount.sum());
+    }
+
+    private static long[] sum(LongAdder[] counters) {
+        long[] sums = new long[counters.length];
+        for (int i = 0; i < counters.length; i++) {
+            sums[i] = counters[i].sum();
+        }
+        return sums;
+    }
+
+    /**
+     * Analyzes every matchup of a hand-record file holding two hands per record, splitting the records among the given
+     * number of threads.
+     * @param reader the reader of the hand-record file
+     * @param parallelism the number of threads to analyze with
+     * @param snapshotPeriodMillis the period at which to deliver snapshots to the listener while analyzing
+     * @param listener the listener receiving the periodic snapshots, and a final snapshot once done
+     * @return the final snapshot
+     * @throws InterruptedException if interrupted while waiting for the threads to finish
+     */
+    public HandHistorySnapshot analyze(HandRecordReader reader, int parallelism, long snapshotPeriodMillis,
+                                       Consumer<HandHistorySnapshot> listener) throws InterruptedException {
+        if (reader.getHandsPerRecord() != 2)
+            throw new IllegalArgumentException("the records must hold two hands");
+
+        AtomicLong nextBatch = new AtomicLong();
+        long recordCount = reader.getRecordCount();
+        List<Runnable> workers = new ArrayList<>();
+        for (int i = 0; i < parallelism; i++) {
+            workers.add(() -> {
+                // each worker claims batches of records until none are left
+                long start;
+                while ((start = nextBatch.getAndIncrement() * BATCH_SIZE) < recordCount) {
+                    long end = Math.min(start + BATCH_SIZE, recordCount);
+                    for (long record = start; record < end; record++) {
+                        record(reader.getStrength(record, 0), reader.getStrength(record, 1));
+                    }
+                }
+            });
+        }
+
+        try {
+            return runWithSnapshots(workers, null, snapshotPeriodMillis, listener);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // there is no producer, so nothing does I/O
+        }
+    }
+
+    /**
+     * Analyzes every line read from a channel until it reaches its end, each a string representation of two five-card
+     * poker hands, e.g., "AH TD 5C 9S JS 3D 7H 5S JC 5H". Lines are parsed on the calling thread into a fixed number of
+     * reusable batches, which are evaluated on the given number of threads, so memory use is constant however long the
+     * hand history is. Lines that are not a valid pair of hands are skipped.
+     * @param in the channel to read lines from
+     * @param parallelism the number of threads to evaluate with
+     * @param snapshotPeriodMillis the period at which to deliver snapshots to the listener while analyzing
+     * @param listener the listener receiving the periodic snapshots, and a final snapshot once done
+     * @return the final snapshot
+     * @throws IOException if reading fails
+     * @throws InterruptedException if interrupted while waiting for the threads to finish
+     */
+    public HandHistorySnapshot analyze(ReadableByteChannel in, int parallelism, long snapshotPeriodMillis,
+                                       Consumer<HandHistorySnapshot> listener) throws IOException, InterruptedException {
+        MatchupBatches batches = new MatchupBatches(2 * parallelism, parallelism);
+
+        List<Runnable> workers = new ArrayList<>();
+        for (int i = 0; i < parallelism; i++) {
+            workers.add(() -> {
+                try {
+                    int[] batch;
+                    while ((batch = batches.takeFull()) != MatchupBatches.END) {
+                        int numberOfCards = batch[batch.length - 1];
+                        for (int j = 0; j < numberOfCards; j += CARDS_PER_MATCHUP) {
+                            record(PackedPokerHandAnalyzer.evaluate(batch, j), PackedPokerHandAnalyzer.evaluate(batch, j + 5));
+                        }
+                        batches.putFree(batch);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        return runWithSnapshots(workers, () -> {
+            try {
+                batches.fill(in);
+            } finally {
+                batches.end();
+            }
+        }, snapshotPeriodMillis, listener);
+    }
+
+    // Runs the workers to completion, each on its own thread, and the producer, if any, on the calling thread,
+    // delivering snapshots to the listener periodically until they are done, and once more when they are.
+    private HandHistorySnapshot runWithSnapshots(List<Runnable> workers, Producer producer, long snapshotPeriodMillis,
+                                                 Consumer<HandHistorySnapshot> listener)
+            throws IOException, InterruptedException {
+        ExecutorService executorService = Executors.newFixedThreadPool(workers.size());
+        ScheduledExecutorService snapshotExecutorService = Executors.newSingleThreadScheduledExecutor();
+        try {
+            snapshotExecutorService.scheduleAtFixedRate(() -> listener.accept(snapshot()), snapshotPeriodMillis,
+                    snapshotPeriodMillis, TimeUnit.MILLISECONDS);
+
+            List<Future<?>> futures = new ArrayList<>();
+            for (Runnable worker : workers) {
+                futures.add(executorService.submit(worker));
+            }
+            if (producer != null)
+                producer.run();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executorService.shutdownNow();
+            snapshotExecutorService.shutdownNow();
+            snapshotExecutorService.awaitTermination(1, TimeUnit.MINUTES);
+        }
+
+        HandHistorySnapshot snapshot = snapshot();
+        listener.accept(snapshot);
+        return snapshot;
+    }
+
+    private interface Producer {
+        void run() throws IOException, InterruptedException;
+    }
+
+    // A fixed set of reusable batches of parsed matchups, handed from the parsing thread to the evaluating threads and
+    // back. The last element of a batch holds the number of cards in it.
+    private static class MatchupBatches {
+        static final int[] END = new int[0];
+
+        private final BlockingQueue<int[]> free;
+        private final BlockingQueue<int[]> full;
+        private final int numberOfEvaluatingThreads;
+
+        MatchupBatches(int numberOfBatches, int numberOfEvaluatingThreads) {
+            this.free = new ArrayBlockingQueue<>(numberOfBatches);
+            this.full = new ArrayBlockingQueue<>(numberOfBatches + numberOfEvaluatingThreads);
+            this.numberOfEvaluatingThreads = numberOfEvaluatingThreads;
+            for (int i = 0; i < numberOfBatches; i++) {
+                free.add(new int[BATCH_SIZE * CARDS_PER_MATCHUP + 1]);
+            }
+        }
+
+        // parses the lines read from the channel into batches, until it reaches its end
+        void fill(ReadableByteChannel in) throws IOException, InterruptedException {
+            BatchingLineHandler batchingLineHandler = new BatchingLineHandler();
+            new LineReader(LINE_BUFFER_SIZE).read(in, batchingLineHandler);
+            if (batchingLineHandler.batch != null)
+                batchingLineHandler.flush();
+        }
+
+        int[] takeFull() throws InterruptedException {
+            return full.take();
+        }
+
+        void putFree(int[] batch) {
+            free.add(batch);
+        }
+
+        // signals the end of the batches to each of the evaluating threads
+        void end() {
+            for (int i = 0; i < numberOfEvaluatingThreads; i++) {
+                full.add(END);
+            }
+        }
+
+        private class BatchingLineHandler implements LineReader.LineHandler {
+            private int[] batch;
+            private int numberOfCards;
+
+            @Override
+            public void onLine(ByteBuffer buffer, int start, int end) throws IOException {
+                if (batch == null) {
+                    try {
+                        batch = free.take();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException();
+                    }
+                    numberOfCards = 0;
+                }
+                if (!PackedPokerHandAnalyzer.parseCards(buffer, start, end, batch, numberOfCards, CARDS_PER_MATCHUP))
+                    return;
+
+                numberOfCards += CARDS_PER_MATCHUP;
+                if (numberOfCards == BATCH_SIZE * CARDS_PER_MATCHUP)
+                    flush();
+            }
+
+            @Override
+            public void onLineTooLong() {
+                // like any other line that is not a valid pair of hands, it is skipped
+            }
+
+            // hands the current batch over to the evaluating threads
+            void flush() {
+                batch[batch.length - 1] = numberOfCards;
+                full.add(batch);
+                batch = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package pokerhandanalyzer.analytics;
+
+import pokerhandanalyzer.enums.PokerHandType;
+
+/**
+ * An immutable snapshot of the counters of a {@link HandHistoryAnalytics}, taken at some point while a hand history is
+ * being analyzed or after it has been analyzed. Counters are indexed by the ordinal of the poker hand type.
+ */
+public class HandHistorySnapshot {
+    private final long[] handTypeCounts;
+    private final long[] winCounts;
+    private final long[] tieCounts;
+    private final long leftCount;
+    private final long rightCount;
+    private final long neitherCount;
+
+    HandHistorySnapshot(long[] handTypeCounts, long[] winCounts, long[] tieCounts, long leftCount, long rightCount,
+                        long neitherCount) {
+        this.handTypeCounts = handTypeCounts;
+        this.winCounts = winCounts;
+        this.tieCounts = tieCounts;
+        this.leftCount = leftCount;
+        this.rightCount = rightCount;
+        this.neitherCount = neitherCount;
+    }
+
+    public long getMatchupCount() {
+        return leftCount + rightCount + neitherCount;
+    }
+
+    public long getHandCount() {
+        return 2 * getMatchupCount();
+    }
+
+    /**
+     * @return the number of hands of the given type, counting both hands of every matchup
+     */
+    public long getHandTypeCount(PokerHandType pokerHandType) {
+        return handTypeCounts[pokerHandType.ordinal()];
+    }
+
+    /**
+     * @return the number of matchups won by a hand of the given type
+     */
+    public long getWinCount(PokerHandType pokerHandType) {
+        return winCounts[pokerHandType.ordinal()];
+    }
+
+    /**
+     * @return the number of hands of the given type that tied the other hand of their matchup
+     */
+    public long getTieCount(PokerHandType pokerHandType) {
+        return tieCounts[pokerHandType.ordinal()];
+    }
+
+    /**
+     * @return the fraction of hands of the given type that won their matchup, or zero if there were none
+     */
+    public double getWinRate(PokerHandType pokerHandType) {
+        long handTypeCount = getHandTypeCount(pokerHandType);
+        return handTypeCount == 0 ? 0 : (double) getWinCount(pokerHandType) / handTypeCount;
+    }
+
+    /**
+     * @return the fraction of all hands that were of the given type, or zero if there were none
+     */
+    public double getHandTypeFrequency(PokerHandType pokerHandType) {
+        long handCount = getHandCount();
+        return handCount == 0 ? 0 : (double) getHandTypeCount(pokerHandType) / handCount;
+    }
+
+    public long getLeftCount() {
+        return leftCount;
+    }
+
+    public long getRightCount() {
+        return rightCount;
+    }
+
+    public long getNeitherCount() {
+        return neitherCount;
+    }
+
+    public double getLeftRatio() {
+        return ratio(leftCount);
+    }
+
+    public double getRightRatio() {
+        return ratio(rightCount);
+    }
+
+    public double getNeitherRatio() {
+        return ratio(neitherCount);
+    }
+
+    private double ratio(long count) {
+        long matchupCount = getMatchupCount();
+        return matchupCount == 0 ? 0 : (double) count / matchupCount;
+    }
+}
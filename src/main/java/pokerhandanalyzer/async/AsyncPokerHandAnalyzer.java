@@ -0,0 +1,288 @@
+package pokerhandanalyzer.async;
+
+import pokerhandanalyzer.PokerHandComparator;
+import pokerhandanalyzer.StringPokerHandAnalyzer;
+import pokerhandanalyzer.models.PokerHand;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * An asynchronous facade over the analyzers. Work is evaluated by a fixed number of worker threads, and at most a fixed
+ * number of submitted tasks may be waiting or running at once: once that bound is reached, submitting blocks until a
+ * task finishes, so a producer can never get further ahead of the workers than the bound allows. The evaluations of
+ * streams count against the same bound; a stream that finds it reached waits, without blocking, for a task to finish.
+ */
+public class AsyncPokerHandAnalyzer implements AutoCloseable {
+    private final ExecutorService executorService;
+    private final Semaphore submissionPermits;
+    private final int capacity;
+    // the streams waiting for a task to finish before they can evaluate further inputs
+    private final Queue<StreamSubscription<?, ?>> streamsWaitingForPermits = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param parallelism the number of worker threads
+     * @param capacity the maximum number of submitted tasks that may be waiting or running at once
+     */
+    public AsyncPokerHandAnalyzer(int parallelism, int capacity) {
+        if (parallelism < 1 || capacity < 1)
+            throw new IllegalArgumentException("the parallelism and capacity must be positive");
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executorService = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "async-poker-hand-analyzer-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.submissionPermits = new Semaphore(capacity);
+        this.capacity = capacity;
+    }
+
+    /**
+     * Asynchronously analyzes a string representation of two five-card poker hands, as
+     * {@link StringPokerHandAnalyzer#analyzeHands(String)} does. Blocks while the analyzer is at capacity.
+     * @param hands a string representation of two five-card poker hands, e.g., "AH TD 5C 9S JS 3D 7H 5S JC 5H"
+     * @return a future holding 'left', 'right', or 'neither' depending on which hand won
+     * @throws InterruptedException if interrupted while waiting for capacity
+     */
+    public CompletableFuture<String> analyzeHands(String hands) throws InterruptedException {
+        return submit(() -> StringPokerHandAnalyzer.analyzeHands(hands));
+    }
+
+    /**
+     * Asynchronously compares two poker hands with a {@link PokerHandComparator}. Blocks while the analyzer is at
+     * capacity.
+     * @param pokerHand1 first poker hand to be compared
+     * @param pokerHand2 second poker hand to be compared
+     * @return a future holding a positive value if pokerHand1 has a higher value, a negative value if pokerHand2 has a
+     * higher value, and zero otherwise
+     * @throws InterruptedException if interrupted while waiting for capacity
+     */
+    public CompletableFuture<Integer> compare(PokerHand pokerHand1, PokerHand pokerHand2) throws InterruptedException {
+        return submit(() -> new PokerHandComparator().compare(pokerHand1, pokerHand2));
+    }
+
+    /**
+     * Asynchronously runs any evaluation on the workers, such as an equity calculation. Blocks while the analyzer is
+     * at capacity.
+     * @param task the evaluation to run
+     * @param <T> the type of the result
+     * @return a future holding the result of the evaluation
+     * @throws InterruptedException if interrupted while waiting for capacity
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task) throws InterruptedException {
+        submissionPermits.acquire();
+        return execute(task);
+    }
+
+    // runs a task on the workers, holding a permit that is released once it has finished, before its future completes
+    private <T> CompletableFuture<T> execute(Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executorService.execute(() -> {
+                T result = null;
+                Throwable failure = null;
+                try {
+                    result = task.call();
+                } catch (Throwable throwable) {
+                    failure = throwable;
+                } finally {
+                    releasePermit();
+                }
+                if (failure == null) {
+                    future.complete(result);
+                } else {
+                    future.completeExceptionally(failure);
+                }
+            });
+        } catch (RuntimeException e) {
+            releasePermit();
+            throw e;
+        }
+        return future;
+    }
+
+    // releases a permit, and lets the streams waiting for one try again; a stream failing again waits again
+    private void releasePermit() {
+        submissionPermits.release();
+        for (int i = streamsWaitingForPermits.size(); i > 0; i--) {
+            StreamSubscription<?, ?> stream = streamsWaitingForPermits.poll();
+            if (stream == null)
+                break;
+            stream.waitingForPermit.set(false);
+            stream.drain();
+        }
+    }
+
+    /**
+     * Analyzes a stream of string representations of pairs of hands, delivering the results to the subscriber in the
+     * order of the inputs. Inputs are only taken from the iterator once the subscriber has requested their results, and
+     * at most as many inputs as the capacity of this analyzer are evaluated ahead of the subscriber.
+     * @param hands the inputs, taken from the iterator on the thread delivering the results
+     * @param subscriber the subscriber receiving 'left', 'right', or 'neither' for each input
+     */
+    public void analyzeHands(Iterator<String> hands, ResultSubscriber<String> subscriber) {
+        stream(hands, StringPokerHandAnalyzer::analyzeHands, subscriber);
+    }
+
+    /**
+     * Evaluates a stream of inputs with any evaluation, delivering the results to the subscriber in the order of the
+     * inputs, under the same demand rules as {@link #analyzeHands(Iterator, ResultSubscriber)}.
+     * @param inputs the inputs, taken from the iterator on the thread delivering the results
+     * @param evaluation the evaluation to run for each input
+     * @param subscriber the subscriber receiving the result for each input
+     * @param <I> the type of the inputs
+     * @param <T> the type of the results
+     */
+    public <I, T> void stream(Iterator<I> inputs, Function<I, T> evaluation, ResultSubscriber<T> subscriber) {
+        StreamSubscription<I, T> subscription = new StreamSubscription<>(inputs, evaluation, subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    @Override
+    public void close() {
+        executorService.shutdown();
+    }
+
+    // A subscription evaluating its inputs in a window bounded by both the outstanding demand and the capacity of the
+    // analyzer. All interaction with the iterator and the subscriber happens in drain(), which only ever runs on one
+    // thread at a time: whichever thread finds the work-in-progress counter at zero drains until no more work is left.
+    // Each evaluation takes a permit of the analyzer, and when none is left the subscription waits for one to be
+    // released.
+    private class StreamSubscription<I, T> implements ResultSubscription {
+        private final Iterator<I> inputs;
+        private final Function<I, T> evaluation;
+        private final ResultSubscriber<T> subscriber;
+        private final Queue<CompletableFuture<T>> inFlight = new ArrayDeque<>();
+        private final AtomicInteger workInProgress = new AtomicInteger();
+        private final AtomicBoolean waitingForPermit = new AtomicBoolean();
+        private volatile long demand;
+        private volatile Throwable requestError;
+        private volatile boolean cancelled;
+        private boolean done;
+
+        StreamSubscription(Iterator<I> inputs, Function<I, T> evaluation, ResultSubscriber<T> subscriber) {
+            this.inputs = inputs;
+            this.evaluation = evaluation;
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                // signalled from drain(), so it never races with onNext
+                requestError = new IllegalArgumentException("the number of requested results must be positive");
+                drain();
+                return;
+            }
+            synchronized (this) {
+                // the demand saturates at Long.MAX_VALUE, meaning unbounded
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+        private void drain() {
+            if (workInProgress.getAndIncrement() != 0)
+                return;
+
+            int missed = 1;
+            while (true) {
+                if (!done) {
+                    drainOnce();
+                }
+                missed = workInProgress.addAndGet(-missed);
+                if (missed == 0)
+                    break;
+            }
+        }
+
+        private void drainOnce() {
+            if (requestError != null) {
+                done = true;
+                inFlight.clear();
+                subscriber.onError(requestError);
+                return;
+            }
+            if (cancelled) {
+                done = true;
+                inFlight.clear();
+                return;
+            }
+
+            // deliver the results that are ready, in order
+            while (demand > 0 && !inFlight.isEmpty() && inFlight.peek().isDone()) {
+                T result;
+                try {
+                    result = inFlight.poll().get();
+                } catch (InterruptedException | ExecutionException e) {
+                    done = true;
+                    inFlight.clear();
+                    subscriber.onError(e instanceof ExecutionException ? e.getCause() : e);
+                    return;
+                }
+                synchronized (this) {
+                    if (demand != Long.MAX_VALUE)
+                        demand--;
+                }
+                subscriber.onNext(result);
+                if (cancelled) {
+                    done = true;
+                    inFlight.clear();
+                    return;
+                }
+            }
+
+            // evaluate as many further inputs as have been requested, up to the capacity of the analyzer
+            while (inFlight.size() < Math.min(demand, capacity) && inputs.hasNext()) {
+                if (!submissionPermits.tryAcquire()) {
+                    if (waitingForPermit.compareAndSet(false, true))
+                        streamsWaitingForPermits.add(this);
+                    // a permit released before this subscription was added would not have woken it
+                    if (submissionPermits.availablePermits() == 0)
+                        break;
+                    continue;
+                }
+                I input = inputs.next();
+                CompletableFuture<T> future;
+                try {
+                    future = execute(() -> evaluation.apply(input));
+                } catch (RejectedExecutionException e) {
+                    // the analyzer has been closed
+                    done = true;
+                    inFlight.clear();
+                    subscriber.onError(e);
+                    return;
+                }
+                inFlight.add(future);
+                future.whenComplete((result, throwable) -> drain());
+            }
+
+            if (inFlight.isEmpty() && !inputs.hasNext()) {
+                done = true;
+                subscriber.onComplete();
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package pokerhandanalyzer.async;
+
+/**
+ * Receives the results of a stream of analyses, mirroring java.util.concurrent.Flow.Subscriber for callers still on
+ * Java 8. No result is delivered until it has been requested through the subscription handed to onSubscribe.
+ * @param <T> the type of the results
+ */
+public interface ResultSubscriber<T> {
+    void onSubscribe(ResultSubscription subscription);
+
+    void onNext(T result);
+
+    void onError(Throwable throwable);
+
+    void onComplete();
+}
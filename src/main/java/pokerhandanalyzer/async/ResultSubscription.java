@@ -0,0 +1,19 @@
+package pokerhandanalyzer.async;
+
+/**
+ * Links a {@link ResultSubscriber} to a stream of analyses, mirroring java.util.concurrent.Flow.Subscription. Only as
+ * many inputs as the subscriber has requested results for are ever taken from the stream and evaluated, so a slow
+ * subscriber holds back a fast producer instead of letting it fill up memory.
+ */
+public interface ResultSubscription {
+    /**
+     * Requests n more results.
+     * @param n the number of results to add to the demand, which must be positive
+     */
+    void request(long n);
+
+    /**
+     * Stops the stream; results already being evaluated are discarded.
+     */
+    void cancel();
+}
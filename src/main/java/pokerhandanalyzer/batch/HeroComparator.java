@@ -0,0 +1,138 @@
+package pokerhandanalyzer.batch;
+
+import pokerhandanalyzer.PackedPokerHandAnalyzer;
+import pokerhandanalyzer.models.Card;
+import pokerhandanalyzer.models.PokerHand;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Compares one fixed hero hand against many opponent hands. The hero is evaluated once, when the comparator is
+ * created, and the opponents, packed as by {@link PackedPokerHandAnalyzer} five cards after another, are streamed
+ * through a loop that evaluates each and compares its strength with the hero's, as {@link
+ * pokerhandanalyzer.PokerHandComparator} would. Opponents holding a card the hero holds cannot be dealt against the
+ * hero, so they are skipped, and counted as blocked.
+ */
+public class HeroComparator {
+    public static final byte LOSS = -1;
+    public static final byte TIE = 0;
+    public static final byte WIN = 1;
+    /**
+     * The result of an opponent holding a card the hero holds.
+     */
+    public static final byte BLOCKED = 2;
+
+    private static final int CARDS_PER_HAND = 5;
+    // the number of opponents each task compares when comparing in parallel
+    private static final int PARALLEL_CHUNK_SIZE = 1 << 14;
+
+    private final long heroCardMask;
+    private final int heroStrength;
+
+    public HeroComparator(PokerHand hero) {
+        this(toPackedCards(hero.getCards()), 0);
+    }
+
+    /**
+     * @param heroCards the array holding the hero's packed cards
+     * @param offset the index of the first of the hero's five cards
+     */
+    public HeroComparator(int[] heroCards, int offset) {
+        long cardMask = 0;
+        for (int i = offset; i < offset + CARDS_PER_HAND; i++) {
+            cardMask |= 1L << heroCards[i];
+        }
+        this.heroCardMask = cardMask;
+        this.heroStrength = PackedPokerHandAnalyzer.evaluate(heroCards, offset);
+    }
+
+    public long getHeroCardMask() {
+        return heroCardMask;
+    }
+
+    public int getHeroStrength() {
+        return heroStrength;
+    }
+
+    /**
+     * Compares the hero against each opponent, recording a result per opponent.
+     * @param opponentCards the array holding the packed cards of the opponents, one after another
+     * @param offset the index of the first card of the first opponent
+     * @param numberOfOpponents the number of opponents
+     * @param results the array to store the result against each opponent in, {@link #WIN}, {@link #TIE}, {@link #LOSS}
+     *                or {@link #BLOCKED}, starting at index zero
+     */
+    public void compare(int[] opponentCards, int offset, int numberOfOpponents, byte[] results) {
+        for (int opponent = 0; opponent < numberOfOpponents; opponent++) {
+            results[opponent] = compare(opponentCards, offset + opponent * CARDS_PER_HAND);
+        }
+    }
+
+    /**
+     * Compares the hero against each opponent, counting the outcomes.
+     * @param opponentCards the array holding the packed cards of the opponents, one after another
+     * @param offset the index of the first card of the first opponent
+     * @param numberOfOpponents the number of opponents
+     * @return the counts of the outcomes
+     */
+    public HeroComparisonResult compare(int[] opponentCards, int offset, int numberOfOpponents) {
+        long winCount = 0, tieCount = 0, lossCount = 0, blockedCount = 0;
+        for (int i = offset; i < offset + numberOfOpponents * CARDS_PER_HAND; i += CARDS_PER_HAND) {
+            switch (compare(opponentCards, i)) {
+                case WIN: winCount++; break;
+                case TIE: tieCount++; break;
+                case LOSS: lossCount++; break;
+                default: blockedCount++;
+            }
+        }
+        return new HeroComparisonResult(winCount, tieCount, lossCount, blockedCount);
+    }
+
+    /**
+     * Compares the hero against each opponent as {@link #compare(int[], int, int)} does, splitting the opponents into
+     * chunks compared on every core of the common fork-join pool.
+     */
+    public HeroComparisonResult compareInParallel(int[] opponentCards, int offset, int numberOfOpponents) {
+        int numberOfChunks = (numberOfOpponents + PARALLEL_CHUNK_SIZE - 1) / PARALLEL_CHUNK_SIZE;
+        return IntStream.range(0, numberOfChunks).parallel()
+                .mapToObj(chunk -> compare(opponentCards, offset + chunk * PARALLEL_CHUNK_SIZE * CARDS_PER_HAND,
+                        Math.min(PARALLEL_CHUNK_SIZE, numberOfOpponents - chunk * PARALLEL_CHUNK_SIZE)))
+                .reduce(new HeroComparisonResult(0, 0, 0, 0), HeroComparisonResult::plus);
+    }
+
+    /**
+     * Compares the hero against each opponent, counting the outcomes.
+     * @param opponents the opponent hands
+     * @return the counts of the outcomes
+     */
+    public HeroComparisonResult compare(List<PokerHand> opponents) {
+        int[] opponentCards = new int[opponents.size() * CARDS_PER_HAND];
+        for (int i = 0; i < opponents.size(); i++) {
+            System.arraycopy(toPackedCards(opponents.get(i).getCards()), 0, opponentCards, i * CARDS_PER_HAND,
+                    CARDS_PER_HAND);
+        }
+        return opponents.size() < PARALLEL_CHUNK_SIZE ? compare(opponentCards, 0, opponents.size())
+                : compareInParallel(opponentCards, 0, opponents.size());
+    }
+
+    // the result against the opponent whose five cards start at the given index
+    private byte compare(int[] opponentCards, int i) {
+        int card0 = opponentCards[i], card1 = opponentCards[i + 1], card2 = opponentCards[i + 2],
+                card3 = opponentCards[i + 3], card4 = opponentCards[i + 4];
+        long opponentCardMask = 1L << card0 | 1L << card1 | 1L << card2 | 1L << card3 | 1L << card4;
+        if ((opponentCardMask & heroCardMask) != 0)
+            return BLOCKED;
+
+        int opponentStrength = PackedPokerHandAnalyzer.evaluate(card0, card1, card2, card3, card4);
+        return (byte) Integer.compare(heroStrength, opponentStrength);
+    }
+
+    private static int[] toPackedCards(List<Card> cards) {
+        int[] packedCards = new int[cards.size()];
+        for (int i = 0; i < cards.size(); i++) {
+            packedCards[i] = PackedPokerHandAnalyzer.getCard(cards.get(i).getRank(), cards.get(i).getSuit());
+        }
+        return packedCards;
+    }
+}
@@ -0,0 +1,58 @@
+package pokerhandanalyzer.batch;
+
+/**
+ * The outcome of comparing a hero hand against a set of opponent hands: how many opponents the hero beat, tied and lost
+ * to, and how many were skipped because they hold a card the hero holds.
+ */
+public class HeroComparisonResult {
+    private final long winCount;
+    private final long tieCount;
+    private final long lossCount;
+    private final long blockedCount;
+
+    HeroComparisonResult(long winCount, long tieCount, long lossCount, long blockedCount) {
+        this.winCount = winCount;
+        this.tieCount = tieCount;
+        this.lossCount = lossCount;
+        this.blockedCount = blockedCount;
+    }
+
+    public long getWinCount() {
+        return winCount;
+    }
+
+    public long getTieCount() {
+        return tieCount;
+    }
+
+    public long getLossCount() {
+        return lossCount;
+    }
+
+    /**
+     * @return the number of opponents skipped because they share a card with the hero
+     */
+    public long getBlockedCount() {
+        return blockedCount;
+    }
+
+    /**
+     * @return the number of opponents compared, not counting the blocked ones
+     */
+    public long getComparedCount() {
+        return winCount + tieCount + lossCount;
+    }
+
+    /**
+     * @return the hero's share of the compared opponents, counting a tie as half a win, or zero if none were compared
+     */
+    public double getEquity() {
+        long comparedCount = getComparedCount();
+        return comparedCount == 0 ? 0 : (winCount + tieCount / 2.0) / comparedCount;
+    }
+
+    HeroComparisonResult plus(HeroComparisonResult other) {
+        return new HeroComparisonResult(winCount + other.winCount, tieCount + other.tieCount,
+                lossCount + other.lossCount, blockedCount + other.blockedCount);
+    }
+}
@@ -0,0 +1,62 @@
+package pokerhandanalyzer.board;
+
+/**
+ * The rank of a hero's hole cards on a board among every pair of hole cards an opponent could hold, leaving out the
+ * pairs holding one of the hero's cards.
+ */
+public class BoardHandRank {
+    private final int strength;
+    private final int winCount;
+    private final int tieCount;
+    private final int lossCount;
+
+    BoardHandRank(int strength, int winCount, int tieCount, int lossCount) {
+        this.strength = strength;
+        this.winCount = winCount;
+        this.tieCount = tieCount;
+        this.lossCount = lossCount;
+    }
+
+    /**
+     * @return the strength of the hero's best hand, as evaluated by {@link pokerhandanalyzer.PackedPokerHandAnalyzer}
+     */
+    public int getStrength() {
+        return strength;
+    }
+
+    /**
+     * @return the number of opponent holdings the hero beats
+     */
+    public int getWinCount() {
+        return winCount;
+    }
+
+    public int getTieCount() {
+        return tieCount;
+    }
+
+    /**
+     * @return the number of opponent holdings that beat the hero
+     */
+    public int getLossCount() {
+        return lossCount;
+    }
+
+    public int getComboCount() {
+        return winCount + tieCount + lossCount;
+    }
+
+    /**
+     * @return the fraction of opponent holdings the hero beats, counting a tie as half
+     */
+    public double getPercentile() {
+        return (winCount + tieCount / 2.0) / getComboCount();
+    }
+
+    /**
+     * @return whether no opponent holding beats the hero
+     */
+    public boolean isNuts() {
+        return lossCount == 0;
+    }
+}
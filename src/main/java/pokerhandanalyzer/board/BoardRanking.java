@@ -0,0 +1,188 @@
+package pokerhandanalyzer.board;
+
+import pokerhandanalyzer.PackedPokerHandAnalyzer;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Ranks every pair of hole cards on a board of three to five cards. Each of the pairs of cards left in the deck, 1,081
+ * on a river, is scored in a single pass over precomputed pair masks, and the scores are sorted once, so the rank of
+ * any hero among all of them, how many holdings the hero beats, ties and loses to, is answered by binary search. The
+ * pairs holding one of the hero's cards, which no opponent can hold, are then taken back out one by one.
+ *
+ * Strengths are those of the best five-card hand of the hole cards and the board, with no cards still to come.
+ * Rankings are immutable, so they can be shared, and {@link #of(long)} caches the rankings of recently ranked boards.
+ */
+public class BoardRanking {
+    private static final int NUMBER_OF_CARDS = PackedPokerHandAnalyzer.NUMBER_OF_CARDS;
+    private static final int CACHE_CAPACITY = 1024;
+
+    private static final Map<Long, BoardRanking> CACHE = new LinkedHashMap<Long, BoardRanking>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, BoardRanking> eldest) {
+            return size() > CACHE_CAPACITY;
+        }
+    };
+
+    private final long boardCardMask;
+    private final int[] sortedStrengths;
+    // the strength of each pair of live hole cards, indexed by card * 52 + other card
+    private final int[] strengthsByCards = new int[NUMBER_OF_CARDS * NUMBER_OF_CARDS];
+    private final long[] sortedHoleCardMasks;
+
+    /**
+     * Ranks every pair of hole cards on a board.
+     * @param boardCardMask the card mask of the three to five cards of the board
+     */
+    public BoardRanking(long boardCardMask) {
+        int numberOfBoardCards = Long.bitCount(boardCardMask);
+        if (numberOfBoardCards < 3 || numberOfBoardCards > 5 || boardCardMask >>> NUMBER_OF_CARDS != 0)
+            throw new IllegalArgumentException("a board must hold three to five cards");
+
+        this.boardCardMask = boardCardMask;
+        int numberOfLiveCards = NUMBER_OF_CARDS - numberOfBoardCards;
+        int numberOfCombos = numberOfLiveCards * (numberOfLiveCards - 1) / 2;
+
+        long[] holeCardMasks = new long[numberOfCombos];
+        int combo = 0;
+        for (int card0 = 0; card0 < NUMBER_OF_CARDS; card0++) {
+            for (int card1 = card0 + 1; card1 < NUMBER_OF_CARDS; card1++) {
+                long holeCardMask = 1L << card0 | 1L << card1;
+                if ((holeCardMask & boardCardMask) == 0)
+                    holeCardMasks[combo++] = holeCardMask;
+            }
+        }
+
+        // scores every pair, and sorts them by score, keyed by the score in the high half and the pair in the low half
+        long[] combosByStrength = new long[numberOfCombos];
+        for (int i = 0; i < numberOfCombos; i++) {
+            combosByStrength[i] = (long) PackedPokerHandAnalyzer.evaluate(boardCardMask | holeCardMasks[i]) << 32 | i;
+        }
+        Arrays.sort(combosByStrength);
+
+        sortedStrengths = new int[numberOfCombos];
+        sortedHoleCardMasks = new long[numberOfCombos];
+        for (int i = 0; i < numberOfCombos; i++) {
+            int strength = (int) (combosByStrength[i] >>> 32);
+            long holeCardMask = holeCardMasks[(int) combosByStrength[i]];
+            int card0 = Long.numberOfTrailingZeros(holeCardMask);
+            int card1 = 63 - Long.numberOfLeadingZeros(holeCardMask);
+            sortedStrengths[i] = strength;
+            sortedHoleCardMasks[i] = holeCardMask;
+            strengthsByCards[card0 * NUMBER_OF_CARDS + card1] = strength;
+            strengthsByCards[card1 * NUMBER_OF_CARDS + card0] = strength;
+        }
+    }
+
+    /**
+     * Gets the ranking of a board from the cache of recently ranked boards, ranking it if it is not there.
+     * @param boardCardMask the card mask of the three to five cards of the board
+     * @return the ranking of the board
+     */
+    public static BoardRanking of(long boardCardMask) {
+        synchronized (CACHE) {
+            BoardRanking boardRanking = CACHE.get(boardCardMask);
+            if (boardRanking != null)
+                return boardRanking;
+        }
+
+        // ranks the board outside the lock, so other boards can be looked up meanwhile
+        BoardRanking boardRanking = new BoardRanking(boardCardMask);
+        synchronized (CACHE) {
+            BoardRanking cachedBoardRanking = CACHE.putIfAbsent(boardCardMask, boardRanking);
+            return cachedBoardRanking != null ? cachedBoardRanking : boardRanking;
+        }
+    }
+
+    public long getBoardCardMask() {
+        return boardCardMask;
+    }
+
+    /**
+     * @return the number of pairs of hole cards that can be dealt with the board
+     */
+    public int getComboCount() {
+        return sortedStrengths.length;
+    }
+
+    /**
+     * @param card0 a packed hole card
+     * @param card1 the other packed hole card
+     * @return the strength of the hole cards on the board
+     */
+    public int getStrength(int card0, int card1) {
+        checkHoleCards(card0, card1);
+        return strengthsByCards[card0 * NUMBER_OF_CARDS + card1];
+    }
+
+    /**
+     * @return the strength of the nuts, the best hand any pair of hole cards makes on the board
+     */
+    public int getNutStrength() {
+        return sortedStrengths[sortedStrengths.length - 1];
+    }
+
+    /**
+     * @param strength a strength
+     * @return the pairs of hole cards stronger than the given strength on the board, as card masks, weakest first
+     */
+    public long[] getHoleCardMasksStrongerThan(int strength) {
+        return Arrays.copyOfRange(sortedHoleCardMasks, lowerBound(strength + 1), sortedHoleCardMasks.length);
+    }
+
+    /**
+     * Ranks the hero's hole cards among every pair an opponent could hold: the pairs left once the board and the
+     * hero's cards are dealt.
+     * @param card0 a packed hole card of the hero
+     * @param card1 the other packed hole card of the hero
+     * @return the rank of the hero
+     */
+    public BoardHandRank rank(int card0, int card1) {
+        int heroStrength = getStrength(card0, card1);
+        int lowerStart = 0;
+        int equalStart = lowerBound(heroStrength);
+        int higherStart = lowerBound(heroStrength + 1);
+        int winCount = equalStart - lowerStart;
+        int tieCount = higherStart - equalStart;
+        int lossCount = sortedStrengths.length - higherStart;
+
+        // takes out the pairs holding one of the hero's cards, the hero's own pair among them
+        tieCount--;
+        long deadCardMask = boardCardMask | 1L << card0 | 1L << card1;
+        for (int card = 0; card < NUMBER_OF_CARDS; card++) {
+            if ((deadCardMask & 1L << card) != 0)
+                continue;
+
+            int strength0 = strengthsByCards[card0 * NUMBER_OF_CARDS + card];
+            int strength1 = strengthsByCards[card1 * NUMBER_OF_CARDS + card];
+            winCount -= (strength0 < heroStrength ? 1 : 0) + (strength1 < heroStrength ? 1 : 0);
+            tieCount -= (strength0 == heroStrength ? 1 : 0) + (strength1 == heroStrength ? 1 : 0);
+            lossCount -= (strength0 > heroStrength ? 1 : 0) + (strength1 > heroStrength ? 1 : 0);
+        }
+        return new BoardHandRank(heroStrength, winCount, tieCount, lossCount);
+    }
+
+    // the index of the first strength that is at least the given strength
+    private int lowerBound(int strength) {
+        int low = 0;
+        int high = sortedStrengths.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedStrengths[middle] < strength) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void checkHoleCards(int card0, int card1) {
+        long holeCardMask = 1L << card0 | 1L << card1;
+        if (card0 == card1 || card0 < 0 || card1 < 0 || card0 >= NUMBER_OF_CARDS || card1 >= NUMBER_OF_CARDS
+                || (holeCardMask & boardCardMask) != 0)
+            throw new IllegalArgumentException("the hole cards must be two different cards that are not on the board");
+    }
+}
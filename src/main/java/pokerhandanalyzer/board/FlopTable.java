@@ -0,0 +1,185 @@
+package pokerhandanalyzer.board;
+
+import pokerhandanalyzer.Combinations;
+import pokerhandanalyzer.PackedPokerHandAnalyzer;
+import pokerhandanalyzer.SuitIsomorphism;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * A memory-mapped table of the texture of every flop, and of the strength order of every pair of hole cards on it,
+ * precomputed offline by {@link #generate(Path, int)} so that they are looked up rather than derived on every request.
+ * Only the 1,755 suit-isomorphic flops are stored: a flop is mapped to its representative by
+ * {@link SuitIsomorphism}, and hole cards by the same suit permutation.
+ *
+ * The file starts with a 16 byte header: the magic number "PHFT", the format version, the number of flops stored and
+ * the number of pairs of hole cards per flop. It is followed by the index of the stored flop of each of the 22,100
+ * flops, by colexicographic index, as ints; the texture of each stored flop, as ints; and, for each stored flop, the
+ * strength rank of each of the 1,326 pairs of hole cards, by colexicographic index, as unsigned shorts. The strength
+ * rank of a pair of hole cards is the number of distinct strengths below its strength on the flop, so pairs of equal
+ * strength have equal ranks, and pairs sharing a card with the flop have the rank {@link #BLOCKED}.
+ *
+ * Run as a program to generate a table: java ... FlopTable flops.phft [parallelism]
+ */
+public class FlopTable implements Closeable {
+    public static final int NUMBER_OF_FLOPS = 22100;
+    public static final int NUMBER_OF_ISOMORPHIC_FLOPS = 1755;
+    public static final int NUMBER_OF_HOLE_CARD_PAIRS = 1326;
+    public static final int BLOCKED = 0xFFFF;
+
+    private static final int MAGIC = 0x50484654; // "PHFT"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int FLOP_INDEX_OFFSET = HEADER_SIZE;
+    private static final int TEXTURE_OFFSET = FLOP_INDEX_OFFSET + NUMBER_OF_FLOPS * Integer.BYTES;
+    private static final int STRENGTH_RANK_OFFSET = TEXTURE_OFFSET + NUMBER_OF_ISOMORPHIC_FLOPS * Integer.BYTES;
+    private static final int FILE_SIZE = STRENGTH_RANK_OFFSET
+            + NUMBER_OF_ISOMORPHIC_FLOPS * NUMBER_OF_HOLE_CARD_PAIRS * Short.BYTES;
+
+    private final FileChannel fileChannel;
+    private final MappedByteBuffer table;
+
+    /**
+     * Opens and maps a flop table.
+     * @param path the path of the file
+     * @throws IOException if the file cannot be read, or is not a valid flop table
+     */
+    public FlopTable(Path path) throws IOException {
+        fileChannel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            if (fileChannel.size() != FILE_SIZE)
+                throw new IOException(path + " is not a flop table, or is truncated");
+            table = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, FILE_SIZE);
+            if (table.getInt(0) != MAGIC || table.getInt(4) != VERSION)
+                throw new IOException(path + " is not a flop table of version " + VERSION);
+        } catch (IOException | RuntimeException e) {
+            fileChannel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @param flopCardMask the card mask of the three cards of the flop
+     * @return the texture of the flop, read with {@link FlopTexture}
+     */
+    public int getTexture(long flopCardMask) {
+        return table.getInt(TEXTURE_OFFSET + getIsomorphicFlop(flopCardMask) * Integer.BYTES);
+    }
+
+    /**
+     * @param flopCardMask the card mask of the three cards of the flop
+     * @param card0 a packed hole card
+     * @param card1 the other packed hole card
+     * @return the number of distinct strengths pairs of hole cards make on the flop below the strength of these, or
+     * {@link #BLOCKED} if they share a card with the flop
+     */
+    public int getStrengthRank(long flopCardMask, int card0, int card1) {
+        int permutation = SuitIsomorphism.getCanonicalPermutation(flopCardMask);
+        long holeCardMask = 1L << SuitIsomorphism.permuteCard(card0, permutation)
+                | 1L << SuitIsomorphism.permuteCard(card1, permutation);
+        int holeCardPair = (int) Combinations.getIndex(holeCardMask);
+        return table.getShort(STRENGTH_RANK_OFFSET
+                + (getIsomorphicFlop(flopCardMask) * NUMBER_OF_HOLE_CARD_PAIRS + holeCardPair) * Short.BYTES) & 0xFFFF;
+    }
+
+    private int getIsomorphicFlop(long flopCardMask) {
+        if (Long.bitCount(flopCardMask) != 3)
+            throw new IllegalArgumentException("a flop must hold three cards");
+
+        return table.getInt(FLOP_INDEX_OFFSET + (int) Combinations.getIndex(flopCardMask) * Integer.BYTES);
+    }
+
+    @Override
+    public void close() throws IOException {
+        fileChannel.close();
+    }
+
+    /**
+     * Generates a flop table, computing the stored flops in parallel.
+     * @param path the path of the file to create, replacing any existing one
+     * @param parallelism the number of threads to compute with
+     * @throws IOException if the file cannot be written
+     * @throws InterruptedException if interrupted while computing
+     */
+    public static void generate(Path path, int parallelism) throws IOException, InterruptedException {
+        // the stored flops are the canonical flops, in colexicographic order
+        long[] isomorphicFlops = new long[NUMBER_OF_ISOMORPHIC_FLOPS];
+        int numberOfIsomorphicFlops = 0;
+        for (long flop = Combinations.getCardMask(0, 3); flop < 1L << PackedPokerHandAnalyzer.NUMBER_OF_CARDS;
+             flop = Combinations.next(flop)) {
+            if (SuitIsomorphism.canonicalize(flop) == flop)
+                isomorphicFlops[numberOfIsomorphicFlops++] = flop;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(FILE_SIZE);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(NUMBER_OF_ISOMORPHIC_FLOPS).putInt(NUMBER_OF_HOLE_CARD_PAIRS);
+        for (long flop = Combinations.getCardMask(0, 3); flop < 1L << PackedPokerHandAnalyzer.NUMBER_OF_CARDS;
+             flop = Combinations.next(flop)) {
+            buffer.putInt(Arrays.binarySearch(isomorphicFlops, SuitIsomorphism.canonicalize(flop)));
+        }
+
+        ForkJoinPool forkJoinPool = new ForkJoinPool(parallelism);
+        try {
+            // each flop is written to its own part of the buffer, by absolute puts, so the threads never overlap
+            forkJoinPool.submit(() -> IntStream.range(0, NUMBER_OF_ISOMORPHIC_FLOPS).parallel().forEach(i -> {
+                buffer.putInt(TEXTURE_OFFSET + i * Integer.BYTES, FlopTexture.of(isomorphicFlops[i]));
+                int[] strengthRanks = getStrengthRanks(isomorphicFlops[i]);
+                for (int holeCardPair = 0; holeCardPair < NUMBER_OF_HOLE_CARD_PAIRS; holeCardPair++) {
+                    buffer.putShort(STRENGTH_RANK_OFFSET + (i * NUMBER_OF_HOLE_CARD_PAIRS + holeCardPair) * Short.BYTES,
+                            (short) strengthRanks[holeCardPair]);
+                }
+            })).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            forkJoinPool.shutdown();
+        }
+
+        buffer.clear();
+        try (FileChannel out = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+        }
+    }
+
+    // the strength rank of every pair of hole cards on a flop, by colexicographic index
+    private static int[] getStrengthRanks(long flopCardMask) {
+        int[] strengths = new int[NUMBER_OF_HOLE_CARD_PAIRS];
+        long holeCardMask = Combinations.getCardMask(0, 2);
+        for (int holeCardPair = 0; holeCardPair < NUMBER_OF_HOLE_CARD_PAIRS; holeCardPair++) {
+            strengths[holeCardPair] = (holeCardMask & flopCardMask) != 0 ? -1
+                    : PackedPokerHandAnalyzer.evaluate(flopCardMask | holeCardMask);
+            holeCardMask = Combinations.next(holeCardMask);
+        }
+
+        int[] distinctStrengths = Arrays.stream(strengths).filter(strength -> strength >= 0).distinct().sorted().toArray();
+        int[] strengthRanks = new int[NUMBER_OF_HOLE_CARD_PAIRS];
+        for (int holeCardPair = 0; holeCardPair < NUMBER_OF_HOLE_CARD_PAIRS; holeCardPair++) {
+            strengthRanks[holeCardPair] = strengths[holeCardPair] < 0 ? BLOCKED
+                    : Arrays.binarySearch(distinctStrengths, strengths[holeCardPair]);
+        }
+        return strengthRanks;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("usage: FlopTable <table file> [parallelism]");
+            System.exit(2);
+        }
+
+        int parallelism = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        generate(Paths.get(args[0]), parallelism);
+    }
+}
@@ -0,0 +1,133 @@
+package pokerhandanalyzer.board;
+
+import pokerhandanalyzer.enums.Rank;
+
+/**
+ * Computes the texture of a flop, packed into an int: whether it is paired, how its suits are spread, how connected
+ * its ranks are, and which draws it allows. Like strengths, textures are passed around as ints and read with the
+ * static methods here. Textures do not depend on which suit is which, so suit-isomorphic flops share one.
+ */
+public final class FlopTexture {
+    private static final int PAIRED = 1;
+    private static final int TRIPS = 1 << 1;
+    private static final int MONOTONE = 1 << 2;
+    private static final int TWO_TONE = 1 << 3;
+    private static final int RAINBOW = 1 << 4;
+    private static final int HIGH_RANK_SHIFT = 8;
+    private static final int STRAIGHT_COUNT_SHIFT = 12;
+    private static final int STRAIGHT_DRAW_COUNT_SHIFT = 16;
+    private static final Rank[] RANKS = Rank.values();
+    private static final int WHEEL_RANK_MASK = 0x100F;
+
+    private FlopTexture() {
+    }
+
+    /**
+     * @param flopCardMask the card mask of the three cards of the flop
+     * @return the texture of the flop
+     */
+    public static int of(long flopCardMask) {
+        if (Long.bitCount(flopCardMask) != 3)
+            throw new IllegalArgumentException("a flop must hold three cards");
+
+        int rankMask = 0;
+        int suitCounts = 0; // four bits per suit
+        for (long remainingCards = flopCardMask; remainingCards != 0; remainingCards &= remainingCards - 1) {
+            int card = Long.numberOfTrailingZeros(remainingCards);
+            rankMask |= 1 << (card >>> 2);
+            suitCounts += 1 << ((card & 3) << 2);
+        }
+        int numberOfSuits = 0;
+        int largestSuitCount = 0;
+        for (int suit = 0; suit < 4; suit++) {
+            int suitCount = suitCounts >>> (suit << 2) & 0xF;
+            numberOfSuits += suitCount > 0 ? 1 : 0;
+            largestSuitCount = Math.max(largestSuitCount, suitCount);
+        }
+
+        int texture = 0;
+        int numberOfRanks = Integer.bitCount(rankMask);
+        texture |= numberOfRanks < 3 ? PAIRED : 0;
+        texture |= numberOfRanks == 1 ? TRIPS : 0;
+        texture |= largestSuitCount == 3 ? MONOTONE : 0;
+        texture |= numberOfSuits == 2 ? TWO_TONE : 0;
+        texture |= numberOfSuits == 3 ? RAINBOW : 0;
+        texture |= (31 - Integer.numberOfLeadingZeros(rankMask)) << HIGH_RANK_SHIFT;
+        texture |= countStraights(rankMask, 2) << STRAIGHT_COUNT_SHIFT;
+        texture |= countStraights(rankMask, 1) << STRAIGHT_DRAW_COUNT_SHIFT;
+        return texture;
+    }
+
+    public static boolean isPaired(int texture) {
+        return (texture & PAIRED) != 0;
+    }
+
+    public static boolean isTrips(int texture) {
+        return (texture & TRIPS) != 0;
+    }
+
+    /**
+     * @return whether the three cards share a suit, so two hole cards of that suit make a flush
+     */
+    public static boolean isMonotone(int texture) {
+        return (texture & MONOTONE) != 0;
+    }
+
+    /**
+     * @return whether two of the cards share a suit, so a hole card of that suit makes a flush draw
+     */
+    public static boolean isTwoTone(int texture) {
+        return (texture & TWO_TONE) != 0;
+    }
+
+    public static boolean isRainbow(int texture) {
+        return (texture & RAINBOW) != 0;
+    }
+
+    public static Rank getHighRank(int texture) {
+        return RANKS[texture >>> HIGH_RANK_SHIFT & 0xF];
+    }
+
+    /**
+     * @return the number of pairs of hole card ranks that make a straight with the flop
+     */
+    public static int getStraightCount(int texture) {
+        return texture >>> STRAIGHT_COUNT_SHIFT & 0xF;
+    }
+
+    public static boolean isStraightPossible(int texture) {
+        return getStraightCount(texture) > 0;
+    }
+
+    /**
+     * @return the number of hole card ranks that leave the flop one rank short of a straight, a measure of how
+     * connected it is
+     */
+    public static int getStraightDrawCount(int texture) {
+        return texture >>> STRAIGHT_DRAW_COUNT_SHIFT & 0xF;
+    }
+
+    // the number of sets of the given number of ranks, not on the flop, that complete a straight with it, counting
+    // the wheel, A-2-3-4-5
+    private static int countStraights(int rankMask, int numberOfRanks) {
+        int count = 0;
+        for (int ranks = 1; ranks < 1 << 13; ranks++) {
+            if (Integer.bitCount(ranks) == numberOfRanks && (ranks & rankMask) == 0
+                    && (isStraight(ranks | rankMask, numberOfRanks == 2 ? 5 : 4)))
+                count++;
+        }
+        return count;
+    }
+
+    // whether some window of five consecutive ranks holds at least the given number of the ranks
+    private static boolean isStraight(int rankMask, int minimumRanksInWindow) {
+        if (Integer.bitCount(rankMask & WHEEL_RANK_MASK) >= minimumRanksInWindow)
+            return true;
+
+        for (int lowRank = 0; lowRank + 5 <= 13; lowRank++) {
+            if (Integer.bitCount(rankMask & 0x1F << lowRank) >= minimumRanksInWindow)
+                return true;
+        }
+        return false;
+    }
+}
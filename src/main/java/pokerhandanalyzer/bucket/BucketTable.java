@@ -0,0 +1,182 @@
+package pokerhandanalyzer.bucket;
+
+import pokerhandanalyzer.Combinations;
+import pokerhandanalyzer.PackedPokerHandAnalyzer;
+import pokerhandanalyzer.SuitIsomorphism;
+import pokerhandanalyzer.enums.Street;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A memory-mapped table of the strength bucket of every pair of hole cards on every board of a street, written by
+ * {@link BucketingPipeline}, for looking buckets up at runtime. Only the suit-isomorphic boards are stored, as in
+ * {@link pokerhandanalyzer.board.FlopTable}: a board is mapped to its representative by {@link SuitIsomorphism}, and
+ * hole cards by the same suit permutation.
+ *
+ * The file starts with a 16 byte header: the magic number "PHBT", the format version, the number of board cards and the
+ * number of buckets. It is followed by the index of the stored board of each board, by colexicographic index, as ints;
+ * and, for each stored board, the bucket of each of the 1,326 pairs of hole cards, by colexicographic index, as
+ * unsigned shorts. Pairs sharing a card with the board have the bucket {@link #BLOCKED}.
+ */
+public class BucketTable implements Closeable {
+    public static final int NUMBER_OF_HOLE_CARD_PAIRS = 1326;
+    public static final int BLOCKED = 0xFFFF;
+    public static final int MAXIMUM_NUMBER_OF_BUCKETS = BLOCKED;
+
+    private static final int MAGIC = 0x50484254; // "PHBT"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int BOARD_INDEX_OFFSET = HEADER_SIZE;
+
+    private final FileChannel fileChannel;
+    private final MappedByteBuffer table;
+    private final Street street;
+    private final int numberOfBuckets;
+    private final int bucketOffset;
+
+    /**
+     * Opens and maps a bucket table.
+     * @param path the path of the file
+     * @throws IOException if the file cannot be read, or is not a valid bucket table
+     */
+    public BucketTable(Path path) throws IOException {
+        fileChannel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            if (fileChannel.size() < HEADER_SIZE)
+                throw new IOException(path + " is not a bucket table");
+            table = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+            if (table.getInt(0) != MAGIC || table.getInt(4) != VERSION)
+                throw new IOException(path + " is not a bucket table of version " + VERSION);
+            street = getStreet(table.getInt(8));
+            numberOfBuckets = table.getInt(12);
+            bucketOffset = getBucketOffset(street);
+            int numberOfBoards = (int) Combinations.binomial(PackedPokerHandAnalyzer.NUMBER_OF_CARDS,
+                    street.getNumberOfBoardCards());
+            int numberOfStoredBoards = table.getInt(BOARD_INDEX_OFFSET + (numberOfBoards - 1) * Integer.BYTES) + 1;
+            if (fileChannel.size() != getFileSize(street, numberOfStoredBoards))
+                throw new IOException(path + " is truncated");
+        } catch (IOException | RuntimeException e) {
+            fileChannel.close();
+            throw e;
+        }
+    }
+
+    public Street getStreet() {
+        return street;
+    }
+
+    public int getNumberOfBuckets() {
+        return numberOfBuckets;
+    }
+
+    /**
+     * @param boardCardMask the card mask of the cards of the board
+     * @param card0 a packed hole card
+     * @param card1 the other packed hole card
+     * @return the bucket of the hole cards on the board, or {@link #BLOCKED} if they share a card with the board
+     */
+    public int getBucket(long boardCardMask, int card0, int card1) {
+        if (Long.bitCount(boardCardMask) != street.getNumberOfBoardCards())
+            throw new IllegalArgumentException("a " + street + " board must hold " + street.getNumberOfBoardCards()
+                    + " cards");
+
+        int permutation = SuitIsomorphism.getCanonicalPermutation(boardCardMask);
+        long holeCardMask = 1L << SuitIsomorphism.permuteCard(card0, permutation)
+                | 1L << SuitIsomorphism.permuteCard(card1, permutation);
+        int storedBoard = table.getInt(BOARD_INDEX_OFFSET + (int) Combinations.getIndex(boardCardMask) * Integer.BYTES);
+        return table.getShort(bucketOffset
+                + (storedBoard * NUMBER_OF_HOLE_CARD_PAIRS + (int) Combinations.getIndex(holeCardMask)) * Short.BYTES)
+                & 0xFFFF;
+    }
+
+    @Override
+    public void close() throws IOException {
+        fileChannel.close();
+    }
+
+    /**
+     * @param street a street
+     * @return the card masks of the suit-isomorphic boards of the street, the boards stored in a table, in
+     * colexicographic order
+     */
+    static long[] getStoredBoards(Street street) {
+        int numberOfBoardCards = street.getNumberOfBoardCards();
+        long[] storedBoards = new long[1024];
+        int numberOfStoredBoards = 0;
+        for (long board = Combinations.getCardMask(0, numberOfBoardCards);
+             board < 1L << PackedPokerHandAnalyzer.NUMBER_OF_CARDS; board = Combinations.next(board)) {
+            if (SuitIsomorphism.canonicalize(board) == board) {
+                if (numberOfStoredBoards == storedBoards.length)
+                    storedBoards = Arrays.copyOf(storedBoards, numberOfStoredBoards * 2);
+                storedBoards[numberOfStoredBoards++] = board;
+            }
+        }
+        return Arrays.copyOf(storedBoards, numberOfStoredBoards);
+    }
+
+    /**
+     * Writes a bucket table, to a temporary file first, renamed once complete.
+     * @param path the path of the file to create, replacing any existing one
+     * @param street the street of the boards
+     * @param numberOfBuckets the number of buckets
+     * @param storedBoards the boards stored, as given by {@link #getStoredBoards(Street)}
+     * @param bucketWriter fills in the buckets
+     * @throws IOException if the file cannot be written
+     * @throws InterruptedException if interrupted while filling in the buckets
+     */
+    static void write(Path path, Street street, int numberOfBuckets, long[] storedBoards, BucketWriter bucketWriter)
+            throws IOException, InterruptedException {
+        if (numberOfBuckets < 1 || numberOfBuckets > MAXIMUM_NUMBER_OF_BUCKETS)
+            throw new IllegalArgumentException("the number of buckets must be from 1 to " + MAXIMUM_NUMBER_OF_BUCKETS);
+
+        Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temporaryPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = out.map(FileChannel.MapMode.READ_WRITE, 0,
+                    getFileSize(street, storedBoards.length));
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(street.getNumberOfBoardCards()).putInt(numberOfBuckets);
+            for (long board = Combinations.getCardMask(0, street.getNumberOfBoardCards());
+                 board < 1L << PackedPokerHandAnalyzer.NUMBER_OF_CARDS; board = Combinations.next(board)) {
+                buffer.putInt(Arrays.binarySearch(storedBoards, SuitIsomorphism.canonicalize(board)));
+            }
+            buffer.position(getBucketOffset(street));
+            bucketWriter.write(buffer.slice().asShortBuffer());
+            buffer.force();
+        }
+        Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static int getBucketOffset(Street street) {
+        return BOARD_INDEX_OFFSET + (int) Combinations.binomial(PackedPokerHandAnalyzer.NUMBER_OF_CARDS,
+                street.getNumberOfBoardCards()) * Integer.BYTES;
+    }
+
+    private static long getFileSize(Street street, int numberOfStoredBoards) {
+        return getBucketOffset(street) + (long) numberOfStoredBoards * NUMBER_OF_HOLE_CARD_PAIRS * Short.BYTES;
+    }
+
+    private static Street getStreet(int numberOfBoardCards) throws IOException {
+        for (Street street : Street.values()) {
+            if (street.getNumberOfBoardCards() == numberOfBoardCards)
+                return street;
+        }
+        throw new IOException("no street has " + numberOfBoardCards + " board cards");
+    }
+
+    /**
+     * Fills in the buckets of a table, the bucket of hole card pair h on stored board b at index b * 1,326 + h, by
+     * absolute puts, which may be made from many threads at once.
+     */
+    interface BucketWriter {
+        void write(ShortBuffer buckets) throws IOException, InterruptedException;
+    }
+}
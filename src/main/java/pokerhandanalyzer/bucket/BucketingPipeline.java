@@ -0,0 +1,294 @@
+package pokerhandanalyzer.bucket;
+
+import pokerhandanalyzer.Combinations;
+import pokerhandanalyzer.SuitIsomorphism;
+import pokerhandanalyzer.enums.Street;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ShortBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Groups every pair of hole cards on every board of a street into strength buckets, for abstracting the game:
+ * <ol>
+ *     <li>the {@link HandStrengthFeatures} of every suit-isomorphic situation, a stored board of the street and a pair
+ *     of hole cards canonical on it, are computed in parallel, a chunk of boards at a time, and each chunk is saved to
+ *     the working directory as it finishes;</li>
+ *     <li>the situations, or an evenly spaced sample of them when there are too many, are clustered by {@link KMeans}
+ *     on their cumulative hand strength histogram and expected hand strength, the distance between cumulative
+ *     histograms standing in for the earth mover's distance between histograms;</li>
+ *     <li>every situation is put in the bucket of its nearest centroid, and the buckets written to a
+ *     {@link BucketTable}.</li>
+ * </ol>
+ * The pipeline is restartable: run again with the same parameters and working directory, it reuses the chunks already
+ * saved, and resumes clustering from the last centroids saved, unless the features they were clustered from have
+ * changed since. Features are sampled from a seed per situation, so the table is the same however the run was split.
+ *
+ * Run as a program to build a table:
+ * java ... BucketingPipeline street buckets runouts opponents seed workingDirectory table [parallelism]
+ */
+public class BucketingPipeline {
+    // the number of stored boards whose features are computed, and saved, together
+    private static final int BOARDS_PER_CHUNK = 16;
+    private static final int MAXIMUM_TRAINING_SITUATIONS = 1 << 18;
+    private static final int MAXIMUM_ITERATIONS = 100;
+    private static final int NUMBER_OF_HOLE_CARD_PAIRS = BucketTable.NUMBER_OF_HOLE_CARD_PAIRS;
+    private static final int NUMBER_OF_FEATURES = HandStrengthFeatures.NUMBER_OF_FEATURES;
+    // the cumulative histogram but its last bin, which is always one, and the expected hand strength
+    private static final int DIMENSIONS = HandStrengthFeatures.NUMBER_OF_HISTOGRAM_BINS;
+    // the odd constant the seeds of consecutive situations are spaced by, the golden ratio in 64 bits
+    private static final long SITUATION_SEED_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final HandStrengthFeatures handStrengthFeatures;
+    private final int numberOfBuckets;
+    private final long seed;
+    private final Path directory;
+    private final int parallelism;
+    private final long[] storedBoards;
+    // how the features are computed, recorded in each chunk
+    private final String description;
+
+    /**
+     * @param street the street of the boards
+     * @param numberOfBuckets the number of buckets
+     * @param numberOfRunouts the number of runouts sampled for each situation on the flop and turn
+     * @param numberOfOpponents the number of opponents sampled against each runout
+     * @param seed the seed of the samples and of the clustering
+     * @param directory the working directory, holding the saved chunks and centroids
+     * @param parallelism the number of threads to run with
+     */
+    public BucketingPipeline(Street street, int numberOfBuckets, int numberOfRunouts, int numberOfOpponents, long seed,
+                             Path directory, int parallelism) {
+        if (numberOfBuckets < 1 || numberOfBuckets > BucketTable.MAXIMUM_NUMBER_OF_BUCKETS)
+            throw new IllegalArgumentException("the number of buckets must be from 1 to "
+                    + BucketTable.MAXIMUM_NUMBER_OF_BUCKETS);
+
+        this.handStrengthFeatures = new HandStrengthFeatures(street, numberOfRunouts, numberOfOpponents);
+        this.numberOfBuckets = numberOfBuckets;
+        this.seed = seed;
+        this.directory = directory;
+        this.parallelism = parallelism;
+        this.storedBoards = BucketTable.getStoredBoards(street);
+        this.description = street + " " + numberOfRunouts + " " + numberOfOpponents + " " + seed;
+    }
+
+    public int getNumberOfChunks() {
+        return (storedBoards.length + BOARDS_PER_CHUNK - 1) / BOARDS_PER_CHUNK;
+    }
+
+    /**
+     * Runs every step of the pipeline, skipping the work saved by earlier runs.
+     * @param tablePath the path of the bucket table to write
+     * @throws IOException if the working directory or the table cannot be read or written
+     * @throws InterruptedException if interrupted while running
+     */
+    public void run(Path tablePath) throws IOException, InterruptedException {
+        computeFeatures();
+        writeTable(tablePath, cluster());
+    }
+
+    /**
+     * Computes and saves the features of the chunks not saved yet.
+     * @return the number of chunks computed
+     * @throws IOException if the working directory cannot be read or written
+     * @throws InterruptedException if interrupted while computing
+     */
+    public int computeFeatures() throws IOException, InterruptedException {
+        Files.createDirectories(directory);
+        return runInPool(() -> IntStream.range(0, getNumberOfChunks()).parallel().map(chunk -> {
+            try {
+                Path path = FeatureChunkFile.getPath(directory, chunk);
+                if (FeatureChunkFile.read(path, description, getFirstBoard(chunk), getEndBoard(chunk)) != null)
+                    return 0;
+                computeChunk(chunk).write(path, description, getFirstBoard(chunk), getEndBoard(chunk));
+                return 1;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }).sum());
+    }
+
+    /**
+     * Clusters the saved features of every chunk, resuming from the saved centroids if there are any.
+     * @return the coordinates of the centroid of each bucket, one centroid after another
+     * @throws IOException if a chunk is missing, or the centroids cannot be read or written
+     * @throws InterruptedException if interrupted while clustering
+     */
+    public float[] cluster() throws IOException, InterruptedException {
+        int numberOfSituations = 0;
+        for (int chunk = 0; chunk < getNumberOfChunks(); chunk++) {
+            numberOfSituations += readChunk(chunk).holeCardPairs.length;
+        }
+
+        // every stride-th situation is a training point
+        int stride = (numberOfSituations + MAXIMUM_TRAINING_SITUATIONS - 1) / MAXIMUM_TRAINING_SITUATIONS;
+        int numberOfPoints = (numberOfSituations + stride - 1) / stride;
+        float[] points = new float[numberOfPoints * DIMENSIONS];
+        int situation = 0;
+        for (int chunk = 0; chunk < getNumberOfChunks(); chunk++) {
+            FeatureChunkFile featureChunkFile = readChunk(chunk);
+            for (int i = 0; i < featureChunkFile.holeCardPairs.length; i++, situation++) {
+                if (situation % stride == 0)
+                    getPoint(featureChunkFile.features, i * NUMBER_OF_FEATURES, points, situation / stride * DIMENSIONS);
+            }
+        }
+
+        KMeans kMeans = new KMeans(numberOfBuckets, DIMENSIONS, seed);
+        return runInPool(() -> {
+            try {
+                return kMeans.fit(points, numberOfPoints, MAXIMUM_ITERATIONS, directory.resolve("centroids.checkpoint"));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Puts every situation in the bucket of its nearest centroid, and writes the buckets of every pair of hole cards
+     * on every board to a table.
+     * @param tablePath the path of the bucket table to write
+     * @param centroids the centroids of the buckets
+     * @throws IOException if a chunk is missing, or the table cannot be written
+     * @throws InterruptedException if interrupted while writing
+     */
+    public void writeTable(Path tablePath, float[] centroids) throws IOException, InterruptedException {
+        BucketTable.write(tablePath, handStrengthFeatures.getStreet(), numberOfBuckets, storedBoards,
+                buckets -> runInPool(() -> {
+                    IntStream.range(0, getNumberOfChunks()).parallel().forEach(chunk -> {
+                        try {
+                            writeChunk(chunk, centroids, buckets);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                    return null;
+                }));
+    }
+
+    private FeatureChunkFile computeChunk(int chunk) {
+        int firstBoard = getFirstBoard(chunk);
+        int endBoard = getEndBoard(chunk);
+        short[] situationsPerBoard = new short[endBoard - firstBoard];
+        short[] holeCardPairs = new short[situationsPerBoard.length * NUMBER_OF_HOLE_CARD_PAIRS];
+        int numberOfSituations = 0;
+        for (int board = firstBoard; board < endBoard; board++) {
+            int[] canonicalHoleCardPairs = getCanonicalHoleCardPairs(storedBoards[board]);
+            for (int holeCardPair = 0; holeCardPair < NUMBER_OF_HOLE_CARD_PAIRS; holeCardPair++) {
+                if (canonicalHoleCardPairs[holeCardPair] == holeCardPair) {
+                    holeCardPairs[numberOfSituations++] = (short) holeCardPair;
+                    situationsPerBoard[board - firstBoard]++;
+                }
+            }
+        }
+        holeCardPairs = Arrays.copyOf(holeCardPairs, numberOfSituations);
+
+        float[] features = new float[numberOfSituations * NUMBER_OF_FEATURES];
+        int situation = 0;
+        for (int board = firstBoard; board < endBoard; board++) {
+            for (int i = 0; i < situationsPerBoard[board - firstBoard]; i++, situation++) {
+                long holeCardMask = Combinations.getCardMask(holeCardPairs[situation], 2);
+                handStrengthFeatures.compute(storedBoards[board], Long.numberOfTrailingZeros(holeCardMask),
+                        63 - Long.numberOfLeadingZeros(holeCardMask),
+                        seed + ((long) board * NUMBER_OF_HOLE_CARD_PAIRS + holeCardPairs[situation]) * SITUATION_SEED_GAMMA,
+                        features, situation * NUMBER_OF_FEATURES);
+            }
+        }
+        return new FeatureChunkFile(holeCardPairs, situationsPerBoard, features);
+    }
+
+    private void writeChunk(int chunk, float[] centroids, ShortBuffer buckets) throws IOException {
+        FeatureChunkFile featureChunkFile = readChunk(chunk);
+        float[] point = new float[DIMENSIONS];
+        short[] canonicalBuckets = new short[NUMBER_OF_HOLE_CARD_PAIRS];
+        int situation = 0;
+        for (int board = getFirstBoard(chunk); board < getEndBoard(chunk); board++) {
+            for (int i = 0; i < featureChunkFile.situationsPerBoard[board - getFirstBoard(chunk)]; i++, situation++) {
+                getPoint(featureChunkFile.features, situation * NUMBER_OF_FEATURES, point, 0);
+                canonicalBuckets[featureChunkFile.holeCardPairs[situation]] =
+                        (short) KMeans.getNearestCentroid(centroids, numberOfBuckets, DIMENSIONS, point, 0);
+            }
+
+            int[] canonicalHoleCardPairs = getCanonicalHoleCardPairs(storedBoards[board]);
+            for (int holeCardPair = 0; holeCardPair < NUMBER_OF_HOLE_CARD_PAIRS; holeCardPair++) {
+                int canonicalHoleCardPair = canonicalHoleCardPairs[holeCardPair];
+                buckets.put(board * NUMBER_OF_HOLE_CARD_PAIRS + holeCardPair, (short) (canonicalHoleCardPair < 0
+                        ? BucketTable.BLOCKED : canonicalBuckets[canonicalHoleCardPair]));
+            }
+        }
+    }
+
+    // the colexicographic index of the canonical pair of hole cards of each pair on a board, or -1 if it is blocked
+    private static int[] getCanonicalHoleCardPairs(long boardCardMask) {
+        int[] canonicalHoleCardPairs = new int[NUMBER_OF_HOLE_CARD_PAIRS];
+        long holeCardMask = Combinations.getCardMask(0, 2);
+        for (int holeCardPair = 0; holeCardPair < NUMBER_OF_HOLE_CARD_PAIRS; holeCardPair++) {
+            canonicalHoleCardPairs[holeCardPair] = (holeCardMask & boardCardMask) != 0 ? -1
+                    : (int) Combinations.getIndex(SuitIsomorphism.permute(holeCardMask,
+                    SuitIsomorphism.getCanonicalPermutation(boardCardMask, holeCardMask)));
+            holeCardMask = Combinations.next(holeCardMask);
+        }
+        return canonicalHoleCardPairs;
+    }
+
+    private static void getPoint(float[] features, int offset, float[] points, int pointOffset) {
+        float cumulativeShare = 0;
+        for (int bin = 0; bin < DIMENSIONS - 1; bin++) {
+            cumulativeShare += features[offset + HandStrengthFeatures.HISTOGRAM + bin];
+            points[pointOffset + bin] = cumulativeShare;
+        }
+        points[pointOffset + DIMENSIONS - 1] = features[offset + HandStrengthFeatures.EXPECTED_HAND_STRENGTH];
+    }
+
+    private FeatureChunkFile readChunk(int chunk) throws IOException {
+        FeatureChunkFile featureChunkFile = FeatureChunkFile.read(FeatureChunkFile.getPath(directory, chunk),
+                description, getFirstBoard(chunk), getEndBoard(chunk));
+        if (featureChunkFile == null)
+            throw new IOException("the features of chunk " + chunk + " have not been computed");
+        return featureChunkFile;
+    }
+
+    private int getFirstBoard(int chunk) {
+        return chunk * BOARDS_PER_CHUNK;
+    }
+
+    private int getEndBoard(int chunk) {
+        return Math.min(storedBoards.length, (chunk + 1) * BOARDS_PER_CHUNK);
+    }
+
+    private <T> T runInPool(PoolTask<T> task) throws IOException, InterruptedException {
+        ForkJoinPool forkJoinPool = new ForkJoinPool(parallelism);
+        try {
+            return forkJoinPool.submit(task::run).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException)
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            forkJoinPool.shutdown();
+        }
+    }
+
+    private interface PoolTask<T> {
+        T run();
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 7) {
+            System.err.println("usage: BucketingPipeline <street> <buckets> <runouts> <opponents> <seed> "
+                    + "<working directory> <table file> [parallelism]");
+            System.exit(2);
+        }
+
+        int parallelism = args.length > 7 ? Integer.parseInt(args[7]) : Runtime.getRuntime().availableProcessors();
+        new BucketingPipeline(Street.valueOf(args[0].toUpperCase()), Integer.parseInt(args[1]),
+                Integer.parseInt(args[2]), Integer.parseInt(args[3]), Long.parseLong(args[4]), Paths.get(args[5]),
+                parallelism).run(Paths.get(args[6]));
+    }
+}
@@ -0,0 +1,86 @@
+package pokerhandanalyzer.bucket;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * The file holding the features of a finished chunk of stored boards: for each board of the chunk in turn, the
+ * colexicographic index of each pair of hole cards that is canonical on it, and its features. It also records how
+ * the features were computed and the range of the chunk, so features left over from another run are never used by
+ * mistake. It is written to a temporary file first and then renamed, so a run failing halfway never leaves a partial
+ * chunk behind.
+ */
+final class FeatureChunkFile {
+    private static final int MAGIC = 0x50484246; // "PHBF"
+
+    final short[] holeCardPairs;
+    final short[] situationsPerBoard;
+    final float[] features;
+
+    FeatureChunkFile(short[] holeCardPairs, short[] situationsPerBoard, float[] features) {
+        this.holeCardPairs = holeCardPairs;
+        this.situationsPerBoard = situationsPerBoard;
+        this.features = features;
+    }
+
+    static Path getPath(Path directory, int chunk) {
+        return directory.resolve(String.format("chunk-%05d.features", chunk));
+    }
+
+    void write(Path path, String description, int firstBoard, int endBoard) throws IOException {
+        Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryPath)))) {
+            out.writeInt(MAGIC);
+            out.writeUTF(description);
+            out.writeInt(firstBoard);
+            out.writeInt(endBoard);
+            out.writeInt(holeCardPairs.length);
+            for (short situations : situationsPerBoard) {
+                out.writeShort(situations);
+            }
+            for (short holeCardPair : holeCardPairs) {
+                out.writeShort(holeCardPair);
+            }
+            for (float feature : features) {
+                out.writeFloat(feature);
+            }
+        }
+        Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return the features of the chunk, or null if there is no complete chunk computed that way for that range
+     */
+    static FeatureChunkFile read(Path path, String description, int firstBoard, int endBoard) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || !in.readUTF().equals(description) || in.readInt() != firstBoard
+                    || in.readInt() != endBoard)
+                return null;
+
+            int numberOfSituations = in.readInt();
+            short[] situationsPerBoard = new short[endBoard - firstBoard];
+            for (int i = 0; i < situationsPerBoard.length; i++) {
+                situationsPerBoard[i] = in.readShort();
+            }
+            short[] holeCardPairs = new short[numberOfSituations];
+            for (int i = 0; i < numberOfSituations; i++) {
+                holeCardPairs[i] = in.readShort();
+            }
+            float[] features = new float[numberOfSituations * HandStrengthFeatures.NUMBER_OF_FEATURES];
+            for (int i = 0; i < features.length; i++) {
+                features[i] = in.readFloat();
+            }
+            return new FeatureChunkFile(holeCardPairs, situationsPerBoard, features);
+        } catch (NoSuchFileException | EOFException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package pokerhandanalyzer.bucket;
+
+import pokerhandanalyzer.PackedPokerHandAnalyzer;
+import pokerhandanalyzer.board.BoardHandRank;
+import pokerhandanalyzer.board.BoardRanking;
+import pokerhandanalyzer.enums.Street;
+
+import java.util.SplittableRandom;
+
+/**
+ * Computes the strength features of a pair of hole cards on a board, against a single opponent holding a random pair:
+ * <ul>
+ *     <li>the hand strength, the chance of being ahead now, ties counting half, exactly, by {@link BoardRanking};</li>
+ *     <li>the expected hand strength, the mean of the hand strength on the river over the runouts of the board;</li>
+ *     <li>the positive and negative potential, the chances of an opponent ahead falling behind and of an opponent
+ *     behind getting ahead by the river, ties counting half;</li>
+ *     <li>the histogram of the hand strength on the river over the runouts, in {@link #NUMBER_OF_HISTOGRAM_BINS} bins
+ *     of equal width.</li>
+ * </ul>
+ * On the flop and turn, the runouts and the opponents facing each are sampled at random, from a seed, so features are
+ * the same however they are scheduled. On the river there is nothing to come, so the hand strength is all there is.
+ */
+public class HandStrengthFeatures {
+    public static final int NUMBER_OF_HISTOGRAM_BINS = 10;
+
+    // the index of each feature in the features of a situation
+    public static final int HAND_STRENGTH = 0;
+    public static final int EXPECTED_HAND_STRENGTH = 1;
+    public static final int POSITIVE_POTENTIAL = 2;
+    public static final int NEGATIVE_POTENTIAL = 3;
+    public static final int HISTOGRAM = 4;
+    public static final int NUMBER_OF_FEATURES = HISTOGRAM + NUMBER_OF_HISTOGRAM_BINS;
+
+    private static final int NUMBER_OF_CARDS = PackedPokerHandAnalyzer.NUMBER_OF_CARDS;
+    private static final int BEHIND = 0, TIED = 1, AHEAD = 2;
+
+    private final Street street;
+    private final int numberOfRunouts;
+    private final int numberOfOpponents;
+
+    /**
+     * @param street the street of the boards
+     * @param numberOfRunouts the number of runouts sampled on the flop and turn
+     * @param numberOfOpponents the number of opponents sampled against each runout
+     */
+    public HandStrengthFeatures(Street street, int numberOfRunouts, int numberOfOpponents) {
+        if (numberOfRunouts < 1 || numberOfOpponents < 1)
+            throw new IllegalArgumentException("at least one runout and one opponent must be sampled");
+
+        this.street = street;
+        this.numberOfRunouts = numberOfRunouts;
+        this.numberOfOpponents = numberOfOpponents;
+    }
+
+    public Street getStreet() {
+        return street;
+    }
+
+    public int getNumberOfRunouts() {
+        return numberOfRunouts;
+    }
+
+    public int getNumberOfOpponents() {
+        return numberOfOpponents;
+    }
+
+    /**
+     * Computes the features of a pair of hole cards on a board.
+     * @param boardCardMask the card mask of the board
+     * @param card0 a packed hole card
+     * @param card1 the other packed hole card
+     * @param seed the seed of the runouts and opponents sampled
+     * @param features the array to store the {@link #NUMBER_OF_FEATURES} features in
+     * @param offset the index to store the first feature at
+     */
+    public void compute(long boardCardMask, int card0, int card1, long seed, float[] features, int offset) {
+        if (Long.bitCount(boardCardMask) != street.getNumberOfBoardCards())
+            throw new IllegalArgumentException("a " + street + " board must hold " + street.getNumberOfBoardCards()
+                    + " cards");
+
+        BoardHandRank boardHandRank = BoardRanking.of(boardCardMask).rank(card0, card1);
+        float handStrength = (float) ((boardHandRank.getWinCount() + boardHandRank.getTieCount() / 2.0)
+                / (boardHandRank.getWinCount() + boardHandRank.getTieCount() + boardHandRank.getLossCount()));
+        for (int i = offset; i < offset + NUMBER_OF_FEATURES; i++) {
+            features[i] = 0;
+        }
+        features[offset + HAND_STRENGTH] = handStrength;
+        if (street == Street.RIVER) {
+            features[offset + EXPECTED_HAND_STRENGTH] = handStrength;
+            features[offset + HISTOGRAM + getBin(handStrength)] = 1;
+            return;
+        }
+
+        long holeCardMask = 1L << card0 | 1L << card1;
+        int[] deck = new int[NUMBER_OF_CARDS - Long.bitCount(boardCardMask | holeCardMask)];
+        int deckSize = 0;
+        for (int card = 0; card < NUMBER_OF_CARDS; card++) {
+            if (((boardCardMask | holeCardMask) & 1L << card) == 0)
+                deck[deckSize++] = card;
+        }
+
+        // the number of opponents by whether the hero is behind, tied or ahead now, and on the river
+        long[] transitions = new long[9];
+        SplittableRandom random = new SplittableRandom(seed);
+        int heroStrength = PackedPokerHandAnalyzer.evaluate(boardCardMask | holeCardMask);
+        int numberOfCardsToCome = 5 - street.getNumberOfBoardCards();
+        double expectedHandStrength = 0;
+        for (int runout = 0; runout < numberOfRunouts; runout++) {
+            // partial Fisher-Yates shuffles: the cards to come first, then each opponent's cards after them
+            long riverCardMask = boardCardMask;
+            for (int i = 0; i < numberOfCardsToCome; i++) {
+                riverCardMask |= 1L << draw(deck, i, random);
+            }
+            int heroRiverStrength = PackedPokerHandAnalyzer.evaluate(riverCardMask | holeCardMask);
+            int riverScore = 0;
+            for (int opponent = 0; opponent < numberOfOpponents; opponent++) {
+                long opponentCardMask = 1L << draw(deck, numberOfCardsToCome, random)
+                        | 1L << draw(deck, numberOfCardsToCome + 1, random);
+                int now = compare(heroStrength, PackedPokerHandAnalyzer.evaluate(boardCardMask | opponentCardMask));
+                int river = compare(heroRiverStrength,
+                        PackedPokerHandAnalyzer.evaluate(riverCardMask | opponentCardMask));
+                transitions[now * 3 + river]++;
+                riverScore += river;
+            }
+            float riverHandStrength = riverScore / (2f * numberOfOpponents);
+            expectedHandStrength += riverHandStrength;
+            features[offset + HISTOGRAM + getBin(riverHandStrength)]++;
+        }
+
+        features[offset + EXPECTED_HAND_STRENGTH] = (float) (expectedHandStrength / numberOfRunouts);
+        features[offset + POSITIVE_POTENTIAL] = getPotential(transitions, BEHIND, AHEAD);
+        features[offset + NEGATIVE_POTENTIAL] = getPotential(transitions, AHEAD, BEHIND);
+        for (int bin = 0; bin < NUMBER_OF_HISTOGRAM_BINS; bin++) {
+            features[offset + HISTOGRAM + bin] /= numberOfRunouts;
+        }
+    }
+
+    // swaps a random card from the i-th on into the i-th place, and returns it
+    private static int draw(int[] deck, int i, SplittableRandom random) {
+        int j = i + random.nextInt(deck.length - i);
+        int card = deck[j];
+        deck[j] = deck[i];
+        deck[i] = card;
+        return card;
+    }
+
+    private static int compare(int heroStrength, int opponentStrength) {
+        return Integer.signum(Integer.compare(heroStrength, opponentStrength)) + 1;
+    }
+
+    // the chance of moving from one state to the other by the river, moves from or to a tie counting half, among the
+    // opponents starting in the one state or tied, ties counting half
+    private static float getPotential(long[] transitions, int from, int to) {
+        long fromCount = transitions[from * 3] + transitions[from * 3 + 1] + transitions[from * 3 + 2];
+        long tiedCount = transitions[TIED * 3] + transitions[TIED * 3 + 1] + transitions[TIED * 3 + 2];
+        double total = fromCount + tiedCount / 2.0;
+        return total == 0 ? 0 : (float) ((transitions[from * 3 + to] + transitions[from * 3 + TIED] / 2.0
+                + transitions[TIED * 3 + to] / 2.0) / total);
+    }
+
+    private static int getBin(float handStrength) {
+        return Math.min(NUMBER_OF_HISTOGRAM_BINS - 1, (int) (handStrength * NUMBER_OF_HISTOGRAM_BINS));
+    }
+}
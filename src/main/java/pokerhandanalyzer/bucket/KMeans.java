@@ -0,0 +1,225 @@
+package pokerhandanalyzer.bucket;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Clusters points by k-means: the centroids are seeded by k-means++ from a seed, then refined by Lloyd's iterations
+ * until no point changes cluster, or the number of iterations runs out. Points are assigned to centroids in parallel,
+ * on the fork-join pool the clustering runs in, and centroids are summed in a fixed order, so the clustering is the same
+ * whatever the number of threads.
+ *
+ * When given a checkpoint file, the centroids are saved to it after every iteration, with a hash of the points, and a
+ * clustering of the same points is resumed from them; a checkpoint saved while clustering other points, even as many,
+ * is ignored.
+ */
+public class KMeans {
+    private static final int MAGIC = 0x50484B4D; // "PHKM"
+
+    private final int numberOfClusters;
+    private final int dimensions;
+    private final long seed;
+    private int numberOfIterations;
+
+    /**
+     * @param numberOfClusters the number of clusters
+     * @param dimensions the number of coordinates of each point
+     * @param seed the seed of the centroids
+     */
+    public KMeans(int numberOfClusters, int dimensions, long seed) {
+        if (numberOfClusters < 1 || dimensions < 1)
+            throw new IllegalArgumentException("there must be a cluster, and a dimension");
+
+        this.numberOfClusters = numberOfClusters;
+        this.dimensions = dimensions;
+        this.seed = seed;
+    }
+
+    /**
+     * @return the number of iterations the last clustering ran, counting those before it was resumed
+     */
+    public int getNumberOfIterations() {
+        return numberOfIterations;
+    }
+
+    /**
+     * Clusters points.
+     * @param points the coordinates of the points, one point after another
+     * @param numberOfPoints the number of points, at least the number of clusters
+     * @param maximumIterations the most iterations to run
+     * @param checkpointPath the file to save the centroids to after each iteration, or null
+     * @return the coordinates of the centroids, one centroid after another
+     * @throws IOException if the checkpoint cannot be read or written
+     */
+    public float[] fit(float[] points, int numberOfPoints, int maximumIterations, Path checkpointPath)
+            throws IOException {
+        if (numberOfPoints < numberOfClusters)
+            throw new IllegalArgumentException("cannot make " + numberOfClusters + " clusters of " + numberOfPoints
+                    + " points");
+
+        float[] centroids = new float[numberOfClusters * dimensions];
+        boolean converged = false;
+        numberOfIterations = 0;
+        long pointsHash = checkpointPath == null ? 0 : getHash(points, numberOfPoints * dimensions);
+        if (checkpointPath != null && readCheckpoint(checkpointPath, numberOfPoints, pointsHash, centroids)) {
+            converged = numberOfIterations < 0;
+            numberOfIterations = Math.abs(numberOfIterations);
+        } else {
+            seedCentroids(points, numberOfPoints, centroids);
+        }
+
+        int[] clusters = new int[numberOfPoints];
+        Arrays.fill(clusters, -1);
+        while (!converged && numberOfIterations < maximumIterations) {
+            int[] previousClusters = clusters.clone();
+            IntStream.range(0, numberOfPoints).parallel().forEach(point ->
+                    clusters[point] = getNearestCentroid(centroids, numberOfClusters, dimensions, points, point * dimensions));
+            converged = Arrays.equals(clusters, previousClusters);
+            if (!converged)
+                updateCentroids(points, numberOfPoints, clusters, centroids);
+            numberOfIterations++;
+            if (checkpointPath != null)
+                writeCheckpoint(checkpointPath, numberOfPoints, pointsHash, centroids, converged);
+        }
+        return centroids;
+    }
+
+    /**
+     * @param centroids the coordinates of the centroids, one centroid after another
+     * @param numberOfClusters the number of centroids
+     * @param dimensions the number of coordinates of each point
+     * @param points an array holding the coordinates of a point
+     * @param offset the index of the first coordinate of the point
+     * @return the index of the centroid nearest the point, the lowest index of equally near ones
+     */
+    public static int getNearestCentroid(float[] centroids, int numberOfClusters, int dimensions, float[] points,
+                                         int offset) {
+        int nearestCentroid = 0;
+        double nearestDistance = Double.POSITIVE_INFINITY;
+        for (int centroid = 0; centroid < numberOfClusters; centroid++) {
+            double distance = getSquaredDistance(centroids, centroid * dimensions, points, offset, dimensions);
+            if (distance < nearestDistance) {
+                nearestCentroid = centroid;
+                nearestDistance = distance;
+            }
+        }
+        return nearestCentroid;
+    }
+
+    // k-means++: each centroid after the first is a point drawn with a chance proportional to its squared distance
+    // from the nearest centroid drawn before it
+    private void seedCentroids(float[] points, int numberOfPoints, float[] centroids) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] distances = new double[numberOfPoints];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        int point = random.nextInt(numberOfPoints);
+        for (int centroid = 0; centroid < numberOfClusters; centroid++) {
+            System.arraycopy(points, point * dimensions, centroids, centroid * dimensions, dimensions);
+            int centroidOffset = centroid * dimensions;
+            IntStream.range(0, numberOfPoints).parallel().forEach(i -> distances[i] = Math.min(distances[i],
+                    getSquaredDistance(centroids, centroidOffset, points, i * dimensions, dimensions)));
+
+            double totalDistance = 0;
+            for (double distance : distances) {
+                totalDistance += distance;
+            }
+            // when every point already is a centroid, the rest are drawn uniformly
+            double target = random.nextDouble() * totalDistance;
+            point = totalDistance == 0 ? random.nextInt(numberOfPoints) : numberOfPoints - 1;
+            for (int i = 0; i < numberOfPoints && totalDistance > 0; i++) {
+                target -= distances[i];
+                if (target < 0) {
+                    point = i;
+                    break;
+                }
+            }
+        }
+    }
+
+    // moves each centroid to the mean of its points, leaving the centroids of empty clusters where they are
+    private void updateCentroids(float[] points, int numberOfPoints, int[] clusters, float[] centroids) {
+        double[] sums = new double[numberOfClusters * dimensions];
+        int[] sizes = new int[numberOfClusters];
+        for (int point = 0; point < numberOfPoints; point++) {
+            int cluster = clusters[point];
+            sizes[cluster]++;
+            for (int d = 0; d < dimensions; d++) {
+                sums[cluster * dimensions + d] += points[point * dimensions + d];
+            }
+        }
+        for (int cluster = 0; cluster < numberOfClusters; cluster++) {
+            for (int d = 0; sizes[cluster] > 0 && d < dimensions; d++) {
+                centroids[cluster * dimensions + d] = (float) (sums[cluster * dimensions + d] / sizes[cluster]);
+            }
+        }
+    }
+
+    private static double getSquaredDistance(float[] centroids, int centroidOffset, float[] points, int pointOffset,
+                                             int dimensions) {
+        double distance = 0;
+        for (int d = 0; d < dimensions; d++) {
+            double difference = centroids[centroidOffset + d] - points[pointOffset + d];
+            distance += difference * difference;
+        }
+        return distance;
+    }
+
+    // a hash of the coordinates of the points, mixed by the finalizer of SplitMix64
+    private static long getHash(float[] points, int numberOfCoordinates) {
+        long hash = numberOfCoordinates;
+        for (int i = 0; i < numberOfCoordinates; i++) {
+            hash = (hash ^ Float.floatToIntBits(points[i])) * 0xBF58476D1CE4E5B9L;
+            hash ^= hash >>> 31;
+        }
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+
+    // the number of iterations is saved negated once the clustering has converged
+    private void writeCheckpoint(Path path, int numberOfPoints, long pointsHash, float[] centroids, boolean converged)
+            throws IOException {
+        Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryPath)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(numberOfClusters);
+            out.writeInt(dimensions);
+            out.writeLong(seed);
+            out.writeInt(numberOfPoints);
+            out.writeLong(pointsHash);
+            out.writeInt(converged ? -numberOfIterations : numberOfIterations);
+            for (float coordinate : centroids) {
+                out.writeFloat(coordinate);
+            }
+        }
+        Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private boolean readCheckpoint(Path path, int numberOfPoints, long pointsHash, float[] centroids)
+            throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != numberOfClusters || in.readInt() != dimensions
+                    || in.readLong() != seed || in.readInt() != numberOfPoints || in.readLong() != pointsHash)
+                return false;
+
+            numberOfIterations = in.readInt();
+            for (int i = 0; i < centroids.length; i++) {
+                centroids[i] = in.readFloat();
+            }
+            return true;
+        } catch (NoSuchFileException | EOFException e) {
+            numberOfIterations = 0;
+            return false;
+        }
+    }
+}
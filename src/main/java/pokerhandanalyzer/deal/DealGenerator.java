@@ -0,0 +1,209 @@
+package pokerhandanalyzer.deal;
+
+import pokerhandanalyzer.PackedPokerHandAnalyzer;
+import pokerhandanalyzer.io.HandRecordWriter;
+
+import java.io.FileOutputStream;
+import java.io.FileDescriptor;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Generates random deals of valid cards, e.g., the ten cards of an analyzeHands matchup, the seven cards of a showdown,
+ * or the hole cards and board of a multiway table, for load and soak testing. Each deal is drawn without replacement
+ * from a deck holding every card of a card mask, by a partial Fisher-Yates shuffle of just as many cards as the deal
+ * holds.
+ *
+ * Deals are numbered, and the sequence of deals is fixed by the seed: deals are generated in blocks of
+ * {@link #BLOCK_SIZE}, each from a {@link SplittableRandom} seeded by the seed and the index of the block, so any range
+ * of deals can be generated on its own, and in parallel, and is always the same whatever the number of threads.
+ *
+ * Run as a program, it writes deals as text to standard output:
+ * java ... DealGenerator seed cardsPerDeal numberOfDeals
+ */
+public class DealGenerator {
+    public static final int BLOCK_SIZE = 1024;
+
+    private static final long ALL_CARDS = (1L << PackedPokerHandAnalyzer.NUMBER_OF_CARDS) - 1;
+    // the odd constant the seeds of consecutive blocks are spaced by, the golden ratio in 64 bits
+    private static final long BLOCK_SEED_GAMMA = 0x9E3779B97F4A7C15L;
+    // the number of deals generated at once when writing
+    private static final int WRITE_BATCH_SIZE = 64 * BLOCK_SIZE;
+    // the two characters of each card, e.g., "AH"
+    private static final byte[][] CARD_CHARACTERS = new byte[PackedPokerHandAnalyzer.NUMBER_OF_CARDS][];
+
+    static {
+        for (int card = 0; card < PackedPokerHandAnalyzer.NUMBER_OF_CARDS; card++) {
+            CARD_CHARACTERS[card] = new byte[]{
+                    (byte) (char) PackedPokerHandAnalyzer.getRank(card).getCharacterRepresentation(),
+                    (byte) (char) PackedPokerHandAnalyzer.getSuit(card).getCharacterRepresentation()
+            };
+        }
+    }
+
+    private final long seed;
+    private final int cardsPerDeal;
+    private final byte[] deck;
+
+    /**
+     * @param seed the seed fixing the sequence of deals
+     * @param cardsPerDeal the number of cards in each deal
+     */
+    public DealGenerator(long seed, int cardsPerDeal) {
+        this(seed, cardsPerDeal, 0L);
+    }
+
+    /**
+     * @param seed the seed fixing the sequence of deals
+     * @param cardsPerDeal the number of cards in each deal
+     * @param deadCardMask the card mask of the cards that are never dealt, e.g., the known cards of a player
+     */
+    public DealGenerator(long seed, int cardsPerDeal, long deadCardMask) {
+        long liveCardMask = ALL_CARDS & ~deadCardMask;
+        if (cardsPerDeal < 1 || cardsPerDeal > Long.bitCount(liveCardMask))
+            throw new IllegalArgumentException("cannot deal " + cardsPerDeal + " cards from "
+                    + Long.bitCount(liveCardMask) + " live cards");
+
+        this.seed = seed;
+        this.cardsPerDeal = cardsPerDeal;
+        this.deck = new byte[Long.bitCount(liveCardMask)];
+        int i = 0;
+        for (long remainingCards = liveCardMask; remainingCards != 0; remainingCards &= remainingCards - 1) {
+            deck[i++] = (byte) Long.numberOfTrailingZeros(remainingCards);
+        }
+    }
+
+    public int getCardsPerDeal() {
+        return cardsPerDeal;
+    }
+
+    /**
+     * Generates a range of deals into an array of packed cards, one deal after another.
+     * @param firstDeal the number of the first deal
+     * @param numberOfDeals the number of deals
+     * @param cards the array to store the packed cards in
+     * @param offset the index in the array to store the first card at
+     */
+    public void generate(long firstDeal, int numberOfDeals, int[] cards, int offset) {
+        long end = firstDeal + numberOfDeals;
+        for (long block = firstDeal / BLOCK_SIZE; block * BLOCK_SIZE < end; block++) {
+            long blockStart = Math.max(block * BLOCK_SIZE, firstDeal);
+            long blockEnd = Math.min((block + 1) * BLOCK_SIZE, end);
+            generateBlock(block, (int) (blockStart - block * BLOCK_SIZE), (int) (blockEnd - block * BLOCK_SIZE), cards,
+                    offset + (int) (blockStart - firstDeal) * cardsPerDeal);
+        }
+    }
+
+    /**
+     * Generates a range of deals into an array of packed cards as {@link #generate(long, int, int[], int)} does, on
+     * every core of the common fork-join pool.
+     */
+    public void generateInParallel(long firstDeal, int numberOfDeals, int[] cards, int offset) {
+        long firstBlock = firstDeal / BLOCK_SIZE;
+        long lastBlock = (firstDeal + numberOfDeals - 1) / BLOCK_SIZE;
+        IntStream.rangeClosed(0, (int) (lastBlock - firstBlock)).parallel().forEach(i -> {
+            long blockStart = Math.max((firstBlock + i) * BLOCK_SIZE, firstDeal);
+            long blockEnd = Math.min((firstBlock + i + 1) * BLOCK_SIZE, firstDeal + numberOfDeals);
+            generate(blockStart, (int) (blockEnd - blockStart), cards, offset + (int) (blockStart - firstDeal) * cardsPerDeal);
+        });
+    }
+
+    /**
+     * @param cards the array holding a deal
+     * @param offset the index of the first card of the deal
+     * @return the card mask of the deal
+     */
+    public long getCardMask(int[] cards, int offset) {
+        long cardMask = 0;
+        for (int i = offset; i < offset + cardsPerDeal; i++) {
+            cardMask |= 1L << cards[i];
+        }
+        return cardMask;
+    }
+
+    /**
+     * Writes a range of deals to a hand-record file, a deal per record.
+     * @param firstDeal the number of the first deal
+     * @param numberOfDeals the number of deals
+     * @param writer the writer, whose records must hold as many cards as a deal
+     * @throws IOException if writing fails
+     */
+    public void write(long firstDeal, long numberOfDeals, HandRecordWriter writer) throws IOException {
+        if (writer.getCardsPerRecord() != cardsPerDeal)
+            throw new IllegalArgumentException("the records must hold " + cardsPerDeal + " cards");
+
+        int[] cards = new int[WRITE_BATCH_SIZE * cardsPerDeal];
+        for (long deal = firstDeal; deal < firstDeal + numberOfDeals; deal += WRITE_BATCH_SIZE) {
+            int batchSize = (int) Math.min(WRITE_BATCH_SIZE, firstDeal + numberOfDeals - deal);
+            generateInParallel(deal, batchSize, cards, 0);
+            for (int i = 0; i < batchSize; i++) {
+                writer.write(cards, i * cardsPerDeal);
+            }
+        }
+    }
+
+    /**
+     * Writes a range of deals as text, a line per deal holding its cards separated by spaces, e.g.,
+     * "AH TD 5C 9S JS 3D 7H 5S JC 5H", the format {@link pokerhandanalyzer.StringPokerHandAnalyzer} reads when deals
+     * hold ten cards.
+     * @param firstDeal the number of the first deal
+     * @param numberOfDeals the number of deals
+     * @param out the channel to write the lines to
+     * @throws IOException if writing fails
+     */
+    public void write(long firstDeal, long numberOfDeals, WritableByteChannel out) throws IOException {
+        int[] cards = new int[WRITE_BATCH_SIZE * cardsPerDeal];
+        ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BATCH_SIZE * cardsPerDeal * 3);
+        for (long deal = firstDeal; deal < firstDeal + numberOfDeals; deal += WRITE_BATCH_SIZE) {
+            int batchSize = (int) Math.min(WRITE_BATCH_SIZE, firstDeal + numberOfDeals - deal);
+            generateInParallel(deal, batchSize, cards, 0);
+            buffer.clear();
+            for (int i = 0; i < batchSize * cardsPerDeal; i++) {
+                buffer.put(CARD_CHARACTERS[cards[i]]).put((byte) ((i + 1) % cardsPerDeal == 0 ? '\n' : ' '));
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+        }
+    }
+
+    // Generates the deals of a block from the given deal on, up to but not including the given end. The deals before
+    // them are generated too, and skipped, since each deal continues from the state of the deck the last one left.
+    private void generateBlock(long block, int start, int end, int[] cards, int offset) {
+        SplittableRandom random = new SplittableRandom(seed + block * BLOCK_SEED_GAMMA);
+        byte[] deck = this.deck.clone();
+        for (int deal = 0; deal < end; deal++) {
+            // a partial Fisher-Yates shuffle: the i-th card is swapped with a random card from the i-th on. Each
+            // random long yields two draws, each mapping 32 random bits to the number of cards left by multiplication,
+            // which is biased by less than one in 80 million.
+            long randomBits = 0;
+            for (int i = 0; i < cardsPerDeal; i++) {
+                if ((i & 1) == 0)
+                    randomBits = random.nextLong();
+                int j = i + (int) (((randomBits & 0xFFFFFFFFL) * (deck.length - i)) >>> 32);
+                randomBits >>>= 32;
+                byte card = deck[j];
+                deck[j] = deck[i];
+                deck[i] = card;
+                if (deal >= start)
+                    cards[offset + (deal - start) * cardsPerDeal + i] = card;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("usage: DealGenerator <seed> <cards per deal> <number of deals>");
+            System.exit(2);
+        }
+
+        DealGenerator dealGenerator = new DealGenerator(Long.parseLong(args[0]), Integer.parseInt(args[1]));
+        try (FileOutputStream out = new FileOutputStream(FileDescriptor.out)) {
+            dealGenerator.write(0, Long.parseLong(args[2]), out.getChannel());
+        }
+    }
+}
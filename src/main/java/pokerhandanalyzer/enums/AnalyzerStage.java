@@ -0,0 +1,8 @@
+package pokerhandanalyzer.enums;
+
+public enum AnalyzerStage {
+    ANALYZE_HANDS, // a whole call to StringPokerHandAnalyzer.analyzeHands
+    PARSE, // parsing the cards of a string representation of hands
+    EVALUATE, // evaluating the type of a hand
+    TIE_BREAK // comparing two hands of the same type
+}
@@ -0,0 +1,17 @@
+package pokerhandanalyzer.enums;
+
+public enum Street {
+    FLOP(3),
+    TURN(4),
+    RIVER(5);
+
+    private final int numberOfBoardCards;
+
+    Street(int numberOfBoardCards) {
+        this.numberOfBoardCards = numberOfBoardCards;
+    }
+
+    public int getNumberOfBoardCards() {
+        return numberOfBoardCards;
+    }
+}
@@ -0,0 +1,17 @@
+package pokerhandanalyzer.enums;
+
+public enum VideoPokerHand {
+    NOTHING,
+    HIGH_PAIR, // a pair of at least the minimum rank of the paytable, e.g., jacks or better
+    TWO_PAIR,
+    THREE_OF_A_KIND,
+    STRAIGHT,
+    FLUSH,
+    FULL_HOUSE,
+    FOUR_OF_A_KIND,
+    STRAIGHT_FLUSH,
+    FIVE_OF_A_KIND, // four of a kind and a wild card
+    WILD_ROYAL_FLUSH, // a royal flush made with a wild card
+    FOUR_DEUCES, // the four wild cards of deuces wild
+    NATURAL_ROYAL_FLUSH
+}
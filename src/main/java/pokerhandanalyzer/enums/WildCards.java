@@ -0,0 +1,7 @@
+package pokerhandanalyzer.enums;
+
+public enum WildCards {
+    NONE, // a 52 card deck without wild cards
+    DEUCES, // a 52 card deck whose four twos are wild
+    JOKER // a 53 card deck whose joker is wild
+}
@@ -0,0 +1,116 @@
+package pokerhandanalyzer.index;
+
+import java.nio.LongBuffer;
+import java.util.function.LongConsumer;
+
+/**
+ * A set of hand numbers, as answered by the queries of a {@link HandIndex}: bit n of the bitmap is set when hand n
+ * matches. Bitmaps of the same index can be combined with boolean operations to answer compound filters, e.g.,
+ * index.ofType(FULL_HOUSE).and(index.withRank(ACE)) for all full houses with aces.
+ *
+ * The bitmaps of types, ranks and cards answered by an index are views of its mapped file, so a query copies none of
+ * them: the operations read the words of both operands straight from the mapping, and only the words of the result are
+ * allocated on the heap.
+ */
+public class HandBitmap {
+    // read by absolute gets only, so the bitmap can be shared by any number of threads
+    private final LongBuffer words;
+    private final int wordCount;
+    private final long handCount;
+
+    HandBitmap(long[] words, long handCount) {
+        this(LongBuffer.wrap(words), handCount);
+    }
+
+    HandBitmap(LongBuffer words, long handCount) {
+        this.words = words;
+        this.wordCount = words.capacity();
+        this.handCount = handCount;
+    }
+
+    public long getHandCount() {
+        return handCount;
+    }
+
+    /**
+     * @return a new bitmap holding the hands held by both bitmaps
+     */
+    public HandBitmap and(HandBitmap other) {
+        checkSameIndex(other);
+        long[] result = new long[wordCount];
+        for (int i = 0; i < wordCount; i++) {
+            result[i] = words.get(i) & other.words.get(i);
+        }
+        return new HandBitmap(result, handCount);
+    }
+
+    /**
+     * @return a new bitmap holding the hands held by either bitmap
+     */
+    public HandBitmap or(HandBitmap other) {
+        checkSameIndex(other);
+        long[] result = new long[wordCount];
+        for (int i = 0; i < wordCount; i++) {
+            result[i] = words.get(i) | other.words.get(i);
+        }
+        return new HandBitmap(result, handCount);
+    }
+
+    /**
+     * @return a new bitmap holding the hands held by this bitmap but not by the other
+     */
+    public HandBitmap andNot(HandBitmap other) {
+        checkSameIndex(other);
+        long[] result = new long[wordCount];
+        for (int i = 0; i < wordCount; i++) {
+            result[i] = words.get(i) & ~other.words.get(i);
+        }
+        return new HandBitmap(result, handCount);
+    }
+
+    /**
+     * @return a new bitmap holding the hands not held by this bitmap
+     */
+    public HandBitmap not() {
+        long[] result = new long[wordCount];
+        for (int i = 0; i < wordCount; i++) {
+            result[i] = ~words.get(i);
+        }
+        // the bits past the last hand must stay clear
+        if (handCount % 64 != 0)
+            result[wordCount - 1] &= (1L << (handCount % 64)) - 1;
+        return new HandBitmap(result, handCount);
+    }
+
+    public boolean contains(long hand) {
+        return (words.get((int) (hand >>> 6)) & (1L << hand)) != 0;
+    }
+
+    /**
+     * @return the number of hands held by the bitmap
+     */
+    public long cardinality() {
+        long cardinality = 0;
+        for (int i = 0; i < wordCount; i++) {
+            cardinality += Long.bitCount(words.get(i));
+        }
+        return cardinality;
+    }
+
+    /**
+     * Hands each hand number held by the bitmap to the consumer, in increasing order.
+     * @param consumer the consumer of the hand numbers
+     */
+    public void forEach(LongConsumer consumer) {
+        for (int i = 0; i < wordCount; i++) {
+            for (long word = words.get(i); word != 0; word &= word - 1) {
+                consumer.accept(((long) i << 6) + Long.numberOfTrailingZeros(word));
+            }
+        }
+    }
+
+    private void checkSameIndex(HandBitmap other) {
+        if (other.handCount != handCount)
+            throw new IllegalArgumentException("the bitmaps are not from the same index");
+    }
+}
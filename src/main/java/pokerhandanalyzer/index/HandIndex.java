@@ -0,0 +1,331 @@
+package pokerhandanalyzer.index;
+
+import pokerhandanalyzer.PackedPokerHandAnalyzer;
+import pokerhandanalyzer.enums.PokerHandType;
+import pokerhandanalyzer.enums.Rank;
+import pokerhandanalyzer.enums.Suit;
+import pokerhandanalyzer.io.HandRecordReader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An on-disk index over the hands of a hand-record file, built once and then memory-mapped, answering filter queries
+ * such as "all full houses with aces", "hands holding the king of hearts", or "hands stronger than a given strength"
+ * without parsing or evaluating a single hand. Hands are numbered in the order they appear in the hand-record file,
+ * so hand n is hand n % handsPerRecord of record n / handsPerRecord.
+ *
+ * The index holds one bitmap per poker hand type, per rank, and per card, with bit n set when hand n is of that type or
+ * holds that rank or card, and a strength column: the hand numbers sorted by strength, together with the position at
+ * which each distinct strength starts. The bitmaps are stored uncompressed, one bit per hand, so that they can be
+ * intersected word by word straight from the mapped file: a query answers views of the mapping, and only the bitmaps
+ * it combines them into, and those of strength queries, are built on the heap.
+ *
+ * The file layout is a 32 byte header (the magic number "PHIX", the format version, the number of hands, the number of
+ * hands per record, and the number of distinct strengths), followed by the bitmaps of the hand types, the ranks, and
+ * the cards, in ordinal order, then the distinct strengths in increasing order as ints, the positions at which they
+ * start as longs, and finally the sorted hand numbers as ints. All values are big-endian.
+ */
+public class HandIndex implements Closeable {
+    private static final int MAGIC = 0x50484958; // "PHIX"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int NUMBER_OF_HAND_TYPES = PokerHandType.values().length;
+    private static final int NUMBER_OF_RANKS = Rank.values().length;
+    private static final int NUMBER_OF_BITMAPS = NUMBER_OF_HAND_TYPES + NUMBER_OF_RANKS + PackedPokerHandAnalyzer.NUMBER_OF_CARDS;
+    private static final int RANK_BITMAPS = NUMBER_OF_HAND_TYPES;
+    private static final int CARD_BITMAPS = NUMBER_OF_HAND_TYPES + NUMBER_OF_RANKS;
+    private static final int HANDS_PER_CHUNK = 64 * 1024;
+    // the number of hand numbers in each mapped segment of the strength column
+    private static final int HANDS_PER_SEGMENT = 1 << 28;
+
+    private final FileChannel fileChannel;
+    private final long handCount;
+    private final int handsPerRecord;
+    private final int wordsPerBitmap;
+    private final LongBuffer[] bitmaps = new LongBuffer[NUMBER_OF_BITMAPS];
+    private final int[] distinctStrengths;
+    private final long[] strengthStarts;
+    private final IntBuffer[] sortedHands;
+
+    /**
+     * Opens and maps an index file.
+     * @param path the path of the index file
+     * @throws IOException if the file cannot be read, or is not a valid index file
+     */
+    public HandIndex(Path path) throws IOException {
+        fileChannel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION)
+                throw new IOException(path + " is not a hand index file of version " + VERSION);
+            handCount = header.getLong(8);
+            handsPerRecord = header.getInt(16);
+            int distinctStrengthCount = header.getInt(20);
+            wordsPerBitmap = getWordsPerBitmap(handCount);
+
+            long position = HEADER_SIZE;
+            for (int i = 0; i < NUMBER_OF_BITMAPS; i++) {
+                bitmaps[i] = fileChannel.map(FileChannel.MapMode.READ_ONLY, position, wordsPerBitmap * 8L)
+                        .asLongBuffer();
+                position += wordsPerBitmap * 8L;
+            }
+
+            ByteBuffer strengthTable = fileChannel.map(FileChannel.MapMode.READ_ONLY, position,
+                    distinctStrengthCount * 4L + (distinctStrengthCount + 1) * 8L);
+            distinctStrengths = new int[distinctStrengthCount];
+            strengthStarts = new long[distinctStrengthCount + 1];
+            strengthTable.asIntBuffer().get(distinctStrengths);
+            strengthTable.position(distinctStrengthCount * 4);
+            strengthTable.slice().asLongBuffer().get(strengthStarts);
+            position += strengthTable.capacity();
+
+            sortedHands = new IntBuffer[(int) ((handCount + HANDS_PER_SEGMENT - 1) / HANDS_PER_SEGMENT)];
+            for (int i = 0; i < sortedHands.length; i++) {
+                long numberOfHands = Math.min(HANDS_PER_SEGMENT, handCount - (long) i * HANDS_PER_SEGMENT);
+                sortedHands[i] = fileChannel.map(FileChannel.MapMode.READ_ONLY, position, numberOfHands * 4).asIntBuffer();
+                position += numberOfHands * 4;
+            }
+        } catch (IOException | RuntimeException e) {
+            fileChannel.close();
+            throw e;
+        }
+    }
+
+    public long getHandCount() {
+        return handCount;
+    }
+
+    public int getHandsPerRecord() {
+        return handsPerRecord;
+    }
+
+    /**
+     * @return the hands of the given type
+     */
+    public HandBitmap ofType(PokerHandType pokerHandType) {
+        return getBitmap(pokerHandType.ordinal());
+    }
+
+    /**
+     * @return the hands holding at least one card of the given rank
+     */
+    public HandBitmap withRank(Rank rank) {
+        return getBitmap(RANK_BITMAPS + rank.ordinal());
+    }
+
+    /**
+     * @return the hands holding the given card
+     */
+    public HandBitmap withCard(Rank rank, Suit suit) {
+        return withCard(PackedPokerHandAnalyzer.getCard(rank, suit));
+    }
+
+    /**
+     * @param card the card, packed as by {@link PackedPokerHandAnalyzer}
+     * @return the hands holding the given card
+     */
+    public HandBitmap withCard(int card) {
+        return getBitmap(CARD_BITMAPS + card);
+    }
+
+    /**
+     * @param strength a strength, as evaluated by {@link PackedPokerHandAnalyzer}
+     * @return the hands with a strength greater than or equal to the given strength
+     */
+    public HandBitmap withStrengthAtLeast(int strength) {
+        // finds the first distinct strength that is at least the given strength
+        int first = Arrays.binarySearch(distinctStrengths, strength);
+        if (first < 0)
+            first = -first - 1;
+
+        long[] words = new long[wordsPerBitmap];
+        for (long i = strengthStarts[first]; i < handCount; i++) {
+            int hand = sortedHands[(int) (i / HANDS_PER_SEGMENT)].get((int) (i % HANDS_PER_SEGMENT));
+            words[hand >>> 6] |= 1L << hand;
+        }
+        return new HandBitmap(words, handCount);
+    }
+
+    /**
+     * @param strength a strength, as evaluated by {@link PackedPokerHandAnalyzer}
+     * @return the hands with a strength greater than the given strength
+     */
+    public HandBitmap withStrengthAbove(int strength) {
+        // no strength is above the largest int, which strength + 1 would overflow
+        if (strength == Integer.MAX_VALUE)
+            return new HandBitmap(new long[wordsPerBitmap], handCount);
+        return withStrengthAtLeast(strength + 1);
+    }
+
+    // a view of a mapped bitmap, valid until the index is closed
+    private HandBitmap getBitmap(int bitmap) {
+        return new HandBitmap(bitmaps[bitmap], handCount);
+    }
+
+    @Override
+    public void close() throws IOException {
+        fileChannel.close();
+    }
+
+    private static int getWordsPerBitmap(long handCount) {
+        return (int) ((handCount + 63) / 64);
+    }
+
+    /**
+     * Builds the index of a hand-record file. The bitmaps are built in parallel, each thread building whole words of
+     * every bitmap for its own range of hands, and the strength column is built with a counting sort, so the build
+     * never holds more than the counts of the distinct strengths in memory.
+     * @param reader the reader of the hand-record file
+     * @param path the path of the index file to create
+     * @param parallelism the number of threads to build with
+     * @throws IOException if the index file cannot be written
+     * @throws InterruptedException if interrupted while waiting for the threads to finish
+     */
+    public static void build(HandRecordReader reader, Path path, int parallelism) throws IOException, InterruptedException {
+        int handsPerRecord = reader.getHandsPerRecord();
+        long handCount = reader.getRecordCount() * handsPerRecord;
+        if (handCount > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("an index can hold at most " + Integer.MAX_VALUE + " hands");
+
+        // counts the hands of each strength, to find the distinct strengths and where each starts in the sorted column
+        AtomicIntegerArray strengthCounts = new AtomicIntegerArray(NUMBER_OF_HAND_TYPES << 20);
+        runInChunks(handCount, parallelism, (start, end) -> {
+            for (long hand = start; hand < end; hand++) {
+                strengthCounts.incrementAndGet(reader.getStrength(hand / handsPerRecord, (int) (hand % handsPerRecord)));
+            }
+        });
+        List<Integer> distinctStrengthList = new ArrayList<>();
+        for (int strength = 0; strength < strengthCounts.length(); strength++) {
+            if (strengthCounts.get(strength) != 0)
+                distinctStrengthList.add(strength);
+        }
+        int distinctStrengthCount = distinctStrengthList.size();
+        int[] distinctStrengths = new int[distinctStrengthCount];
+        for (int i = 0; i < distinctStrengthCount; i++) {
+            distinctStrengths[i] = distinctStrengthList.get(i);
+        }
+
+        int wordsPerBitmap = getWordsPerBitmap(handCount);
+        long bitmapsPosition = HEADER_SIZE;
+        long strengthTablePosition = bitmapsPosition + (long) NUMBER_OF_BITMAPS * wordsPerBitmap * 8;
+        long sortedHandsPosition = strengthTablePosition + distinctStrengthCount * 4L + (distinctStrengthCount + 1) * 8L;
+        long fileSize = sortedHandsPosition + handCount * 4;
+
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.setLength(0);
+            file.setLength(fileSize);
+            FileChannel channel = file.getChannel();
+
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putLong(handCount).putInt(handsPerRecord).putInt(distinctStrengthCount);
+
+            // the strength table, holding the distinct strengths and the position at which each starts
+            ByteBuffer strengthTable = channel.map(FileChannel.MapMode.READ_WRITE, strengthTablePosition,
+                    sortedHandsPosition - strengthTablePosition);
+            long[] nextPositions = new long[distinctStrengthCount];
+            long strengthStart = 0;
+            for (int strength : distinctStrengths) {
+                strengthTable.putInt(strength);
+            }
+            for (int i = 0; i < distinctStrengthCount; i++) {
+                strengthTable.putLong(strengthStart);
+                nextPositions[i] = strengthStart;
+                strengthStart += strengthCounts.get(distinctStrengths[i]);
+            }
+            strengthTable.putLong(handCount);
+
+            MappedByteBuffer[] bitmaps = new MappedByteBuffer[NUMBER_OF_BITMAPS];
+            for (int i = 0; i < NUMBER_OF_BITMAPS; i++) {
+                bitmaps[i] = channel.map(FileChannel.MapMode.READ_WRITE, bitmapsPosition + i * wordsPerBitmap * 8L,
+                        wordsPerBitmap * 8L);
+            }
+            runInChunks(handCount, parallelism, (start, end) -> buildBitmapWords(reader, bitmaps, start, end));
+
+            // the sorted hand numbers are written in a single pass, so hands of equal strength stay in increasing order
+            IntBuffer[] sortedHands = new IntBuffer[(int) ((handCount + HANDS_PER_SEGMENT - 1) / HANDS_PER_SEGMENT)];
+            for (int i = 0; i < sortedHands.length; i++) {
+                long numberOfHands = Math.min(HANDS_PER_SEGMENT, handCount - (long) i * HANDS_PER_SEGMENT);
+                sortedHands[i] = channel.map(FileChannel.MapMode.READ_WRITE,
+                        sortedHandsPosition + (long) i * HANDS_PER_SEGMENT * 4, numberOfHands * 4).asIntBuffer();
+            }
+            for (long hand = 0; hand < handCount; hand++) {
+                int strength = reader.getStrength(hand / handsPerRecord, (int) (hand % handsPerRecord));
+                long position = nextPositions[Arrays.binarySearch(distinctStrengths, strength)]++;
+                sortedHands[(int) (position / HANDS_PER_SEGMENT)].put((int) (position % HANDS_PER_SEGMENT), (int) hand);
+            }
+        }
+    }
+
+    // builds the words of every bitmap for a range of hands starting on a word boundary
+    private static void buildBitmapWords(HandRecordReader reader, MappedByteBuffer[] bitmaps, long start, long end) {
+        int handsPerRecord = reader.getHandsPerRecord();
+        long[] words = new long[NUMBER_OF_BITMAPS];
+        for (long wordStart = start; wordStart < end; wordStart += 64) {
+            for (int i = 0; i < NUMBER_OF_BITMAPS; i++) {
+                words[i] = 0;
+            }
+            for (long hand = wordStart; hand < Math.min(wordStart + 64, end); hand++) {
+                long bit = 1L << hand;
+                long record = hand / handsPerRecord;
+                int handInRecord = (int) (hand % handsPerRecord);
+                words[PackedPokerHandAnalyzer.getPokerHandType(reader.getStrength(record, handInRecord)).ordinal()] |= bit;
+                for (int i = 0; i < 5; i++) {
+                    int card = reader.getCard(record, handInRecord * 5 + i);
+                    words[RANK_BITMAPS + (card >>> 2)] |= bit;
+                    words[CARD_BITMAPS + card] |= bit;
+                }
+            }
+            int wordIndex = (int) (wordStart >>> 6);
+            for (int i = 0; i < NUMBER_OF_BITMAPS; i++) {
+                bitmaps[i].putLong(wordIndex * 8, words[i]);
+            }
+        }
+    }
+
+    private interface ChunkTask {
+        void run(long start, long end);
+    }
+
+    // splits the hands into chunks starting on word boundaries, and runs the task over them on the given number of
+    // threads, each claiming the next chunk until none are left
+    private static void runInChunks(long handCount, int parallelism, ChunkTask task) throws InterruptedException {
+        ExecutorService executorService = Executors.newFixedThreadPool(parallelism);
+        AtomicLong nextChunk = new AtomicLong();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < parallelism; i++) {
+                futures.add(executorService.submit(() -> {
+                    long start;
+                    while ((start = nextChunk.getAndIncrement() * HANDS_PER_CHUNK) < handCount) {
+                        task.run(start, Math.min(start + HANDS_PER_CHUNK, handCount));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+}
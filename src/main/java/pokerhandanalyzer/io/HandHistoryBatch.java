@@ -0,0 +1,192 @@
+package pokerhandanalyzer.io;
+
+import pokerhandanalyzer.PackedPokerHandAnalyzer;
+
+/**
+ * A batch of hands parsed from a hand-history file by {@link HandHistoryParser}. The cards of each hand are held as card
+ * masks in flat arrays reused from batch to batch: the board, the hole cards dealt to the hero, if the history was
+ * recorded by one, and the hole cards of each player who showed or mucked them at showdown, with their seat. Once the
+ * batch is full, the strength of the best hand of each of them on the board is evaluated at once, by
+ * {@link PackedPokerHandAnalyzer#evaluate(long)}.
+ *
+ * Players are numbered across the whole batch: the players of hand h are those from {@link #getFirstPlayer(int)} up
+ * to, not including, the first player of hand h + 1.
+ */
+public class HandHistoryBatch {
+    public static final int MAXIMUM_NUMBER_OF_PLAYERS = 10;
+    // the strength of hole cards that make fewer than five cards with the board
+    public static final int NO_STRENGTH = -1;
+
+    private final long[] handIds;
+    private final long[] boardCardMasks;
+    private final long[] heroCardMasks;
+    private final int[] heroStrengths;
+    private final int[] firstPlayers;
+    private final int[] seats;
+    private final long[] holeCardMasks;
+    private final int[] strengths;
+    private int size;
+
+    /**
+     * @param capacity the number of hands the batch holds
+     */
+    public HandHistoryBatch(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("a batch must hold a hand");
+
+        handIds = new long[capacity];
+        boardCardMasks = new long[capacity];
+        heroCardMasks = new long[capacity];
+        heroStrengths = new int[capacity];
+        firstPlayers = new int[capacity + 1];
+        seats = new int[capacity * MAXIMUM_NUMBER_OF_PLAYERS];
+        holeCardMasks = new long[capacity * MAXIMUM_NUMBER_OF_PLAYERS];
+        strengths = new int[capacity * MAXIMUM_NUMBER_OF_PLAYERS];
+    }
+
+    public int getCapacity() {
+        return handIds.length;
+    }
+
+    /**
+     * @return the number of hands in the batch
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isFull() {
+        return size == handIds.length;
+    }
+
+    /**
+     * @param hand the index of a hand in the batch
+     * @return the number of the hand given by the site
+     */
+    public long getHandId(int hand) {
+        return handIds[checkHand(hand)];
+    }
+
+    /**
+     * @param hand the index of a hand in the batch
+     * @return the card mask of the board, empty if no flop was dealt
+     */
+    public long getBoardCardMask(int hand) {
+        return boardCardMasks[checkHand(hand)];
+    }
+
+    /**
+     * @param hand the index of a hand in the batch
+     * @return the card mask of the hole cards dealt to the hero, or zero if none were
+     */
+    public long getHeroCardMask(int hand) {
+        return heroCardMasks[checkHand(hand)];
+    }
+
+    /**
+     * @param hand the index of a hand in the batch
+     * @return the strength of the best hand of the hero on the board, or {@link #NO_STRENGTH}
+     */
+    public int getHeroStrength(int hand) {
+        return heroStrengths[checkHand(hand)];
+    }
+
+    /**
+     * @param hand the index of a hand in the batch
+     * @return the first of the players showing their hole cards in the hand
+     */
+    public int getFirstPlayer(int hand) {
+        return firstPlayers[checkHand(hand)];
+    }
+
+    /**
+     * @param hand the index of a hand in the batch
+     * @return the number of players showing their hole cards in the hand
+     */
+    public int getNumberOfPlayers(int hand) {
+        return firstPlayers[checkHand(hand) + 1] - firstPlayers[hand];
+    }
+
+    /**
+     * @param player the index of a player in the batch
+     * @return the number of the seat of the player
+     */
+    public int getSeat(int player) {
+        return seats[checkPlayer(player)];
+    }
+
+    /**
+     * @param player the index of a player in the batch
+     * @return the card mask of the hole cards of the player
+     */
+    public long getHoleCardMask(int player) {
+        return holeCardMasks[checkPlayer(player)];
+    }
+
+    /**
+     * @param player the index of a player in the batch
+     * @return the strength of the best hand of the player on the board, or {@link #NO_STRENGTH}
+     */
+    public int getStrength(int player) {
+        return strengths[checkPlayer(player)];
+    }
+
+    /**
+     * @param hand the index of a hand in the batch
+     * @return the strength of the best hand shown in the hand, or {@link #NO_STRENGTH} if none was
+     */
+    public int getBestStrength(int hand) {
+        int bestStrength = NO_STRENGTH;
+        for (int player = getFirstPlayer(hand); player < firstPlayers[hand + 1]; player++) {
+            bestStrength = Math.max(bestStrength, strengths[player]);
+        }
+        return bestStrength;
+    }
+
+    // adds a hand, whose players are the first of the given arrays, leaving the strengths to be evaluated
+    void add(long handId, long boardCardMask, long heroCardMask, int[] handSeats, long[] handHoleCardMasks,
+             int numberOfPlayers) {
+        if (isFull())
+            throw new IllegalStateException("the batch is full");
+
+        handIds[size] = handId;
+        boardCardMasks[size] = boardCardMask;
+        heroCardMasks[size] = heroCardMask;
+        int firstPlayer = firstPlayers[size];
+        System.arraycopy(handSeats, 0, seats, firstPlayer, numberOfPlayers);
+        System.arraycopy(handHoleCardMasks, 0, holeCardMasks, firstPlayer, numberOfPlayers);
+        firstPlayers[++size] = firstPlayer + numberOfPlayers;
+    }
+
+    // evaluates the strengths of the hero and the players of every hand
+    void evaluate() {
+        for (int hand = 0; hand < size; hand++) {
+            long boardCardMask = boardCardMasks[hand];
+            heroStrengths[hand] = heroCardMasks[hand] == 0 ? NO_STRENGTH
+                    : evaluate(boardCardMask | heroCardMasks[hand]);
+            for (int player = firstPlayers[hand]; player < firstPlayers[hand + 1]; player++) {
+                strengths[player] = evaluate(boardCardMask | holeCardMasks[player]);
+            }
+        }
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    private static int evaluate(long cardMask) {
+        return Long.bitCount(cardMask) < 5 ? NO_STRENGTH : PackedPokerHandAnalyzer.evaluate(cardMask);
+    }
+
+    private int checkHand(int hand) {
+        if (hand < 0 || hand >= size)
+            throw new IndexOutOfBoundsException("hand " + hand + " is not in the batch of " + size);
+        return hand;
+    }
+
+    private int checkPlayer(int player) {
+        if (player < 0 || player >= firstPlayers[size])
+            throw new IndexOutOfBoundsException("player " + player + " is not in the batch of " + firstPlayers[size]);
+        return player;
+    }
+}
@@ -0,0 +1,405 @@
+package pokerhandanalyzer.io;
+
+import pokerhandanalyzer.PackedPokerHandAnalyzer;
+import pokerhandanalyzer.enums.PokerHandType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Parses hold'em hand histories exported as text by PokerStars, or a site writing the same format, into batches of
+ * packed cards, e.g., from
+ * <pre>
+ *     PokerStars Hand #233014375071: Hold'em No Limit ($0.01/$0.02 USD) - 2021/12/30 10:15:02 ET
+ *     ...
+ *     Dealt to Hero [Ah Kd]
+ *     ...
+ *     *** SUMMARY ***
+ *     Total pot $4.10 | Rake $0.18
+ *     Board [2c 7h Td Js 3s]
+ *     Seat 1: Hero (button) showed [Ah Kd] and lost with a pair of Kings
+ *     Seat 2: Villain (small blind) showed [Qc Qs] and won ($3.92) with a pair of Queens
+ * </pre>
+ * the hand number, the board, the hole cards of the hero, and the seat and hole cards of every player who showed or
+ * mucked them. Hands of other games, hands cut off before their summary, and hands holding invalid or repeated cards
+ * are skipped.
+ *
+ * The file is scanned through memory-mapped windows of a fixed size, and each line is matched in place, byte by byte,
+ * by a state machine moving from between hands, to in a hand, to in its summary, and back once a blank line ends the
+ * summary; no line is ever copied into a String. A line split by the end of a window is scanned again from the start of
+ * the next window, which starts at the split line. Hands are collected into a single reusable
+ * {@link HandHistoryBatch}, evaluated and handed to a handler once it is full, so memory use is constant however large
+ * the file is.
+ *
+ * Run as a program, it prints how many hands it parsed from the given files, and the distribution of the hands shown
+ * down:
+ * java ... HandHistoryParser file...
+ */
+public class HandHistoryParser {
+    public static final int DEFAULT_BATCH_SIZE = 4096;
+    public static final int DEFAULT_WINDOW_SIZE = 64 << 20;
+
+    private static final byte[] HAND_HEADER = getBytes("PokerStars ");
+    private static final byte[] HOLD_EM = getBytes("Hold'em ");
+    private static final byte[] DEALT_TO = getBytes("Dealt to ");
+    private static final byte[] SUMMARY = getBytes("*** SUMMARY ***");
+    private static final byte[] BOARD = getBytes("Board [");
+    private static final byte[] SEAT = getBytes("Seat ");
+    private static final byte[] SHOWED = getBytes(" showed [");
+    private static final byte[] MUCKED = getBytes(" mucked [");
+    private static final byte[] BYTE_ORDER_MARK = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+    private static final long INVALID_CARDS = -1;
+
+    public interface BatchHandler {
+        /**
+         * Handles a batch of hands, which is only valid until this method returns.
+         * @param batch the batch, its strengths evaluated
+         * @throws IOException if handling the batch fails
+         */
+        void onBatch(HandHistoryBatch batch) throws IOException;
+    }
+
+    // the states of the parser between two lines
+    private enum State {
+        BETWEEN_HANDS, IN_HAND, IN_SUMMARY
+    }
+
+    private final int windowSize;
+    private final HandHistoryBatch batch;
+
+    // the hand being parsed
+    private State state = State.BETWEEN_HANDS;
+    private long handId;
+    private long boardCardMask;
+    private long heroCardMask;
+    private final int[] seats = new int[HandHistoryBatch.MAXIMUM_NUMBER_OF_PLAYERS];
+    private final long[] holeCardMasks = new long[HandHistoryBatch.MAXIMUM_NUMBER_OF_PLAYERS];
+    private int numberOfPlayers;
+    private boolean isValid;
+
+    private long handCount;
+    private long skippedHandCount;
+    private long byteCount;
+
+    public HandHistoryParser() {
+        this(DEFAULT_BATCH_SIZE, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * @param batchSize the number of hands handed to the handler at once
+     * @param windowSize the size of the windows the file is mapped in, which is the length of the longest line parsed
+     */
+    public HandHistoryParser(int batchSize, int windowSize) {
+        if (windowSize < 1)
+            throw new IllegalArgumentException("the window size must be positive");
+
+        this.windowSize = windowSize;
+        this.batch = new HandHistoryBatch(batchSize);
+    }
+
+    /**
+     * @return the number of hands parsed, from every file
+     */
+    public long getHandCount() {
+        return handCount;
+    }
+
+    /**
+     * @return the number of hands skipped, from every file
+     */
+    public long getSkippedHandCount() {
+        return skippedHandCount;
+    }
+
+    /**
+     * @return the number of bytes scanned, from every file
+     */
+    public long getByteCount() {
+        return byteCount;
+    }
+
+    /**
+     * Parses every hand of a hand-history file, handing the hands to the handler in batches. Lines may be terminated by
+     * either "\n" or "\r\n"; lines longer than the window size are skipped, with the hand holding them.
+     * @param path the path of the file
+     * @param handler the handler to hand each batch to
+     * @throws IOException if the file cannot be read, or the handler fails
+     */
+    public void parse(Path path, BatchHandler handler) throws IOException {
+        state = State.BETWEEN_HANDS;
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = fileChannel.size();
+            // exports written with a UTF-8 byte order mark start their first line after it
+            long position = startsWithByteOrderMark(fileChannel) ? BYTE_ORDER_MARK.length : 0;
+            boolean isSkippingLongLine = false;
+            while (position < fileSize) {
+                int windowLength = (int) Math.min(windowSize, fileSize - position);
+                MappedByteBuffer window = fileChannel.map(FileChannel.MapMode.READ_ONLY, position, windowLength);
+                int lineStart = 0;
+                for (int i = 0; i < windowLength; i++) {
+                    if (window.get(i) == '\n') {
+                        if (isSkippingLongLine) {
+                            isSkippingLongLine = false;
+                        } else {
+                            onLine(window, lineStart, trimCarriageReturn(window, lineStart, i), handler);
+                        }
+                        lineStart = i + 1;
+                    }
+                }
+
+                if (position + windowLength == fileSize) {
+                    // the last line may be missing its terminator
+                    if (lineStart < windowLength && !isSkippingLongLine)
+                        onLine(window, lineStart, trimCarriageReturn(window, lineStart, windowLength), handler);
+                    position = fileSize;
+                } else if (lineStart == 0) {
+                    // a window without a line terminator holds part of a line too long to be parsed
+                    isSkippingLongLine = true;
+                    isValid = false;
+                    position += windowLength;
+                } else {
+                    position += lineStart;
+                }
+            }
+            byteCount += fileSize;
+        }
+        endHand(handler);
+        flush(handler);
+    }
+
+    // moves the state machine on by a line
+    private void onLine(ByteBuffer buffer, int start, int end, BatchHandler handler) throws IOException {
+        if (startsWith(buffer, start, end, HAND_HEADER)) {
+            endHand(handler);
+            startHand(buffer, start, end);
+            return;
+        }
+
+        switch (state) {
+            case IN_HAND:
+                if (startsWith(buffer, start, end, DEALT_TO)) {
+                    // the hole cards are in the last brackets, after the name of the hero
+                    int i = lastIndexOf(buffer, start + DEALT_TO.length, end, (byte) '[');
+                    if (i >= 0) {
+                        heroCardMask = parseCards(buffer, i + 1, end);
+                        isValid &= Long.bitCount(heroCardMask) == 2;
+                    }
+                } else if (startsWith(buffer, start, end, SUMMARY)) {
+                    state = State.IN_SUMMARY;
+                }
+                break;
+            case IN_SUMMARY:
+                if (start == end) {
+                    endHand(handler);
+                } else if (startsWith(buffer, start, end, BOARD)) {
+                    boardCardMask = parseCards(buffer, start + BOARD.length, end);
+                    isValid &= boardCardMask != INVALID_CARDS && Long.bitCount(boardCardMask) <= 5;
+                } else if (startsWith(buffer, start, end, SEAT)) {
+                    onSeatLine(buffer, start + SEAT.length, end);
+                }
+                break;
+            default:
+                // lines between hands are ignored
+        }
+    }
+
+    // parses a header line, e.g., "PokerStars Hand #233014375071: Hold'em No Limit ...", starting a hand
+    private void startHand(ByteBuffer buffer, int start, int end) {
+        int i = indexOf(buffer, start, end, (byte) '#');
+        if (i < 0 || indexOf(buffer, i, end, HOLD_EM) < 0) {
+            // a hand of another game
+            state = State.BETWEEN_HANDS;
+            skippedHandCount++;
+            return;
+        }
+
+        handId = 0;
+        for (i++; i < end && isDigit(buffer.get(i)); i++) {
+            handId = handId * 10 + buffer.get(i) - '0';
+        }
+        state = State.IN_HAND;
+        boardCardMask = 0;
+        heroCardMask = 0;
+        numberOfPlayers = 0;
+        isValid = true;
+    }
+
+    // parses a seat line of a summary after "Seat ", e.g., "2: Villain (small blind) showed [Qc Qs] and won ...",
+    // adding the player if they showed or mucked their hole cards
+    private void onSeatLine(ByteBuffer buffer, int start, int end) {
+        int seat = 0;
+        int i = start;
+        for (; i < end && isDigit(buffer.get(i)); i++) {
+            seat = seat * 10 + buffer.get(i) - '0';
+        }
+        if (i == start || i == end || buffer.get(i) != ':')
+            return;
+
+        int cards = indexOf(buffer, i, end, SHOWED);
+        if (cards < 0)
+            cards = indexOf(buffer, i, end, MUCKED);
+        if (cards < 0)
+            return;
+
+        long holeCardMask = parseCards(buffer, cards + SHOWED.length, end);
+        if (Long.bitCount(holeCardMask) != 2 || numberOfPlayers == HandHistoryBatch.MAXIMUM_NUMBER_OF_PLAYERS) {
+            isValid = false;
+            return;
+        }
+        seats[numberOfPlayers] = seat;
+        holeCardMasks[numberOfPlayers++] = holeCardMask;
+    }
+
+    // adds the hand being parsed to the batch if its summary was parsed, and its cards are valid, or skips it
+    private void endHand(BatchHandler handler) throws IOException {
+        if (state == State.BETWEEN_HANDS)
+            return;
+
+        boolean isSummaryParsed = state == State.IN_SUMMARY;
+        state = State.BETWEEN_HANDS;
+        if (!isSummaryParsed || !isValid || !areCardsDistinct()) {
+            skippedHandCount++;
+            return;
+        }
+
+        batch.add(handId, boardCardMask, heroCardMask, seats, holeCardMasks, numberOfPlayers);
+        handCount++;
+        if (batch.isFull())
+            flush(handler);
+    }
+
+    // whether no card was dealt twice; the hero showing their own hole cards is not dealing them twice
+    private boolean areCardsDistinct() {
+        long dealtCardMask = boardCardMask;
+        boolean isHeroShowing = false;
+        for (int player = 0; player < numberOfPlayers; player++) {
+            if (holeCardMasks[player] == heroCardMask)
+                isHeroShowing = true;
+            if ((dealtCardMask & holeCardMasks[player]) != 0)
+                return false;
+            dealtCardMask |= holeCardMasks[player];
+        }
+        return isHeroShowing || (dealtCardMask & heroCardMask) == 0;
+    }
+
+    private void flush(BatchHandler handler) throws IOException {
+        if (batch.size() == 0)
+            return;
+
+        batch.evaluate();
+        handler.onBatch(batch);
+        batch.clear();
+    }
+
+    // parses the cards from index i up to the closing bracket, e.g., "Ah Kd]", returning their card mask, or
+    // INVALID_CARDS if they are not distinct valid cards
+    private static long parseCards(ByteBuffer buffer, int i, int end) {
+        long cardMask = 0;
+        while (i + 1 < end && buffer.get(i) != ']') {
+            int card = PackedPokerHandAnalyzer.parseCard(buffer.get(i), toUpperCase(buffer.get(i + 1)));
+            if (card == PackedPokerHandAnalyzer.INVALID_CARD || (cardMask & 1L << card) != 0)
+                return INVALID_CARDS;
+            cardMask |= 1L << card;
+            i += 2;
+            if (i < end && buffer.get(i) == ' ')
+                i++;
+        }
+        return i < end && buffer.get(i) == ']' ? cardMask : INVALID_CARDS;
+    }
+
+    private static boolean startsWithByteOrderMark(FileChannel fileChannel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BYTE_ORDER_MARK.length);
+        while (buffer.hasRemaining() && fileChannel.read(buffer, buffer.position()) >= 0) {
+            // keep reading until the whole mark has been read
+        }
+        return startsWith(buffer, 0, buffer.position(), BYTE_ORDER_MARK);
+    }
+
+    private static boolean startsWith(ByteBuffer buffer, int start, int end, byte[] prefix) {
+        if (end - start < prefix.length)
+            return false;
+
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.get(start + i) != prefix[i])
+                return false;
+        }
+        return true;
+    }
+
+    private static int indexOf(ByteBuffer buffer, int start, int end, byte b) {
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) == b)
+                return i;
+        }
+        return -1;
+    }
+
+    private static int indexOf(ByteBuffer buffer, int start, int end, byte[] bytes) {
+        for (int i = start; i <= end - bytes.length; i++) {
+            if (startsWith(buffer, i, end, bytes))
+                return i;
+        }
+        return -1;
+    }
+
+    private static int lastIndexOf(ByteBuffer buffer, int start, int end, byte b) {
+        for (int i = end - 1; i >= start; i--) {
+            if (buffer.get(i) == b)
+                return i;
+        }
+        return -1;
+    }
+
+    private static int trimCarriageReturn(ByteBuffer buffer, int start, int end) {
+        return end > start && buffer.get(end - 1) == '\r' ? end - 1 : end;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    // site exports write suits in lower case, e.g., "Ah"
+    private static byte toUpperCase(byte b) {
+        return b >= 'a' && b <= 'z' ? (byte) (b - 'a' + 'A') : b;
+    }
+
+    private static byte[] getBytes(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("usage: HandHistoryParser <hand-history file>...");
+            System.exit(2);
+        }
+
+        HandHistoryParser parser = new HandHistoryParser();
+        long[] handTypeCounts = new long[PokerHandType.values().length];
+        long start = System.nanoTime();
+        for (String arg : args) {
+            parser.parse(Paths.get(arg), batch -> {
+                for (int hand = 0; hand < batch.size(); hand++) {
+                    for (int player = batch.getFirstPlayer(hand);
+                         player < batch.getFirstPlayer(hand) + batch.getNumberOfPlayers(hand); player++) {
+                        if (batch.getStrength(player) != HandHistoryBatch.NO_STRENGTH)
+                            handTypeCounts[PackedPokerHandAnalyzer.getPokerHandType(batch.getStrength(player))
+                                    .ordinal()]++;
+                    }
+                }
+            });
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d hands parsed, %d skipped, %.1f MB/s%n", parser.getHandCount(),
+                parser.getSkippedHandCount(), parser.getByteCount() / 1e6 / seconds);
+        for (PokerHandType pokerHandType : PokerHandType.values()) {
+            System.out.printf("%-16s %d%n", pokerHandType, handTypeCounts[pokerHandType.ordinal()]);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package pokerhandanalyzer.io;
+
+import pokerhandanalyzer.PackedPokerHandAnalyzer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Converts text hand files, holding one string representation of two five-card poker hands per line, e.g.,
+ * "AH TD 5C 9S JS 3D 7H 5S JC 5H", into binary hand-record files holding one two-hand record per line.
+ *
+ * Run as a program: java ... HandRecordConverter hands.txt hands.phr [--strengths]
+ */
+public class HandRecordConverter {
+    private static final int HANDS_PER_LINE = 2;
+
+    private HandRecordConverter() {
+    }
+
+    /**
+     * Converts every line read from a channel, until it reaches its end, into a record. Blank lines are skipped.
+     * @param in the channel to read lines from
+     * @param writer the writer to write records to, which must hold two hands per record
+     * @throws IOException if reading or writing fails, or a line is not a valid pair of hands
+     */
+    public static void convert(ReadableByteChannel in, HandRecordWriter writer) throws IOException {
+        int[] cards = new int[HANDS_PER_LINE * HandRecordFormat.CARDS_PER_HAND];
+        new LineReader(PipePokerHandAnalyzer.DEFAULT_BUFFER_SIZE).read(in, new LineReader.LineHandler() {
+            private long lineNumber;
+
+            @Override
+            public void onLine(ByteBuffer buffer, int start, int end) throws IOException {
+                lineNumber++;
+                if (isBlank(buffer, start, end))
+                    return;
+
+                if (!PackedPokerHandAnalyzer.parseCards(buffer, start, end, cards, 0, cards.length))
+                    throw new IOException("line " + lineNumber + " is not a valid pair of hands");
+                writer.write(cards, 0);
+            }
+
+            @Override
+            public void onLineTooLong() throws IOException {
+                throw new IOException("line " + (lineNumber + 1) + " is too long to be a pair of hands");
+            }
+        });
+    }
+
+    /**
+     * Converts a text hand file into a binary hand-record file.
+     * @param textFile the path of the text file
+     * @param recordFile the path of the hand-record file to create
+     * @param hasStrengths whether to store the strength of each hand along with its cards
+     * @return the number of records written
+     * @throws IOException if reading or writing fails, or a line is not a valid pair of hands
+     */
+    public static long convert(Path textFile, Path recordFile, boolean hasStrengths) throws IOException {
+        try (FileChannel in = FileChannel.open(textFile, StandardOpenOption.READ);
+             HandRecordWriter writer = new HandRecordWriter(recordFile, HANDS_PER_LINE, hasStrengths)) {
+            convert(in, writer);
+            return writer.getRecordCount();
+        }
+    }
+
+    private static boolean isBlank(ByteBuffer buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) != ' ' && buffer.get(i) != '\t')
+                return false;
+        }
+        return true;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: HandRecordConverter <text file> <record file> [--strengths]");
+            System.exit(2);
+        }
+        boolean hasStrengths = args.length > 2 && args[2].equals("--strengths");
+        long recordCount = convert(Paths.get(args[0]), Paths.get(args[1]), hasStrengths);
+        System.out.println(recordCount + " records written");
+    }
+}
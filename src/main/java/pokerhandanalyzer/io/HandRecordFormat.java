@@ -0,0 +1,26 @@
+package pokerhandanalyzer.io;
+
+// The layout of a binary hand-record file. The file starts with a 16 byte header:
+//   bytes 0-3   the magic number "PHRF"
+//   byte  4     the format version
+//   byte  5     the number of five-card hands in each record, e.g., 2 for the two hands of an analyzeHands line
+//   byte  6     flags; bit 0 is set when each record also holds the precomputed strength of each of its hands
+//   byte  7     reserved, zero
+//   bytes 8-15  the number of records, as a big-endian long
+// followed by the records, back to back. A record holds one byte per card, the card packed as by
+// PackedPokerHandAnalyzer, followed, when the strength flag is set, by the strength of each hand as a big-endian int.
+final class HandRecordFormat {
+    static final int MAGIC = 0x50485246; // "PHRF"
+    static final byte VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_COUNT_OFFSET = 8;
+    static final int STRENGTH_FLAG = 1;
+    static final int CARDS_PER_HAND = 5;
+
+    private HandRecordFormat() {
+    }
+
+    static int getRecordSize(int handsPerRecord, boolean hasStrengths) {
+        return handsPerRecord * CARDS_PER_HAND + (hasStrengths ? handsPerRecord * Integer.BYTES : 0);
+    }
+}
@@ -0,0 +1,154 @@
+package pokerhandanalyzer.io;
+
+import pokerhandanalyzer.PackedPokerHandAnalyzer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a binary hand-record file written by {@link HandRecordWriter}. The file is memory-mapped, so records are read
+ * straight from the page cache without being copied or parsed, and can be accessed in any order and from any number of
+ * threads. Files larger than a single mapping allows are mapped in several segments, each holding a whole number of
+ * records.
+ */
+public class HandRecordReader implements Closeable {
+    // the largest size of a single mapping
+    private static final long MAX_SEGMENT_SIZE = Integer.MAX_VALUE;
+
+    private final FileChannel fileChannel;
+    private final MappedByteBuffer[] segments;
+    private final int handsPerRecord;
+    private final boolean hasStrengths;
+    private final int recordSize;
+    private final long recordCount;
+    private final long recordsPerSegment;
+
+    /**
+     * Opens and maps a hand-record file.
+     * @param path the path of the file
+     * @throws IOException if the file cannot be read, or is not a valid hand-record file
+     */
+    public HandRecordReader(Path path) throws IOException {
+        fileChannel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HandRecordFormat.HEADER_SIZE);
+            while (header.hasRemaining() && fileChannel.read(header, header.position()) >= 0) {
+                // keep reading until the whole header has been read
+            }
+            header.flip();
+            if (header.remaining() < HandRecordFormat.HEADER_SIZE || header.getInt() != HandRecordFormat.MAGIC)
+                throw new IOException(path + " is not a hand-record file");
+            byte version = header.get();
+            if (version != HandRecordFormat.VERSION)
+                throw new IOException(path + " has unsupported hand-record format version " + version);
+
+            handsPerRecord = header.get();
+            hasStrengths = (header.get() & HandRecordFormat.STRENGTH_FLAG) != 0;
+            header.get();
+            recordCount = header.getLong(HandRecordFormat.RECORD_COUNT_OFFSET);
+            recordSize = HandRecordFormat.getRecordSize(handsPerRecord, hasStrengths);
+            // compared by division, as a corrupt count could overflow the size of the records
+            if (handsPerRecord < 1 || recordCount < 0
+                    || recordCount > (fileChannel.size() - HandRecordFormat.HEADER_SIZE) / recordSize)
+                throw new IOException(path + " is truncated or corrupt");
+
+            recordsPerSegment = MAX_SEGMENT_SIZE / recordSize;
+            segments = new MappedByteBuffer[(int) ((recordCount + recordsPerSegment - 1) / recordsPerSegment)];
+            for (int i = 0; i < segments.length; i++) {
+                long firstRecord = i * recordsPerSegment;
+                long numberOfRecords = Math.min(recordsPerSegment, recordCount - firstRecord);
+                segments[i] = fileChannel.map(FileChannel.MapMode.READ_ONLY,
+                        HandRecordFormat.HEADER_SIZE + firstRecord * recordSize, numberOfRecords * recordSize);
+            }
+        } catch (IOException | RuntimeException e) {
+            fileChannel.close();
+            throw e;
+        }
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    public int getHandsPerRecord() {
+        return handsPerRecord;
+    }
+
+    public int getCardsPerRecord() {
+        return handsPerRecord * HandRecordFormat.CARDS_PER_HAND;
+    }
+
+    public boolean hasStrengths() {
+        return hasStrengths;
+    }
+
+    /**
+     * @param record the index of the record
+     * @param index the index of the card within the record
+     * @return the packed card
+     */
+    public int getCard(long record, int index) {
+        return segments[(int) (record / recordsPerSegment)].get(getPosition(record) + index);
+    }
+
+    /**
+     * Copies the packed cards of a record into an array.
+     * @param record the index of the record
+     * @param cards the array to copy the cards into
+     * @param offset the index in the array to copy the first card to
+     */
+    public void getCards(long record, int[] cards, int offset) {
+        MappedByteBuffer segment = segments[(int) (record / recordsPerSegment)];
+        int position = getPosition(record);
+        int numberOfCards = getCardsPerRecord();
+        for (int i = 0; i < numberOfCards; i++) {
+            cards[offset + i] = segment.get(position + i);
+        }
+    }
+
+    /**
+     * Gets the strength of one of the hands of a record, as evaluated by {@link PackedPokerHandAnalyzer}. The stored
+     * strength is used if the file has them, and the hand is evaluated otherwise.
+     * @param record the index of the record
+     * @param hand the index of the hand within the record
+     * @return the strength of the hand
+     */
+    public int getStrength(long record, int hand) {
+        MappedByteBuffer segment = segments[(int) (record / recordsPerSegment)];
+        int position = getPosition(record);
+        if (hasStrengths)
+            return segment.getInt(position + getCardsPerRecord() + hand * Integer.BYTES);
+
+        int cardPosition = position + hand * HandRecordFormat.CARDS_PER_HAND;
+        return PackedPokerHandAnalyzer.evaluate(segment.get(cardPosition), segment.get(cardPosition + 1),
+                segment.get(cardPosition + 2), segment.get(cardPosition + 3), segment.get(cardPosition + 4));
+    }
+
+    /**
+     * Analyzes a record holding two hands, as {@link pokerhandanalyzer.StringPokerHandAnalyzer#analyzeHands(String)}
+     * does for its string representation.
+     * @param record the index of the record
+     * @return a positive value if the first hand won, a negative value if the second hand won, and zero otherwise
+     */
+    public int analyzeHands(long record) {
+        if (handsPerRecord != 2)
+            throw new IllegalStateException("the records do not hold two hands");
+
+        return Integer.compare(getStrength(record, 0), getStrength(record, 1));
+    }
+
+    // the position of the record within its segment
+    private int getPosition(long record) {
+        return (int) (record % recordsPerSegment) * recordSize;
+    }
+
+    @Override
+    public void close() throws IOException {
+        fileChannel.close();
+    }
+}
@@ -0,0 +1,107 @@
+package pokerhandanalyzer.io;
+
+import pokerhandanalyzer.PackedPokerHandAnalyzer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes a binary hand-record file, readable with {@link HandRecordReader}. Each record holds a fixed number of
+ * five-card hands, one byte per card, and optionally the precomputed strength of each hand, so readers never have to
+ * parse or evaluate the hands again. Records are collected in a buffer and written in large blocks.
+ */
+public class HandRecordWriter implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final FileChannel fileChannel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final int handsPerRecord;
+    private final boolean hasStrengths;
+    private final int recordSize;
+    private long recordCount;
+
+    /**
+     * Creates a new file, replacing any existing one.
+     * @param path the path of the file
+     * @param handsPerRecord the number of five-card hands in each record, from 1 to 127
+     * @param hasStrengths whether to store the strength of each hand along with its cards
+     * @throws IOException if the file cannot be created
+     */
+    public HandRecordWriter(Path path, int handsPerRecord, boolean hasStrengths) throws IOException {
+        if (handsPerRecord < 1 || handsPerRecord > Byte.MAX_VALUE)
+            throw new IllegalArgumentException("a record must hold from 1 to 127 hands");
+
+        this.fileChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.handsPerRecord = handsPerRecord;
+        this.hasStrengths = hasStrengths;
+        this.recordSize = HandRecordFormat.getRecordSize(handsPerRecord, hasStrengths);
+
+        buffer.putInt(HandRecordFormat.MAGIC);
+        buffer.put(HandRecordFormat.VERSION);
+        buffer.put((byte) handsPerRecord);
+        buffer.put((byte) (hasStrengths ? HandRecordFormat.STRENGTH_FLAG : 0));
+        buffer.put((byte) 0);
+        buffer.putLong(0L); // the record count, filled in on close
+    }
+
+    /**
+     * Writes a record.
+     * @param cards the array holding the packed cards of the record's hands, one after another
+     * @param offset the index of the first card of the record
+     * @throws IOException if writing fails
+     */
+    public void write(int[] cards, int offset) throws IOException {
+        // every card is checked before any is buffered, so an invalid record leaves no partial record behind
+        int numberOfCards = handsPerRecord * HandRecordFormat.CARDS_PER_HAND;
+        for (int i = offset; i < offset + numberOfCards; i++) {
+            if (cards[i] < 0 || cards[i] >= PackedPokerHandAnalyzer.NUMBER_OF_CARDS)
+                throw new IllegalArgumentException("invalid packed card " + cards[i]);
+        }
+
+        if (buffer.remaining() < recordSize)
+            flush();
+        for (int i = offset; i < offset + numberOfCards; i++) {
+            buffer.put((byte) cards[i]);
+        }
+        if (hasStrengths) {
+            for (int i = offset; i < offset + numberOfCards; i += HandRecordFormat.CARDS_PER_HAND) {
+                buffer.putInt(PackedPokerHandAnalyzer.evaluate(cards, i));
+            }
+        }
+        recordCount++;
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    public int getCardsPerRecord() {
+        return handsPerRecord * HandRecordFormat.CARDS_PER_HAND;
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            fileChannel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+            buffer.putLong(recordCount).flip();
+            while (buffer.hasRemaining()) {
+                fileChannel.write(buffer, HandRecordFormat.RECORD_COUNT_OFFSET + buffer.position());
+            }
+        } finally {
+            fileChannel.close();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package pokerhandanalyzer.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Reads lines from a channel through a reusable direct buffer, handing each line to a handler in place, without copying
+ * it. Lines split across reads are carried over by compacting the buffer, so memory use is constant however much input
+ * arrives.
+ */
+public final class LineReader {
+    private final ByteBuffer buffer;
+
+    public interface LineHandler {
+        /**
+         * Handles a line, which is only valid until this method returns.
+         * @param buffer the buffer holding the line
+         * @param start the index of the first byte of the line
+         * @param end the index one past the last byte of the line, not counting the line terminator
+         * @throws IOException if handling the line fails
+         */
+        void onLine(ByteBuffer buffer, int start, int end) throws IOException;
+
+        /**
+         * Handles a line too long to fit in the buffer, which is skipped.
+         * @throws IOException if handling the line fails
+         */
+        void onLineTooLong() throws IOException;
+    }
+
+    /**
+     * @param bufferSize the size of the buffer, which is the length of the longest line that can be read
+     */
+    public LineReader(int bufferSize) {
+        buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    /**
+     * Reads every line from the channel until it reaches its end. Lines may be terminated by either "\n" or "\r\n", and
+     * the last line need not be terminated at all.
+     * @param in the channel to read lines from
+     * @param handler the handler to hand each line to
+     * @throws IOException if reading fails, or the handler fails
+     */
+    public void read(ReadableByteChannel in, LineHandler handler) throws IOException {
+        buffer.clear();
+        boolean isSkippingLongLine = false;
+
+        while (in.read(buffer) >= 0) {
+            buffer.flip();
+            int lineStart = buffer.position();
+            for (int i = lineStart; i < buffer.limit(); i++) {
+                if (buffer.get(i) == '\n') {
+                    if (isSkippingLongLine) {
+                        isSkippingLongLine = false;
+                    } else {
+                        handler.onLine(buffer, lineStart, trimCarriageReturn(lineStart, i));
+                    }
+                    lineStart = i + 1;
+                }
+            }
+            buffer.position(lineStart);
+
+            // a full buffer without a line terminator holds the start of a line too long to be read
+            if (buffer.position() == 0 && buffer.limit() == buffer.capacity()) {
+                if (!isSkippingLongLine)
+                    handler.onLineTooLong();
+                isSkippingLongLine = true;
+                buffer.position(buffer.limit());
+            }
+            buffer.compact();
+        }
+
+        // the last line may be missing its terminator
+        buffer.flip();
+        if (buffer.hasRemaining() && !isSkippingLongLine)
+            handler.onLine(buffer, buffer.position(), trimCarriageReturn(buffer.position(), buffer.limit()));
+    }
+
+    private int trimCarriageReturn(int start, int end) {
+        return end > start && buffer.get(end - 1) == '\r' ? end - 1 : end;
+    }
+}
@@ -0,0 +1,96 @@
+package pokerhandanalyzer.io;
+
+import pokerhandanalyzer.PackedPokerHandAnalyzer;
+
+import java.io.FileInputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Analyzes a stream of lines, each a string representation of two five-card poker hands, e.g.,
+ * "AH TD 5C 9S JS 3D 7H 5S JC 5H", writing a line holding 'left', 'right', 'neither', or 'error' for each. Lines are
+ * analyzed in place in a reusable input buffer, and results are collected in a reusable output buffer that is only
+ * written once full, so memory use is constant however much input arrives.
+ *
+ * Run as a program, it streams standard input to standard output: cat hands.txt | java ... PipePokerHandAnalyzer
+ */
+public class PipePokerHandAnalyzer {
+    static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    private static final byte[] LEFT = "left\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] RIGHT = "right\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NEITHER = "neither\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ERROR = "error\n".getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_RESULT_LENGTH = NEITHER.length;
+
+    private final LineReader lineReader;
+    private final ByteBuffer output;
+
+    public PipePokerHandAnalyzer() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    PipePokerHandAnalyzer(int bufferSize) {
+        lineReader = new LineReader(bufferSize);
+        output = ByteBuffer.allocateDirect(Math.max(bufferSize, MAX_RESULT_LENGTH));
+    }
+
+    /**
+     * Analyzes every line read from the input channel until it reaches its end, and writes the results to the output
+     * channel. Lines may be terminated by either "\n" or "\r\n", and the last line need not be terminated at all. A line
+     * longer than the input buffer is answered with 'error'.
+     * @param in the channel to read lines from
+     * @param out the channel to write results to
+     * @throws IOException if reading or writing fails
+     */
+    public void run(ReadableByteChannel in, WritableByteChannel out) throws IOException {
+        output.clear();
+        lineReader.read(in, new LineReader.LineHandler() {
+            @Override
+            public void onLine(ByteBuffer buffer, int start, int end) throws IOException {
+                writeResult(PackedPokerHandAnalyzer.analyzeHands(buffer, start, end), out);
+            }
+
+            @Override
+            public void onLineTooLong() throws IOException {
+                writeResult(PackedPokerHandAnalyzer.ERROR, out);
+            }
+        });
+        flush(out);
+    }
+
+    private void writeResult(int result, WritableByteChannel out) throws IOException {
+        if (output.remaining() < MAX_RESULT_LENGTH)
+            flush(out);
+
+        if (result == PackedPokerHandAnalyzer.ERROR) {
+            output.put(ERROR);
+        } else if (result > 0) {
+            output.put(LEFT);
+        } else if (result < 0) {
+            output.put(RIGHT);
+        } else {
+            output.put(NEITHER);
+        }
+    }
+
+    private void flush(WritableByteChannel out) throws IOException {
+        output.flip();
+        while (output.hasRemaining()) {
+            out.write(output);
+        }
+        output.clear();
+    }
+
+    public static void main(String[] args) throws IOException {
+        try (FileInputStream in = new FileInputStream(FileDescriptor.in);
+             FileOutputStream out = new FileOutputStream(FileDescriptor.out)) {
+            new PipePokerHandAnalyzer().run(in.getChannel(), out.getChannel());
+        }
+    }
+}
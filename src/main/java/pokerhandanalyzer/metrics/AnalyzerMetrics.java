@@ -0,0 +1,210 @@
+package pokerhandanalyzer.metrics;
+
+import pokerhandanalyzer.enums.AnalyzerStage;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in instrumentation of the hot paths of the analyzers. When enabled, every stage of an analysis records its
+ * latency into a preallocated {@link LatencyHistogram}, calls slower than a threshold are emitted as JDK Flight
+ * Recorder events, and the statistics are exposed over JMX once {@link #registerMBean()} has been called. The events
+ * are only emitted by builds made on JDK 11 or later, running on a JDK with Flight Recorder; see
+ * {@link FlightRecorderEvents}.
+ *
+ * Metrics are disabled by default, or enabled from startup with -Dpokerhandanalyzer.metrics=true. While disabled, the
+ * only cost to the instrumented code is reading a single volatile flag:
+ * <pre>
+ *     long start = AnalyzerMetrics.start();
+ *     ... the stage being measured ...
+ *     AnalyzerMetrics.stop(AnalyzerStage.PARSE, start);
+ * </pre>
+ */
+public final class AnalyzerMetrics {
+    public static final String OBJECT_NAME = "pokerhandanalyzer:type=AnalyzerMetrics";
+
+    // returned by start() while metrics are disabled, so that stop() records nothing
+    private static final long NOT_STARTED = Long.MIN_VALUE;
+    // null when the events were not compiled or the JDK has no Flight Recorder
+    private static final FlightRecorderEvents FLIGHT_RECORDER_EVENTS = loadFlightRecorderEvents();
+
+    private static volatile boolean enabled = Boolean.getBoolean("pokerhandanalyzer.metrics");
+    private static volatile long slowCallThresholdNanos = 1_000_000;
+
+    private static final LatencyHistogram[] STAGE_HISTOGRAMS = new LatencyHistogram[AnalyzerStage.values().length];
+    private static final LatencyHistogram BATCH_HISTOGRAM = new LatencyHistogram();
+    private static final LongAdder BATCHED_ITEM_COUNT = new LongAdder();
+
+    static {
+        for (int i = 0; i < STAGE_HISTOGRAMS.length; i++) {
+            STAGE_HISTOGRAMS[i] = new LatencyHistogram();
+        }
+    }
+
+    private AnalyzerMetrics() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        AnalyzerMetrics.enabled = enabled;
+    }
+
+    public static long getSlowCallThresholdNanos() {
+        return slowCallThresholdNanos;
+    }
+
+    /**
+     * @param slowCallThresholdNanos the latency above which calls and batches are emitted as Flight Recorder events
+     */
+    public static void setSlowCallThresholdNanos(long slowCallThresholdNanos) {
+        AnalyzerMetrics.slowCallThresholdNanos = slowCallThresholdNanos;
+    }
+
+    /**
+     * Marks the start of a stage.
+     * @return the start time to pass to {@link #stop(AnalyzerStage, long)}
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : NOT_STARTED;
+    }
+
+    /**
+     * Marks the end of a stage, recording its latency if metrics were enabled when it started.
+     * @param stage the stage that ended
+     * @param start the start time returned by {@link #start()}
+     */
+    public static void stop(AnalyzerStage stage, long start) {
+        if (start == NOT_STARTED)
+            return;
+
+        long durationNanos = System.nanoTime() - start;
+        STAGE_HISTOGRAMS[stage.ordinal()].record(durationNanos);
+        if (durationNanos > slowCallThresholdNanos && FLIGHT_RECORDER_EVENTS != null)
+            FLIGHT_RECORDER_EVENTS.emitSlowCall(stage, durationNanos);
+    }
+
+    /**
+     * Marks the end of a batch of analyses, recording its latency if metrics were enabled when it started.
+     * @param size the number of analyses in the batch
+     * @param start the start time returned by {@link #start()}
+     */
+    public static void stopBatch(int size, long start) {
+        if (start == NOT_STARTED)
+            return;
+
+        long durationNanos = System.nanoTime() - start;
+        BATCH_HISTOGRAM.record(durationNanos);
+        BATCHED_ITEM_COUNT.add(size);
+        if (durationNanos > slowCallThresholdNanos && FLIGHT_RECORDER_EVENTS != null)
+            FLIGHT_RECORDER_EVENTS.emitBatch(size, durationNanos);
+    }
+
+    public static LatencyHistogram getHistogram(AnalyzerStage stage) {
+        return STAGE_HISTOGRAMS[stage.ordinal()];
+    }
+
+    public static LatencyHistogram getBatchHistogram() {
+        return BATCH_HISTOGRAM;
+    }
+
+    public static long getBatchedItemCount() {
+        return BATCHED_ITEM_COUNT.sum();
+    }
+
+    public static void reset() {
+        for (LatencyHistogram latencyHistogram : STAGE_HISTOGRAMS) {
+            latencyHistogram.reset();
+        }
+        BATCH_HISTOGRAM.reset();
+        BATCHED_ITEM_COUNT.reset();
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server under {@link #OBJECT_NAME}, unless already registered.
+     */
+    public static void registerMBean() {
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        try {
+            mBeanServer.registerMBean(new MXBean(), new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // another caller registered them first
+        } catch (JMException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // The event classes are only loaded here, so JDKs without Flight Recorder never try to load them.
+    private static FlightRecorderEvents loadFlightRecorderEvents() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return (FlightRecorderEvents) Class.forName(FlightRecorderEvents.IMPLEMENTATION_CLASS_NAME)
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    private static class MXBean implements AnalyzerMetricsMXBean {
+        @Override
+        public boolean isEnabled() {
+            return AnalyzerMetrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean enabled) {
+            AnalyzerMetrics.setEnabled(enabled);
+        }
+
+        @Override
+        public long getSlowCallThresholdNanos() {
+            return AnalyzerMetrics.getSlowCallThresholdNanos();
+        }
+
+        @Override
+        public void setSlowCallThresholdNanos(long slowCallThresholdNanos) {
+            AnalyzerMetrics.setSlowCallThresholdNanos(slowCallThresholdNanos);
+        }
+
+        @Override
+        public StageStatistics getAnalyzeHands() {
+            return StageStatistics.of(getHistogram(AnalyzerStage.ANALYZE_HANDS));
+        }
+
+        @Override
+        public StageStatistics getParse() {
+            return StageStatistics.of(getHistogram(AnalyzerStage.PARSE));
+        }
+
+        @Override
+        public StageStatistics getEvaluate() {
+            return StageStatistics.of(getHistogram(AnalyzerStage.EVALUATE));
+        }
+
+        @Override
+        public StageStatistics getTieBreak() {
+            return StageStatistics.of(getHistogram(AnalyzerStage.TIE_BREAK));
+        }
+
+        @Override
+        public StageStatistics getBatch() {
+            return StageStatistics.of(getBatchHistogram());
+        }
+
+        @Override
+        public long getBatchedItemCount() {
+            return AnalyzerMetrics.getBatchedItemCount();
+        }
+
+        @Override
+        public void reset() {
+            AnalyzerMetrics.reset();
+        }
+    }
+}
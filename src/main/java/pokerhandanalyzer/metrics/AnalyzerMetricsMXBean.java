@@ -0,0 +1,28 @@
+package pokerhandanalyzer.metrics;
+
+/**
+ * The management interface of {@link AnalyzerMetrics}, registered as "pokerhandanalyzer:type=AnalyzerMetrics".
+ */
+public interface AnalyzerMetricsMXBean {
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    long getSlowCallThresholdNanos();
+
+    void setSlowCallThresholdNanos(long slowCallThresholdNanos);
+
+    StageStatistics getAnalyzeHands();
+
+    StageStatistics getParse();
+
+    StageStatistics getEvaluate();
+
+    StageStatistics getTieBreak();
+
+    StageStatistics getBatch();
+
+    long getBatchedItemCount();
+
+    void reset();
+}
@@ -0,0 +1,16 @@
+package pokerhandanalyzer.metrics;
+
+import pokerhandanalyzer.enums.AnalyzerStage;
+
+/**
+ * Emits the Flight Recorder events of {@link AnalyzerMetrics}. The implementation extends jdk.jfr.Event, which Java 8
+ * cannot compile against, so it lives in src/main/java-jfr, is only compiled when building on JDK 11 or later, and is
+ * looked up reflectively at runtime.
+ */
+interface FlightRecorderEvents {
+    String IMPLEMENTATION_CLASS_NAME = "pokerhandanalyzer.metrics.JdkFlightRecorderEvents";
+
+    void emitSlowCall(AnalyzerStage stage, long durationNanos);
+
+    void emitBatch(int size, long durationNanos);
+}
@@ -0,0 +1,55 @@
+package pokerhandanalyzer.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * A snapshot of the latency statistics of one stage of the analyzers, as exposed over JMX.
+ */
+public class StageStatistics {
+    private final long count;
+    private final double meanNanos;
+    private final long p50Nanos;
+    private final long p99Nanos;
+    private final long p999Nanos;
+    private final long maxNanos;
+
+    @ConstructorProperties({"count", "meanNanos", "p50Nanos", "p99Nanos", "p999Nanos", "maxNanos"})
+    public StageStatistics(long count, double meanNanos, long p50Nanos, long p99Nanos, long p999Nanos, long maxNanos) {
+        this.count = count;
+        this.meanNanos = meanNanos;
+        this.p50Nanos = p50Nanos;
+        this.p99Nanos = p99Nanos;
+        this.p999Nanos = p999Nanos;
+        this.maxNanos = maxNanos;
+    }
+
+    static StageStatistics of(LatencyHistogram latencyHistogram) {
+        return new StageStatistics(latencyHistogram.getCount(), latencyHistogram.getMeanNanos(),
+                latencyHistogram.getPercentileNanos(50), latencyHistogram.getPercentileNanos(99),
+                latencyHistogram.getPercentileNanos(99.9), latencyHistogram.getMaxNanos());
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMeanNanos() {
+        return meanNanos;
+    }
+
+    public long getP50Nanos() {
+        return p50Nanos;
+    }
+
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    public long getP999Nanos() {
+        return p999Nanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+}
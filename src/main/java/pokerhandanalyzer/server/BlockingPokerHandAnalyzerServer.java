@@ -0,0 +1,179 @@
+package pokerhandanalyzer.server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A blocking TCP server speaking the same line protocol as {@link PokerHandAnalyzerServer}, where every connection is
+ * served sequentially by its own task on an {@link ExecutorService}. This keeps connection handling simple to read and
+ * extend, and when the executor runs each task on a virtual thread, it scales to tens of thousands of concurrent
+ * clients without a large pool of platform threads.
+ */
+public class BlockingPokerHandAnalyzerServer implements Closeable {
+    private final InetSocketAddress address;
+    private final ExecutorService executorService;
+    private final Set<Socket> openSockets = ConcurrentHashMap.newKeySet();
+    private ServerSocket serverSocket;
+    private Thread acceptorThread;
+    private volatile boolean running;
+
+    /**
+     * @param address the address to bind to
+     * @param executorService the executor on which each connection is served; it is shut down when the server closes
+     */
+    public BlockingPokerHandAnalyzerServer(InetSocketAddress address, ExecutorService executorService) {
+        this.address = address;
+        this.executorService = executorService;
+    }
+
+    /**
+     * Creates a server that serves each connection on its own virtual thread when the running JDK supports them (JDK
+     * 21 and later), and on its own platform thread from a cached pool otherwise.
+     * @param address the address to bind to
+     * @return the server, not yet started
+     */
+    public static BlockingPokerHandAnalyzerServer withVirtualThreads(InetSocketAddress address) {
+        return new BlockingPokerHandAnalyzerServer(address, newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Creates a server that serves connections from a fixed pool of platform threads, so at most that many clients are
+     * served at once and the rest wait to be served.
+     * @param address the address to bind to
+     * @param numberOfThreads the size of the thread pool
+     * @return the server, not yet started
+     */
+    public static BlockingPokerHandAnalyzerServer withFixedThreadPool(InetSocketAddress address, int numberOfThreads) {
+        return new BlockingPokerHandAnalyzerServer(address, Executors.newFixedThreadPool(numberOfThreads));
+    }
+
+    /**
+     * @return whether this JDK can run tasks on virtual threads
+     */
+    public static boolean isVirtualThreadSupported() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    // The project targets Java 8, so the virtual thread executor is looked up reflectively rather than linked against.
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * Binds the server to its address and starts accepting connections on a background thread.
+     * @throws IOException if the server socket cannot be opened or bound
+     */
+    public synchronized void start() throws IOException {
+        if (running)
+            throw new IllegalStateException("the server is already running");
+
+        serverSocket = new ServerSocket();
+        serverSocket.bind(address);
+
+        running = true;
+        acceptorThread = new Thread(this::runAcceptLoop, "blocking-poker-hand-analyzer-server");
+        acceptorThread.start();
+    }
+
+    /**
+     * @return the port the server is bound to, useful when it was started on port 0
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!running)
+            return;
+
+        running = false;
+        serverSocket.close();
+        try {
+            acceptorThread.join();
+            // closing the sockets unblocks the tasks still waiting for requests from their clients
+            for (Socket socket : openSockets) {
+                closeQuietly(socket);
+            }
+            executorService.shutdownNow();
+            executorService.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runAcceptLoop() {
+        while (running) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                // the server socket was closed
+                break;
+            }
+
+            openSockets.add(socket);
+            try {
+                executorService.execute(() -> serve(socket));
+            } catch (RejectedExecutionException e) {
+                openSockets.remove(socket);
+                closeQuietly(socket);
+            }
+        }
+    }
+
+    // Serves a single connection until the client closes it. Results are flushed only once the client has no more
+    // requests waiting to be read, so pipelined requests are answered with a single write.
+    private void serve(Socket socket) {
+        try (Socket closeableSocket = socket;
+             BufferedReader reader = new BufferedReader(new InputStreamReader(
+                     closeableSocket.getInputStream(), StandardCharsets.US_ASCII), PokerHandAnalyzerServer.BUFFER_SIZE);
+             BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                     closeableSocket.getOutputStream(), StandardCharsets.US_ASCII), PokerHandAnalyzerServer.BUFFER_SIZE)) {
+            closeableSocket.setTcpNoDelay(true);
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                writer.write(LineProtocol.analyzeLine(line));
+                writer.write('\n');
+                if (!reader.ready())
+                    writer.flush();
+            }
+        } catch (IOException e) {
+            // the client failed or the server is shutting down; either way the connection is done
+        } finally {
+            openSockets.remove(socket);
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // nothing more can be done for this client
+        }
+    }
+}
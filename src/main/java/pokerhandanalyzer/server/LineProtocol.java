@@ -0,0 +1,35 @@
+package pokerhandanalyzer.server;
+
+import pokerhandanalyzer.StringPokerHandAnalyzer;
+import pokerhandanalyzer.warmup.EngineWarmUp;
+
+// The line protocol shared by the servers: each request line is a pair of hands in the format accepted by
+// StringPokerHandAnalyzer.analyzeHands, and each response line is 'left', 'right', 'neither', or 'error'.
+final class LineProtocol {
+    static final String ERROR = "error";
+
+    private LineProtocol() {
+    }
+
+    // analyzes a single request line, answering 'error' for lines that are not a valid pair of hands
+    static String analyzeLine(String line) {
+        try {
+            return StringPokerHandAnalyzer.analyzeHands(line);
+        } catch (RuntimeException e) {
+            return ERROR;
+        }
+    }
+
+    // analyzes a single request line with the engine of a warm-up, which serves it with the reference analyzer until
+    // the fast engine is ready, or with the reference analyzer if there is no warm-up
+    static String analyzeLine(String line, EngineWarmUp engineWarmUp) {
+        if (engineWarmUp == null)
+            return analyzeLine(line);
+
+        try {
+            return engineWarmUp.analyzeHands(line);
+        } catch (RuntimeException e) {
+            return ERROR;
+        }
+    }
+}
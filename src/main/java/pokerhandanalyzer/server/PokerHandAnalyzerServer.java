@@ -0,0 +1,317 @@
+package pokerhandanalyzer.server;
+
+import pokerhandanalyzer.StringPokerHandAnalyzer;
+import pokerhandanalyzer.metrics.AnalyzerMetrics;
+import pokerhandanalyzer.warmup.EngineWarmUp;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A non-blocking TCP server that speaks a simple line protocol: every line sent by a client is a pair of hands in the
+ * format accepted by {@link StringPokerHandAnalyzer#analyzeHands(String)}, e.g., "AH TD 5C 9S JS 3D 7H 5S JC 5H", and
+ * every line is answered, in order, with a line holding 'left', 'right', 'neither', or 'error' if the line could not be
+ * analyzed.
+ *
+ * All connections are served by a single selector thread. Requests that arrive together are evaluated as one batch,
+ * and their results are written back with a single write, so a client may pipeline as many requests on a connection
+ * as it likes without waiting for the results.
+ *
+ * When given an {@link EngineWarmUp}, the server starts serving at once, with the reference analyzer, and switches to
+ * the fast engine as soon as the warm-up has made it ready.
+ */
+public class PokerHandAnalyzerServer implements Closeable {
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    // the longest result line, "neither\n", is eight bytes long
+    private static final int MAX_RESULT_LENGTH = 8;
+    // how long the server stops accepting after accepting a connection failed, e.g., for want of file descriptors,
+    // since the connection stays pending and would otherwise wake the selector again at once
+    private static final long ACCEPT_BACKOFF_MILLIS = 100;
+    private static final Logger LOGGER = Logger.getLogger(PokerHandAnalyzerServer.class.getName());
+
+    private final InetSocketAddress address;
+    private final EngineWarmUp engineWarmUp;
+    private Selector selector;
+    private ServerSocketChannel serverSocketChannel;
+    private SelectionKey acceptKey;
+    private boolean acceptPaused;
+    private long acceptResumeNanos;
+    private Thread selectorThread;
+    private volatile boolean running;
+
+    // scratch space for the lines of a single batch, reused across batches since only the selector thread uses it
+    private final byte[] lineBytes = new byte[BUFFER_SIZE];
+    private final String[] batch = new String[BUFFER_SIZE / MAX_RESULT_LENGTH];
+
+    public PokerHandAnalyzerServer(InetSocketAddress address) {
+        this(address, null);
+    }
+
+    /**
+     * @param address the address to bind to
+     * @param engineWarmUp the warm-up whose engine analyzes the requests, or null to analyze them with the reference
+     *                     analyzer
+     */
+    public PokerHandAnalyzerServer(InetSocketAddress address, EngineWarmUp engineWarmUp) {
+        this.address = address;
+        this.engineWarmUp = engineWarmUp;
+    }
+
+    /**
+     * Binds the server to its address and starts serving connections on a background thread.
+     * @throws IOException if the server socket cannot be opened or bound
+     */
+    public synchronized void start() throws IOException {
+        if (running)
+            throw new IllegalStateException("the server is already running");
+
+        selector = Selector.open();
+        serverSocketChannel = ServerSocketChannel.open();
+        serverSocketChannel.configureBlocking(false);
+        serverSocketChannel.bind(address);
+        acceptKey = serverSocketChannel.register(selector, SelectionKey.OP_ACCEPT);
+        acceptPaused = false;
+
+        running = true;
+        selectorThread = new Thread(this::runSelectorLoop, "poker-hand-analyzer-server");
+        selectorThread.start();
+    }
+
+    /**
+     * @return the port the server is bound to, useful when it was started on port 0
+     */
+    public int getPort() {
+        return serverSocketChannel.socket().getLocalPort();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        // the selector loop may have stopped on a failure already, so whether there is anything to close is told by
+        // the selector rather than by running
+        if (selector == null || !selector.isOpen())
+            return;
+
+        running = false;
+        selector.wakeup();
+        try {
+            selectorThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+    }
+
+    private void runSelectorLoop() {
+        try {
+            while (running) {
+                if (!acceptPaused) {
+                    selector.select();
+                } else {
+                    long remainingNanos = acceptResumeNanos - System.nanoTime();
+                    if (remainingNanos > 0)
+                        selector.select(Math.max(1, TimeUnit.NANOSECONDS.toMillis(remainingNanos)));
+                    if (acceptResumeNanos - System.nanoTime() <= 0) {
+                        acceptPaused = false;
+                        acceptKey.interestOps(SelectionKey.OP_ACCEPT);
+                    }
+                }
+                Iterator<SelectionKey> selectedKeys = selector.selectedKeys().iterator();
+                while (selectedKeys.hasNext()) {
+                    SelectionKey key = selectedKeys.next();
+                    selectedKeys.remove();
+                    handleKey(key);
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (running)
+                LOGGER.log(Level.SEVERE, "the server stopped serving", e);
+            running = false;
+        }
+    }
+
+    private void handleKey(SelectionKey key) throws IOException {
+        if (!key.isValid())
+            return;
+
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (key.isWritable())
+                connection.flush();
+            if (key.isValid() && key.isReadable())
+                connection.read();
+        } catch (IOException e) {
+            // a failing client must not take the server down with it
+            connection.close();
+        }
+    }
+
+    private void accept() {
+        SocketChannel socketChannel = null;
+        try {
+            socketChannel = serverSocketChannel.accept();
+            if (socketChannel == null)
+                return;
+
+            socketChannel.configureBlocking(false);
+            socketChannel.socket().setTcpNoDelay(true);
+            SelectionKey key = socketChannel.register(selector, SelectionKey.OP_READ);
+            key.attach(new Connection(socketChannel, key));
+        } catch (IOException e) {
+            // a connection failing while it is accepted, e.g., reset by its client or refused for want of file
+            // descriptors, must not take the server down with it
+            LOGGER.log(Level.WARNING, "accepting a connection failed, pausing accepting for " + ACCEPT_BACKOFF_MILLIS
+                    + " ms", e);
+            if (socketChannel != null)
+                closeQuietly(socketChannel);
+            acceptKey.interestOps(0);
+            acceptPaused = true;
+            acceptResumeNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ACCEPT_BACKOFF_MILLIS);
+        }
+    }
+
+    private static void closeQuietly(SocketChannel socketChannel) {
+        try {
+            socketChannel.close();
+        } catch (IOException e) {
+            // the connection is abandoned either way
+        }
+    }
+
+    // evaluates every complete line in the input buffer for which the output buffer has room, and writes the results
+    // to the output buffer
+    private void evaluateBatch(ByteBuffer in, ByteBuffer out) {
+        int batchSize = 0;
+        int lineStart = in.position();
+        int maxBatchSize = out.remaining() / MAX_RESULT_LENGTH;
+        for (int i = in.position(); i < in.limit() && batchSize < maxBatchSize; i++) {
+            if (in.get(i) == '\n') {
+                batch[batchSize++] = readLine(in, lineStart, i);
+                lineStart = i + 1;
+            }
+        }
+        in.position(lineStart);
+
+        long start = AnalyzerMetrics.start();
+        for (int i = 0; i < batchSize; i++) {
+            writeResult(batch[i], out);
+            batch[i] = null;
+        }
+        if (batchSize > 0)
+            AnalyzerMetrics.stopBatch(batchSize, start);
+    }
+
+    // reads the bytes between start and end as a line, dropping a trailing carriage return
+    private String readLine(ByteBuffer in, int start, int end) {
+        if (end > start && in.get(end - 1) == '\r')
+            end--;
+
+        int length = end - start;
+        for (int i = 0; i < length; i++) {
+            lineBytes[i] = in.get(start + i);
+        }
+        return new String(lineBytes, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    private void writeResult(String hands, ByteBuffer out) {
+        String result = LineProtocol.analyzeLine(hands, engineWarmUp);
+        for (int i = 0; i < result.length(); i++) {
+            out.put((byte) result.charAt(i));
+        }
+        out.put((byte) '\n');
+    }
+
+    // The state of a single client connection. The input buffer is kept in write mode between reads, holding any
+    // partial line left over from the last read; the output buffer is kept in read mode between writes, holding the
+    // results not yet accepted by the socket.
+    private class Connection {
+        private final SocketChannel socketChannel;
+        private final SelectionKey key;
+        private final ByteBuffer in = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        Connection(SocketChannel socketChannel, SelectionKey key) {
+            this.socketChannel = socketChannel;
+            this.key = key;
+            out.flip();
+        }
+
+        void read() throws IOException {
+            int bytesRead = socketChannel.read(in);
+            if (bytesRead < 0) {
+                close();
+                return;
+            }
+            process();
+        }
+
+        void flush() throws IOException {
+            socketChannel.write(out);
+            if (out.hasRemaining()) {
+                key.interestOps(SelectionKey.OP_WRITE);
+            } else {
+                // everything has been written, so any lines held back for lack of room can now be processed
+                key.interestOps(SelectionKey.OP_READ);
+                process();
+            }
+        }
+
+        private void process() throws IOException {
+            in.flip();
+            out.compact();
+            evaluateBatch(in, out);
+            out.flip();
+            in.compact();
+
+            // a full input buffer with an empty output buffer means the buffer holds a line too long to ever be read
+            if (!in.hasRemaining() && !out.hasRemaining()) {
+                close();
+                return;
+            }
+
+            if (out.hasRemaining()) {
+                socketChannel.write(out);
+            }
+            key.interestOps(out.hasRemaining() ? SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+        }
+
+        void close() throws IOException {
+            key.cancel();
+            socketChannel.close();
+        }
+    }
+
+    /**
+     * Starts a server on the given port, or on port 7777 if none is given, and serves until the process is killed. The
+     * fast engine is warmed up in the background, with its readiness exposed over JMX, while the server already serves.
+     * @param args optionally, the port to listen on
+     * @throws IOException if the server cannot be started
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7777;
+        EngineWarmUp engineWarmUp = new EngineWarmUp();
+        engineWarmUp.registerMBean();
+        engineWarmUp.start();
+        new PokerHandAnalyzerServer(new InetSocketAddress(port), engineWarmUp).start();
+    }
+}
@@ -0,0 +1,42 @@
+package pokerhandanalyzer.shard;
+
+import pokerhandanalyzer.Combinations;
+import pokerhandanalyzer.PackedPokerHandAnalyzer;
+import pokerhandanalyzer.enums.PokerHandType;
+
+/**
+ * Counts the hands of each poker hand type among every set of five to seven cards, the best hand of each set counted
+ * once. The index space is the colexicographic index of the sets, and the counters are indexed by the ordinal of the
+ * hand type.
+ */
+public class HandTypeCountJob implements ShardedJob {
+    private final int numberOfCards;
+
+    /**
+     * @param argument the number of cards in each set, from 5 to 7
+     */
+    public HandTypeCountJob(String argument) {
+        numberOfCards = Integer.parseInt(argument.trim());
+        if (numberOfCards < 5 || numberOfCards > 7)
+            throw new IllegalArgumentException("the sets must hold from 5 to 7 cards");
+    }
+
+    @Override
+    public long getSize() {
+        return Combinations.binomial(PackedPokerHandAnalyzer.NUMBER_OF_CARDS, numberOfCards);
+    }
+
+    @Override
+    public int getNumberOfCounters() {
+        return PokerHandType.values().length;
+    }
+
+    @Override
+    public void run(long start, long end, long[] counters) {
+        long cardMask = Combinations.getCardMask(start, numberOfCards);
+        for (long index = start; index < end; index++) {
+            counters[PackedPokerHandAnalyzer.getPokerHandType(PackedPokerHandAnalyzer.evaluate(cardMask)).ordinal()]++;
+            cardMask = Combinations.next(cardMask);
+        }
+    }
+}
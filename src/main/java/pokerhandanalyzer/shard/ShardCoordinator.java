@@ -0,0 +1,196 @@
+package pokerhandanalyzer.shard;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits the index space of a {@link ShardedJob} into shards, runs each shard in a worker JVM of its own, and merges
+ * the counters of the shards. At most a given number of workers run at once, and a shard whose worker fails, or exits
+ * without leaving a valid result, is run again up to a given number of attempts.
+ *
+ * Workers report through result files in a shared directory, so the coordinator also accepts results from workers it
+ * did not launch, e.g., run by hand on another node sharing the directory, and a job interrupted halfway resumes where
+ * it stopped: shards with a valid result are never run again. The counters are merged in shard order, and since they
+ * are sums over the index space, the same job gives identical results whether it runs in one process or in many, and
+ * however many shards it is split into.
+ */
+public class ShardCoordinator {
+    private static final long POLL_MILLIS = 10;
+
+    private final String jobClassName;
+    private final String argument;
+    private final int numberOfShards;
+    private final Path directory;
+    private final ShardedJob shardedJob;
+    private int numberOfLaunchedWorkers;
+
+    /**
+     * @param jobClass the class of the job, which must have a public constructor taking a single string argument
+     * @param argument the argument configuring the job
+     * @param numberOfShards the number of shards to split the index space into
+     * @param directory the directory shared with the workers, holding their result files and logs
+     * @throws IOException if the directory cannot be created
+     */
+    public ShardCoordinator(Class<? extends ShardedJob> jobClass, String argument, int numberOfShards, Path directory)
+            throws IOException {
+        if (numberOfShards < 1)
+            throw new IllegalArgumentException("there must be at least one shard");
+
+        this.jobClassName = jobClass.getName();
+        this.argument = argument;
+        this.numberOfShards = numberOfShards;
+        this.directory = Files.createDirectories(directory);
+        this.shardedJob = ShardWorker.createJob(jobClassName, argument);
+    }
+
+    /**
+     * @return the number of worker JVMs launched so far, counting retries
+     */
+    public int getNumberOfLaunchedWorkers() {
+        return numberOfLaunchedWorkers;
+    }
+
+    /**
+     * Runs every shard without a valid result in worker JVMs, and merges the results.
+     * @param numberOfProcesses the largest number of workers to run at once
+     * @param maxAttempts the largest number of times to run each shard
+     * @return the merged counters
+     * @throws IOException if a shard failed on every attempt, or the results cannot be read
+     * @throws InterruptedException if interrupted while waiting for the workers, which are then destroyed
+     */
+    public long[] run(int numberOfProcesses, int maxAttempts) throws IOException, InterruptedException {
+        Deque<Integer> pendingShards = new ArrayDeque<>();
+        for (int shard = 0; shard < numberOfShards; shard++) {
+            if (readShard(shard) == null)
+                pendingShards.add(shard);
+        }
+
+        int[] attempts = new int[numberOfShards];
+        Map<Integer, Process> runningWorkers = new LinkedHashMap<>();
+        try {
+            while (!pendingShards.isEmpty() || !runningWorkers.isEmpty()) {
+                while (runningWorkers.size() < numberOfProcesses && !pendingShards.isEmpty()) {
+                    int shard = pendingShards.poll();
+                    attempts[shard]++;
+                    runningWorkers.put(shard, launchWorker(shard));
+                }
+
+                boolean isAnyWorkerDone = false;
+                for (Iterator<Map.Entry<Integer, Process>> iterator = runningWorkers.entrySet().iterator(); iterator.hasNext(); ) {
+                    Map.Entry<Integer, Process> runningWorker = iterator.next();
+                    if (runningWorker.getValue().isAlive())
+                        continue;
+
+                    iterator.remove();
+                    isAnyWorkerDone = true;
+                    int shard = runningWorker.getKey();
+                    if (runningWorker.getValue().exitValue() == 0 && readShard(shard) != null)
+                        continue;
+
+                    if (attempts[shard] == maxAttempts) {
+                        throw new IOException("shard " + shard + " failed " + maxAttempts + " times, see "
+                                + ShardResultFile.getLogPath(directory, shard));
+                    }
+                    pendingShards.add(shard);
+                }
+                if (!isAnyWorkerDone)
+                    Thread.sleep(POLL_MILLIS);
+            }
+        } finally {
+            for (Process process : runningWorkers.values()) {
+                process.destroyForcibly();
+            }
+        }
+
+        return merge();
+    }
+
+    /**
+     * Runs every shard without a valid result one after another in this JVM, and merges the results. The results are
+     * identical to those of {@link #run(int, int)}.
+     * @return the merged counters
+     * @throws IOException if the results cannot be written or read
+     */
+    public long[] runInProcess() throws IOException {
+        for (int shard = 0; shard < numberOfShards; shard++) {
+            if (readShard(shard) == null)
+                ShardWorker.run(jobClassName, argument, numberOfShards, shard, directory);
+        }
+        return merge();
+    }
+
+    /**
+     * Merges the results of every shard, in shard order.
+     * @return the merged counters
+     * @throws IOException if a shard has no valid result, or the results cannot be read
+     */
+    public long[] merge() throws IOException {
+        long[] counters = new long[shardedJob.getNumberOfCounters()];
+        for (int shard = 0; shard < numberOfShards; shard++) {
+            long[] shardCounters = readShard(shard);
+            if (shardCounters == null)
+                throw new IOException("shard " + shard + " has no result");
+
+            for (int i = 0; i < counters.length; i++) {
+                counters[i] += shardCounters[i];
+            }
+        }
+        return counters;
+    }
+
+    private long[] readShard(int shard) throws IOException {
+        return ShardResultFile.read(ShardResultFile.getPath(directory, shard),
+                ShardWorker.describeJob(jobClassName, argument),
+                ShardWorker.getShardStart(shardedJob.getSize(), numberOfShards, shard),
+                ShardWorker.getShardStart(shardedJob.getSize(), numberOfShards, shard + 1),
+                shardedJob.getNumberOfCounters());
+    }
+
+    // launches a JVM on this host running the shard, with the same Java installation and class path as this one
+    private Process launchWorker(int shard) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(ShardWorker.class.getName());
+        command.add(jobClassName);
+        command.add(argument);
+        command.add(Integer.toString(numberOfShards));
+        command.add(Integer.toString(shard));
+        command.add(directory.toAbsolutePath().toString());
+
+        File logFile = ShardResultFile.getLogPath(directory, shard).toFile();
+        numberOfLaunchedWorkers++;
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.to(logFile))
+                .start();
+    }
+
+    /**
+     * Runs a job, printing its merged counters.
+     * Usage: ShardCoordinator jobClass argument numberOfShards numberOfProcesses directory [maxAttempts]
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 5) {
+            System.err.println("usage: ShardCoordinator jobClass argument numberOfShards numberOfProcesses directory [maxAttempts]");
+            System.exit(2);
+        }
+
+        ShardCoordinator shardCoordinator = new ShardCoordinator(Class.forName(args[0]).asSubclass(ShardedJob.class),
+                args[1], Integer.parseInt(args[2]), Paths.get(args[4]));
+        long[] counters = shardCoordinator.run(Integer.parseInt(args[3]), args.length > 5 ? Integer.parseInt(args[5]) : 3);
+        System.out.println(Arrays.toString(counters));
+    }
+}
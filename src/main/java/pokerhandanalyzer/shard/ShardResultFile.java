@@ -0,0 +1,73 @@
+package pokerhandanalyzer.shard;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * The file holding the counters of a finished shard. It also records the job and the range of the shard, so results
+ * left over from another job or another split of the index space are never merged by mistake. It is written to a
+ * temporary file first and then renamed, so a worker failing halfway never leaves a partial result behind.
+ */
+final class ShardResultFile {
+    private static final int MAGIC = 0x50485352; // "PHSR"
+
+    private ShardResultFile() {
+    }
+
+    static Path getPath(Path directory, int shard) {
+        return directory.resolve(String.format("shard-%05d.counters", shard));
+    }
+
+    static Path getLogPath(Path directory, int shard) {
+        return directory.resolve(String.format("shard-%05d.log", shard));
+    }
+
+    static void write(Path path, String job, long start, long end, long[] counters) throws IOException {
+        // a temporary file of its own, as a worker started by hand may write the same shard as the coordinator's
+        Path temporaryPath = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName() + ".", ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(temporaryPath)))) {
+                out.writeInt(MAGIC);
+                out.writeUTF(job);
+                out.writeLong(start);
+                out.writeLong(end);
+                out.writeInt(counters.length);
+                for (long counter : counters) {
+                    out.writeLong(counter);
+                }
+            }
+            Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporaryPath);
+            throw e;
+        }
+    }
+
+    /**
+     * @return the counters of the shard, or null if there is no complete result for that job and range
+     */
+    static long[] read(Path path, String job, long start, long end, int numberOfCounters) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || !in.readUTF().equals(job) || in.readLong() != start || in.readLong() != end
+                    || in.readInt() != numberOfCounters)
+                return null;
+
+            long[] counters = new long[numberOfCounters];
+            for (int i = 0; i < numberOfCounters; i++) {
+                counters[i] = in.readLong();
+            }
+            return counters;
+        } catch (NoSuchFileException | EOFException e) {
+            return null;
+        }
+    }
+}
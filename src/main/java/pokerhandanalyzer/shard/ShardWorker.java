@@ -0,0 +1,68 @@
+package pokerhandanalyzer.shard;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Runs a single shard of a {@link ShardedJob} and writes its counters to the shard's result file in a directory shared
+ * with the {@link ShardCoordinator}. Workers are usually launched by the coordinator, but they can be launched by hand
+ * or by a scheduler, on any node that sees the same directory, before or while the coordinator runs: the coordinator
+ * merges any valid result it finds instead of running the shard again.
+ *
+ * Run as a program: java -cp ... pokerhandanalyzer.shard.ShardWorker jobClass argument numberOfShards shard directory
+ */
+public final class ShardWorker {
+
+    private ShardWorker() {
+    }
+
+    /**
+     * Runs a shard, writing its result file.
+     * @param jobClassName the name of the class of the job
+     * @param argument the argument configuring the job
+     * @param numberOfShards the number of shards the index space is split into
+     * @param shard the index of the shard to run
+     * @param directory the directory to write the result file to
+     * @throws IOException if the result cannot be written
+     */
+    public static void run(String jobClassName, String argument, int numberOfShards, int shard, Path directory)
+            throws IOException {
+        ShardedJob shardedJob = createJob(jobClassName, argument);
+        long start = getShardStart(shardedJob.getSize(), numberOfShards, shard);
+        long end = getShardStart(shardedJob.getSize(), numberOfShards, shard + 1);
+        long[] counters = new long[shardedJob.getNumberOfCounters()];
+        shardedJob.run(start, end, counters);
+        ShardResultFile.write(ShardResultFile.getPath(directory, shard), describeJob(jobClassName, argument), start,
+                end, counters);
+    }
+
+    static ShardedJob createJob(String jobClassName, String argument) {
+        try {
+            return (ShardedJob) Class.forName(jobClassName).getConstructor(String.class).newInstance(argument);
+        } catch (InvocationTargetException e) {
+            throw new IllegalArgumentException("cannot create job " + jobClassName, e.getCause());
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalArgumentException("cannot create job " + jobClassName, e);
+        }
+    }
+
+    static String describeJob(String jobClassName, String argument) {
+        return jobClassName + " " + argument;
+    }
+
+    // the shards split the index space into ranges whose sizes differ by at most one
+    static long getShardStart(long size, int numberOfShards, int shard) {
+        return size / numberOfShards * shard + Math.min(shard, size % numberOfShards);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 5) {
+            System.err.println("usage: ShardWorker jobClass argument numberOfShards shard directory");
+            System.exit(2);
+        }
+
+        run(args[0], args[1], Integer.parseInt(args[2]), Integer.parseInt(args[3]), Paths.get(args[4]));
+    }
+}
@@ -0,0 +1,31 @@
+package pokerhandanalyzer.shard;
+
+/**
+ * A job over an index space, such as the colexicographic indexes of every set of cards of some size, whose result is a
+ * fixed number of counters summed over every index. The space is split into shards, each run by a
+ * {@link ShardWorker}, possibly in another process or on another node, and the counters of the shards are merged by a
+ * {@link ShardCoordinator}. As the counters of a range are the sum of the counters of its parts, the result does not
+ * depend on how the space is split.
+ *
+ * Implementations must have a public constructor taking a single string argument, which configures the job, so that
+ * worker processes can create them from their class name and that argument.
+ */
+public interface ShardedJob {
+    /**
+     * @return the number of indexes in the space, numbered from zero
+     */
+    long getSize();
+
+    /**
+     * @return the number of counters the job counts
+     */
+    int getNumberOfCounters();
+
+    /**
+     * Runs the job over a range of the index space, adding to the counters.
+     * @param start the first index of the range
+     * @param end the index one past the last index of the range
+     * @param counters the counters to add to, all zero to begin with
+     */
+    void run(long start, long end, long[] counters);
+}
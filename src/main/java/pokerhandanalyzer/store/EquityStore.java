@@ -0,0 +1,102 @@
+package pokerhandanalyzer.store;
+
+import pokerhandanalyzer.Combinations;
+import pokerhandanalyzer.PackedPokerHandAnalyzer;
+import pokerhandanalyzer.SuitIsomorphism;
+import pokerhandanalyzer.board.BoardHandRank;
+import pokerhandanalyzer.board.BoardRanking;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * The equity of pairs of hole cards on boards of three to five cards against one opponent holding a random pair, ties
+ * counting half, averaged over every runout of the board. Equities are computed once per host: they are kept in a
+ * {@link ResultStore}, keyed by the suit-isomorphic representative of the board and hole cards, so every process on
+ * the host, and every isomorphic situation, reuses the equity of the first to compute it.
+ *
+ * The key of a situation holds the card mask of the representative board in its low 52 bits, and the colexicographic
+ * index of the representative hole cards, plus one, above them, so no key is zero.
+ */
+public class EquityStore implements Closeable {
+    private static final int NUMBER_OF_CARDS = PackedPokerHandAnalyzer.NUMBER_OF_CARDS;
+
+    private final ResultStore resultStore;
+
+    /**
+     * Opens an equity store, creating it if the file does not exist yet.
+     * @param path the path of the file
+     * @param capacity the number of slots of a new store, of which at most three quarters are filled; see
+     *                 {@link ResultStore#ResultStore(Path, int)}
+     * @throws IOException if the file cannot be read or created, or is not a valid store
+     */
+    public EquityStore(Path path, int capacity) throws IOException {
+        this.resultStore = new ResultStore(path, capacity);
+    }
+
+    public ResultStore getResultStore() {
+        return resultStore;
+    }
+
+    /**
+     * Gets the equity of hole cards on a board, computing and storing it if no process has yet.
+     * @param boardCardMask the card mask of the three to five cards of the board
+     * @param card0 a packed hole card
+     * @param card1 the other packed hole card
+     * @return the equity
+     * @throws IOException if the store cannot be locked
+     */
+    public double getEquity(long boardCardMask, int card0, int card1) throws IOException {
+        long key = getKey(boardCardMask, 1L << card0 | 1L << card1);
+        return Double.longBitsToDouble(resultStore.computeIfAbsent(key,
+                situation -> Double.doubleToLongBits(computeEquity(boardCardMask, card0, card1))));
+    }
+
+    @Override
+    public void close() throws IOException {
+        resultStore.close();
+    }
+
+    /**
+     * @param boardCardMask the card mask of a board
+     * @param holeCardMask the card mask of the hole cards dealt with it
+     * @return the key of the situation in a store
+     */
+    public static long getKey(long boardCardMask, long holeCardMask) {
+        int permutation = SuitIsomorphism.getCanonicalPermutation(boardCardMask, holeCardMask);
+        return SuitIsomorphism.permute(boardCardMask, permutation)
+                | (Combinations.getIndex(SuitIsomorphism.permute(holeCardMask, permutation)) + 1) << NUMBER_OF_CARDS;
+    }
+
+    /**
+     * Computes the equity of hole cards on a board, ranking them on every river the board can run out to.
+     * @param boardCardMask the card mask of the three to five cards of the board
+     * @param card0 a packed hole card
+     * @param card1 the other packed hole card
+     * @return the equity
+     */
+    public static double computeEquity(long boardCardMask, int card0, int card1) {
+        int numberOfBoardCards = Long.bitCount(boardCardMask);
+        if (numberOfBoardCards < 3 || numberOfBoardCards > 5)
+            throw new IllegalArgumentException("a board must hold three to five cards");
+
+        long deadCardMask = boardCardMask | 1L << card0 | 1L << card1;
+        int numberOfCardsToCome = 5 - numberOfBoardCards;
+        double totalEquity = 0;
+        long numberOfRunouts = 0;
+        for (long runout = Combinations.getCardMask(0, numberOfCardsToCome); runout < 1L << NUMBER_OF_CARDS;
+             runout = Combinations.next(runout)) {
+            if ((runout & deadCardMask) == 0) {
+                BoardHandRank boardHandRank = BoardRanking.of(boardCardMask | runout).rank(card0, card1);
+                totalEquity += (boardHandRank.getWinCount() + boardHandRank.getTieCount() / 2.0)
+                        / (boardHandRank.getWinCount() + boardHandRank.getTieCount() + boardHandRank.getLossCount());
+                numberOfRunouts++;
+            }
+            // the river has a single runout, of no cards
+            if (numberOfCardsToCome == 0)
+                break;
+        }
+        return totalEquity / numberOfRunouts;
+    }
+}
@@ -0,0 +1,236 @@
+package pokerhandanalyzer.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * A persistent hash table from long keys to long values, in a memory-mapped file shared by every process on a host
+ * that opens it, so results computed by one process outlive it and are reused by the others. Keys are never zero, which
+ * marks an empty slot, and entries are never removed or replaced: the first value stored for a key is the value every
+ * process reads.
+ *
+ * The file starts with a 64 byte header: the magic number "PHRS", the format version, the number of slots, a power of
+ * two, and the number of entries, as a long. It is followed by the slots, each holding a key, a value and a check mixed
+ * from the two, as longs. Keys are placed by open addressing, probing the slots after the one their hash points to.
+ * At most three quarters of the slots are ever filled, so that a lookup, even of a missing key, probes only a few.
+ *
+ * Readers take no locks. Writers are serialized, across processes by a lock on the file and within a process by a
+ * monitor, since Java offers no atomic compare-and-swap on mapped memory; a writer fills in the value and check of a
+ * slot before its key. A reader that sees a key whose check does not match, a write still in progress in another
+ * process, takes it as missing, and its writer finds the finished entry under the lock.
+ */
+public class ResultStore implements Closeable {
+    private static final int MAGIC = 0x50485253; // "PHRS"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int SIZE_OFFSET = 16;
+    private static final int SLOT_SIZE = 3 * Long.BYTES;
+    private static final int MAXIMUM_CAPACITY = 1 << 26;
+    private static final long EMPTY = 0;
+
+    // the monitor serializing the writers of each file within this process, as a file lock cannot
+    private static final Map<Path, Object> WRITE_MONITORS = new ConcurrentHashMap<>();
+
+    private final FileChannel fileChannel;
+    private final MappedByteBuffer table;
+    private final Object writeMonitor;
+    private final int capacity;
+    private final int maximumSize;
+
+    /**
+     * Opens a store, creating it if the file does not exist yet.
+     * @param path the path of the file
+     * @param capacity the number of slots of a new store, rounded up to a power of two, of which at most three quarters
+     *                 are filled; an existing store keeps its own
+     * @throws IOException if the file cannot be read or created, or is not a valid store
+     */
+    public ResultStore(Path path, int capacity) throws IOException {
+        if (capacity < 1 || capacity > MAXIMUM_CAPACITY)
+            throw new IllegalArgumentException("the capacity must be from 1 to " + MAXIMUM_CAPACITY);
+
+        fileChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            writeMonitor = WRITE_MONITORS.computeIfAbsent(path.toRealPath(), realPath -> new Object());
+            synchronized (writeMonitor) {
+                FileLock fileLock = fileChannel.lock();
+                try {
+                    if (fileChannel.size() == 0) {
+                        int slots = Integer.bitCount(capacity) == 1 ? capacity : Integer.highestOneBit(capacity) << 1;
+                        table = fileChannel.map(FileChannel.MapMode.READ_WRITE, 0,
+                                HEADER_SIZE + (long) slots * SLOT_SIZE);
+                        table.putInt(CAPACITY_OFFSET, slots);
+                        table.putInt(4, VERSION);
+                        table.putInt(0, MAGIC);
+                        table.force();
+                    } else {
+                        if (fileChannel.size() < HEADER_SIZE)
+                            throw new IOException(path + " is not a result store");
+                        table = fileChannel.map(FileChannel.MapMode.READ_WRITE, 0, fileChannel.size());
+                        if (table.getInt(0) != MAGIC || table.getInt(4) != VERSION)
+                            throw new IOException(path + " is not a result store of version " + VERSION);
+                        if (fileChannel.size() != HEADER_SIZE + (long) table.getInt(CAPACITY_OFFSET) * SLOT_SIZE)
+                            throw new IOException(path + " is truncated");
+                    }
+                    this.capacity = table.getInt(CAPACITY_OFFSET);
+                    this.maximumSize = capacity - (capacity >>> 2);
+                } finally {
+                    fileLock.release();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            fileChannel.close();
+            throw e;
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the number of entries stored, by every process
+     */
+    public long size() {
+        return table.getLong(SIZE_OFFSET);
+    }
+
+    /**
+     * Looks a key up, without locking.
+     * @param key a key, other than zero
+     * @param defaultValue the value to return if the key is missing
+     * @return the value stored for the key, or the default value
+     */
+    public long get(long key, long defaultValue) {
+        checkKey(key);
+        int slot = find(key);
+        return slot >= 0 && table.getLong(getOffset(slot)) == key ? table.getLong(getOffset(slot) + Long.BYTES)
+                : defaultValue;
+    }
+
+    /**
+     * @param key a key, other than zero
+     * @return true if a value is stored for the key
+     */
+    public boolean containsKey(long key) {
+        checkKey(key);
+        int slot = find(key);
+        return slot >= 0 && table.getLong(getOffset(slot)) == key;
+    }
+
+    /**
+     * Stores a value for a key, unless some process stored one first.
+     * @param key a key, other than zero
+     * @param value the value
+     * @return the value stored for the key, which is the given value unless another was stored first
+     * @throws IOException if the file cannot be locked
+     * @throws IllegalStateException if the key is missing and three quarters of the slots are filled already
+     */
+    public long putIfAbsent(long key, long value) throws IOException {
+        checkKey(key);
+        synchronized (writeMonitor) {
+            FileLock fileLock = fileChannel.lock();
+            try {
+                // probes again under the lock, as a reader may have skipped an entry whose write was in progress
+                int slot = getHash(key);
+                for (int probes = 0; probes < capacity; probes++, slot = (slot + 1) & (capacity - 1)) {
+                    int offset = getOffset(slot);
+                    long slotKey = table.getLong(offset);
+                    if (slotKey == key)
+                        return table.getLong(offset + Long.BYTES);
+                    if (slotKey == EMPTY) {
+                        if (table.getLong(SIZE_OFFSET) >= maximumSize)
+                            throw new IllegalStateException("the result store is full");
+                        table.putLong(offset + Long.BYTES, value);
+                        table.putLong(offset + 2 * Long.BYTES, getCheck(key, value));
+                        table.putLong(offset, key);
+                        table.putLong(SIZE_OFFSET, table.getLong(SIZE_OFFSET) + 1);
+                        return value;
+                    }
+                }
+                throw new IllegalStateException("the result store is full");
+            } finally {
+                fileLock.release();
+            }
+        }
+    }
+
+    /**
+     * Gets the value stored for a key, computing and storing it if it is missing. The value is computed outside the
+     * lock, so processes missing the same key at once may each compute it, but all of them return the value stored
+     * first.
+     * @param key a key, other than zero
+     * @param function computes the value of the key
+     * @return the value stored for the key
+     * @throws IOException if the file cannot be locked
+     */
+    public long computeIfAbsent(long key, LongUnaryOperator function) throws IOException {
+        checkKey(key);
+        int slot = find(key);
+        if (slot >= 0 && table.getLong(getOffset(slot)) == key)
+            return table.getLong(getOffset(slot) + Long.BYTES);
+        return putIfAbsent(key, function.applyAsLong(key));
+    }
+
+    /**
+     * Writes the entries stored by this process to the file, to survive a crash of the host.
+     */
+    public void force() {
+        table.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        fileChannel.close();
+    }
+
+    // the slot holding the key with a matching check, or else the empty slot ending its probes, or -1 if there is none
+    private int find(long key) {
+        int slot = getHash(key);
+        for (int probes = 0; probes < capacity; probes++, slot = (slot + 1) & (capacity - 1)) {
+            int offset = getOffset(slot);
+            long slotKey = table.getLong(offset);
+            if (slotKey == EMPTY)
+                return slot;
+            if (slotKey == key) {
+                long value = table.getLong(offset + Long.BYTES);
+                // a write still in progress reads as missing
+                return table.getLong(offset + 2 * Long.BYTES) == getCheck(key, value) ? slot : -1;
+            }
+        }
+        return -1;
+    }
+
+    private int getHash(long key) {
+        return (int) mix(key) & (capacity - 1);
+    }
+
+    private static int getOffset(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    private static long getCheck(long key, long value) {
+        return mix(key ^ mix(value)) | 1;
+    }
+
+    // the finalizer of SplitMix64, spreading every bit of a long over all of them
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static void checkKey(long key) {
+        if (key == EMPTY)
+            throw new IllegalArgumentException("a key cannot be zero");
+    }
+}
@@ -0,0 +1,212 @@
+package pokerhandanalyzer.videopoker;
+
+import pokerhandanalyzer.PackedPokerHandAnalyzer;
+import pokerhandanalyzer.enums.PokerHandType;
+import pokerhandanalyzer.enums.Rank;
+import pokerhandanalyzer.enums.VideoPokerHand;
+import pokerhandanalyzer.enums.WildCards;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The payout of each final hand of a video poker game, per coin bet, and the wild cards the game is played with.
+ * Cards are packed as by {@link PackedPokerHandAnalyzer}, and the joker of a game played with one is card
+ * {@link #JOKER}.
+ *
+ * A hand holding wild cards is classified as the best hand its wild cards can stand in for, assuming, as every common
+ * paytable does, that better hands never pay less.
+ */
+public class Paytable {
+    public static final int JOKER = PackedPokerHandAnalyzer.NUMBER_OF_CARDS;
+
+    private static final long DEUCES_CARD_MASK = 0xFL; // the four cards of rank two
+    private static final long JOKER_CARD_MASK = 1L << JOKER;
+    private static final int WHEEL_RANK_MASK = 0x100F; // A, 5, 4, 3 and 2
+    private static final int ROYAL_RANK_MASK = 0x1F00; // A, K, Q, J and T
+    private static final int HAND_TYPE_SHIFT = 20;
+    private static final int FIRST_RANK_SHIFT = 16;
+    private static final PokerHandType[] POKER_HAND_TYPES = PokerHandType.values();
+
+    private final String name;
+    private final WildCards wildCards;
+    private final Rank minimumPairRank;
+    private final int[] payouts = new int[VideoPokerHand.values().length];
+
+    /**
+     * @param name the name of the game, e.g., "9/6 Jacks or Better"
+     * @param wildCards the wild cards of the game
+     * @param minimumPairRank the lowest rank of a {@link VideoPokerHand#HIGH_PAIR}, or null if no pair pays
+     * @param payouts the payout of each final hand per coin bet; hands not in the map pay nothing
+     */
+    public Paytable(String name, WildCards wildCards, Rank minimumPairRank, Map<VideoPokerHand, Integer> payouts) {
+        this.name = name;
+        this.wildCards = wildCards;
+        this.minimumPairRank = minimumPairRank;
+        for (Map.Entry<VideoPokerHand, Integer> payout : payouts.entrySet()) {
+            if (payout.getValue() < 0)
+                throw new IllegalArgumentException("the payout of " + payout.getKey() + " is negative");
+            this.payouts[payout.getKey().ordinal()] = payout.getValue();
+        }
+    }
+
+    /**
+     * @return the full pay 9/6 Jacks or Better paytable, returning 99.54%
+     */
+    public static Paytable jacksOrBetter() {
+        Map<VideoPokerHand, Integer> payouts = new EnumMap<>(VideoPokerHand.class);
+        payouts.put(VideoPokerHand.NATURAL_ROYAL_FLUSH, 800);
+        payouts.put(VideoPokerHand.STRAIGHT_FLUSH, 50);
+        payouts.put(VideoPokerHand.FOUR_OF_A_KIND, 25);
+        payouts.put(VideoPokerHand.FULL_HOUSE, 9);
+        payouts.put(VideoPokerHand.FLUSH, 6);
+        payouts.put(VideoPokerHand.STRAIGHT, 4);
+        payouts.put(VideoPokerHand.THREE_OF_A_KIND, 3);
+        payouts.put(VideoPokerHand.TWO_PAIR, 2);
+        payouts.put(VideoPokerHand.HIGH_PAIR, 1);
+        return new Paytable("9/6 Jacks or Better", WildCards.NONE, Rank.JACK, payouts);
+    }
+
+    /**
+     * @return the full pay Deuces Wild paytable, returning 100.76%
+     */
+    public static Paytable deucesWild() {
+        Map<VideoPokerHand, Integer> payouts = new EnumMap<>(VideoPokerHand.class);
+        payouts.put(VideoPokerHand.NATURAL_ROYAL_FLUSH, 800);
+        payouts.put(VideoPokerHand.FOUR_DEUCES, 200);
+        payouts.put(VideoPokerHand.WILD_ROYAL_FLUSH, 25);
+        payouts.put(VideoPokerHand.FIVE_OF_A_KIND, 15);
+        payouts.put(VideoPokerHand.STRAIGHT_FLUSH, 9);
+        payouts.put(VideoPokerHand.FOUR_OF_A_KIND, 5);
+        payouts.put(VideoPokerHand.FULL_HOUSE, 3);
+        payouts.put(VideoPokerHand.FLUSH, 2);
+        payouts.put(VideoPokerHand.STRAIGHT, 2);
+        payouts.put(VideoPokerHand.THREE_OF_A_KIND, 1);
+        return new Paytable("Full Pay Deuces Wild", WildCards.DEUCES, null, payouts);
+    }
+
+    /**
+     * @return the 20/7/5 Kings or Better Joker Poker paytable
+     */
+    public static Paytable jokerPoker() {
+        Map<VideoPokerHand, Integer> payouts = new EnumMap<>(VideoPokerHand.class);
+        payouts.put(VideoPokerHand.NATURAL_ROYAL_FLUSH, 800);
+        payouts.put(VideoPokerHand.FIVE_OF_A_KIND, 200);
+        payouts.put(VideoPokerHand.WILD_ROYAL_FLUSH, 100);
+        payouts.put(VideoPokerHand.STRAIGHT_FLUSH, 50);
+        payouts.put(VideoPokerHand.FOUR_OF_A_KIND, 20);
+        payouts.put(VideoPokerHand.FULL_HOUSE, 7);
+        payouts.put(VideoPokerHand.FLUSH, 5);
+        payouts.put(VideoPokerHand.STRAIGHT, 3);
+        payouts.put(VideoPokerHand.THREE_OF_A_KIND, 2);
+        payouts.put(VideoPokerHand.TWO_PAIR, 1);
+        payouts.put(VideoPokerHand.HIGH_PAIR, 1);
+        return new Paytable("20/7/5 Joker Poker", WildCards.JOKER, Rank.KING, payouts);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public WildCards getWildCards() {
+        return wildCards;
+    }
+
+    /**
+     * @return the number of cards in the deck, 53 with a joker and 52 otherwise
+     */
+    public int getNumberOfCards() {
+        return wildCards == WildCards.JOKER ? PackedPokerHandAnalyzer.NUMBER_OF_CARDS + 1
+                : PackedPokerHandAnalyzer.NUMBER_OF_CARDS;
+    }
+
+    public int getPayout(VideoPokerHand videoPokerHand) {
+        return payouts[videoPokerHand.ordinal()];
+    }
+
+    /**
+     * @param cardMask the card mask of a final hand of five cards
+     * @return the payout of the hand per coin bet
+     */
+    public int getPayout(long cardMask) {
+        return payouts[classify(cardMask).ordinal()];
+    }
+
+    /**
+     * @param cardMask the card mask of a final hand of five cards
+     * @return the best hand the cards make, with any wild cards standing in for the cards that make it best
+     */
+    public VideoPokerHand classify(long cardMask) {
+        long wildCardMask = wildCards == WildCards.DEUCES ? DEUCES_CARD_MASK
+                : wildCards == WildCards.JOKER ? JOKER_CARD_MASK : 0L;
+        int numberOfWildCards = Long.bitCount(cardMask & wildCardMask);
+        if (numberOfWildCards == 0)
+            return classifyNatural(cardMask);
+        if (numberOfWildCards == 4)
+            return VideoPokerHand.FOUR_DEUCES;
+
+        // the ranks of the natural cards, the most cards held of one rank, and whether they share a suit
+        int rankMask = 0;
+        int maximumRankCount = 0;
+        int suitMask = 0;
+        int[] rankCounts = new int[13];
+        for (long remainingCards = cardMask & ~wildCardMask; remainingCards != 0; remainingCards &= remainingCards - 1) {
+            int card = Long.numberOfTrailingZeros(remainingCards);
+            rankMask |= 1 << (card >>> 2);
+            maximumRankCount = Math.max(maximumRankCount, ++rankCounts[card >>> 2]);
+            suitMask |= 1 << (card & 3);
+        }
+        int numberOfRanks = Integer.bitCount(rankMask);
+        boolean suited = Integer.bitCount(suitMask) == 1;
+        boolean distinctRanks = numberOfRanks == 5 - numberOfWildCards;
+        int highRank = 31 - Integer.numberOfLeadingZeros(rankMask);
+        int lowRank = Integer.numberOfTrailingZeros(rankMask);
+        boolean straight = distinctRanks
+                && (highRank - lowRank <= 4 || (rankMask & ~WHEEL_RANK_MASK) == 0);
+
+        if (suited && distinctRanks && (rankMask & ~ROYAL_RANK_MASK) == 0)
+            return VideoPokerHand.WILD_ROYAL_FLUSH;
+        if (numberOfRanks == 1)
+            return VideoPokerHand.FIVE_OF_A_KIND;
+        if (suited && straight)
+            return VideoPokerHand.STRAIGHT_FLUSH;
+        if (maximumRankCount + numberOfWildCards >= 4)
+            return VideoPokerHand.FOUR_OF_A_KIND;
+        if (numberOfRanks == 2)
+            return VideoPokerHand.FULL_HOUSE;
+        if (suited)
+            return VideoPokerHand.FLUSH;
+        if (straight)
+            return VideoPokerHand.STRAIGHT;
+        if (maximumRankCount + numberOfWildCards >= 3)
+            return VideoPokerHand.THREE_OF_A_KIND;
+        // a single wild card and four distinct ranks, which pairs best with the highest of them
+        return isHighPair(highRank) ? VideoPokerHand.HIGH_PAIR : VideoPokerHand.NOTHING;
+    }
+
+    private VideoPokerHand classifyNatural(long cardMask) {
+        int strength = PackedPokerHandAnalyzer.evaluate(cardMask);
+        switch (POKER_HAND_TYPES[strength >>> HAND_TYPE_SHIFT]) {
+            case ROYAL_FLUSH: return VideoPokerHand.NATURAL_ROYAL_FLUSH;
+            case STRAIGHT_FLUSH: return VideoPokerHand.STRAIGHT_FLUSH;
+            case FOUR_OF_A_KIND: return VideoPokerHand.FOUR_OF_A_KIND;
+            case FULL_HOUSE: return VideoPokerHand.FULL_HOUSE;
+            case FLUSH: return VideoPokerHand.FLUSH;
+            case STRAIGHT: return VideoPokerHand.STRAIGHT;
+            case THREE_OF_A_KIND: return VideoPokerHand.THREE_OF_A_KIND;
+            case TWO_PAIR: return VideoPokerHand.TWO_PAIR;
+            case PAIR: return isHighPair(strength >>> FIRST_RANK_SHIFT & 0xF) ? VideoPokerHand.HIGH_PAIR
+                    : VideoPokerHand.NOTHING;
+            default: return VideoPokerHand.NOTHING;
+        }
+    }
+
+    private boolean isHighPair(int rank) {
+        return minimumPairRank != null && rank >= minimumPairRank.ordinal();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
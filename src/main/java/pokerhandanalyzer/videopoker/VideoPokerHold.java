@@ -0,0 +1,48 @@
+package pokerhandanalyzer.videopoker;
+
+/**
+ * A choice of the cards of a dealt video poker hand to hold, the rest being discarded and replaced by the draw, and the
+ * payout expected from it per coin bet.
+ */
+public class VideoPokerHold {
+    private final int holdMask;
+    private final double expectedPayout;
+
+    /**
+     * @param holdMask the cards held, bit i set if the i-th card dealt is held
+     * @param expectedPayout the payout expected per coin bet
+     */
+    public VideoPokerHold(int holdMask, double expectedPayout) {
+        this.holdMask = holdMask;
+        this.expectedPayout = expectedPayout;
+    }
+
+    public int getHoldMask() {
+        return holdMask;
+    }
+
+    /**
+     * @param i the index of a dealt card, zero to four
+     * @return true if the card is held
+     */
+    public boolean isHeld(int i) {
+        return (holdMask & 1 << i) != 0;
+    }
+
+    public int getNumberOfCardsHeld() {
+        return Integer.bitCount(holdMask);
+    }
+
+    public double getExpectedPayout() {
+        return expectedPayout;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (int i = 0; i < 5; i++) {
+            stringBuilder.append(isHeld(i) ? 'H' : '-');
+        }
+        return stringBuilder.append(' ').append(expectedPayout).toString();
+    }
+}
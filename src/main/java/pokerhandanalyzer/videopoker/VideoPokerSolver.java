@@ -0,0 +1,297 @@
+package pokerhandanalyzer.videopoker;
+
+import pokerhandanalyzer.Combinations;
+import pokerhandanalyzer.PackedPokerHandAnalyzer;
+import pokerhandanalyzer.SuitIsomorphism;
+import pokerhandanalyzer.models.Card;
+import pokerhandanalyzer.models.PokerHand;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Finds which of the 32 ways to hold the cards of a dealt video poker hand pays the most on average under a paytable.
+ *
+ * Rather than drawing every replacement for every hold, 1,533,939 draws when holding nothing, the payouts are counted
+ * once, when the solver is created: for every set of up to five cards of the deck, the sum of the payouts of every final
+ * hand holding it. The sum for a set of k cards is the sum over the sets of k + 1 cards holding it, each final hand
+ * being counted once for each of its 5 - k cards outside the set. The final hands a hold can draw to are those holding
+ * the held cards and none of the discarded ones, so by inclusion and exclusion over the discarded cards the total
+ * payout of a hold takes at most 32 lookups, and all 32 holds of a deal take 243.
+ *
+ * Holds are cached by the suit-isomorphic representative of the deal, as given by {@link SuitIsomorphism}, so each of
+ * the distinct starting hands is solved once; {@link #getReturn()} solves all of them, in parallel.
+ */
+public class VideoPokerSolver {
+    public static final int NUMBER_OF_HOLDS = 32;
+
+    private static final int CARDS_PER_HAND = 5;
+    private static final long JOKER_CARD_MASK = 1L << Paytable.JOKER;
+    private static final long NATURAL_CARD_MASK = (1L << PackedPokerHandAnalyzer.NUMBER_OF_CARDS) - 1;
+    // the number of final hands each task pays when counting in parallel
+    private static final int PARALLEL_CHUNK_SIZE = 1 << 14;
+
+    private final Paytable paytable;
+    private final int numberOfCards;
+    private final int parallelism;
+    // the sum of the payouts of every final hand holding each set of k cards, by k and by colexicographic index
+    private final long[][] payoutSums = new long[CARDS_PER_HAND + 1][];
+    // the best hold of each representative deal, holding its cards in increasing order
+    private final Map<Long, VideoPokerHold> cache = new ConcurrentHashMap<>();
+
+    public VideoPokerSolver(Paytable paytable) throws InterruptedException {
+        this(paytable, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Counts the payouts of a paytable.
+     * @param paytable the paytable
+     * @param parallelism the number of threads to count, and to analyze the return of the paytable, with
+     * @throws InterruptedException if interrupted while counting
+     */
+    public VideoPokerSolver(Paytable paytable, int parallelism) throws InterruptedException {
+        this.paytable = paytable;
+        this.numberOfCards = paytable.getNumberOfCards();
+        this.parallelism = parallelism;
+
+        ForkJoinPool forkJoinPool = new ForkJoinPool(parallelism);
+        try {
+            forkJoinPool.submit(() -> {
+                payoutSums[CARDS_PER_HAND] = getFinalHandPayouts();
+                for (int k = CARDS_PER_HAND - 1; k >= 0; k--) {
+                    payoutSums[k] = getPayoutSums(k, payoutSums[k + 1]);
+                }
+            }).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            forkJoinPool.shutdown();
+        }
+    }
+
+    public Paytable getPaytable() {
+        return paytable;
+    }
+
+    /**
+     * @param cards the array holding the packed cards of the dealt hand
+     * @param offset the index of the first of the five cards
+     * @return the payout expected per coin bet of each hold, indexed by hold mask, bit i being set if the i-th card is
+     * held
+     */
+    public double[] getExpectedPayouts(int[] cards, int offset) {
+        long[] holdCardMasks = getHoldCardMasks(cards, offset);
+        double[] expectedPayouts = new double[NUMBER_OF_HOLDS];
+        for (int holdMask = 0; holdMask < NUMBER_OF_HOLDS; holdMask++) {
+            expectedPayouts[holdMask] = getExpectedPayout(holdCardMasks, holdMask);
+        }
+        return expectedPayouts;
+    }
+
+    /**
+     * Finds the best hold of a dealt hand, from the cache when an isomorphic hand has been solved before.
+     * @param cards the array holding the packed cards of the dealt hand
+     * @param offset the index of the first of the five cards
+     * @return the hold with the highest expected payout
+     */
+    public VideoPokerHold solve(int[] cards, int offset) {
+        long dealtCardMask = getHoldCardMasks(cards, offset)[NUMBER_OF_HOLDS - 1];
+        int permutation = SuitIsomorphism.getCanonicalPermutation(dealtCardMask & NATURAL_CARD_MASK);
+        long representative = SuitIsomorphism.permute(dealtCardMask & NATURAL_CARD_MASK, permutation)
+                | (dealtCardMask & JOKER_CARD_MASK);
+        VideoPokerHold representativeHold = cache.computeIfAbsent(representative, this::solveRepresentative);
+
+        // maps each dealt card to its place among the cards of the representative
+        int holdMask = 0;
+        for (int i = 0; i < CARDS_PER_HAND; i++) {
+            int card = cards[offset + i] == Paytable.JOKER ? Paytable.JOKER
+                    : SuitIsomorphism.permuteCard(cards[offset + i], permutation);
+            if (representativeHold.isHeld(Long.bitCount(representative & ((1L << card) - 1))))
+                holdMask |= 1 << i;
+        }
+        return new VideoPokerHold(holdMask, representativeHold.getExpectedPayout());
+    }
+
+    /**
+     * Finds the best hold of a dealt hand, which cannot hold a joker.
+     * @param pokerHand the dealt hand
+     * @return the hold with the highest expected payout, bit i of its hold mask standing for the i-th card of the hand
+     */
+    public VideoPokerHold solve(PokerHand pokerHand) {
+        List<Card> handCards = pokerHand.getCards();
+        int[] cards = new int[handCards.size()];
+        for (int i = 0; i < cards.length; i++) {
+            cards[i] = PackedPokerHandAnalyzer.getCard(handCards.get(i).getRank(), handCards.get(i).getSuit());
+        }
+        return solve(cards, 0);
+    }
+
+    /**
+     * Computes the return of the paytable, the payout expected per coin bet when every deal is played with its best
+     * hold, solving every representative deal in parallel and caching its hold.
+     * @return the return, e.g., 0.9954 for 9/6 Jacks or Better
+     * @throws InterruptedException if interrupted while solving
+     */
+    public double getReturn() throws InterruptedException {
+        int numberOfDeals = (int) Combinations.binomial(numberOfCards, CARDS_PER_HAND);
+        ForkJoinPool forkJoinPool = new ForkJoinPool(parallelism);
+        try {
+            return forkJoinPool.submit(() -> {
+                // the representatives of all deals, sorted, so equal ones are adjacent and counted as runs
+                long[] representatives = new long[numberOfDeals];
+                forEachChunk(numberOfDeals, (start, end) -> {
+                    long dealtCardMask = Combinations.getCardMask(start, CARDS_PER_HAND);
+                    for (int deal = start; deal < end; deal++) {
+                        representatives[deal] = getRepresentative(dealtCardMask);
+                        dealtCardMask = Combinations.next(dealtCardMask);
+                    }
+                });
+                Arrays.parallelSort(representatives);
+
+                int[] runStarts = IntStream.range(0, numberOfDeals)
+                        .filter(deal -> deal == 0 || representatives[deal] != representatives[deal - 1]).toArray();
+                double[] expectedPayouts = new double[runStarts.length];
+                IntStream.range(0, runStarts.length).parallel().forEach(run -> expectedPayouts[run] =
+                        cache.computeIfAbsent(representatives[runStarts[run]], this::solveRepresentative)
+                                .getExpectedPayout());
+
+                // sums in a fixed order, so the return is the same whatever the number of threads
+                double totalPayout = 0;
+                for (int run = 0; run < runStarts.length; run++) {
+                    int runEnd = run + 1 < runStarts.length ? runStarts[run + 1] : numberOfDeals;
+                    totalPayout += expectedPayouts[run] * (runEnd - runStarts[run]);
+                }
+                return totalPayout / numberOfDeals;
+            }).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            forkJoinPool.shutdown();
+        }
+    }
+
+    /**
+     * @return the number of representative deals whose best hold is cached
+     */
+    public int getCacheSize() {
+        return cache.size();
+    }
+
+    // the payout of every final hand, by colexicographic index
+    private long[] getFinalHandPayouts() {
+        long[] payouts = new long[(int) Combinations.binomial(numberOfCards, CARDS_PER_HAND)];
+        forEachChunk(payouts.length, (start, end) -> {
+            long finalHandCardMask = Combinations.getCardMask(start, CARDS_PER_HAND);
+            for (int finalHand = start; finalHand < end; finalHand++) {
+                payouts[finalHand] = paytable.getPayout(finalHandCardMask);
+                finalHandCardMask = Combinations.next(finalHandCardMask);
+            }
+        });
+        return payouts;
+    }
+
+    // the payout sums of the sets of k cards, from those of the sets of k + 1 cards
+    private long[] getPayoutSums(int k, long[] higherPayoutSums) {
+        long[] sums = new long[(int) Combinations.binomial(numberOfCards, k)];
+        IntStream.range(0, sums.length).parallel().forEach(i -> {
+            long cardMask = Combinations.getCardMask(i, k);
+            long sum = 0;
+            for (int card = 0; card < numberOfCards; card++) {
+                if ((cardMask & 1L << card) == 0)
+                    sum += higherPayoutSums[(int) Combinations.getIndex(cardMask | 1L << card)];
+            }
+            sums[i] = sum / (CARDS_PER_HAND - k);
+        });
+        return sums;
+    }
+
+    // the expected payout of a hold, from the card masks of the subsets of the dealt cards
+    private double getExpectedPayout(long[] holdCardMasks, int holdMask) {
+        int numberOfCardsHeld = Integer.bitCount(holdMask);
+        int discardMask = ~holdMask & (NUMBER_OF_HOLDS - 1);
+        long totalPayout = 0;
+        // the final hands holding the held cards, less those also holding some of the discarded ones
+        for (int excluded = discardMask; ; excluded = (excluded - 1) & discardMask) {
+            int numberOfExcluded = Integer.bitCount(excluded);
+            long payoutSum = payoutSums[numberOfCardsHeld + numberOfExcluded]
+                    [(int) Combinations.getIndex(holdCardMasks[holdMask | excluded])];
+            totalPayout += (numberOfExcluded & 1) == 0 ? payoutSum : -payoutSum;
+            if (excluded == 0)
+                break;
+        }
+        return (double) totalPayout
+                / Combinations.binomial(numberOfCards - CARDS_PER_HAND, CARDS_PER_HAND - numberOfCardsHeld);
+    }
+
+    private VideoPokerHold solveRepresentative(long representative) {
+        long[] holdCardMasks = new long[NUMBER_OF_HOLDS];
+        int i = 0;
+        for (long remainingCards = representative; remainingCards != 0; remainingCards &= remainingCards - 1) {
+            holdCardMasks[1 << i++] = remainingCards & -remainingCards;
+        }
+        fillHoldCardMasks(holdCardMasks);
+
+        int bestHoldMask = 0;
+        double bestExpectedPayout = -1;
+        for (int holdMask = 0; holdMask < NUMBER_OF_HOLDS; holdMask++) {
+            double expectedPayout = getExpectedPayout(holdCardMasks, holdMask);
+            if (expectedPayout > bestExpectedPayout) {
+                bestHoldMask = holdMask;
+                bestExpectedPayout = expectedPayout;
+            }
+        }
+        return new VideoPokerHold(bestHoldMask, bestExpectedPayout);
+    }
+
+    // the card mask of each subset of the five dealt cards, by hold mask
+    private long[] getHoldCardMasks(int[] cards, int offset) {
+        long[] holdCardMasks = new long[NUMBER_OF_HOLDS];
+        for (int i = 0; i < CARDS_PER_HAND; i++) {
+            int card = cards[offset + i];
+            if (card < 0 || card >= numberOfCards)
+                throw new IllegalArgumentException("card " + card + " is not in the deck of " + paytable);
+            holdCardMasks[1 << i] = 1L << card;
+        }
+        fillHoldCardMasks(holdCardMasks);
+        if (Long.bitCount(holdCardMasks[NUMBER_OF_HOLDS - 1]) != CARDS_PER_HAND)
+            throw new IllegalArgumentException("a dealt hand must hold five different cards");
+        return holdCardMasks;
+    }
+
+    // fills in the card mask of each subset from those of the single cards
+    private static void fillHoldCardMasks(long[] holdCardMasks) {
+        for (int holdMask = 3; holdMask < NUMBER_OF_HOLDS; holdMask++) {
+            int lowestCard = holdMask & -holdMask;
+            if (lowestCard != holdMask)
+                holdCardMasks[holdMask] = holdCardMasks[lowestCard] | holdCardMasks[holdMask & ~lowestCard];
+        }
+    }
+
+    // the suit-isomorphic representative of a deal, keeping any joker, which has no suit
+    private static long getRepresentative(long dealtCardMask) {
+        return SuitIsomorphism.canonicalize(dealtCardMask & NATURAL_CARD_MASK) | (dealtCardMask & JOKER_CARD_MASK);
+    }
+
+    // splits a range of indices, starting at zero, into chunks run in parallel
+    private static void forEachChunk(int size, ChunkTask task) {
+        int numberOfChunks = (size + PARALLEL_CHUNK_SIZE - 1) / PARALLEL_CHUNK_SIZE;
+        IntStream.range(0, numberOfChunks).parallel().forEach(chunk -> task.run(chunk * PARALLEL_CHUNK_SIZE,
+                Math.min(size, (chunk + 1) * PARALLEL_CHUNK_SIZE)));
+    }
+
+    private interface ChunkTask {
+        void run(int start, int end);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int parallelism = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        for (Paytable paytable : new Paytable[]{Paytable.jacksOrBetter(), Paytable.deucesWild(), Paytable.jokerPoker()}) {
+            System.out.printf("%s: %.4f%%%n", paytable, new VideoPokerSolver(paytable, parallelism).getReturn() * 100);
+        }
+    }
+}
@@ -0,0 +1,376 @@
+package pokerhandanalyzer.warmup;
+
+import pokerhandanalyzer.PackedPokerHandAnalyzer;
+import pokerhandanalyzer.StringPokerHandAnalyzer;
+import pokerhandanalyzer.deal.DealGenerator;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Warms the fast engine, {@link PackedPokerHandAnalyzer}, up in the background while a service starts, so that neither
+ * the first requests after a deploy nor the startup itself wait for it. Until the engine is ready, requests are served
+ * by the reference analyzer, {@link StringPokerHandAnalyzer}, and from then on by the fast engine.
+ *
+ * Starting the warm-up runs, in parallel on a pool of daemon threads, the loaders of the tables registered with
+ * {@link #addTable(String, Callable)}, none of which runs before the start, and a synthetic workload of random deals
+ * from {@link DealGenerator}, which initializes the tables of the fast engine and runs its code path often enough to be
+ * compiled, checking every deal against the reference analyzer. The engine is ready once all of them have finished. If
+ * a table fails to load, or a deal is ranked differently, it never becomes ready, and requests stay on the reference
+ * analyzer.
+ *
+ * The fast engine only takes lines in the canonical format, ten distinct cards separated by single spaces, e.g.,
+ * "AH TD 5C 9S JS 3D 7H 5S JC 5H", and leaves every other line to the reference analyzer, so a line gets the same
+ * result, or error, whichever analyzer serves it.
+ *
+ * The readiness and the warm-up metrics are exposed over JMX once {@link #registerMBean()} has been called.
+ */
+public class EngineWarmUp implements EngineWarmUpMXBean, Closeable {
+    public static final String OBJECT_NAME = "pokerhandanalyzer:type=EngineWarmUp";
+    public static final int DEFAULT_NUMBER_OF_WARM_UP_DEALS = 50_000;
+
+    private static final int CARDS_PER_DEAL = 10;
+    // ten two character cards and the nine spaces between them
+    private static final int CANONICAL_LINE_LENGTH = 29;
+
+    private final int parallelism;
+    private final int numberOfWarmUpDeals;
+    private final long seed;
+    private final Map<String, Callable<?>> tableLoaders = new LinkedHashMap<>();
+    private final Map<String, Object> tables = new ConcurrentHashMap<>();
+    private final Map<String, Long> tableLoadNanos = new ConcurrentHashMap<>();
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private final LongAdder warmUpDealCount = new LongAdder();
+    private final LongAdder referenceRequestCount = new LongAdder();
+    private final LongAdder fastRequestCount = new LongAdder();
+    private ExecutorService executorService;
+    private boolean registered;
+    private volatile boolean closed;
+    private volatile boolean ready;
+    private volatile String failure;
+    private volatile long warmUpNanos = -1;
+
+    /**
+     * Creates a warm-up running the default number of warm-up deals on one thread per processor.
+     */
+    public EngineWarmUp() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_NUMBER_OF_WARM_UP_DEALS, 0);
+    }
+
+    /**
+     * @param parallelism the number of threads to warm up on
+     * @param numberOfWarmUpDeals the number of deals of the synthetic workload
+     * @param seed the seed of the deals
+     */
+    public EngineWarmUp(int parallelism, int numberOfWarmUpDeals, long seed) {
+        if (parallelism < 1 || numberOfWarmUpDeals < 0)
+            throw new IllegalArgumentException("the parallelism must be positive, and the number of deals not negative");
+
+        this.parallelism = parallelism;
+        this.numberOfWarmUpDeals = numberOfWarmUpDeals;
+        this.seed = seed;
+    }
+
+    /**
+     * Registers a table to load or build during the warm-up. The engine is not ready until it has been loaded.
+     * @param name the name of the table
+     * @param loader loads or builds the table; it is called once, on a warm-up thread, after {@link #start()}
+     */
+    public synchronized void addTable(String name, Callable<?> loader) {
+        if (executorService != null)
+            throw new IllegalStateException("the warm-up has already started");
+        if (tableLoaders.containsKey(name))
+            throw new IllegalArgumentException("a table named " + name + " is already registered");
+
+        tableLoaders.put(name, loader);
+    }
+
+    /**
+     * @param name the name of a registered table
+     * @param type the class of the table
+     * @param <T> the type of the table
+     * @return the table, or null if it has not been loaded yet
+     */
+    public <T> T getTable(String name, Class<T> type) {
+        return type.cast(tables.get(name));
+    }
+
+    /**
+     * Starts loading the tables and running the warm-up deals on background threads, and returns at once.
+     */
+    public synchronized void start() {
+        if (executorService != null)
+            throw new IllegalStateException("the warm-up has already started");
+        if (closed)
+            throw new IllegalStateException("the warm-up is closed");
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        executorService = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "engine-warm-up-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        for (Map.Entry<String, Callable<?>> tableLoader : tableLoaders.entrySet()) {
+            tasks.add(CompletableFuture.runAsync(() -> loadTable(tableLoader.getKey(), tableLoader.getValue()),
+                    executorService));
+        }
+        int dealsPerTask = (numberOfWarmUpDeals + parallelism - 1) / parallelism;
+        for (int firstDeal = 0; firstDeal < numberOfWarmUpDeals; firstDeal += dealsPerTask) {
+            int taskFirstDeal = firstDeal;
+            int numberOfDeals = Math.min(dealsPerTask, numberOfWarmUpDeals - firstDeal);
+            tasks.add(CompletableFuture.runAsync(() -> runWarmUpDeals(taskFirstDeal, numberOfDeals), executorService));
+        }
+
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).whenComplete((result, throwable) -> {
+            if (throwable != null) {
+                Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+                failure = cause.toString();
+            } else if (!closed) {
+                warmUpNanos = System.nanoTime() - start;
+                ready = true;
+            }
+            finished.countDown();
+            executorService.shutdown();
+        });
+    }
+
+    /**
+     * Waits for the warm-up to finish.
+     * @param timeout the longest time to wait
+     * @param unit the unit of the timeout
+     * @return whether the engine is ready; false if the time ran out, or the warm-up failed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitReady(long timeout, TimeUnit unit) throws InterruptedException {
+        finished.await(timeout, unit);
+        return ready;
+    }
+
+    /**
+     * Analyzes a pair of hands as {@link StringPokerHandAnalyzer#analyzeHands(String)} does, with the fast engine once
+     * it is ready.
+     * @param hands a string representation of two five-card poker hands, e.g., "AH TD 5C 9S JS 3D 7H 5S JC 5H"
+     * @return 'left', 'right', or 'neither' depending on which hand won
+     */
+    public String analyzeHands(String hands) {
+        if (ready) {
+            String whoWon = analyzeWithFastEngine(hands);
+            if (whoWon != null) {
+                fastRequestCount.increment();
+                return whoWon;
+            }
+        }
+        referenceRequestCount.increment();
+        return StringPokerHandAnalyzer.analyzeHands(hands);
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public boolean isFailed() {
+        return failure != null;
+    }
+
+    /**
+     * @return the cause of the failure of the warm-up, or null if it has not failed
+     */
+    @Override
+    public String getFailure() {
+        return failure;
+    }
+
+    /**
+     * @return the time from the start of the warm-up until the engine was ready, or -1 if it is not ready
+     */
+    @Override
+    public long getWarmUpNanos() {
+        return warmUpNanos;
+    }
+
+    @Override
+    public int getNumberOfTables() {
+        return tableLoaders.size();
+    }
+
+    /**
+     * @return the time each table loaded so far took to load, by name
+     */
+    @Override
+    public Map<String, Long> getTableLoadNanos() {
+        return Collections.unmodifiableMap(new TreeMap<>(tableLoadNanos));
+    }
+
+    @Override
+    public long getWarmUpDealCount() {
+        return warmUpDealCount.sum();
+    }
+
+    @Override
+    public long getReferenceRequestCount() {
+        return referenceRequestCount.sum();
+    }
+
+    @Override
+    public long getFastRequestCount() {
+        return fastRequestCount.sum();
+    }
+
+    /**
+     * Registers the warm-up with the platform MBean server under {@link #OBJECT_NAME}, until it is closed.
+     * @throws IllegalStateException if another warm-up is registered
+     */
+    public synchronized void registerMBean() {
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        try {
+            mBeanServer.registerMBean(this, new ObjectName(OBJECT_NAME));
+            registered = true;
+        } catch (InstanceAlreadyExistsException e) {
+            throw new IllegalStateException("another warm-up is registered", e);
+        } catch (JMException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Stops the warm-up if it is still running, unregisters it, and closes the tables that are {@link Closeable}.
+     * @throws IOException if a table cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed)
+            return;
+
+        closed = true;
+        if (executorService != null)
+            executorService.shutdownNow();
+        // the tasks that never got to run never finish, so waiting for them ends here
+        if (finished.getCount() > 0 && !ready) {
+            failure = "the warm-up was closed";
+            finished.countDown();
+        }
+        if (registered) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(OBJECT_NAME));
+            } catch (InstanceNotFoundException e) {
+                // unregistered by someone else
+            } catch (JMException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        for (Object table : tables.values()) {
+            if (table instanceof Closeable)
+                ((Closeable) table).close();
+        }
+    }
+
+    private void loadTable(String name, Callable<?> loader) {
+        long start = System.nanoTime();
+        Object table;
+        try {
+            table = loader.call();
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+        if (table == null)
+            throw new IllegalStateException("the loader of " + name + " returned no table");
+
+        tables.put(name, table);
+        tableLoadNanos.put(name, System.nanoTime() - start);
+        // a loader ignoring interruption may finish after close(), which either saw the table or is seen here
+        if (closed && table instanceof Closeable) {
+            try {
+                ((Closeable) table).close();
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }
+    }
+
+    // runs deals through the fast engine, checking each against the reference analyzer
+    private void runWarmUpDeals(long firstDeal, int numberOfDeals) {
+        DealGenerator dealGenerator = new DealGenerator(seed, CARDS_PER_DEAL);
+        int[] cards = new int[DealGenerator.BLOCK_SIZE * CARDS_PER_DEAL];
+        for (long deal = firstDeal; deal < firstDeal + numberOfDeals; deal += DealGenerator.BLOCK_SIZE) {
+            if (Thread.currentThread().isInterrupted())
+                throw new CancellationException("the warm-up was closed");
+
+            int blockSize = (int) Math.min(DealGenerator.BLOCK_SIZE, firstDeal + numberOfDeals - deal);
+            dealGenerator.generate(deal, blockSize, cards, 0);
+            for (int i = 0; i < blockSize; i++) {
+                String hands = toLine(cards, i * CARDS_PER_DEAL);
+                String expectedWhoWon = StringPokerHandAnalyzer.analyzeHands(hands);
+                String whoWon = analyzeWithFastEngine(hands);
+                if (!expectedWhoWon.equals(whoWon))
+                    throw new IllegalStateException("the fast engine answers " + whoWon + " for " + hands
+                            + ", but the reference analyzer " + expectedWhoWon);
+                warmUpDealCount.increment();
+            }
+        }
+    }
+
+    // analyzes a line in the canonical format with the fast engine, returning null for any other line
+    static String analyzeWithFastEngine(String hands) {
+        if (hands.length() != CANONICAL_LINE_LENGTH)
+            return null;
+
+        int[] cards = new int[CARDS_PER_DEAL];
+        long cardMask = 0;
+        for (int i = 0; i < CARDS_PER_DEAL; i++) {
+            int offset = i * 3;
+            if (i < CARDS_PER_DEAL - 1 && hands.charAt(offset + 2) != ' ')
+                return null;
+
+            cards[i] = PackedPokerHandAnalyzer.parseCard(hands.charAt(offset), hands.charAt(offset + 1));
+            if (cards[i] == PackedPokerHandAnalyzer.INVALID_CARD)
+                return null;
+            cardMask |= 1L << cards[i];
+        }
+        // a card dealt twice is left to the reference analyzer
+        if (Long.bitCount(cardMask) != CARDS_PER_DEAL)
+            return null;
+
+        int comparison = Integer.compare(PackedPokerHandAnalyzer.evaluate(cards, 0),
+                PackedPokerHandAnalyzer.evaluate(cards, 5));
+        return comparison > 0 ? "left" : comparison < 0 ? "right" : "neither";
+    }
+
+    private static String toLine(int[] cards, int offset) {
+        StringBuilder line = new StringBuilder(CANONICAL_LINE_LENGTH);
+        for (int i = offset; i < offset + CARDS_PER_DEAL; i++) {
+            if (i > offset)
+                line.append(' ');
+            line.append(PackedPokerHandAnalyzer.getRank(cards[i]).getCharacterRepresentation())
+                    .append(PackedPokerHandAnalyzer.getSuit(cards[i]).getCharacterRepresentation());
+        }
+        return line.toString();
+    }
+}
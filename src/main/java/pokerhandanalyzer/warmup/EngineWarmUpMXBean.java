@@ -0,0 +1,26 @@
+package pokerhandanalyzer.warmup;
+
+import java.util.Map;
+
+/**
+ * The management interface of {@link EngineWarmUp}, registered as "pokerhandanalyzer:type=EngineWarmUp".
+ */
+public interface EngineWarmUpMXBean {
+    boolean isReady();
+
+    boolean isFailed();
+
+    String getFailure();
+
+    long getWarmUpNanos();
+
+    int getNumberOfTables();
+
+    Map<String, Long> getTableLoadNanos();
+
+    long getWarmUpDealCount();
+
+    long getReferenceRequestCount();
+
+    long getFastRequestCount();
+}
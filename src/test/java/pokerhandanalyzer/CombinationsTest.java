@@ -0,0 +1,43 @@
+package pokerhandanalyzer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CombinationsTest {
+
+    @Test
+    public void binomialTest() {
+        Assert.assertEquals(2598960, Combinations.binomial(52, 5));
+        Assert.assertEquals(133784560, Combinations.binomial(52, 7));
+        Assert.assertEquals(0, Combinations.binomial(4, 5));
+    }
+
+    // every set of three cards, enumerated in colexicographic order, must have the next index
+    @Test
+    public void indexesInColexicographicOrderTest() {
+        // Given
+        long cardMask = 0b111;
+
+        for (long expectedIndex = 0; expectedIndex < Combinations.binomial(52, 3); expectedIndex++) {
+            // When
+            long actualIndex = Combinations.getIndex(cardMask);
+
+            // Then
+            Assert.assertEquals(expectedIndex, actualIndex);
+            Assert.assertEquals(cardMask, Combinations.getCardMask(expectedIndex, 3));
+            cardMask = Combinations.next(cardMask);
+        }
+    }
+
+    @Test
+    public void lastSevenCardSetTest() {
+        // Given
+        long expectedOutput = 0x7FL << 45;
+
+        // When
+        long actualOutput = Combinations.getCardMask(Combinations.binomial(52, 7) - 1, 7);
+
+        // Then
+        Assert.assertEquals(expectedOutput, actualOutput);
+    }
+}
@@ -0,0 +1,276 @@
+package pokerhandanalyzer;
+
+import pokerhandanalyzer.enums.PokerHandType;
+import pokerhandanalyzer.models.Card;
+import pokerhandanalyzer.models.PokerHand;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Verifies the evaluation engines against each other and against the known combinatorial totals by enumerating every
+ * hand, in parallel, and reports how many evaluations per second each engine made in the same run.
+ *
+ * All 2,598,960 five-card hands are evaluated by the reference {@link PokerHandAnalyzer}, by the five-card
+ * {@link PackedPokerHandAnalyzer#evaluate(int, int, int, int, int)} and by the card mask
+ * {@link PackedPokerHandAnalyzer#evaluate(long)}. The engines must agree on every hand, their category counts must
+ * match the totals, there must be 7,462 distinct strengths, and the order of the strengths must be the order of
+ * {@link PokerHandComparator}, which is checked on every pair of hands adjacent in that order.
+ *
+ * All 133,784,560 seven-card hands are evaluated by the card mask evaluator, whose category counts must match the
+ * totals, and optionally by taking the best of the 21 five-card hands each holds, which must agree with it.
+ *
+ * The five-card verification is run by the test suite. The seven-card one takes minutes even on many cores; run it by
+ * hand, e.g., java -cp target/classes:target/test-classes pokerhandanalyzer.ExhaustiveVerification 8 seven
+ * with the parallelism, and "seven" or "seven-cross-check" to verify seven-card hands as well.
+ */
+public class ExhaustiveVerification {
+    static final int NUMBER_OF_FIVE_CARD_HANDS = 2598960;
+    static final long NUMBER_OF_SEVEN_CARD_HANDS = 133784560;
+    static final int NUMBER_OF_DISTINCT_FIVE_CARD_STRENGTHS = 7462;
+    // the number of hands of each hand type, by ordinal
+    static final long[] FIVE_CARD_HAND_TYPE_COUNTS = {
+            1302540, 1098240, 123552, 54912, 10200, 5108, 3744, 624, 36, 4
+    };
+    static final long[] SEVEN_CARD_HAND_TYPE_COUNTS = {
+            23294460, 58627800, 31433400, 6461620, 6180020, 4047644, 3473184, 224848, 37260, 4324
+    };
+
+    private static final int NUMBER_OF_HAND_TYPES = PokerHandType.values().length;
+
+    private final int parallelism;
+    private final List<String> report = new ArrayList<>();
+
+    public ExhaustiveVerification(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @return a line for each engine run so far, with its number of evaluations per second
+     */
+    public List<String> getReport() {
+        return report;
+    }
+
+    /**
+     * Verifies every five-card hand.
+     * @throws AssertionError if any engine disagrees with another, with the totals, or with the comparator
+     */
+    public void verifyFiveCardHands() throws InterruptedException {
+        // the hands in lexicographic order, as packed cards and as card masks
+        byte[] cards = new byte[NUMBER_OF_FIVE_CARD_HANDS * 5];
+        long[] cardMasks = new long[NUMBER_OF_FIVE_CARD_HANDS];
+        int hand = 0;
+        for (int c0 = 0; c0 < 52; c0++)
+            for (int c1 = c0 + 1; c1 < 52; c1++)
+                for (int c2 = c1 + 1; c2 < 52; c2++)
+                    for (int c3 = c2 + 1; c3 < 52; c3++)
+                        for (int c4 = c3 + 1; c4 < 52; c4++) {
+                            int i = hand * 5;
+                            cards[i] = (byte) c0;
+                            cards[i + 1] = (byte) c1;
+                            cards[i + 2] = (byte) c2;
+                            cards[i + 3] = (byte) c3;
+                            cards[i + 4] = (byte) c4;
+                            cardMasks[hand++] = 1L << c0 | 1L << c1 | 1L << c2 | 1L << c3 | 1L << c4;
+                        }
+
+        byte[] referenceHandTypes = new byte[NUMBER_OF_FIVE_CARD_HANDS];
+        int[] packedStrengths = new int[NUMBER_OF_FIVE_CARD_HANDS];
+        int[] cardMaskStrengths = new int[NUMBER_OF_FIVE_CARD_HANDS];
+        run("five-card reference", NUMBER_OF_FIVE_CARD_HANDS, i ->
+                referenceHandTypes[i] = (byte) new PokerHandAnalyzer(toPokerHand(cards, i)).getPokerHandType().ordinal());
+        run("five-card packed", NUMBER_OF_FIVE_CARD_HANDS, i -> packedStrengths[i] = PackedPokerHandAnalyzer.evaluate(
+                cards[i * 5], cards[i * 5 + 1], cards[i * 5 + 2], cards[i * 5 + 3], cards[i * 5 + 4]));
+        run("five-card card mask", NUMBER_OF_FIVE_CARD_HANDS, i ->
+                cardMaskStrengths[i] = PackedPokerHandAnalyzer.evaluate(cardMasks[i]));
+
+        long[] referenceHandTypeCounts = new long[NUMBER_OF_HAND_TYPES];
+        long[] packedHandTypeCounts = new long[NUMBER_OF_HAND_TYPES];
+        for (int i = 0; i < NUMBER_OF_FIVE_CARD_HANDS; i++) {
+            if (packedStrengths[i] != cardMaskStrengths[i] || referenceHandTypes[i]
+                    != PackedPokerHandAnalyzer.getPokerHandType(packedStrengths[i]).ordinal())
+                throw new AssertionError("the engines disagree on " + toPokerHandString(cards, i));
+            referenceHandTypeCounts[referenceHandTypes[i]]++;
+            packedHandTypeCounts[PackedPokerHandAnalyzer.getPokerHandType(packedStrengths[i]).ordinal()]++;
+        }
+        assertHandTypeCounts("reference", FIVE_CARD_HAND_TYPE_COUNTS, referenceHandTypeCounts);
+        assertHandTypeCounts("packed", FIVE_CARD_HAND_TYPE_COUNTS, packedHandTypeCounts);
+
+        // sorts the hands by strength, each keyed by its strength in the high half and its index in the low half
+        long[] handsByStrength = new long[NUMBER_OF_FIVE_CARD_HANDS];
+        for (int i = 0; i < NUMBER_OF_FIVE_CARD_HANDS; i++) {
+            handsByStrength[i] = (long) packedStrengths[i] << 32 | i;
+        }
+        Arrays.sort(handsByStrength);
+        int numberOfDistinctStrengths = 1;
+        for (int i = 1; i < NUMBER_OF_FIVE_CARD_HANDS; i++) {
+            if (handsByStrength[i] >>> 32 != handsByStrength[i - 1] >>> 32)
+                numberOfDistinctStrengths++;
+        }
+        if (numberOfDistinctStrengths != NUMBER_OF_DISTINCT_FIVE_CARD_STRENGTHS)
+            throw new AssertionError(numberOfDistinctStrengths + " distinct strengths");
+
+        PokerHandComparator pokerHandComparator = new PokerHandComparator();
+        run("five-card reference comparator", NUMBER_OF_FIVE_CARD_HANDS - 1, i -> {
+            int lower = (int) handsByStrength[i];
+            int higher = (int) handsByStrength[i + 1];
+            int expected = Integer.compare(packedStrengths[lower], packedStrengths[higher]);
+            int actual = Integer.signum(pokerHandComparator.compare(toPokerHand(cards, lower), toPokerHand(cards, higher)));
+            if (actual != expected) {
+                throw new AssertionError("the comparator orders " + toPokerHandString(cards, lower) + " and "
+                        + toPokerHandString(cards, higher) + " differently");
+            }
+        });
+    }
+
+    /**
+     * Verifies every seven-card hand.
+     * @param crossCheck whether to also evaluate each hand as the best of the five-card hands it holds, and check it
+     *                   against the card mask evaluator
+     * @throws AssertionError if the engines disagree, or with the totals
+     */
+    public void verifySevenCardHands(boolean crossCheck) throws InterruptedException {
+        // each task enumerates the hands whose two lowest cards are a given pair, indexed by c0 * 52 + c1
+        AtomicLongArray handTypeCounts = new AtomicLongArray(NUMBER_OF_HAND_TYPES);
+        run("seven-card card mask", 52 * 52, NUMBER_OF_SEVEN_CARD_HANDS, pair -> {
+            long[] counts = new long[NUMBER_OF_HAND_TYPES];
+            forEachSevenCardHand(pair, (cardMask, handCards) ->
+                    counts[PackedPokerHandAnalyzer.getPokerHandType(PackedPokerHandAnalyzer.evaluate(cardMask)).ordinal()]++);
+            for (int i = 0; i < NUMBER_OF_HAND_TYPES; i++) {
+                handTypeCounts.addAndGet(i, counts[i]);
+            }
+        });
+        long[] actualCounts = new long[NUMBER_OF_HAND_TYPES];
+        for (int i = 0; i < NUMBER_OF_HAND_TYPES; i++) {
+            actualCounts[i] = handTypeCounts.get(i);
+        }
+        assertHandTypeCounts("card mask", SEVEN_CARD_HAND_TYPE_COUNTS, actualCounts);
+
+        if (crossCheck) {
+            run("seven-card best of 21 packed", 52 * 52, NUMBER_OF_SEVEN_CARD_HANDS, pair ->
+                    forEachSevenCardHand(pair, (cardMask, handCards) -> {
+                        if (getBestFiveCardStrength(handCards, 7) != PackedPokerHandAnalyzer.evaluate(cardMask))
+                            throw new AssertionError("the engines disagree on card mask " + Long.toHexString(cardMask));
+                    }));
+        }
+    }
+
+    /**
+     * Evaluates five to seven cards as the best of the five-card hands they hold.
+     * @param cards the packed cards
+     * @param numberOfCards the number of cards
+     * @return the strength of the best hand
+     */
+    static int getBestFiveCardStrength(int[] cards, int numberOfCards) {
+        int[] hand = new int[5];
+        int best = 0;
+        // each subset of five of the cards is a mask with five of the low bits set
+        for (int subset = 0; subset < 1 << numberOfCards; subset++) {
+            if (Integer.bitCount(subset) != 5)
+                continue;
+
+            int numberOfHandCards = 0;
+            for (int i = 0; i < numberOfCards; i++) {
+                if ((subset & 1 << i) != 0)
+                    hand[numberOfHandCards++] = cards[i];
+            }
+            best = Math.max(best, PackedPokerHandAnalyzer.evaluate(hand, 0));
+        }
+        return best;
+    }
+
+    private interface SevenCardHandConsumer {
+        void accept(long cardMask, int[] cards);
+    }
+
+    private static void forEachSevenCardHand(int pair, SevenCardHandConsumer consumer) {
+        int c0 = pair / 52;
+        int c1 = pair % 52;
+        if (c1 <= c0)
+            return;
+
+        int[] cards = {c0, c1, 0, 0, 0, 0, 0};
+        long pairMask = 1L << c0 | 1L << c1;
+        for (int c2 = c1 + 1; c2 < 52; c2++)
+            for (int c3 = c2 + 1; c3 < 52; c3++)
+                for (int c4 = c3 + 1; c4 < 52; c4++)
+                    for (int c5 = c4 + 1; c5 < 52; c5++)
+                        for (int c6 = c5 + 1; c6 < 52; c6++) {
+                            cards[2] = c2;
+                            cards[3] = c3;
+                            cards[4] = c4;
+                            cards[5] = c5;
+                            cards[6] = c6;
+                            consumer.accept(pairMask | 1L << c2 | 1L << c3 | 1L << c4 | 1L << c5 | 1L << c6, cards);
+                        }
+    }
+
+    private void run(String engine, int numberOfEvaluations, IntConsumer evaluation) throws InterruptedException {
+        run(engine, numberOfEvaluations, numberOfEvaluations, evaluation);
+    }
+
+    // runs the tasks on the given number of threads, and reports the number of evaluations they made per second
+    private void run(String engine, int numberOfTasks, long numberOfEvaluations, IntConsumer task)
+            throws InterruptedException {
+        ForkJoinPool forkJoinPool = new ForkJoinPool(parallelism);
+        try {
+            long start = System.nanoTime();
+            forkJoinPool.submit(() -> IntStream.range(0, numberOfTasks).parallel().forEach(task)).get();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            report.add(String.format("%s: %d evaluations in %.2f s, %.0f evaluations/sec", engine, numberOfEvaluations,
+                    seconds, numberOfEvaluations / seconds));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof AssertionError)
+                throw (AssertionError) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            forkJoinPool.shutdown();
+        }
+    }
+
+    private static void assertHandTypeCounts(String engine, long[] expected, long[] actual) {
+        if (!Arrays.equals(expected, actual)) {
+            throw new AssertionError("the " + engine + " engine counted " + Arrays.toString(actual)
+                    + " hands of each type instead of " + Arrays.toString(expected));
+        }
+    }
+
+    private static PokerHand toPokerHand(byte[] cards, int hand) {
+        List<Card> cardList = new ArrayList<>();
+        for (int i = hand * 5; i < hand * 5 + 5; i++) {
+            cardList.add(new Card(PackedPokerHandAnalyzer.getRank(cards[i]), PackedPokerHandAnalyzer.getSuit(cards[i])));
+        }
+        return new PokerHand(cardList);
+    }
+
+    private static String toPokerHandString(byte[] cards, int hand) {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (int i = hand * 5; i < hand * 5 + 5; i++) {
+            stringBuilder.append(i > hand * 5 ? " " : "")
+                    .append(PackedPokerHandAnalyzer.getRank(cards[i]).getCharacterRepresentation())
+                    .append(PackedPokerHandAnalyzer.getSuit(cards[i]).getCharacterRepresentation());
+        }
+        return stringBuilder.toString();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int parallelism = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        String sevenCardMode = args.length > 1 ? args[1] : "";
+
+        ExhaustiveVerification exhaustiveVerification = new ExhaustiveVerification(parallelism);
+        exhaustiveVerification.verifyFiveCardHands();
+        if (sevenCardMode.startsWith("seven"))
+            exhaustiveVerification.verifySevenCardHands(sevenCardMode.equals("seven-cross-check"));
+        for (String line : exhaustiveVerification.getReport()) {
+            System.out.println(line);
+        }
+        System.out.println("all hands verified");
+    }
+}
@@ -0,0 +1,45 @@
+package pokerhandanalyzer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class ExhaustiveVerificationTest {
+
+    @Test
+    public void verifyFiveCardHandsTest() throws InterruptedException {
+        // Given
+        ExhaustiveVerification exhaustiveVerification = new ExhaustiveVerification(Runtime.getRuntime().availableProcessors());
+
+        // When
+        exhaustiveVerification.verifyFiveCardHands();
+
+        // Then
+        Assert.assertEquals(4, exhaustiveVerification.getReport().size());
+    }
+
+    // a sample of the seven-card verification, which is too slow to run exhaustively in the test suite
+    @Test
+    public void evaluateCardMaskAgreesWithBestFiveCardHandTest() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            // Given
+            int numberOfCards = 5 + random.nextInt(3);
+            int[] cards = new int[7];
+            long cardMask = 0;
+            for (int j = 0; j < numberOfCards; j++) {
+                do {
+                    cards[j] = random.nextInt(PackedPokerHandAnalyzer.NUMBER_OF_CARDS);
+                } while ((cardMask & 1L << cards[j]) != 0);
+                cardMask |= 1L << cards[j];
+            }
+
+            // When
+            int actualOutput = PackedPokerHandAnalyzer.evaluate(cardMask);
+
+            // Then
+            Assert.assertEquals(ExhaustiveVerification.getBestFiveCardStrength(cards, numberOfCards), actualOutput);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package pokerhandanalyzer;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import java.util.Random;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Guards the hot paths of {@link PackedPokerHandAnalyzer} against regressions: parsing, evaluating and comparing hands
+ * must not allocate, and must not get much slower than the throughput recorded in performance-baseline.properties.
+ *
+ * Throughput varies a lot between machines, so the check is coarse: it only fails when a path falls below the given
+ * fraction of its baseline, which defaults to the tolerance in the baseline file and can be changed with
+ * -Dpokerhandanalyzer.performance.tolerance. Set it to 0 to skip the throughput checks.
+ */
+public class PackedPokerHandAnalyzerPerformanceTest {
+    private static final int NUMBER_OF_LINES = 1024;
+    private static final int WARM_UP_ITERATIONS = 200000;
+    private static final int MEASURED_ITERATIONS = 1000000;
+    private static final long MEASUREMENT_NANOS = 200000000;
+    private static final int NUMBER_OF_MEASUREMENTS = 5;
+    private static final long ALLOCATION_NOISE_BYTES = 1024;
+
+    private static final ByteBuffer lines = ByteBuffer.allocateDirect(NUMBER_OF_LINES * 30);
+    private static final int[] lineStarts = new int[NUMBER_OF_LINES];
+    private static final int[] cards = new int[NUMBER_OF_LINES * 10];
+    private static final int[] parsedCards = new int[10];
+    private static Properties baseline;
+    private static double tolerance;
+
+    // keeps the results alive, so the compiler cannot eliminate the calls being measured
+    private static volatile int sink;
+
+    @BeforeClass
+    public static void setUp() throws IOException {
+        Random random = new Random(42);
+        for (int i = 0; i < NUMBER_OF_LINES; i++) {
+            lineStarts[i] = lines.position();
+            StringBuilder line = new StringBuilder();
+            for (int j = 0; j < 10; j++) {
+                int card = random.nextInt(PackedPokerHandAnalyzer.NUMBER_OF_CARDS);
+                cards[i * 10 + j] = card;
+                line.append("23456789TJQKA".charAt(card >>> 2)).append("CSHD".charAt(card & 3)).append(j < 9 ? " " : "");
+            }
+            lines.put(line.toString().getBytes(StandardCharsets.US_ASCII));
+        }
+
+        baseline = new Properties();
+        try (InputStream in = PackedPokerHandAnalyzerPerformanceTest.class.getResourceAsStream("performance-baseline.properties")) {
+            baseline.load(in);
+        }
+        tolerance = Double.parseDouble(System.getProperty("pokerhandanalyzer.performance.tolerance",
+                baseline.getProperty("tolerance")));
+    }
+
+    @Test
+    public void parseCardsDoesNotAllocateTest() {
+        assertDoesNotAllocate(this::parseCards);
+    }
+
+    @Test
+    public void evaluateDoesNotAllocateTest() {
+        assertDoesNotAllocate(this::evaluate);
+    }
+
+    @Test
+    public void analyzeHandsDoesNotAllocateTest() {
+        assertDoesNotAllocate(this::analyzeHands);
+    }
+
+    @Test
+    public void parseCardsThroughputTest() {
+        assertThroughputWithinTolerance("parseCards", this::parseCards);
+    }
+
+    @Test
+    public void evaluateThroughputTest() {
+        assertThroughputWithinTolerance("evaluate", this::evaluate);
+    }
+
+    @Test
+    public void analyzeHandsThroughputTest() {
+        assertThroughputWithinTolerance("analyzeHands", this::analyzeHands);
+    }
+
+    private int parseCards(int i) {
+        int line = i & (NUMBER_OF_LINES - 1);
+        int end = line + 1 < NUMBER_OF_LINES ? lineStarts[line + 1] : lines.position();
+        return PackedPokerHandAnalyzer.parseCards(lines, lineStarts[line], end, parsedCards, 0, 10) ? parsedCards[9] : -1;
+    }
+
+    private int evaluate(int i) {
+        return PackedPokerHandAnalyzer.evaluate(cards, (i & (NUMBER_OF_LINES - 1)) * 10);
+    }
+
+    private int analyzeHands(int i) {
+        int line = i & (NUMBER_OF_LINES - 1);
+        int end = line + 1 < NUMBER_OF_LINES ? lineStarts[line + 1] : lines.position();
+        return PackedPokerHandAnalyzer.analyzeHands(lines, lineStarts[line], end);
+    }
+
+    private static void assertDoesNotAllocate(IntUnaryOperator call) {
+        java.lang.management.ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocationMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        Assume.assumeTrue(allocationMXBean.isThreadAllocatedMemorySupported());
+        allocationMXBean.setThreadAllocatedMemoryEnabled(true);
+        long threadId = Thread.currentThread().getId();
+
+        // Given
+        run(call, WARM_UP_ITERATIONS);
+        long overhead = allocationMXBean.getThreadAllocatedBytes(threadId);
+        overhead = allocationMXBean.getThreadAllocatedBytes(threadId) - overhead;
+
+        // When
+        long before = allocationMXBean.getThreadAllocatedBytes(threadId);
+        run(call, MEASURED_ITERATIONS);
+        long allocatedBytes = allocationMXBean.getThreadAllocatedBytes(threadId) - before - overhead;
+
+        // Then
+        // the allowance only covers the noise of the measurement: as few as 64 allocations of sixteen bytes in all the
+        // calls exceed it
+        Assert.assertTrue(allocatedBytes + " bytes allocated in " + MEASURED_ITERATIONS + " calls",
+                allocatedBytes < ALLOCATION_NOISE_BYTES);
+    }
+
+    private static void assertThroughputWithinTolerance(String name, IntUnaryOperator call) {
+        Assume.assumeTrue(tolerance > 0);
+        double baselineCallsPerSecond = Double.parseDouble(baseline.getProperty(name + ".callsPerSecond"));
+
+        // Given
+        run(call, WARM_UP_ITERATIONS);
+
+        // When
+        double bestCallsPerSecond = 0;
+        for (int i = 0; i < NUMBER_OF_MEASUREMENTS; i++) {
+            long iterations = 0;
+            long start = System.nanoTime();
+            long elapsed;
+            do {
+                run(call, 10000);
+                iterations += 10000;
+            } while ((elapsed = System.nanoTime() - start) < MEASUREMENT_NANOS);
+            bestCallsPerSecond = Math.max(bestCallsPerSecond, iterations * 1e9 / elapsed);
+        }
+
+        // Then
+        Assert.assertTrue(String.format("%s ran at %.0f calls per second, below %.0f%% of the baseline of %.0f", name,
+                bestCallsPerSecond, tolerance * 100, baselineCallsPerSecond),
+                bestCallsPerSecond >= baselineCallsPerSecond * tolerance);
+    }
+
+    private static void run(IntUnaryOperator call, int iterations) {
+        int result = 0;
+        for (int i = 0; i < iterations; i++) {
+            result += call.applyAsInt(i);
+        }
+        sink = result;
+    }
+}
@@ -0,0 +1,118 @@
+package pokerhandanalyzer;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pokerhandanalyzer.enums.PokerHandType;
+import pokerhandanalyzer.enums.Rank;
+import pokerhandanalyzer.enums.Suit;
+import pokerhandanalyzer.models.Card;
+import pokerhandanalyzer.models.PokerHand;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class PackedPokerHandAnalyzerTest {
+
+    // the packed analyzer must agree with the reference analyzer and comparator on every hand. Like the existing tests,
+    // the two hands may share cards, but no card appears twice within the same hand.
+    @Test
+    public void agreesWithReferenceAnalyzerTest() {
+        // Given
+        Random random = new Random(42);
+        PokerHandComparator pokerHandComparator = new PokerHandComparator();
+
+        for (int i = 0; i < 100000; i++) {
+            int[] cards = new int[10];
+            for (int j = 0; j < cards.length; j++) {
+                do {
+                    cards[j] = random.nextInt(PackedPokerHandAnalyzer.NUMBER_OF_CARDS);
+                } while (isDealtInSameHand(cards, j));
+            }
+            PokerHand leftPokerHand = toPokerHand(cards, 0);
+            PokerHand rightPokerHand = toPokerHand(cards, 5);
+
+            // When
+            int leftStrength = PackedPokerHandAnalyzer.evaluate(cards, 0);
+            int rightStrength = PackedPokerHandAnalyzer.evaluate(cards, 5);
+
+            // Then
+            Assert.assertEquals(new PokerHandAnalyzer(leftPokerHand).getPokerHandType(),
+                    PackedPokerHandAnalyzer.getPokerHandType(leftStrength));
+            Assert.assertEquals(Integer.signum(pokerHandComparator.compare(leftPokerHand, rightPokerHand)),
+                    Integer.signum(Integer.compare(leftStrength, rightStrength)));
+        }
+    }
+
+    @Test
+    public void evaluateStraightFlushTest() {
+        // Given
+        int[] cards = {
+                PackedPokerHandAnalyzer.parseCard('J', 'H'),
+                PackedPokerHandAnalyzer.parseCard('T', 'H'),
+                PackedPokerHandAnalyzer.parseCard('9', 'H'),
+                PackedPokerHandAnalyzer.parseCard('8', 'H'),
+                PackedPokerHandAnalyzer.parseCard('7', 'H')
+        };
+        PokerHandType expectedOutput = PokerHandType.STRAIGHT_FLUSH;
+
+        // When
+        PokerHandType actualOutput = PackedPokerHandAnalyzer.getPokerHandType(PackedPokerHandAnalyzer.evaluate(cards, 0));
+
+        // Then
+        Assert.assertEquals(expectedOutput, actualOutput);
+    }
+
+    @Test
+    public void analyzeHandsTest() {
+        // Given
+        String input = "xx\t4D KC 5S QH 3C  3H 5H AH 8H TH \r";
+
+        // When
+        int actualOutput = PackedPokerHandAnalyzer.analyzeHands(toBuffer(input), 3, input.length());
+
+        // Then
+        Assert.assertTrue(actualOutput < 0);
+    }
+
+    @Test
+    public void analyzeMalformedHandsTest() {
+        String[] inputs = {
+                "",
+                "4D KC 5S QH 3C 3H 5H AH 8H",
+                "4D KC 5S QH 3C 3H 5H AH 8H TH 9H",
+                "4D KC 5S QH 3C 3H 5H AH 8H TX",
+                "4D KC 5S QH 3C 3H 5H AH 8H 10H",
+                "4D KC 5S QH 3C 3H 5H AH 8HTH"
+        };
+
+        for (String input : inputs) {
+            Assert.assertEquals(input, PackedPokerHandAnalyzer.ERROR,
+                    PackedPokerHandAnalyzer.analyzeHands(toBuffer(input), 0, input.length()));
+        }
+    }
+
+    private static boolean isDealtInSameHand(int[] cards, int index) {
+        for (int i = index - index % 5; i < index; i++) {
+            if (cards[i] == cards[index])
+                return true;
+        }
+        return false;
+    }
+
+    private static PokerHand toPokerHand(int[] cards, int offset) {
+        List<Card> cardList = new ArrayList<>();
+        for (int i = offset; i < offset + 5; i++) {
+            Rank rank = PackedPokerHandAnalyzer.getRank(cards[i]);
+            Suit suit = PackedPokerHandAnalyzer.getSuit(cards[i]);
+            cardList.add(new Card(rank, suit));
+        }
+        return new PokerHand(cardList);
+    }
+
+    private static ByteBuffer toBuffer(String input) {
+        return ByteBuffer.wrap(input.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -4,6 +4,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 public class StringPokerHandAnalyzerHandOfDifferentTypeTest {
+    private String royalFlush = "AS KS QS JS TS";
     private String straightFlush = "JH TH 9H 8H 7H";
     private String fourOfAKind = "JD JS 2H JC JH";
     private String fullHouse = "5S 5D 3S 3H 5C";
@@ -487,5 +488,29 @@ public class StringPokerHandAnalyzerHandOfDifferentTypeTest {
         Assert.assertEquals(expectedOutput, actualOutput);
     }
 
+    @Test
+    public void analyzeHandsTest37() {
+        // Given
+        String input = royalFlush + " " + straightFlush;
+        String expectedOutput = left;
+
+        // When
+        String actualOutput = StringPokerHandAnalyzer.analyzeHands(input);
+
+        // Then
+        Assert.assertEquals(expectedOutput, actualOutput);
+    }
 
-}
\ No newline at end of file
+    @Test
+    public void analyzeHandsTest38() {
+        // Given
+        String input = royalFlush + " " + fourOfAKind;
+        String expectedOutput = left;
+
+        // When
+        String actualOutput = StringPokerHandAnalyzer.analyzeHands(input);
+
+        // Then
+        Assert.assertEquals(expectedOutput, actualOutput);
+    }
+}
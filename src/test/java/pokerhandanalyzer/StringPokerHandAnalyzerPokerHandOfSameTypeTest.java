@@ -256,4 +256,46 @@ public class StringPokerHandAnalyzerPokerHandOfSameTypeTest {
         // Then
         Assert.assertEquals(expectedOutput, actualOutput);
     }
-}
\ No newline at end of file
+
+    // comparing two equivalent wheels, the five-high straight with the ace played low
+    @Test
+    public void analyzeHandsTest19() {
+        // Given
+        String input = "AH 2D 3C 4S 5S 5D 3H 2S AC 4H";
+        String expectedOutput = "neither";
+
+        // When
+        String actualOutput = StringPokerHandAnalyzer.analyzeHands(input);
+
+        // Then
+        Assert.assertEquals(expectedOutput, actualOutput);
+    }
+
+    // comparing a wheel to a six-high straight
+    @Test
+    public void analyzeHandsTest20() {
+        // Given
+        String input = "AH 2D 3C 4S 5S 6D 5H 4H 3S 2C";
+        String expectedOutput = "right";
+
+        // When
+        String actualOutput = StringPokerHandAnalyzer.analyzeHands(input);
+
+        // Then
+        Assert.assertEquals(expectedOutput, actualOutput);
+    }
+
+    // comparing two different straight flushes, one of them a wheel
+    @Test
+    public void analyzeHandsTest21() {
+        // Given
+        String input = "AC 2C 3C 4C 5C 2D 3D 4D 5D 6D";
+        String expectedOutput = "right";
+
+        // When
+        String actualOutput = StringPokerHandAnalyzer.analyzeHands(input);
+
+        // Then
+        Assert.assertEquals(expectedOutput, actualOutput);
+    }
+}
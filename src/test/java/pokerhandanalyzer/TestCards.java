@@ -0,0 +1,42 @@
+package pokerhandanalyzer;
+
+/**
+ * Parses the cards written in tests, in the format of the line protocol, e.g., "AH" or "AH KD 5C".
+ */
+public final class TestCards {
+    private TestCards() {
+    }
+
+    /**
+     * @param card a card, e.g., "AH"
+     * @return the packed card
+     */
+    public static int card(String card) {
+        return PackedPokerHandAnalyzer.parseCard(card.charAt(0), card.charAt(1));
+    }
+
+    /**
+     * @param cards cards separated by single spaces, e.g., "AH KD 5C"
+     * @return the packed cards, in order
+     */
+    public static int[] getCards(String cards) {
+        String[] cardStrings = cards.split(" ");
+        int[] packedCards = new int[cardStrings.length];
+        for (int i = 0; i < cardStrings.length; i++) {
+            packedCards[i] = card(cardStrings[i]);
+        }
+        return packedCards;
+    }
+
+    /**
+     * @param cards cards separated by single spaces, e.g., "AH KD 5C"
+     * @return the card mask of the cards
+     */
+    public static long getCardMask(String cards) {
+        long cardMask = 0;
+        for (String card : cards.split(" ")) {
+            cardMask |= 1L << card(card);
+        }
+        return cardMask;
+    }
+}
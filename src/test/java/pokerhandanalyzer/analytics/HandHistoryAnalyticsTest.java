@@ -0,0 +1,149 @@
+package pokerhandanalyzer.analytics;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import pokerhandanalyzer.PokerHandAnalyzer;
+import pokerhandanalyzer.StringPokerHandAnalyzer;
+import pokerhandanalyzer.enums.PokerHandType;
+import pokerhandanalyzer.enums.Rank;
+import pokerhandanalyzer.enums.Suit;
+import pokerhandanalyzer.io.HandRecordConverter;
+import pokerhandanalyzer.io.HandRecordReader;
+import pokerhandanalyzer.models.Card;
+import pokerhandanalyzer.models.PokerHand;
+
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class HandHistoryAnalyticsTest {
+    private static final String[] LINES = {
+            "AH KD 5C QS TS TD KH 5S JC 9H",
+            "QH TD 5C 9S KS KD 5H 9S QC TH",
+            "4D KC 5S QH 3C 3H 5H AH 8H TH",
+            "JD JS 2H JC JH 5S 5D 3S 3H 5C",
+            "not a pair of hands"
+    };
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void analyzeTextTest() throws Exception {
+        // Given
+        String handHistory = randomHandHistory(20000);
+        List<HandHistorySnapshot> snapshots = new CopyOnWriteArrayList<>();
+
+        // When
+        HandHistorySnapshot actualSnapshot = new HandHistoryAnalytics().analyze(
+                Channels.newChannel(new ByteArrayInputStream(handHistory.getBytes(StandardCharsets.US_ASCII))),
+                4, 1, snapshots::add);
+
+        // Then
+        assertSnapshotMatchesReference(handHistory, actualSnapshot);
+        Assert.assertSame(actualSnapshot, snapshots.get(snapshots.size() - 1));
+    }
+
+    @Test
+    public void analyzeRecordsTest() throws Exception {
+        // Given
+        String handHistory = randomHandHistory(20000);
+        Path textFile = temporaryFolder.newFile().toPath();
+        Path recordFile = temporaryFolder.newFile().toPath();
+        Files.write(textFile, handHistory.getBytes(StandardCharsets.US_ASCII));
+        HandRecordConverter.convert(textFile, recordFile, true);
+
+        // When
+        HandHistorySnapshot actualSnapshot;
+        try (HandRecordReader reader = new HandRecordReader(recordFile)) {
+            actualSnapshot = new HandHistoryAnalytics().analyze(reader, 4, 1000, snapshot -> { });
+        }
+
+        // Then
+        assertSnapshotMatchesReference(handHistory, actualSnapshot);
+    }
+
+    @Test
+    public void skipsMalformedLinesTest() throws Exception {
+        // Given
+        String handHistory = String.join("\n", LINES);
+
+        // When
+        HandHistorySnapshot actualSnapshot = new HandHistoryAnalytics().analyze(
+                Channels.newChannel(new ByteArrayInputStream(handHistory.getBytes(StandardCharsets.US_ASCII))),
+                2, 1000, snapshot -> { });
+
+        // Then
+        Assert.assertEquals(4, actualSnapshot.getMatchupCount());
+        Assert.assertEquals(2, actualSnapshot.getLeftCount());
+        Assert.assertEquals(1, actualSnapshot.getRightCount());
+        Assert.assertEquals(1, actualSnapshot.getNeitherCount());
+        Assert.assertEquals(1, actualSnapshot.getWinCount(PokerHandType.FOUR_OF_A_KIND));
+        Assert.assertEquals(1, actualSnapshot.getHandTypeCount(PokerHandType.FULL_HOUSE));
+        Assert.assertEquals(0.0, actualSnapshot.getWinRate(PokerHandType.FULL_HOUSE), 0.0);
+    }
+
+    // recomputes the distributions the slow way, with the reference analyzers
+    private static void assertSnapshotMatchesReference(String handHistory, HandHistorySnapshot actualSnapshot) {
+        long[] handTypeCounts = new long[PokerHandType.values().length];
+        long left = 0;
+        long right = 0;
+        long neither = 0;
+        for (String line : handHistory.split("\n")) {
+            String[] cards = line.split(" ");
+            handTypeCounts[new PokerHandAnalyzer(toPokerHand(cards, 0)).getPokerHandType().ordinal()]++;
+            handTypeCounts[new PokerHandAnalyzer(toPokerHand(cards, 5)).getPokerHandType().ordinal()]++;
+            String whoWon = StringPokerHandAnalyzer.analyzeHands(line);
+            if (whoWon.equals("left")) {
+                left++;
+            } else if (whoWon.equals("right")) {
+                right++;
+            } else {
+                neither++;
+            }
+        }
+
+        Assert.assertEquals(left, actualSnapshot.getLeftCount());
+        Assert.assertEquals(right, actualSnapshot.getRightCount());
+        Assert.assertEquals(neither, actualSnapshot.getNeitherCount());
+        for (PokerHandType pokerHandType : PokerHandType.values()) {
+            Assert.assertEquals(handTypeCounts[pokerHandType.ordinal()], actualSnapshot.getHandTypeCount(pokerHandType));
+        }
+    }
+
+    private static PokerHand toPokerHand(String[] cards, int offset) {
+        List<Card> cardList = new ArrayList<>();
+        for (int i = offset; i < offset + 5; i++) {
+            cardList.add(new Card(Rank.getRankByCharacterRepresentation(cards[i].charAt(0)),
+                    Suit.getSuitByCharacterRepresentation(cards[i].charAt(1))));
+        }
+        return new PokerHand(cardList);
+    }
+
+    // deals each matchup from a shuffled deck, so no card appears twice in a line
+    private static String randomHandHistory(int numberOfLines) {
+        Random random = new Random(7);
+        List<String> deck = new ArrayList<>();
+        for (Rank rank : Rank.values()) {
+            for (Suit suit : Suit.values()) {
+                deck.add("" + rank.getCharacterRepresentation() + suit.getCharacterRepresentation());
+            }
+        }
+
+        StringBuilder handHistory = new StringBuilder();
+        for (int i = 0; i < numberOfLines; i++) {
+            Collections.shuffle(deck, random);
+            handHistory.append(String.join(" ", deck.subList(0, 10))).append('\n');
+        }
+        return handHistory.toString();
+    }
+}
@@ -0,0 +1,46 @@
+package pokerhandanalyzer.async;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Measures the throughput and the latency distribution of the asynchronous analyzer when a single producer submits as
+ * fast as it can. It is not run by the test suite; run it by hand, e.g.,
+ * java -cp target/classes:target/test-classes pokerhandanalyzer.async.AsyncPokerHandAnalyzerBenchmark 1000000 8 1024
+ * with the number of requests, the parallelism, and the capacity.
+ */
+public class AsyncPokerHandAnalyzerBenchmark {
+    private static final String[] HANDS = {
+            "AH KD 5C QS TS TD KH 5S JC 9H",
+            "QH TD 5C 9S KS KD 5H 9S QC TH",
+            "4D KC 5S QH 3C 3H 5H AH 8H TH"
+    };
+
+    public static void main(String[] args) throws Exception {
+        int numberOfRequests = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int parallelism = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int capacity = args.length > 2 ? Integer.parseInt(args[2]) : 1024;
+
+        long[] latencies = new long[numberOfRequests];
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[numberOfRequests];
+        try (AsyncPokerHandAnalyzer asyncPokerHandAnalyzer = new AsyncPokerHandAnalyzer(parallelism, capacity)) {
+            long start = System.nanoTime();
+            for (int i = 0; i < numberOfRequests; i++) {
+                int request = i;
+                long submitted = System.nanoTime();
+                futures[i] = asyncPokerHandAnalyzer.analyzeHands(HANDS[i % HANDS.length])
+                        .thenRun(() -> latencies[request] = System.nanoTime() - submitted);
+            }
+            CompletableFuture.allOf(futures).join();
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            Arrays.sort(latencies);
+            System.out.printf("%.0f requests/sec, latency p50 %d us, p99 %d us, p99.9 %d us, max %d us%n",
+                    numberOfRequests / seconds,
+                    latencies[(int) (numberOfRequests * 0.5)] / 1000,
+                    latencies[(int) (numberOfRequests * 0.99)] / 1000,
+                    latencies[(int) (numberOfRequests * 0.999)] / 1000,
+                    latencies[numberOfRequests - 1] / 1000);
+        }
+    }
+}
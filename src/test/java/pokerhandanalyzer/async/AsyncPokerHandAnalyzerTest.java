@@ -0,0 +1,221 @@
+package pokerhandanalyzer.async;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AsyncPokerHandAnalyzerTest {
+    private AsyncPokerHandAnalyzer asyncPokerHandAnalyzer;
+
+    @Before
+    public void setUp() {
+        asyncPokerHandAnalyzer = new AsyncPokerHandAnalyzer(4, 16);
+    }
+
+    @After
+    public void tearDown() {
+        asyncPokerHandAnalyzer.close();
+    }
+
+    @Test
+    public void analyzeHandsFutureTest() throws Exception {
+        // Given
+        String input = "4D KC 5S QH 3C 3H 5H AH 8H TH";
+        String expectedOutput = "right";
+
+        // When
+        CompletableFuture<String> actualOutput = asyncPokerHandAnalyzer.analyzeHands(input);
+
+        // Then
+        Assert.assertEquals(expectedOutput, actualOutput.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void streamDeliversInOrderTest() throws Exception {
+        // Given
+        List<String> inputs = new ArrayList<>();
+        List<String> expectedOutput = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            inputs.add(i % 2 == 0 ? "AH KD 5C QS TS TD KH 5S JC 9H" : "4D KC 5S QH 3C 3H 5H AH 8H TH");
+            expectedOutput.add(i % 2 == 0 ? "left" : "right");
+        }
+        CollectingSubscriber subscriber = new CollectingSubscriber(Long.MAX_VALUE);
+
+        // When
+        asyncPokerHandAnalyzer.analyzeHands(inputs.iterator(), subscriber);
+
+        // Then
+        Assert.assertTrue(subscriber.completed.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(expectedOutput, subscriber.results);
+    }
+
+    @Test
+    public void streamHonorsDemandTest() throws Exception {
+        // Given
+        AtomicInteger inputsTaken = new AtomicInteger();
+        Iterator<String> endlessInputs = new Iterator<String>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public String next() {
+                inputsTaken.incrementAndGet();
+                return "QH TD 5C 9S KS KD 5H 9S QC TH";
+            }
+        };
+        CollectingSubscriber subscriber = new CollectingSubscriber(3);
+
+        // When
+        asyncPokerHandAnalyzer.analyzeHands(endlessInputs, subscriber);
+
+        // Then
+        Assert.assertTrue(subscriber.received.await(10, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        Assert.assertEquals(Arrays.asList("neither", "neither", "neither"), subscriber.results);
+        Assert.assertEquals(3, inputsTaken.get());
+        subscriber.subscription.cancel();
+    }
+
+    @Test
+    public void streamReportsErrorsTest() throws Exception {
+        // Given
+        List<String> inputs = Arrays.asList("AH KD 5C QS TS TD KH 5S JC 9H", "AH KD");
+        CollectingSubscriber subscriber = new CollectingSubscriber(Long.MAX_VALUE);
+
+        // When
+        asyncPokerHandAnalyzer.analyzeHands(inputs.iterator(), subscriber);
+
+        // Then
+        Assert.assertTrue(subscriber.failed.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(Arrays.asList("left"), subscriber.results);
+    }
+
+    @Test
+    public void streamSharesCapacityWithSubmitTest() throws Exception {
+        // Given
+        CountDownLatch blocking = new CountDownLatch(1);
+        AtomicInteger evaluated = new AtomicInteger();
+        List<Integer> inputs = Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8);
+        List<Integer> results = new ArrayList<>();
+        CountDownLatch completed = new CountDownLatch(1);
+
+        try (AsyncPokerHandAnalyzer analyzer = new AsyncPokerHandAnalyzer(4, 2)) {
+            CompletableFuture<Boolean> first = analyzer.submit(() -> blocking.await(10, TimeUnit.SECONDS));
+            CompletableFuture<Boolean> second = analyzer.submit(() -> blocking.await(10, TimeUnit.SECONDS));
+
+            // When
+            analyzer.stream(inputs.iterator(), input -> {
+                evaluated.incrementAndGet();
+                return input;
+            }, new ResultSubscriber<Integer>() {
+                @Override
+                public void onSubscribe(ResultSubscription subscription) {
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(Integer result) {
+                    results.add(result);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                }
+
+                @Override
+                public void onComplete() {
+                    completed.countDown();
+                }
+            });
+            Thread.sleep(50);
+
+            // Then
+            Assert.assertEquals(0, evaluated.get());
+            blocking.countDown();
+            Assert.assertTrue(first.get(10, TimeUnit.SECONDS) && second.get(10, TimeUnit.SECONDS));
+            Assert.assertTrue(completed.await(10, TimeUnit.SECONDS));
+            Assert.assertEquals(inputs, results);
+        }
+    }
+
+    @Test
+    public void streamRejectsInvalidRequestTest() throws Exception {
+        // Given
+        List<String> inputs = Arrays.asList("AH KD 5C QS TS TD KH 5S JC 9H");
+        CollectingSubscriber subscriber = new CollectingSubscriber(0);
+
+        // When
+        asyncPokerHandAnalyzer.analyzeHands(inputs.iterator(), subscriber);
+
+        // Then
+        Assert.assertTrue(subscriber.failed.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(1, subscriber.completed.getCount());
+        Assert.assertTrue(subscriber.results.isEmpty());
+    }
+
+    @Test
+    public void streamAfterCloseReportsErrorTest() throws Exception {
+        // Given
+        List<String> inputs = Arrays.asList("AH KD 5C QS TS TD KH 5S JC 9H", "4D KC 5S QH 3C 3H 5H AH 8H TH");
+        CollectingSubscriber subscriber = new CollectingSubscriber(Long.MAX_VALUE);
+        asyncPokerHandAnalyzer.close();
+
+        // When
+        asyncPokerHandAnalyzer.analyzeHands(inputs.iterator(), subscriber);
+
+        // Then
+        Assert.assertTrue(subscriber.failed.await(10, TimeUnit.SECONDS));
+        Assert.assertTrue(subscriber.results.isEmpty());
+        subscriber.subscription.request(1);
+        Assert.assertEquals(1, subscriber.completed.getCount());
+    }
+
+    // requests the given number of results up front and records whatever it receives
+    private static class CollectingSubscriber implements ResultSubscriber<String> {
+        private final long initialRequest;
+        private final List<String> results = new ArrayList<>();
+        private final CountDownLatch received;
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final CountDownLatch failed = new CountDownLatch(1);
+        private ResultSubscription subscription;
+
+        CollectingSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+            this.received = new CountDownLatch((int) Math.min(initialRequest, Integer.MAX_VALUE));
+        }
+
+        @Override
+        public void onSubscribe(ResultSubscription subscription) {
+            this.subscription = subscription;
+            subscription.request(initialRequest);
+        }
+
+        @Override
+        public void onNext(String result) {
+            results.add(result);
+            received.countDown();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            failed.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package pokerhandanalyzer.batch;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pokerhandanalyzer.PackedPokerHandAnalyzer;
+import pokerhandanalyzer.PokerHandComparator;
+import pokerhandanalyzer.deal.DealGenerator;
+import pokerhandanalyzer.models.Card;
+import pokerhandanalyzer.models.PokerHand;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class HeroComparatorTest {
+    private static final int[] HERO = {
+            PackedPokerHandAnalyzer.parseCard('J', 'H'),
+            PackedPokerHandAnalyzer.parseCard('J', 'S'),
+            PackedPokerHandAnalyzer.parseCard('9', 'D'),
+            PackedPokerHandAnalyzer.parseCard('9', 'H'),
+            PackedPokerHandAnalyzer.parseCard('2', 'C')
+    };
+
+    // the results must be those of the reference comparator, except for opponents sharing a card with the hero
+    @Test
+    public void agreesWithReferenceComparatorTest() {
+        // Given
+        HeroComparator heroComparator = new HeroComparator(HERO, 0);
+        int[] opponentCards = new int[20000 * 5];
+        new DealGenerator(42, 5).generate(0, 20000, opponentCards, 0);
+        byte[] actualOutput = new byte[20000];
+        PokerHandComparator pokerHandComparator = new PokerHandComparator();
+
+        // When
+        heroComparator.compare(opponentCards, 0, 20000, actualOutput);
+
+        // Then
+        for (int opponent = 0; opponent < 20000; opponent++) {
+            byte expectedOutput = (heroComparator.getHeroCardMask() & getCardMask(opponentCards, opponent * 5)) != 0
+                    ? HeroComparator.BLOCKED
+                    : (byte) Integer.signum(pokerHandComparator.compare(toPokerHand(HERO, 0),
+                    toPokerHand(opponentCards, opponent * 5)));
+            Assert.assertEquals(expectedOutput, actualOutput[opponent]);
+        }
+    }
+
+    @Test
+    public void compareInParallelTest() {
+        // Given
+        HeroComparator heroComparator = new HeroComparator(HERO, 0);
+        int[] opponentCards = new int[1000000 * 5];
+        new DealGenerator(7, 5).generateInParallel(0, 1000000, opponentCards, 0);
+
+        // When
+        HeroComparisonResult expectedOutput = heroComparator.compare(opponentCards, 0, 1000000);
+        HeroComparisonResult actualOutput = heroComparator.compareInParallel(opponentCards, 0, 1000000);
+
+        // Then
+        Assert.assertEquals(1000000, expectedOutput.getComparedCount() + expectedOutput.getBlockedCount());
+        Assert.assertTrue(expectedOutput.getBlockedCount() > 0);
+        Assert.assertEquals(expectedOutput.getWinCount(), actualOutput.getWinCount());
+        Assert.assertEquals(expectedOutput.getTieCount(), actualOutput.getTieCount());
+        Assert.assertEquals(expectedOutput.getLossCount(), actualOutput.getLossCount());
+        Assert.assertEquals(expectedOutput.getBlockedCount(), actualOutput.getBlockedCount());
+    }
+
+    @Test
+    public void comparePokerHandsTest() {
+        // Given
+        HeroComparator heroComparator = new HeroComparator(toPokerHand(HERO, 0));
+        List<PokerHand> opponents = new ArrayList<>();
+        opponents.add(toPokerHand(parseCards("JD JC 9S 9C 2D"), 0)); // the same two pair and kicker
+        opponents.add(toPokerHand(parseCards("AH AD KC QS 3D"), 0)); // a lower pair
+        opponents.add(toPokerHand(parseCards("4C 4D 4H 7S 8S"), 0)); // three of a kind
+        opponents.add(toPokerHand(parseCards("JH 3C 4C 5C 6D"), 0)); // holds the hero's jack of hearts
+
+        // When
+        HeroComparisonResult actualOutput = heroComparator.compare(opponents);
+
+        // Then
+        Assert.assertEquals(1, actualOutput.getWinCount());
+        Assert.assertEquals(1, actualOutput.getTieCount());
+        Assert.assertEquals(1, actualOutput.getLossCount());
+        Assert.assertEquals(1, actualOutput.getBlockedCount());
+        Assert.assertEquals(0.5, actualOutput.getEquity(), 1e-9);
+    }
+
+    private static int[] parseCards(String hand) {
+        int[] cards = new int[5];
+        for (int i = 0; i < 5; i++) {
+            cards[i] = PackedPokerHandAnalyzer.parseCard(hand.charAt(i * 3), hand.charAt(i * 3 + 1));
+        }
+        return cards;
+    }
+
+    private static long getCardMask(int[] cards, int offset) {
+        long cardMask = 0;
+        for (int i = offset; i < offset + 5; i++) {
+            cardMask |= 1L << cards[i];
+        }
+        return cardMask;
+    }
+
+    private static PokerHand toPokerHand(int[] cards, int offset) {
+        List<Card> cardList = new ArrayList<>();
+        for (int i = offset; i < offset + 5; i++) {
+            cardList.add(new Card(PackedPokerHandAnalyzer.getRank(cards[i]), PackedPokerHandAnalyzer.getSuit(cards[i])));
+        }
+        return new PokerHand(cardList);
+    }
+}
@@ -0,0 +1,76 @@
+package pokerhandanalyzer.board;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pokerhandanalyzer.PackedPokerHandAnalyzer;
+import pokerhandanalyzer.deal.DealGenerator;
+
+import static pokerhandanalyzer.TestCards.getCardMask;
+
+public class BoardRankingTest {
+
+    // the rank of every hero on random boards must match pairing the hero with every opponent holding
+    @Test
+    public void rankAgreesWithPairwiseComparisonTest() {
+        int[] deals = new int[30 * 7];
+        new DealGenerator(42, 7).generate(0, 30, deals, 0);
+        for (int deal = 0; deal < 30; deal++) {
+            // Given
+            int numberOfBoardCards = 3 + deal % 3;
+            long boardCardMask = 0;
+            for (int i = 0; i < numberOfBoardCards; i++) {
+                boardCardMask |= 1L << deals[deal * 7 + 2 + i];
+            }
+            int card0 = deals[deal * 7];
+            int card1 = deals[deal * 7 + 1];
+            BoardRanking boardRanking = new BoardRanking(boardCardMask);
+
+            // When
+            BoardHandRank actualOutput = boardRanking.rank(card0, card1);
+
+            // Then
+            int heroStrength = PackedPokerHandAnalyzer.evaluate(boardCardMask | 1L << card0 | 1L << card1);
+            int winCount = 0, tieCount = 0, lossCount = 0;
+            long deadCardMask = boardCardMask | 1L << card0 | 1L << card1;
+            for (int opponentCard0 = 0; opponentCard0 < 52; opponentCard0++) {
+                for (int opponentCard1 = opponentCard0 + 1; opponentCard1 < 52; opponentCard1++) {
+                    long opponentCardMask = 1L << opponentCard0 | 1L << opponentCard1;
+                    if ((opponentCardMask & deadCardMask) != 0)
+                        continue;
+
+                    int result = Integer.compare(heroStrength, PackedPokerHandAnalyzer.evaluate(boardCardMask | opponentCardMask));
+                    winCount += result > 0 ? 1 : 0;
+                    tieCount += result == 0 ? 1 : 0;
+                    lossCount += result < 0 ? 1 : 0;
+                }
+            }
+            Assert.assertEquals(heroStrength, actualOutput.getStrength());
+            Assert.assertEquals(winCount, actualOutput.getWinCount());
+            Assert.assertEquals(tieCount, actualOutput.getTieCount());
+            Assert.assertEquals(lossCount, actualOutput.getLossCount());
+        }
+    }
+
+    @Test
+    public void nutsTest() {
+        // Given
+        long boardCardMask = getCardMask("AS KS QS 7D 2C");
+        BoardRanking boardRanking = BoardRanking.of(boardCardMask);
+
+        // When
+        BoardHandRank royalFlush = boardRanking.rank(PackedPokerHandAnalyzer.parseCard('J', 'S'),
+                PackedPokerHandAnalyzer.parseCard('T', 'S'));
+        BoardHandRank straight = boardRanking.rank(PackedPokerHandAnalyzer.parseCard('J', 'H'),
+                PackedPokerHandAnalyzer.parseCard('T', 'H'));
+
+        // Then
+        Assert.assertEquals(1081, boardRanking.getComboCount());
+        Assert.assertEquals(990, royalFlush.getComboCount());
+        Assert.assertTrue(royalFlush.isNuts());
+        Assert.assertEquals(990, royalFlush.getWinCount());
+        Assert.assertEquals(boardRanking.getNutStrength(), royalFlush.getStrength());
+        Assert.assertFalse(straight.isNuts());
+        Assert.assertEquals(45, straight.getLossCount()); // every pair of the ten spades left makes a flush
+        Assert.assertSame(boardRanking, BoardRanking.of(boardCardMask));
+    }
+}
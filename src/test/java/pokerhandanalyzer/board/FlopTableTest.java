@@ -0,0 +1,90 @@
+package pokerhandanalyzer.board;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import pokerhandanalyzer.PackedPokerHandAnalyzer;
+import pokerhandanalyzer.SuitIsomorphism;
+import pokerhandanalyzer.deal.DealGenerator;
+import pokerhandanalyzer.enums.Rank;
+
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+import static pokerhandanalyzer.TestCards.getCardMask;
+
+public class FlopTableTest {
+
+    @ClassRule
+    public static TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static Path path;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        path = temporaryFolder.newFile().toPath();
+        FlopTable.generate(path, Runtime.getRuntime().availableProcessors());
+    }
+
+    @Test
+    public void isomorphicFlopsTest() {
+        // Given
+        Set<Long> canonicalFlops = new HashSet<>();
+
+        // When
+        for (int card0 = 0; card0 < 52; card0++)
+            for (int card1 = card0 + 1; card1 < 52; card1++)
+                for (int card2 = card1 + 1; card2 < 52; card2++)
+                    canonicalFlops.add(SuitIsomorphism.canonicalize(1L << card0 | 1L << card1 | 1L << card2));
+
+        // Then
+        Assert.assertEquals(FlopTable.NUMBER_OF_ISOMORPHIC_FLOPS, canonicalFlops.size());
+    }
+
+    @Test
+    public void textureTest() throws Exception {
+        try (FlopTable flopTable = new FlopTable(path)) {
+            // When
+            int pairedRainbow = flopTable.getTexture(getCardMask("AS AD 7C"));
+            int monotoneConnected = flopTable.getTexture(getCardMask("9H 8H 7H"));
+
+            // Then
+            Assert.assertTrue(FlopTexture.isPaired(pairedRainbow));
+            Assert.assertTrue(FlopTexture.isRainbow(pairedRainbow));
+            Assert.assertFalse(FlopTexture.isStraightPossible(pairedRainbow));
+            Assert.assertEquals(Rank.ACE, FlopTexture.getHighRank(pairedRainbow));
+            Assert.assertTrue(FlopTexture.isMonotone(monotoneConnected));
+            Assert.assertFalse(FlopTexture.isPaired(monotoneConnected));
+            Assert.assertEquals(3, FlopTexture.getStraightCount(monotoneConnected)); // 5-6, 6-T and T-J
+            Assert.assertEquals(4, FlopTexture.getStraightDrawCount(monotoneConnected)); // 5, 6, T and J
+            Assert.assertEquals(FlopTexture.of(getCardMask("9H 8H 7H")), monotoneConnected);
+        }
+    }
+
+    // the strength rank of hole cards on any flop must order them as their strengths on that flop do
+    @Test
+    public void strengthRankTest() throws Exception {
+        int[] deals = new int[2000 * 7];
+        new DealGenerator(42, 7).generate(0, 2000, deals, 0);
+        try (FlopTable flopTable = new FlopTable(path)) {
+            for (int i = 0; i < deals.length; i += 7) {
+                // Given
+                long flopCardMask = 1L << deals[i] | 1L << deals[i + 1] | 1L << deals[i + 2];
+                int strength = PackedPokerHandAnalyzer.evaluate(flopCardMask | 1L << deals[i + 3] | 1L << deals[i + 4]);
+                int otherStrength = PackedPokerHandAnalyzer.evaluate(flopCardMask | 1L << deals[i + 5] | 1L << deals[i + 6]);
+
+                // When
+                int strengthRank = flopTable.getStrengthRank(flopCardMask, deals[i + 3], deals[i + 4]);
+                int otherStrengthRank = flopTable.getStrengthRank(flopCardMask, deals[i + 5], deals[i + 6]);
+
+                // Then
+                Assert.assertEquals(Integer.signum(Integer.compare(strength, otherStrength)),
+                        Integer.signum(Integer.compare(strengthRank, otherStrengthRank)));
+                Assert.assertEquals(FlopTable.BLOCKED, flopTable.getStrengthRank(flopCardMask, deals[i], deals[i + 3]));
+            }
+        }
+    }
+}
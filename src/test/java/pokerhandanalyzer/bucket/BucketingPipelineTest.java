@@ -0,0 +1,132 @@
+package pokerhandanalyzer.bucket;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import pokerhandanalyzer.SuitIsomorphism;
+import pokerhandanalyzer.enums.Street;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static pokerhandanalyzer.TestCards.card;
+import static pokerhandanalyzer.TestCards.getCardMask;
+
+public class BucketingPipelineTest {
+
+    @ClassRule
+    public static TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static Path directory;
+    private static Path tablePath;
+    private static BucketingPipeline bucketingPipeline;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        directory = temporaryFolder.newFolder().toPath();
+        tablePath = temporaryFolder.getRoot().toPath().resolve("flop.phbt");
+        bucketingPipeline = new BucketingPipeline(Street.FLOP, 8, 2, 2, 42, directory, 2);
+        bucketingPipeline.run(tablePath);
+    }
+
+    // the 1,755 flops and the hole cards dealt with them make 1,286,792 suit-isomorphic situations
+    @Test
+    public void isomorphicSituationsTest() throws Exception {
+        // Given
+        int numberOfSituations = 0;
+
+        // When
+        for (int chunk = 0; chunk < bucketingPipeline.getNumberOfChunks(); chunk++) {
+            numberOfSituations += FeatureChunkFile.read(FeatureChunkFile.getPath(directory, chunk), "FLOP 2 2 42",
+                    chunk * 16, Math.min(1755, chunk * 16 + 16)).holeCardPairs.length;
+        }
+
+        // Then
+        Assert.assertEquals(1286792, numberOfSituations);
+    }
+
+    @Test
+    public void bucketTableTest() throws Exception {
+        try (BucketTable bucketTable = new BucketTable(tablePath)) {
+            // When
+            int nuts = bucketTable.getBucket(getCardMask("QS JS TS"), card("AS"), card("KS"));
+            int isomorphicNuts = bucketTable.getBucket(getCardMask("JH TH QH"), card("KH"), card("AH"));
+            int air = bucketTable.getBucket(getCardMask("QS JS TS"), card("2H"), card("3D"));
+            int isomorphicAir = bucketTable.getBucket(getCardMask("QC JC TC"), card("3S"), card("2D"));
+            int blocked = bucketTable.getBucket(getCardMask("QS JS TS"), card("QS"), card("3D"));
+
+            // Then
+            Assert.assertEquals(Street.FLOP, bucketTable.getStreet());
+            Assert.assertEquals(8, bucketTable.getNumberOfBuckets());
+            Assert.assertEquals(nuts, isomorphicNuts);
+            Assert.assertEquals(air, isomorphicAir);
+            Assert.assertNotEquals(nuts, air);
+            Assert.assertTrue(nuts < 8);
+            Assert.assertEquals(BucketTable.BLOCKED, blocked);
+        }
+    }
+
+    // every situation is in the bucket of the situation it is isomorphic to
+    @Test
+    public void isomorphicBucketsTest() throws Exception {
+        try (BucketTable bucketTable = new BucketTable(tablePath)) {
+            long board = getCardMask("9D 9S 4D");
+            for (int card0 = 0; card0 < 52; card0++) {
+                for (int card1 = card0 + 1; card1 < 52; card1++) {
+                    long holeCardMask = 1L << card0 | 1L << card1;
+                    if ((holeCardMask & board) != 0)
+                        continue;
+
+                    int permutation = SuitIsomorphism.getCanonicalPermutation(board, holeCardMask);
+                    Assert.assertEquals(bucketTable.getBucket(board, card0, card1),
+                            bucketTable.getBucket(SuitIsomorphism.permute(board, permutation),
+                                    SuitIsomorphism.permuteCard(card0, permutation),
+                                    SuitIsomorphism.permuteCard(card1, permutation)));
+                }
+            }
+        }
+    }
+
+    // a restarted run recomputes only the lost chunk, and writes the same table
+    @Test
+    public void restartTest() throws Exception {
+        // Given
+        byte[] expectedOutput = Files.readAllBytes(tablePath);
+        Files.delete(FeatureChunkFile.getPath(directory, 7));
+        Path restartedTablePath = temporaryFolder.getRoot().toPath().resolve("restarted.phbt");
+
+        // When
+        int computedChunks = bucketingPipeline.computeFeatures();
+        bucketingPipeline.run(restartedTablePath);
+
+        // Then
+        Assert.assertEquals(1, computedChunks);
+        Assert.assertArrayEquals(expectedOutput, Files.readAllBytes(restartedTablePath));
+    }
+
+    // a run with other runouts in the same working directory recomputes the features, and clusters them afresh
+    // rather than resuming from the converged centroids of the first run
+    @Test
+    public void otherRunoutsTest() throws Exception {
+        // Given
+        Path otherDirectory = temporaryFolder.newFolder().toPath();
+        try (Stream<Path> paths = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                Files.copy(path, otherDirectory.resolve(path.getFileName()));
+            }
+        }
+        Path expectedTablePath = temporaryFolder.getRoot().toPath().resolve("expected-other-runouts.phbt");
+        new BucketingPipeline(Street.FLOP, 8, 3, 2, 42, temporaryFolder.newFolder().toPath(), 2)
+                .run(expectedTablePath);
+        Path tablePath = temporaryFolder.getRoot().toPath().resolve("other-runouts.phbt");
+
+        // When
+        new BucketingPipeline(Street.FLOP, 8, 3, 2, 42, otherDirectory, 2).run(tablePath);
+
+        // Then
+        Assert.assertArrayEquals(Files.readAllBytes(expectedTablePath), Files.readAllBytes(tablePath));
+    }
+}
@@ -0,0 +1,72 @@
+package pokerhandanalyzer.bucket;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pokerhandanalyzer.enums.Street;
+
+import static pokerhandanalyzer.TestCards.card;
+import static pokerhandanalyzer.TestCards.getCardMask;
+
+public class HandStrengthFeaturesTest {
+
+    // the nuts on the river beat every opponent, with no cards to come
+    @Test
+    public void riverNutsTest() {
+        // Given
+        HandStrengthFeatures handStrengthFeatures = new HandStrengthFeatures(Street.RIVER, 1, 1);
+        float[] features = new float[HandStrengthFeatures.NUMBER_OF_FEATURES];
+
+        // When
+        handStrengthFeatures.compute(getCardMask("QS JS TS 4D 2C"), card("AS"), card("KS"), 1, features, 0);
+
+        // Then
+        Assert.assertEquals(1, features[HandStrengthFeatures.HAND_STRENGTH], 0);
+        Assert.assertEquals(1, features[HandStrengthFeatures.EXPECTED_HAND_STRENGTH], 0);
+        Assert.assertEquals(0, features[HandStrengthFeatures.POSITIVE_POTENTIAL], 0);
+        Assert.assertEquals(1, features[HandStrengthFeatures.HISTOGRAM + HandStrengthFeatures.NUMBER_OF_HISTOGRAM_BINS - 1], 0);
+    }
+
+    // a flush draw is behind now, and gets ahead often by the river
+    @Test
+    public void flopFlushDrawTest() {
+        // Given
+        HandStrengthFeatures handStrengthFeatures = new HandStrengthFeatures(Street.FLOP, 200, 20);
+        float[] drawFeatures = new float[HandStrengthFeatures.NUMBER_OF_FEATURES];
+        float[] setFeatures = new float[HandStrengthFeatures.NUMBER_OF_FEATURES];
+
+        // When
+        handStrengthFeatures.compute(getCardMask("KH 8H 2C"), card("5H"), card("4H"), 7, drawFeatures, 0);
+        handStrengthFeatures.compute(getCardMask("KH 8H 2C"), card("KS"), card("KD"), 7, setFeatures, 0);
+
+        // Then
+        Assert.assertTrue(drawFeatures[HandStrengthFeatures.HAND_STRENGTH] < 0.3);
+        Assert.assertTrue(drawFeatures[HandStrengthFeatures.EXPECTED_HAND_STRENGTH]
+                > drawFeatures[HandStrengthFeatures.HAND_STRENGTH] + 0.1);
+        Assert.assertTrue(drawFeatures[HandStrengthFeatures.POSITIVE_POTENTIAL] > 0.2);
+        Assert.assertTrue(setFeatures[HandStrengthFeatures.HAND_STRENGTH] > 0.99);
+        Assert.assertTrue(setFeatures[HandStrengthFeatures.NEGATIVE_POTENTIAL] < 0.1);
+        float histogramTotal = 0;
+        for (int bin = 0; bin < HandStrengthFeatures.NUMBER_OF_HISTOGRAM_BINS; bin++) {
+            histogramTotal += drawFeatures[HandStrengthFeatures.HISTOGRAM + bin];
+        }
+        Assert.assertEquals(1, histogramTotal, 1e-5);
+    }
+
+    // the samples are fixed by the seed
+    @Test
+    public void reproducibleTest() {
+        // Given
+        HandStrengthFeatures handStrengthFeatures = new HandStrengthFeatures(Street.TURN, 16, 8);
+        float[] expectedOutput = new float[HandStrengthFeatures.NUMBER_OF_FEATURES];
+        float[] actualOutput = new float[HandStrengthFeatures.NUMBER_OF_FEATURES + 3];
+
+        // When
+        handStrengthFeatures.compute(getCardMask("9C 8D 3S 3H"), card("TC"), card("JC"), 42, expectedOutput, 0);
+        handStrengthFeatures.compute(getCardMask("9C 8D 3S 3H"), card("TC"), card("JC"), 42, actualOutput, 3);
+
+        // Then
+        for (int i = 0; i < HandStrengthFeatures.NUMBER_OF_FEATURES; i++) {
+            Assert.assertEquals(expectedOutput[i], actualOutput[i + 3], 0);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package pokerhandanalyzer.bucket;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class KMeansTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    // three well separated blobs are found, whatever the order of the centroids
+    @Test
+    public void separatedClustersTest() throws Exception {
+        // Given
+        float[] points = getBlobs(new float[]{0, 0, 5, 5, 0, 5}, 300, 0.1f);
+        KMeans kMeans = new KMeans(3, 2, 1);
+
+        // When
+        float[] centroids = kMeans.fit(points, 900, 100, null);
+
+        // Then
+        float[] xs = {centroids[0], centroids[2], centroids[4]};
+        Arrays.sort(xs);
+        Assert.assertEquals(0, xs[0], 0.05);
+        Assert.assertEquals(0, xs[1], 0.05);
+        Assert.assertEquals(5, xs[2], 0.05);
+        for (int point = 0; point < 900; point += 300) {
+            int cluster = KMeans.getNearestCentroid(centroids, 3, 2, points, point * 2);
+            for (int i = point; i < point + 300; i++) {
+                Assert.assertEquals(cluster, KMeans.getNearestCentroid(centroids, 3, 2, points, i * 2));
+            }
+        }
+    }
+
+    // a clustering resumed from a checkpoint ends with the centroids it would have ended with
+    @Test
+    public void resumeFromCheckpointTest() throws Exception {
+        // Given
+        float[] points = getBlobs(new float[]{0, 0, 1, 1, 0, 1, 1, 0}, 500, 0.6f);
+        Path checkpointPath = temporaryFolder.getRoot().toPath().resolve("centroids.checkpoint");
+        float[] expectedOutput = new KMeans(4, 2, 9).fit(points, 2000, 1000, null);
+
+        // When
+        new KMeans(4, 2, 9).fit(points, 2000, 2, checkpointPath);
+        KMeans kMeans = new KMeans(4, 2, 9);
+        float[] actualOutput = kMeans.fit(points, 2000, 1000, checkpointPath);
+
+        // Then
+        Assert.assertArrayEquals(expectedOutput, actualOutput, 0);
+        Assert.assertTrue(kMeans.getNumberOfIterations() > 2);
+        Assert.assertArrayEquals(expectedOutput, new KMeans(4, 2, 9).fit(points, 2000, 1000, checkpointPath), 0);
+    }
+
+    // a checkpoint saved while clustering as many other points is not resumed from
+    @Test
+    public void checkpointOfOtherPointsTest() throws Exception {
+        // Given
+        float[] points = getBlobs(new float[]{0, 0, 1, 1, 0, 1, 1, 0}, 500, 0.6f);
+        float[] otherPoints = getBlobs(new float[]{0, 0, 3, 3, 0, 3, 3, 0}, 500, 0.6f);
+        Path checkpointPath = temporaryFolder.getRoot().toPath().resolve("centroids.checkpoint");
+        float[] expectedOutput = new KMeans(4, 2, 9).fit(points, 2000, 1000, null);
+        new KMeans(4, 2, 9).fit(otherPoints, 2000, 1000, checkpointPath);
+
+        // When
+        float[] actualOutput = new KMeans(4, 2, 9).fit(points, 2000, 1000, checkpointPath);
+
+        // Then
+        Assert.assertArrayEquals(expectedOutput, actualOutput, 0);
+    }
+
+    private static float[] getBlobs(float[] centers, int pointsPerBlob, float spread) {
+        SplittableRandom random = new SplittableRandom(5);
+        int numberOfBlobs = centers.length / 2;
+        float[] points = new float[numberOfBlobs * pointsPerBlob * 2];
+        for (int blob = 0; blob < numberOfBlobs; blob++) {
+            for (int i = 0; i < pointsPerBlob; i++) {
+                int point = blob * pointsPerBlob + i;
+                points[point * 2] = centers[blob * 2] + (float) ((random.nextDouble() - 0.5) * spread);
+                points[point * 2 + 1] = centers[blob * 2 + 1] + (float) ((random.nextDouble() - 0.5) * spread);
+            }
+        }
+        return points;
+    }
+}
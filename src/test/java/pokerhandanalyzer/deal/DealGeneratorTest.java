@@ -0,0 +1,114 @@
+package pokerhandanalyzer.deal;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import pokerhandanalyzer.PackedPokerHandAnalyzer;
+import pokerhandanalyzer.io.HandRecordReader;
+import pokerhandanalyzer.io.HandRecordWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+public class DealGeneratorTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void dealsAreValidTest() {
+        // Given
+        long deadCardMask = 1L << PackedPokerHandAnalyzer.parseCard('A', 'S') | 1L << PackedPokerHandAnalyzer.parseCard('K', 'S');
+        DealGenerator dealGenerator = new DealGenerator(42, 7, deadCardMask);
+        int[] cards = new int[100000 * 7];
+        int[] cardCounts = new int[PackedPokerHandAnalyzer.NUMBER_OF_CARDS];
+
+        // When
+        dealGenerator.generate(0, 100000, cards, 0);
+
+        // Then
+        for (int deal = 0; deal < 100000; deal++) {
+            long cardMask = dealGenerator.getCardMask(cards, deal * 7);
+            Assert.assertEquals(7, Long.bitCount(cardMask));
+            Assert.assertEquals(0, cardMask & deadCardMask);
+        }
+        for (int card : cards) {
+            cardCounts[card]++;
+        }
+        // every live card is dealt about 700000 / 50 = 14000 times
+        for (int card = 0; card < PackedPokerHandAnalyzer.NUMBER_OF_CARDS; card++) {
+            if ((deadCardMask & 1L << card) == 0)
+                Assert.assertEquals(14000, cardCounts[card], 700);
+        }
+    }
+
+    // any range of deals is the same whether it is generated alone, as part of a larger range, or in parallel
+    @Test
+    public void dealsAreReproducibleTest() {
+        // Given
+        DealGenerator dealGenerator = new DealGenerator(7, 10);
+        int[] expectedOutput = new int[5000 * 10];
+        int[] actualOutput = new int[3000 * 10];
+        int[] actualParallelOutput = new int[3000 * 10];
+        dealGenerator.generate(0, 5000, expectedOutput, 0);
+
+        // When
+        new DealGenerator(7, 10).generate(1500, 3000, actualOutput, 0);
+        dealGenerator.generateInParallel(1500, 3000, actualParallelOutput, 0);
+
+        // Then
+        Assert.assertArrayEquals(Arrays.copyOfRange(expectedOutput, 15000, 45000), actualOutput);
+        Assert.assertArrayEquals(actualOutput, actualParallelOutput);
+    }
+
+    @Test
+    public void writeTextTest() throws Exception {
+        // Given
+        DealGenerator dealGenerator = new DealGenerator(1, 10);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int[] expectedCards = new int[100 * 10];
+        int[] actualCards = new int[10];
+        dealGenerator.generate(0, 100, expectedCards, 0);
+
+        // When
+        dealGenerator.write(0, 100, Channels.newChannel(out));
+
+        // Then
+        String[] lines = new String(out.toByteArray(), StandardCharsets.US_ASCII).split("\n");
+        Assert.assertEquals(100, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            ByteBuffer line = ByteBuffer.wrap(lines[i].getBytes(StandardCharsets.US_ASCII));
+            Assert.assertTrue(PackedPokerHandAnalyzer.parseCards(line, 0, line.limit(), actualCards, 0, 10));
+            Assert.assertArrayEquals(Arrays.copyOfRange(expectedCards, i * 10, i * 10 + 10), actualCards);
+        }
+    }
+
+    @Test
+    public void writeRecordsTest() throws Exception {
+        // Given
+        Path path = temporaryFolder.newFile().toPath();
+        DealGenerator dealGenerator = new DealGenerator(3, 10);
+        int[] expectedCards = new int[70000 * 10];
+        int[] actualCards = new int[10];
+        dealGenerator.generate(0, 70000, expectedCards, 0);
+
+        // When
+        try (HandRecordWriter writer = new HandRecordWriter(path, 2, false)) {
+            dealGenerator.write(0, 70000, writer);
+        }
+
+        // Then
+        try (HandRecordReader reader = new HandRecordReader(path)) {
+            Assert.assertEquals(70000, reader.getRecordCount());
+            for (int record = 0; record < 70000; record += 997) {
+                reader.getCards(record, actualCards, 0);
+                Assert.assertArrayEquals(Arrays.copyOfRange(expectedCards, record * 10, record * 10 + 10), actualCards);
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package pokerhandanalyzer.index;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import pokerhandanalyzer.PackedPokerHandAnalyzer;
+import pokerhandanalyzer.enums.PokerHandType;
+import pokerhandanalyzer.enums.Rank;
+import pokerhandanalyzer.enums.Suit;
+import pokerhandanalyzer.io.HandRecordReader;
+import pokerhandanalyzer.io.HandRecordWriter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.function.LongPredicate;
+
+public class HandIndexTest {
+    private static final int NUMBER_OF_RECORDS = 50000;
+
+    @ClassRule
+    public static TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static HandRecordReader reader;
+    private static HandIndex handIndex;
+
+    @BeforeClass
+    public static void setUp() throws IOException, InterruptedException {
+        Path recordFile = temporaryFolder.newFile().toPath();
+        Path indexFile = temporaryFolder.newFile().toPath();
+        Random random = new Random(3);
+        int[] cards = new int[10];
+        try (HandRecordWriter writer = new HandRecordWriter(recordFile, 2, true)) {
+            for (int i = 0; i < NUMBER_OF_RECORDS; i++) {
+                dealWithoutReplacement(random, cards);
+                writer.write(cards, 0);
+            }
+        }
+        reader = new HandRecordReader(recordFile);
+        HandIndex.build(reader, indexFile, 3);
+        handIndex = new HandIndex(indexFile);
+    }
+
+    @AfterClass
+    public static void tearDown() throws IOException {
+        handIndex.close();
+        reader.close();
+    }
+
+    @Test
+    public void handCountTest() {
+        Assert.assertEquals(2L * NUMBER_OF_RECORDS, handIndex.getHandCount());
+        Assert.assertEquals(2, handIndex.getHandsPerRecord());
+    }
+
+    @Test
+    public void fullHousesWithAcesTest() {
+        // When
+        HandBitmap actualOutput = handIndex.ofType(PokerHandType.FULL_HOUSE).and(handIndex.withRank(Rank.ACE));
+
+        // Then
+        assertMatchesScan(actualOutput, hand -> PackedPokerHandAnalyzer.getPokerHandType(strength(hand)) == PokerHandType.FULL_HOUSE
+                && holdsRank(hand, Rank.ACE));
+    }
+
+    @Test
+    public void withCardTest() {
+        // Given
+        int kingOfHearts = PackedPokerHandAnalyzer.getCard(Rank.KING, Suit.HEARTS);
+
+        // When
+        HandBitmap actualOutput = handIndex.withCard(Rank.KING, Suit.HEARTS);
+
+        // Then
+        assertMatchesScan(actualOutput, hand -> {
+            for (int i = 0; i < 5; i++) {
+                if (card(hand, i) == kingOfHearts)
+                    return true;
+            }
+            return false;
+        });
+    }
+
+    @Test
+    public void withStrengthAboveTest() {
+        // Given
+        int threshold = strength(17);
+
+        // When
+        HandBitmap actualOutput = handIndex.withStrengthAbove(threshold);
+
+        // Then
+        assertMatchesScan(actualOutput, hand -> strength(hand) > threshold);
+    }
+
+    @Test
+    public void withStrengthAboveMaximumTest() {
+        // When
+        HandBitmap actualOutput = handIndex.withStrengthAbove(Integer.MAX_VALUE);
+
+        // Then
+        Assert.assertEquals(0, actualOutput.cardinality());
+        Assert.assertEquals(handIndex.getHandCount(), actualOutput.getHandCount());
+    }
+
+    @Test
+    public void pairsWithoutKingsTest() {
+        // When
+        HandBitmap actualOutput = handIndex.ofType(PokerHandType.PAIR).andNot(handIndex.withRank(Rank.KING));
+
+        // Then
+        assertMatchesScan(actualOutput, hand -> PackedPokerHandAnalyzer.getPokerHandType(strength(hand)) == PokerHandType.PAIR
+                && !holdsRank(hand, Rank.KING));
+        Assert.assertEquals(handIndex.getHandCount(), actualOutput.or(actualOutput.not()).cardinality());
+    }
+
+    // bitmaps answered straight from the mapping combine with each other as bitmaps built on the heap do
+    @Test
+    public void mappedBitmapsTest() {
+        // When
+        HandBitmap withoutAces = handIndex.withRank(Rank.ACE).not();
+        HandBitmap flushesOrStraights = handIndex.ofType(PokerHandType.FLUSH).or(handIndex.ofType(PokerHandType.STRAIGHT));
+
+        // Then
+        assertMatchesScan(withoutAces, hand -> !holdsRank(hand, Rank.ACE));
+        assertMatchesScan(flushesOrStraights, hand -> PackedPokerHandAnalyzer.getPokerHandType(strength(hand))
+                == PokerHandType.FLUSH || PackedPokerHandAnalyzer.getPokerHandType(strength(hand)) == PokerHandType.STRAIGHT);
+        Assert.assertEquals(handIndex.withRank(Rank.ACE).cardinality(),
+                handIndex.getHandCount() - withoutAces.cardinality());
+    }
+
+    private static void assertMatchesScan(HandBitmap actualOutput, LongPredicate isMatch) {
+        long expectedCardinality = 0;
+        for (long hand = 0; hand < handIndex.getHandCount(); hand++) {
+            Assert.assertEquals(isMatch.test(hand), actualOutput.contains(hand));
+            if (isMatch.test(hand))
+                expectedCardinality++;
+        }
+        Assert.assertEquals(expectedCardinality, actualOutput.cardinality());
+        Assert.assertTrue(expectedCardinality > 0);
+    }
+
+    private static int strength(long hand) {
+        return reader.getStrength(hand / 2, (int) (hand % 2));
+    }
+
+    private static int card(long hand, int index) {
+        return reader.getCard(hand / 2, (int) (hand % 2) * 5 + index);
+    }
+
+    private static boolean holdsRank(long hand, Rank rank) {
+        for (int i = 0; i < 5; i++) {
+            if (PackedPokerHandAnalyzer.getRank(card(hand, i)) == rank)
+                return true;
+        }
+        return false;
+    }
+
+    private static void dealWithoutReplacement(Random random, int[] cards) {
+        long dealt = 0;
+        for (int i = 0; i < cards.length; i++) {
+            do {
+                cards[i] = random.nextInt(PackedPokerHandAnalyzer.NUMBER_OF_CARDS);
+            } while ((dealt & (1L << cards[i])) != 0);
+            dealt |= 1L << cards[i];
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package pokerhandanalyzer.io;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import pokerhandanalyzer.PackedPokerHandAnalyzer;
+import pokerhandanalyzer.enums.PokerHandType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static pokerhandanalyzer.TestCards.getCardMask;
+
+public class HandHistoryParserTest {
+    private static final String SHOWDOWN_HAND = String.join("\n",
+            "PokerStars Hand #233014375071: Hold'em No Limit ($0.01/$0.02 USD) - 2021/12/30 10:15:02 ET",
+            "Table 'Alpha' 6-max Seat #1 is the button",
+            "Seat 1: Hero ($2 in chips)",
+            "Seat 2: Villain ($2 in chips)",
+            "Hero: posts small blind $0.01",
+            "Villain: posts big blind $0.02",
+            "*** HOLE CARDS ***",
+            "Dealt to Hero [Ah Kd]",
+            "Hero: raises $0.04 to $0.06",
+            "Villain: calls $0.04",
+            "*** FLOP *** [2c 7h Kc]",
+            "*** TURN *** [2c 7h Kc] [Js]",
+            "*** RIVER *** [2c 7h Kc Js] [3s]",
+            "*** SHOW DOWN ***",
+            "Hero: shows [Ah Kd] (a pair of Kings)",
+            "Villain: shows [Qc Qs] (a pair of Queens)",
+            "Hero collected $0.12 from pot",
+            "*** SUMMARY ***",
+            "Total pot $0.12 | Rake $0",
+            "Board [2c 7h Kc Js 3s]",
+            "Seat 1: Hero (button) (small blind) showed [Ah Kd] and won ($0.12) with a pair of Kings",
+            "Seat 2: Villain (big blind) showed [Qc Qs] and lost with a pair of Queens",
+            "", "", "");
+    private static final String FOLDED_HAND = String.join("\n",
+            "PokerStars Hand #233014375072: Hold'em No Limit ($0.01/$0.02 USD) - 2021/12/30 10:15:40 ET",
+            "Table 'Alpha' 6-max Seat #2 is the button",
+            "Seat 1: Hero ($2.06 in chips)",
+            "Seat 2: Villain ($1.94 in chips)",
+            "Villain: posts small blind $0.01",
+            "Hero: posts big blind $0.02",
+            "*** HOLE CARDS ***",
+            "Dealt to Hero [7c 2d]",
+            "Villain: raises $0.04 to $0.06",
+            "Hero: folds",
+            "Uncalled bet ($0.04) returned to Villain",
+            "Villain collected $0.04 from pot",
+            "*** SUMMARY ***",
+            "Total pot $0.04 | Rake $0",
+            "Seat 1: Hero (big blind) folded before Flop",
+            "Seat 2: Villain (button) (small blind) collected ($0.04)",
+            "", "", "");
+    private static final String OMAHA_HAND = String.join("\n",
+            "PokerStars Hand #233014375073: Omaha Pot Limit ($0.01/$0.02 USD) - 2021/12/30 10:16:02 ET",
+            "*** HOLE CARDS ***",
+            "Dealt to Hero [Ah Kd Qs Jc]",
+            "*** SUMMARY ***",
+            "Board [2c 7h Kc Js 3s]",
+            "Seat 1: Hero (button) showed [Ah Kd Qs Jc] and won ($0.12)",
+            "", "");
+    private static final String REPEATED_CARD_HAND = String.join("\n",
+            "PokerStars Hand #233014375074: Hold'em No Limit ($0.01/$0.02 USD) - 2021/12/30 10:17:02 ET",
+            "*** HOLE CARDS ***",
+            "Dealt to Hero [Ah Kd]",
+            "*** SUMMARY ***",
+            "Board [2c 7h Ah Js 3s]",
+            "", "");
+    private static final String CUT_OFF_HAND = String.join("\n",
+            "PokerStars Hand #233014375075: Hold'em No Limit ($0.01/$0.02 USD) - 2021/12/30 10:18:02 ET",
+            "*** HOLE CARDS ***",
+            "Dealt to Hero [Ah Kd]",
+            "");
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void parseShowdownTest() throws IOException {
+        // Given
+        Path path = write(SHOWDOWN_HAND + FOLDED_HAND);
+        HandHistoryParser parser = new HandHistoryParser();
+        List<String> hands = new ArrayList<>();
+        int[] strengths = new int[2];
+
+        // When
+        parser.parse(path, batch -> {
+            hands.addAll(describe(batch));
+            strengths[0] = batch.getStrength(batch.getFirstPlayer(0));
+            strengths[1] = batch.getStrength(batch.getFirstPlayer(0) + 1);
+            Assert.assertEquals(strengths[0], batch.getBestStrength(0));
+            Assert.assertEquals(strengths[0], batch.getHeroStrength(0));
+            Assert.assertEquals(HandHistoryBatch.NO_STRENGTH, batch.getHeroStrength(1));
+        });
+
+        // Then
+        Assert.assertEquals(2, parser.getHandCount());
+        Assert.assertEquals(0, parser.getSkippedHandCount());
+        Assert.assertEquals(Arrays.asList(
+                "233014375071 " + getCardMask("2C 7H KC JS 3S") + " " + getCardMask("AH KD") + " 1:"
+                        + getCardMask("AH KD") + " 2:" + getCardMask("QC QS"),
+                "233014375072 0 " + getCardMask("7C 2D")), hands);
+        Assert.assertEquals(PokerHandType.PAIR, PackedPokerHandAnalyzer.getPokerHandType(strengths[0]));
+        Assert.assertTrue(strengths[0] > strengths[1]);
+    }
+
+    @Test
+    public void skipInvalidHandsTest() throws IOException {
+        // Given
+        Path path = write(OMAHA_HAND + REPEATED_CARD_HAND + CUT_OFF_HAND + SHOWDOWN_HAND);
+        HandHistoryParser parser = new HandHistoryParser();
+        List<String> hands = new ArrayList<>();
+
+        // When
+        parser.parse(path, batch -> hands.addAll(describe(batch)));
+
+        // Then
+        Assert.assertEquals(1, parser.getHandCount());
+        Assert.assertEquals(3, parser.getSkippedHandCount());
+        Assert.assertTrue(hands.get(0).startsWith("233014375071 "));
+    }
+
+    @Test
+    public void windowsAndBatchesTest() throws IOException {
+        // Given
+        StringBuilder history = new StringBuilder("\uFEFF");
+        for (int i = 0; i < 50; i++) {
+            history.append(SHOWDOWN_HAND).append(FOLDED_HAND);
+        }
+        Path path = temporaryFolder.newFile().toPath();
+        Files.write(path, history.toString().replace("\n", "\r\n").getBytes(StandardCharsets.UTF_8));
+        List<String> expectedHands = new ArrayList<>();
+        new HandHistoryParser().parse(path, batch -> expectedHands.addAll(describe(batch)));
+
+        // When
+        HandHistoryParser parser = new HandHistoryParser(7, 300);
+        List<String> hands = new ArrayList<>();
+        parser.parse(path, batch -> {
+            Assert.assertTrue(batch.size() <= 7);
+            hands.addAll(describe(batch));
+        });
+
+        // Then
+        Assert.assertEquals(100, expectedHands.size());
+        Assert.assertEquals(expectedHands, hands);
+        Assert.assertEquals(Files.size(path), parser.getByteCount());
+    }
+
+    @Test
+    public void lineTooLongTest() throws IOException {
+        // Given
+        char[] chat = new char[500];
+        Arrays.fill(chat, 'x');
+        Path path = write(SHOWDOWN_HAND.replace("Villain: calls $0.04", "Villain said, \"" + new String(chat) + "\"")
+                + FOLDED_HAND);
+        HandHistoryParser parser = new HandHistoryParser(16, 200);
+        List<String> hands = new ArrayList<>();
+
+        // When
+        parser.parse(path, batch -> hands.addAll(describe(batch)));
+
+        // Then
+        Assert.assertEquals(1, parser.getHandCount());
+        Assert.assertEquals(1, parser.getSkippedHandCount());
+        Assert.assertTrue(hands.get(0).startsWith("233014375072 "));
+    }
+
+    private Path write(String history) throws IOException {
+        Path path = temporaryFolder.newFile().toPath();
+        Files.write(path, history.getBytes(StandardCharsets.US_ASCII));
+        return path;
+    }
+
+    // describes each hand of a batch as its number, board, hero cards, and the seat and hole cards of each player
+    private static List<String> describe(HandHistoryBatch batch) {
+        List<String> hands = new ArrayList<>();
+        for (int hand = 0; hand < batch.size(); hand++) {
+            StringBuilder description = new StringBuilder().append(batch.getHandId(hand)).append(' ')
+                    .append(batch.getBoardCardMask(hand)).append(' ').append(batch.getHeroCardMask(hand));
+            for (int i = 0; i < batch.getNumberOfPlayers(hand); i++) {
+                int player = batch.getFirstPlayer(hand) + i;
+                description.append(' ').append(batch.getSeat(player)).append(':')
+                        .append(batch.getHoleCardMask(player));
+            }
+            hands.add(description.toString());
+        }
+        return hands;
+    }
+}
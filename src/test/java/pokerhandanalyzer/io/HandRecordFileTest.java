@@ -0,0 +1,157 @@
+package pokerhandanalyzer.io;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import pokerhandanalyzer.PackedPokerHandAnalyzer;
+import pokerhandanalyzer.StringPokerHandAnalyzer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class HandRecordFileTest {
+    private static final String[] LINES = {
+            "AH KD 5C QS TS TD KH 5S JC 9H",
+            "QH TD 5C 9S KS KD 5H 9S QC TH",
+            "4D KC 5S QH 3C 3H 5H AH 8H TH"
+    };
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void convertAndReadTest() throws IOException {
+        for (boolean hasStrengths : new boolean[]{false, true}) {
+            // Given
+            Path textFile = temporaryFolder.newFile().toPath();
+            Path recordFile = temporaryFolder.newFile().toPath();
+            Files.write(textFile, (String.join("\n", LINES) + "\n\n").getBytes(StandardCharsets.US_ASCII));
+
+            // When
+            long recordCount = HandRecordConverter.convert(textFile, recordFile, hasStrengths);
+
+            // Then
+            Assert.assertEquals(LINES.length, recordCount);
+            try (HandRecordReader reader = new HandRecordReader(recordFile)) {
+                Assert.assertEquals(LINES.length, reader.getRecordCount());
+                Assert.assertEquals(2, reader.getHandsPerRecord());
+                Assert.assertEquals(hasStrengths, reader.hasStrengths());
+                Assert.assertEquals(PackedPokerHandAnalyzer.parseCard('A', 'H'), reader.getCard(0, 0));
+                Assert.assertEquals(PackedPokerHandAnalyzer.parseCard('9', 'H'), reader.getCard(0, 9));
+                for (int i = 0; i < LINES.length; i++) {
+                    Assert.assertEquals(StringPokerHandAnalyzer.analyzeHands(LINES[i]), toWhoWon(reader.analyzeHands(i)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void writeAndReadCardsTest() throws IOException {
+        // Given
+        Path recordFile = temporaryFolder.newFile().toPath();
+        int[] cards = new int[7 * 5];
+        for (int i = 0; i < cards.length; i++) {
+            cards[i] = (i * 11) % PackedPokerHandAnalyzer.NUMBER_OF_CARDS;
+        }
+
+        // When
+        try (HandRecordWriter writer = new HandRecordWriter(recordFile, 1, true)) {
+            for (int i = 0; i < cards.length; i += 5) {
+                writer.write(cards, i);
+            }
+        }
+
+        // Then
+        try (HandRecordReader reader = new HandRecordReader(recordFile)) {
+            int[] actualCards = new int[cards.length];
+            for (int i = 0; i < reader.getRecordCount(); i++) {
+                reader.getCards(i, actualCards, i * 5);
+                Assert.assertEquals(PackedPokerHandAnalyzer.evaluate(cards, i * 5), reader.getStrength(i, 0));
+            }
+            Assert.assertArrayEquals(cards, actualCards);
+        }
+    }
+
+    @Test
+    public void writeInvalidCardLeavesNoPartialRecordTest() throws IOException {
+        // Given
+        Path recordFile = temporaryFolder.newFile().toPath();
+        int[] cards = {0, 4, 8, 12, 16, 20, 24, 28, 32, 36};
+        int[] invalidCards = {0, 4, 8, 12, PackedPokerHandAnalyzer.NUMBER_OF_CARDS};
+
+        // When
+        try (HandRecordWriter writer = new HandRecordWriter(recordFile, 1, false)) {
+            writer.write(cards, 0);
+            try {
+                writer.write(invalidCards, 0);
+                Assert.fail("an invalid card must be rejected");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+            writer.write(cards, 5);
+        }
+
+        // Then
+        try (HandRecordReader reader = new HandRecordReader(recordFile)) {
+            Assert.assertEquals(2, reader.getRecordCount());
+            int[] actualCards = new int[cards.length];
+            reader.getCards(0, actualCards, 0);
+            reader.getCards(1, actualCards, 5);
+            Assert.assertArrayEquals(cards, actualCards);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void convertMalformedLineTest() throws IOException {
+        // Given
+        Path textFile = temporaryFolder.newFile().toPath();
+        Files.write(textFile, "AH KD 5C QS TS TD KH 5S JC\n".getBytes(StandardCharsets.US_ASCII));
+
+        // When
+        HandRecordConverter.convert(textFile, temporaryFolder.newFile().toPath(), false);
+    }
+
+    @Test(expected = IOException.class)
+    public void readInvalidFileTest() throws IOException {
+        // Given
+        Path textFile = temporaryFolder.newFile().toPath();
+        Files.write(textFile, String.join("\n", LINES).getBytes(StandardCharsets.US_ASCII));
+
+        // When
+        new HandRecordReader(textFile).close();
+    }
+
+    @Test
+    public void readCorruptRecordCountTest() throws IOException {
+        for (long recordCount : new long[]{-1, 4, Long.MAX_VALUE / 4}) {
+            // Given
+            Path textFile = temporaryFolder.newFile().toPath();
+            Path recordFile = temporaryFolder.newFile().toPath();
+            Files.write(textFile, (String.join("\n", LINES) + "\n").getBytes(StandardCharsets.US_ASCII));
+            HandRecordConverter.convert(textFile, recordFile, true);
+            try (FileChannel fileChannel = FileChannel.open(recordFile, StandardOpenOption.WRITE)) {
+                ByteBuffer count = ByteBuffer.allocate(Long.BYTES).putLong(0, recordCount);
+                fileChannel.write(count, HandRecordFormat.RECORD_COUNT_OFFSET);
+            }
+
+            // When
+            try {
+                new HandRecordReader(recordFile).close();
+                Assert.fail("a record count of " + recordCount + " must be rejected");
+            } catch (IOException e) {
+                // Then
+                Assert.assertTrue(e.getMessage().endsWith("is truncated or corrupt"));
+            }
+        }
+    }
+
+    private static String toWhoWon(int result) {
+        return result == 0 ? "neither" : result > 0 ? "left" : "right";
+    }
+}
@@ -0,0 +1,64 @@
+package pokerhandanalyzer.io;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+public class PipePokerHandAnalyzerTest {
+
+    @Test
+    public void runTest() throws IOException {
+        // Given
+        String input = "AH KD 5C QS TS TD KH 5S JC 9H\nQH TD 5C 9S KS KD 5H 9S QC TH\r\n4D KC 5S QH 3C 3H 5H AH 8H TH";
+        String expectedOutput = "left\nneither\nright\n";
+
+        // When
+        String actualOutput = run(new PipePokerHandAnalyzer(), input);
+
+        // Then
+        Assert.assertEquals(expectedOutput, actualOutput);
+    }
+
+    // with a buffer smaller than the input, lines are split across reads and the output is written many times
+    @Test
+    public void linesSplitAcrossBuffersTest() throws IOException {
+        // Given
+        StringBuilder input = new StringBuilder();
+        StringBuilder expectedOutput = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            input.append(i % 2 == 0 ? "AH KD 5C QS TS TD KH 5S JC 9H\n" : "4D KC 5S QH 3C 3H 5H AH 8H TH\n");
+            expectedOutput.append(i % 2 == 0 ? "left\n" : "right\n");
+        }
+
+        // When
+        String actualOutput = run(new PipePokerHandAnalyzer(37), input.toString());
+
+        // Then
+        Assert.assertEquals(expectedOutput.toString(), actualOutput);
+    }
+
+    @Test
+    public void lineLongerThanBufferTest() throws IOException {
+        // Given
+        String input = "AH KD 5C QS TS TD KH 5S JC 9H 9H 9H 9H 9H 9H 9H 9H 9H 9H 9H 9H 9H\n4D KC 5S QH 3C 3H 5H AH 8H TH\n";
+        String expectedOutput = "error\nright\n";
+
+        // When
+        String actualOutput = run(new PipePokerHandAnalyzer(32), input);
+
+        // Then
+        Assert.assertEquals(expectedOutput, actualOutput);
+    }
+
+    private static String run(PipePokerHandAnalyzer pipePokerHandAnalyzer, String input) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        pipePokerHandAnalyzer.run(Channels.newChannel(new ByteArrayInputStream(input.getBytes(StandardCharsets.US_ASCII))),
+                Channels.newChannel(output));
+        return new String(output.toByteArray(), StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,110 @@
+package pokerhandanalyzer.metrics;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import pokerhandanalyzer.StringPokerHandAnalyzer;
+import pokerhandanalyzer.enums.AnalyzerStage;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+
+public class AnalyzerMetricsTest {
+
+    @Before
+    public void setUp() {
+        AnalyzerMetrics.reset();
+    }
+
+    @After
+    public void tearDown() {
+        AnalyzerMetrics.setEnabled(false);
+        AnalyzerMetrics.reset();
+    }
+
+    @Test
+    public void disabledMetricsRecordNothingTest() {
+        // Given
+        AnalyzerMetrics.setEnabled(false);
+
+        // When
+        StringPokerHandAnalyzer.analyzeHands("AH KD 5C QS TS TD KH 5S JC 9H");
+
+        // Then
+        for (AnalyzerStage stage : AnalyzerStage.values()) {
+            Assert.assertEquals(0, AnalyzerMetrics.getHistogram(stage).getCount());
+        }
+    }
+
+    @Test
+    public void enabledMetricsRecordEveryStageTest() {
+        // Given
+        AnalyzerMetrics.setEnabled(true);
+
+        // When
+        StringPokerHandAnalyzer.analyzeHands("AH KD 5C QS TS TD KH 5S JC 9H"); // two high card hands, so a tie break
+        StringPokerHandAnalyzer.analyzeHands("4D KC 5S QH 3C 3H 5H AH 8H TH"); // high card against a flush
+
+        // Then
+        Assert.assertEquals(2, AnalyzerMetrics.getHistogram(AnalyzerStage.ANALYZE_HANDS).getCount());
+        Assert.assertEquals(2, AnalyzerMetrics.getHistogram(AnalyzerStage.PARSE).getCount());
+        Assert.assertEquals(4, AnalyzerMetrics.getHistogram(AnalyzerStage.EVALUATE).getCount());
+        Assert.assertEquals(1, AnalyzerMetrics.getHistogram(AnalyzerStage.TIE_BREAK).getCount());
+    }
+
+    @Test
+    public void mBeanExposesStatisticsTest() throws Exception {
+        // Given
+        AnalyzerMetrics.registerMBean();
+        AnalyzerMetrics.registerMBean();
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName(AnalyzerMetrics.OBJECT_NAME);
+
+        // When
+        mBeanServer.setAttribute(objectName, new Attribute("Enabled", true));
+        StringPokerHandAnalyzer.analyzeHands("4D KC 5S QH 3C 3H 5H AH 8H TH");
+        CompositeData actualOutput = (CompositeData) mBeanServer.getAttribute(objectName, "AnalyzeHands");
+
+        // Then
+        Assert.assertTrue(AnalyzerMetrics.isEnabled());
+        Assert.assertEquals(1L, actualOutput.get("count"));
+        Assert.assertTrue((Long) actualOutput.get("maxNanos") > 0);
+    }
+
+    @Test
+    public void histogramPercentilesTest() {
+        // Given
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+
+        // When
+        for (long nanos = 1; nanos <= 100000; nanos++) {
+            latencyHistogram.record(nanos);
+        }
+
+        // Then
+        Assert.assertEquals(100000, latencyHistogram.getCount());
+        Assert.assertEquals(50000.5, latencyHistogram.getMeanNanos(), 0.001);
+        assertWithinBucketPrecision(50000, latencyHistogram.getPercentileNanos(50));
+        assertWithinBucketPrecision(99000, latencyHistogram.getPercentileNanos(99));
+        assertWithinBucketPrecision(100000, latencyHistogram.getMaxNanos());
+    }
+
+    @Test
+    public void histogramBucketsTest() {
+        for (long nanos : new long[]{0, 1, 15, 16, 17, 31, 32, 1000, 123456789, Long.MAX_VALUE}) {
+            int bucket = LatencyHistogram.getBucket(nanos);
+            Assert.assertTrue(LatencyHistogram.getBucketHighestValue(bucket) >= nanos);
+            if (bucket > 0)
+                Assert.assertTrue(LatencyHistogram.getBucketHighestValue(bucket - 1) < nanos);
+        }
+    }
+
+    // the histogram reports values to within 1/16 of their value
+    private static void assertWithinBucketPrecision(long expected, long actual) {
+        Assert.assertTrue(expected + " vs " + actual, Math.abs(actual - expected) <= expected / 16);
+    }
+}
@@ -0,0 +1,86 @@
+package pokerhandanalyzer.server;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class BlockingPokerHandAnalyzerServerTest {
+    private static final InetSocketAddress LOOPBACK = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+
+    @Test
+    public void fixedThreadPoolTest() throws Exception {
+        // Given
+        String requests = "AH KD 5C QS TS TD KH 5S JC 9H\nQH TD 5C 9S KS KD 5H 9S QC TH\nAH KD\n";
+
+        // When
+        List<String> actualOutput;
+        try (BlockingPokerHandAnalyzerServer server = BlockingPokerHandAnalyzerServer.withFixedThreadPool(LOOPBACK, 2)) {
+            server.start();
+            actualOutput = request(server.getPort(), requests, 3);
+        }
+
+        // Then
+        Assert.assertEquals("left", actualOutput.get(0));
+        Assert.assertEquals("neither", actualOutput.get(1));
+        Assert.assertEquals("error", actualOutput.get(2));
+    }
+
+    @Test
+    public void concurrentClientsTest() throws Exception {
+        // Given
+        int numberOfClients = 100;
+        int requestsPerClient = 100;
+        StringBuilder requests = new StringBuilder();
+        for (int i = 0; i < requestsPerClient; i++) {
+            requests.append("4D KC 5S QH 3C 3H 5H AH 8H TH\n");
+        }
+
+        // When
+        List<Future<List<String>>> responses = new ArrayList<>();
+        ExecutorService clients = Executors.newFixedThreadPool(numberOfClients);
+        try (BlockingPokerHandAnalyzerServer server = BlockingPokerHandAnalyzerServer.withVirtualThreads(LOOPBACK)) {
+            server.start();
+            for (int i = 0; i < numberOfClients; i++) {
+                responses.add(clients.submit(() -> request(server.getPort(), requests.toString(), requestsPerClient)));
+            }
+
+            // Then
+            for (Future<List<String>> response : responses) {
+                for (String result : response.get()) {
+                    Assert.assertEquals("right", result);
+                }
+            }
+        } finally {
+            clients.shutdown();
+        }
+    }
+
+    // sends all the requests at once and reads back the given number of results
+    static List<String> request(int port, String requests, int numberOfResults) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            OutputStream output = socket.getOutputStream();
+            BufferedReader input = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            output.write(requests.getBytes(StandardCharsets.US_ASCII));
+            output.flush();
+
+            List<String> results = new ArrayList<>();
+            for (int i = 0; i < numberOfResults; i++) {
+                results.add(input.readLine());
+            }
+            return results;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package pokerhandanalyzer.server;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A load test comparing the blocking server on virtual threads against the blocking server on a fixed pool of platform
+ * threads. It is not run by the test suite; run it by hand on a JDK with virtual threads, e.g.,
+ * java -cp target/classes:target/test-classes pokerhandanalyzer.server.BlockingServerLoadComparison 10000 100 200
+ * with the number of concurrent clients, the number of requests each client sends, and the size of the fixed pool.
+ */
+public class BlockingServerLoadComparison {
+    private static final String REQUEST = "4D KC 5S QH 3C 3H 5H AH 8H TH\n";
+
+    public static void main(String[] args) throws Exception {
+        int numberOfClients = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int requestsPerClient = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int poolSize = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+
+        System.out.println("virtual threads supported: " + BlockingPokerHandAnalyzerServer.isVirtualThreadSupported());
+        run("virtual threads", BlockingPokerHandAnalyzerServer.withVirtualThreads(address), numberOfClients, requestsPerClient);
+        run("fixed pool of " + poolSize, BlockingPokerHandAnalyzerServer.withFixedThreadPool(address, poolSize), numberOfClients, requestsPerClient);
+    }
+
+    private static void run(String name, BlockingPokerHandAnalyzerServer server, int numberOfClients, int requestsPerClient) throws Exception {
+        StringBuilder requests = new StringBuilder();
+        for (int i = 0; i < requestsPerClient; i++) {
+            requests.append(REQUEST);
+        }
+
+        // each client sends its requests as soon as it connects, so with a fixed pool most clients wait to be served
+        ExecutorService clients = Executors.newCachedThreadPool();
+        try (BlockingPokerHandAnalyzerServer closeableServer = server) {
+            closeableServer.start();
+            long start = System.nanoTime();
+            List<Future<List<String>>> responses = new ArrayList<>();
+            for (int i = 0; i < numberOfClients; i++) {
+                responses.add(clients.submit(() -> BlockingPokerHandAnalyzerServerTest.request(
+                        closeableServer.getPort(), requests.toString(), requestsPerClient)));
+            }
+            for (Future<List<String>> response : responses) {
+                response.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%s: %d clients, %.0f requests/sec%n", name, numberOfClients,
+                    numberOfClients * (double) requestsPerClient / seconds);
+        } finally {
+            clients.shutdown();
+        }
+    }
+}
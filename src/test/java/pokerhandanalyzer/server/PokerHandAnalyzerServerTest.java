@@ -0,0 +1,141 @@
+package pokerhandanalyzer.server;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import pokerhandanalyzer.warmup.EngineWarmUp;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+public class PokerHandAnalyzerServerTest {
+    private PokerHandAnalyzerServer server;
+    private Socket socket;
+    private OutputStream output;
+    private BufferedReader input;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new PokerHandAnalyzerServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        server.start();
+        socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+        output = socket.getOutputStream();
+        input = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        socket.close();
+        server.close();
+    }
+
+    @Test
+    public void singleRequestTest() throws IOException {
+        // Given
+        String request = "4D KC 5S QH 3C 3H 5H AH 8H TH\n";
+        String expectedOutput = "right";
+
+        // When
+        send(request);
+        String actualOutput = input.readLine();
+
+        // Then
+        Assert.assertEquals(expectedOutput, actualOutput);
+    }
+
+    @Test
+    public void pipelinedRequestsTest() throws IOException {
+        // Given
+        String[] requests = {
+                "AH KD 5C QS TS TD KH 5S JC 9H",
+                "QH TD 5C 9S KS KD 5H 9S QC TH",
+                "4D KC 5S QH 3C 3H 5H AH 8H TH"
+        };
+        String[] expectedOutputs = {"left", "neither", "right"};
+        int repetitions = 2000;
+
+        // When
+        StringBuilder pipeline = new StringBuilder();
+        for (int i = 0; i < repetitions; i++) {
+            pipeline.append(requests[i % requests.length]).append('\n');
+        }
+        send(pipeline.toString());
+
+        // Then
+        for (int i = 0; i < repetitions; i++) {
+            Assert.assertEquals(expectedOutputs[i % expectedOutputs.length], input.readLine());
+        }
+    }
+
+    @Test
+    public void requestSplitAcrossWritesTest() throws IOException {
+        // Given
+        String expectedOutput = "left";
+
+        // When
+        send("AH KD 5C QS");
+        output.flush();
+        send(" TS TD KH 5S JC 9H\r\n");
+        String actualOutput = input.readLine();
+
+        // Then
+        Assert.assertEquals(expectedOutput, actualOutput);
+    }
+
+    @Test
+    public void malformedRequestTest() throws IOException {
+        // Given
+        String requests = "AH KD\nAH KD 5C QS TS TD KH 5S JC 9H\n";
+
+        // When
+        send(requests);
+
+        // Then
+        Assert.assertEquals("error", input.readLine());
+        Assert.assertEquals("left", input.readLine());
+    }
+
+    @Test
+    public void warmUpEngineTest() throws Exception {
+        // Given
+        String request = "4D KC 5S QH 3C 3H 5H AH 8H TH\nAH KD\n";
+
+        try (EngineWarmUp engineWarmUp = new EngineWarmUp(1, 2000, 0);
+             PokerHandAnalyzerServer warmUpServer = new PokerHandAnalyzerServer(
+                     new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), engineWarmUp);
+             Socket warmUpSocket = new Socket(InetAddress.getLoopbackAddress(), startAndGetPort(warmUpServer))) {
+            BufferedReader warmUpInput = new BufferedReader(new InputStreamReader(warmUpSocket.getInputStream(),
+                    StandardCharsets.US_ASCII));
+
+            // When
+            warmUpSocket.getOutputStream().write(request.getBytes(StandardCharsets.US_ASCII));
+            String beforeWarmUp = warmUpInput.readLine() + " " + warmUpInput.readLine();
+            engineWarmUp.start();
+            Assert.assertTrue(engineWarmUp.awaitReady(1, TimeUnit.MINUTES));
+            warmUpSocket.getOutputStream().write(request.getBytes(StandardCharsets.US_ASCII));
+            String afterWarmUp = warmUpInput.readLine() + " " + warmUpInput.readLine();
+
+            // Then
+            Assert.assertEquals("right error", beforeWarmUp);
+            Assert.assertEquals("right error", afterWarmUp);
+            Assert.assertEquals(1, engineWarmUp.getFastRequestCount());
+        }
+    }
+
+    private static int startAndGetPort(PokerHandAnalyzerServer server) throws IOException {
+        server.start();
+        return server.getPort();
+    }
+
+    private void send(String request) throws IOException {
+        output.write(request.getBytes(StandardCharsets.US_ASCII));
+    }
+}
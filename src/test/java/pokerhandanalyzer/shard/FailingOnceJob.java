@@ -0,0 +1,41 @@
+package pokerhandanalyzer.shard;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+// Counts the indexes of a space of a thousand, but fails the first attempt of every shard, leaving a marker file in
+// the directory given as argument so the next attempt succeeds.
+public class FailingOnceJob implements ShardedJob {
+    private final Path markerDirectory;
+
+    public FailingOnceJob(String argument) {
+        markerDirectory = Paths.get(argument);
+    }
+
+    @Override
+    public long getSize() {
+        return 1000;
+    }
+
+    @Override
+    public int getNumberOfCounters() {
+        return 1;
+    }
+
+    @Override
+    public void run(long start, long end, long[] counters) {
+        Path marker = markerDirectory.resolve("attempted-" + start);
+        if (!Files.exists(marker)) {
+            try {
+                Files.createFile(marker);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            System.exit(1);
+        }
+        counters[0] += end - start;
+    }
+}
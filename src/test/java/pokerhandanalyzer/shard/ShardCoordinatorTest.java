@@ -0,0 +1,80 @@
+package pokerhandanalyzer.shard;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public class ShardCoordinatorTest {
+    private static final long[] FIVE_CARD_HAND_TYPE_COUNTS = {
+            1302540, 1098240, 123552, 54912, 10200, 5108, 3744, 624, 36, 4
+    };
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    // the same job must give identical results in one process and in several worker JVMs
+    @Test
+    public void runInWorkerProcessesTest() throws Exception {
+        // Given
+        ShardCoordinator inProcessShardCoordinator = new ShardCoordinator(HandTypeCountJob.class, "5", 1,
+                temporaryFolder.newFolder().toPath());
+        ShardCoordinator shardCoordinator = new ShardCoordinator(HandTypeCountJob.class, "5", 5,
+                temporaryFolder.newFolder().toPath());
+
+        // When
+        long[] expectedOutput = inProcessShardCoordinator.runInProcess();
+        long[] actualOutput = shardCoordinator.run(3, 1);
+
+        // Then
+        Assert.assertArrayEquals(FIVE_CARD_HAND_TYPE_COUNTS, expectedOutput);
+        Assert.assertArrayEquals(expectedOutput, actualOutput);
+        Assert.assertEquals(5, shardCoordinator.getNumberOfLaunchedWorkers());
+    }
+
+    @Test
+    public void retryFailedShardsTest() throws Exception {
+        // Given
+        Path markerDirectory = temporaryFolder.newFolder().toPath();
+        ShardCoordinator shardCoordinator = new ShardCoordinator(FailingOnceJob.class, markerDirectory.toString(), 3,
+                temporaryFolder.newFolder().toPath());
+
+        // When
+        long[] actualOutput = shardCoordinator.run(2, 2);
+
+        // Then
+        Assert.assertArrayEquals(new long[]{1000}, actualOutput);
+        Assert.assertEquals(6, shardCoordinator.getNumberOfLaunchedWorkers());
+    }
+
+    @Test(expected = IOException.class)
+    public void giveUpAfterMaxAttemptsTest() throws Exception {
+        // Given
+        Path markerDirectory = temporaryFolder.newFolder().toPath();
+        ShardCoordinator shardCoordinator = new ShardCoordinator(FailingOnceJob.class, markerDirectory.toString(), 2,
+                temporaryFolder.newFolder().toPath());
+
+        // When
+        shardCoordinator.run(2, 1);
+    }
+
+    // results written by workers the coordinator did not launch are merged instead of being run again
+    @Test
+    public void acceptResultsOfOtherWorkersTest() throws Exception {
+        // Given
+        Path directory = temporaryFolder.newFolder().toPath();
+        ShardWorker.run(HandTypeCountJob.class.getName(), "5", 4, 0, directory);
+        ShardWorker.run(HandTypeCountJob.class.getName(), "5", 4, 2, directory);
+        ShardCoordinator shardCoordinator = new ShardCoordinator(HandTypeCountJob.class, "5", 4, directory);
+
+        // When
+        long[] actualOutput = shardCoordinator.run(2, 1);
+
+        // Then
+        Assert.assertArrayEquals(FIVE_CARD_HAND_TYPE_COUNTS, actualOutput);
+        Assert.assertEquals(2, shardCoordinator.getNumberOfLaunchedWorkers());
+    }
+}
@@ -0,0 +1,65 @@
+package pokerhandanalyzer.store;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import pokerhandanalyzer.board.BoardHandRank;
+import pokerhandanalyzer.board.BoardRanking;
+
+import java.nio.file.Path;
+
+import static pokerhandanalyzer.TestCards.card;
+import static pokerhandanalyzer.TestCards.getCardMask;
+
+public class EquityStoreTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void riverEquityTest() throws Exception {
+        // Given
+        long board = getCardMask("KH 8H 2C 7D 3S");
+        BoardHandRank boardHandRank = BoardRanking.of(board).rank(card("KS"), card("QD"));
+        double expectedOutput = (boardHandRank.getWinCount() + boardHandRank.getTieCount() / 2.0) / 990;
+
+        try (EquityStore equityStore = new EquityStore(temporaryFolder.getRoot().toPath().resolve("equities"), 1024)) {
+            // When
+            double actualOutput = equityStore.getEquity(board, card("KS"), card("QD"));
+
+            // Then
+            Assert.assertEquals(expectedOutput, actualOutput, 1e-12);
+        }
+    }
+
+    // isomorphic situations share one entry, which outlives the store being closed
+    @Test
+    public void isomorphicSituationsTest() throws Exception {
+        // Given
+        Path path = temporaryFolder.getRoot().toPath().resolve("equities");
+        double expectedOutput;
+        try (EquityStore equityStore = new EquityStore(path, 1024)) {
+            expectedOutput = equityStore.getEquity(getCardMask("KH 8H 2C 5H"), card("AH"), card("QS"));
+        }
+
+        try (EquityStore equityStore = new EquityStore(path, 1024)) {
+            // When
+            double actualOutput = equityStore.getEquity(getCardMask("KD 8D 2S 5D"), card("AD"), card("QH"));
+
+            // Then
+            Assert.assertEquals(expectedOutput, actualOutput, 0);
+            Assert.assertEquals(1, equityStore.getResultStore().size());
+            Assert.assertEquals(EquityStore.computeEquity(getCardMask("KH 8H 2C 5H"), card("AH"), card("QS")),
+                    actualOutput, 1e-12);
+        }
+    }
+
+    // a made royal flush on the flop cannot lose, and ties only when the board plays
+    @Test
+    public void flopNutsTest() throws Exception {
+        Assert.assertEquals(1, EquityStore.computeEquity(getCardMask("QS JS TS"), card("AS"), card("KS")), 0);
+        Assert.assertNotEquals(EquityStore.getKey(getCardMask("QS JS TS"), getCardMask("AS KS")),
+                EquityStore.getKey(getCardMask("QS JS TS"), getCardMask("AH KH")));
+    }
+}
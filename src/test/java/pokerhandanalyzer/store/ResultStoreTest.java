@@ -0,0 +1,138 @@
+package pokerhandanalyzer.store;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ResultStoreTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void putIfAbsentTest() throws Exception {
+        try (ResultStore resultStore = new ResultStore(temporaryFolder.getRoot().toPath().resolve("results"), 100)) {
+            // When
+            long firstOutput = resultStore.putIfAbsent(42, 1);
+            long secondOutput = resultStore.putIfAbsent(42, 2);
+
+            // Then
+            Assert.assertEquals(128, resultStore.getCapacity());
+            Assert.assertEquals(1, firstOutput);
+            Assert.assertEquals(1, secondOutput);
+            Assert.assertEquals(1, resultStore.get(42, -1));
+            Assert.assertEquals(-1, resultStore.get(43, -1));
+            Assert.assertTrue(resultStore.containsKey(42));
+            Assert.assertEquals(1, resultStore.size());
+        }
+    }
+
+    // entries survive the store being closed, and keep the capacity they were created with
+    @Test
+    public void persistenceTest() throws Exception {
+        // Given
+        Path path = temporaryFolder.getRoot().toPath().resolve("results");
+        try (ResultStore resultStore = new ResultStore(path, 64)) {
+            ResultStoreWriter.write(resultStore, 1, 41);
+        }
+
+        // When
+        try (ResultStore resultStore = new ResultStore(path, 1024)) {
+            // Then
+            Assert.assertEquals(64, resultStore.getCapacity());
+            Assert.assertEquals(40, resultStore.size());
+            for (long key = 1; key < 41; key++) {
+                Assert.assertEquals(ResultStoreWriter.getValue(key), resultStore.get(key, -1));
+            }
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void fullStoreTest() throws Exception {
+        try (ResultStore resultStore = new ResultStore(temporaryFolder.getRoot().toPath().resolve("results"), 8)) {
+            ResultStoreWriter.write(resultStore, 1, 10);
+        }
+    }
+
+    // a store stops taking new keys once three quarters of its slots are filled, but still answers the keys it holds
+    @Test
+    public void maximumLoadTest() throws Exception {
+        try (ResultStore resultStore = new ResultStore(temporaryFolder.getRoot().toPath().resolve("results"), 8)) {
+            // Given
+            ResultStoreWriter.write(resultStore, 1, 7);
+
+            // When
+            try {
+                resultStore.putIfAbsent(7, 7);
+                Assert.fail("the store must be full");
+            } catch (IllegalStateException e) {
+                // expected
+            }
+
+            // Then
+            Assert.assertEquals(6, resultStore.size());
+            Assert.assertEquals(ResultStoreWriter.getValue(6), resultStore.putIfAbsent(6, -1));
+            Assert.assertFalse(resultStore.containsKey(7));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void notAStoreTest() throws Exception {
+        Path path = temporaryFolder.newFile().toPath();
+        Files.write(path, new byte[100]);
+        new ResultStore(path, 64).close();
+    }
+
+    // processes and threads storing the same keys at once store each key once, and agree on its value
+    @Test
+    public void concurrentProcessesTest() throws Exception {
+        // Given
+        Path path = temporaryFolder.getRoot().toPath().resolve("results");
+        List<Process> processes = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            processes.add(new ProcessBuilder(Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                    "-cp", System.getProperty("java.class.path"), ResultStoreWriter.class.getName(), path.toString(),
+                    "65536", "1", "20001").inheritIO().start());
+        }
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            long firstKey = 1 + i * 5000;
+            threads.add(new Thread(() -> {
+                try (ResultStore resultStore = new ResultStore(path, 65536)) {
+                    ResultStoreWriter.write(resultStore, firstKey, 20001);
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            }));
+        }
+
+        // When
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (Process process : processes) {
+            Assert.assertEquals(0, process.waitFor());
+        }
+
+        // Then
+        Assert.assertTrue(failures.toString(), failures.isEmpty());
+        try (ResultStore resultStore = new ResultStore(path, 65536)) {
+            Assert.assertEquals(20000, resultStore.size());
+            for (long key = 1; key < 20001; key++) {
+                Assert.assertEquals(ResultStoreWriter.getValue(key), resultStore.get(key, -1));
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package pokerhandanalyzer.store;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * A test program storing a range of keys in a result store, from another process: each key k is stored with the value
+ * {@link #getValue(long)}.
+ * java ... ResultStoreWriter store capacity firstKey endKey
+ */
+public class ResultStoreWriter {
+
+    static long getValue(long key) {
+        return key * 31 + 7;
+    }
+
+    static void write(ResultStore resultStore, long firstKey, long endKey) throws IOException {
+        for (long key = firstKey; key < endKey; key++) {
+            if (resultStore.computeIfAbsent(key, ResultStoreWriter::getValue) != getValue(key))
+                throw new IllegalStateException("wrong value stored for key " + key);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        try (ResultStore resultStore = new ResultStore(Paths.get(args[0]), Integer.parseInt(args[1]))) {
+            write(resultStore, Long.parseLong(args[2]), Long.parseLong(args[3]));
+        }
+    }
+}
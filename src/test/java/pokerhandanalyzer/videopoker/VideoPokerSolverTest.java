@@ -0,0 +1,147 @@
+package pokerhandanalyzer.videopoker;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import pokerhandanalyzer.Combinations;
+import pokerhandanalyzer.enums.Rank;
+import pokerhandanalyzer.enums.Suit;
+import pokerhandanalyzer.enums.VideoPokerHand;
+import pokerhandanalyzer.models.Card;
+import pokerhandanalyzer.models.PokerHand;
+
+import java.util.Arrays;
+
+import static pokerhandanalyzer.TestCards.getCardMask;
+import static pokerhandanalyzer.TestCards.getCards;
+
+public class VideoPokerSolverTest {
+    private static VideoPokerSolver jacksOrBetterSolver;
+    private static VideoPokerSolver deucesWildSolver;
+    private static VideoPokerSolver jokerPokerSolver;
+
+    @BeforeClass
+    public static void createSolvers() throws InterruptedException {
+        jacksOrBetterSolver = new VideoPokerSolver(Paytable.jacksOrBetter(), 2);
+        deucesWildSolver = new VideoPokerSolver(Paytable.deucesWild(), 2);
+        jokerPokerSolver = new VideoPokerSolver(Paytable.jokerPoker(), 2);
+    }
+
+    @Test
+    public void classifyWildCardsTest() {
+        // Given
+        Paytable deucesWild = Paytable.deucesWild();
+        Paytable jokerPoker = Paytable.jokerPoker();
+
+        // Then
+        Assert.assertEquals(VideoPokerHand.FOUR_DEUCES, deucesWild.classify(getCardMask("2C 2S 2H 2D 9S")));
+        Assert.assertEquals(VideoPokerHand.WILD_ROYAL_FLUSH, deucesWild.classify(getCardMask("2C AH KH 2D TH")));
+        Assert.assertEquals(VideoPokerHand.FIVE_OF_A_KIND, deucesWild.classify(getCardMask("2C 7H 7S 7D 2H")));
+        Assert.assertEquals(VideoPokerHand.STRAIGHT_FLUSH, deucesWild.classify(getCardMask("AS 3S 2H 4S 5S")));
+        Assert.assertEquals(VideoPokerHand.STRAIGHT, deucesWild.classify(getCardMask("9S 2D JH QC 8S")));
+        Assert.assertEquals(VideoPokerHand.THREE_OF_A_KIND, deucesWild.classify(getCardMask("9S 2D 9H QC 4S")));
+        Assert.assertEquals(VideoPokerHand.NATURAL_ROYAL_FLUSH, deucesWild.classify(getCardMask("AH KH QH JH TH")));
+        Assert.assertEquals(VideoPokerHand.FULL_HOUSE, jokerPoker.classify(getCardMask("9S 9D 4H 4C") | 1L << Paytable.JOKER));
+        Assert.assertEquals(VideoPokerHand.HIGH_PAIR, jokerPoker.classify(getCardMask("KS 9D 4H 3C") | 1L << Paytable.JOKER));
+        Assert.assertEquals(VideoPokerHand.NOTHING, jokerPoker.classify(getCardMask("QS 9D 4H 2C") | 1L << Paytable.JOKER));
+        Assert.assertEquals(VideoPokerHand.NOTHING, jokerPoker.classify(getCardMask("QS QD 4H 2C 8H")));
+    }
+
+    @Test
+    public void dealtRoyalFlushTest() {
+        // Given
+        PokerHand pokerHand = new PokerHand(Arrays.asList(new Card(Rank.ACE, Suit.SPADES), new Card(Rank.KING, Suit.SPADES),
+                new Card(Rank.QUEEN, Suit.SPADES), new Card(Rank.JACK, Suit.SPADES), new Card(Rank.TEN, Suit.SPADES)));
+
+        // When
+        VideoPokerHold actualOutput = jacksOrBetterSolver.solve(pokerHand);
+
+        // Then
+        Assert.assertEquals(31, actualOutput.getHoldMask());
+        Assert.assertEquals(800, actualOutput.getExpectedPayout(), 0);
+    }
+
+    @Test
+    public void fourToRoyalFlushTest() {
+        // Given
+        int[] cards = getCards("AS KS 2C QS JS");
+        // a royal flush, 8 flushes, 3 straights and 12 high pairs of the 47 draws
+        double expectedOutput = (800 + 8 * 6 + 3 * 4 + 12) / 47.0;
+
+        // When
+        VideoPokerHold actualOutput = jacksOrBetterSolver.solve(cards, 0);
+
+        // Then
+        Assert.assertEquals(0b11011, actualOutput.getHoldMask());
+        Assert.assertEquals(expectedOutput, actualOutput.getExpectedPayout(), 1e-12);
+        Assert.assertEquals(expectedOutput, jacksOrBetterSolver.getExpectedPayouts(cards, 0)[0b11011], 1e-12);
+    }
+
+    // the counted expected payouts must be those of drawing every replacement of every hold
+    @Test
+    public void agreesWithEveryDrawTest() {
+        assertAgreesWithEveryDraw(jacksOrBetterSolver, getCards("JH 7C 8D 9S 3H"));
+        assertAgreesWithEveryDraw(deucesWildSolver, getCards("2H 7C 8C 9S 3H"));
+        int[] cards = getCards("KH TH 4D 5S 3C");
+        assertAgreesWithEveryDraw(jokerPokerSolver, cards);
+        cards[4] = Paytable.JOKER;
+        assertAgreesWithEveryDraw(jokerPokerSolver, cards);
+    }
+
+    // a deal whose suits are permuted must hold the same cards, and expect the same payout
+    @Test
+    public void isomorphicDealsTest() {
+        // Given
+        int[] cards = getCards("QH JH 9C 8H 9D");
+        int[] isomorphicCards = getCards("QS JS 9H 8S 9C");
+
+        // When
+        VideoPokerHold expectedOutput = jacksOrBetterSolver.solve(cards, 0);
+        VideoPokerHold actualOutput = jacksOrBetterSolver.solve(isomorphicCards, 0);
+
+        // Then
+        double[] expectedPayouts = jacksOrBetterSolver.getExpectedPayouts(cards, 0);
+        Assert.assertEquals(Arrays.stream(expectedPayouts).max().getAsDouble(), expectedOutput.getExpectedPayout(), 0);
+        Assert.assertEquals(expectedPayouts[expectedOutput.getHoldMask()], expectedOutput.getExpectedPayout(), 0);
+        Assert.assertEquals(expectedOutput.getHoldMask(), actualOutput.getHoldMask());
+        Assert.assertEquals(expectedOutput.getExpectedPayout(), actualOutput.getExpectedPayout(), 0);
+    }
+
+    // the returns of the paytables are the published ones
+    @Test
+    public void returnTest() throws InterruptedException {
+        Assert.assertEquals(0.995439, jacksOrBetterSolver.getReturn(), 5e-7);
+        Assert.assertEquals(134459, jacksOrBetterSolver.getCacheSize());
+        Assert.assertEquals(1.007620, deucesWildSolver.getReturn(), 5e-7);
+        Assert.assertEquals(1.006463, jokerPokerSolver.getReturn(), 5e-7);
+    }
+
+    private static void assertAgreesWithEveryDraw(VideoPokerSolver solver, int[] cards) {
+        Paytable paytable = solver.getPaytable();
+        double[] actualOutput = solver.getExpectedPayouts(cards, 0);
+        long dealtCardMask = 0;
+        for (int card : cards) {
+            dealtCardMask |= 1L << card;
+        }
+
+        for (int holdMask = 0; holdMask < VideoPokerSolver.NUMBER_OF_HOLDS; holdMask++) {
+            long heldCardMask = 0;
+            for (int i = 0; i < 5; i++) {
+                heldCardMask |= (holdMask & 1 << i) != 0 ? 1L << cards[i] : 0;
+            }
+            int numberOfDrawnCards = 5 - Integer.bitCount(holdMask);
+            long totalPayout = 0, numberOfDraws = 0;
+            for (long draw = Combinations.getCardMask(0, numberOfDrawnCards);
+                 draw < 1L << paytable.getNumberOfCards(); draw = Combinations.next(draw)) {
+                if ((draw & dealtCardMask) == 0) {
+                    totalPayout += paytable.getPayout(heldCardMask | draw);
+                    numberOfDraws++;
+                }
+                if (numberOfDrawnCards == 0)
+                    break;
+            }
+            Assert.assertEquals(Combinations.binomial(paytable.getNumberOfCards() - 5, numberOfDrawnCards), numberOfDraws);
+            Assert.assertEquals((double) totalPayout / numberOfDraws, actualOutput[holdMask], 1e-9);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package pokerhandanalyzer.warmup;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pokerhandanalyzer.StringPokerHandAnalyzer;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.UnaryOperator;
+
+public class EngineWarmUpTest {
+    private static final String[] LINES = {
+            "AH KD 5C QS TS TD KH 5S JC 9H",
+            "QH TD 5C 9S KS KD 5H 9S QC TH",
+            "4D KC 5S QH 3C 3H 5H AH 8H TH",
+            "AH 2H 3H 4H 5H KS KD KC KH QS",
+            "AH  KD 5C QS TS TD KH 5S JC 9H",
+            "AH KD 5C QS TS TD KH 5S JC 9H 2C"
+    };
+
+    @Test
+    public void referenceAnalyzerServesUntilReadyTest() throws Exception {
+        // Given
+        CountDownLatch tableLoading = new CountDownLatch(1);
+        AtomicBoolean loaderCalled = new AtomicBoolean();
+
+        try (EngineWarmUp engineWarmUp = new EngineWarmUp(2, 1000, 1)) {
+            engineWarmUp.addTable("slow", () -> {
+                loaderCalled.set(true);
+                tableLoading.await();
+                return "table";
+            });
+            Assert.assertFalse(loaderCalled.get());
+
+            // When
+            engineWarmUp.start();
+            String whoWon = engineWarmUp.analyzeHands(LINES[0]);
+
+            // Then
+            Assert.assertEquals("left", whoWon);
+            Assert.assertFalse(engineWarmUp.isReady());
+            Assert.assertFalse(engineWarmUp.awaitReady(10, TimeUnit.MILLISECONDS));
+            Assert.assertNull(engineWarmUp.getTable("slow", String.class));
+            Assert.assertEquals(1, engineWarmUp.getReferenceRequestCount());
+            Assert.assertEquals(0, engineWarmUp.getFastRequestCount());
+
+            tableLoading.countDown();
+            Assert.assertTrue(engineWarmUp.awaitReady(1, TimeUnit.MINUTES));
+            Assert.assertTrue(loaderCalled.get());
+            Assert.assertEquals("table", engineWarmUp.getTable("slow", String.class));
+            Assert.assertTrue(engineWarmUp.getTableLoadNanos().containsKey("slow"));
+        }
+    }
+
+    @Test
+    public void fastEngineMatchesReferenceAnalyzerTest() throws Exception {
+        // Given
+        try (EngineWarmUp engineWarmUp = new EngineWarmUp(2, 5000, 2)) {
+            engineWarmUp.start();
+            Assert.assertTrue(engineWarmUp.awaitReady(1, TimeUnit.MINUTES));
+
+            // When, Then
+            for (String line : LINES) {
+                Assert.assertEquals(line, analyze(StringPokerHandAnalyzer::analyzeHands, line),
+                        analyze(engineWarmUp::analyzeHands, line));
+            }
+            Assert.assertEquals(5000, engineWarmUp.getWarmUpDealCount());
+            Assert.assertTrue(engineWarmUp.getWarmUpNanos() > 0);
+            Assert.assertEquals(3, engineWarmUp.getFastRequestCount());
+            Assert.assertEquals(LINES.length - 3, engineWarmUp.getReferenceRequestCount());
+        }
+    }
+
+    @Test
+    public void failedTableLoadKeepsReferenceAnalyzerTest() throws Exception {
+        // Given
+        try (EngineWarmUp engineWarmUp = new EngineWarmUp(2, 1000, 3)) {
+            engineWarmUp.addTable("missing", () -> {
+                throw new IOException("no such table");
+            });
+
+            // When
+            engineWarmUp.start();
+            boolean ready = engineWarmUp.awaitReady(1, TimeUnit.MINUTES);
+            String whoWon = engineWarmUp.analyzeHands(LINES[2]);
+
+            // Then
+            Assert.assertFalse(ready);
+            Assert.assertTrue(engineWarmUp.isFailed());
+            Assert.assertTrue(engineWarmUp.getFailure().contains("no such table"));
+            Assert.assertEquals("right", whoWon);
+            Assert.assertEquals(0, engineWarmUp.getFastRequestCount());
+        }
+    }
+
+    @Test
+    public void tableLoadedAfterCloseIsClosedTest() throws Exception {
+        // Given
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch tableLoading = new CountDownLatch(1);
+        CountDownLatch tableClosed = new CountDownLatch(1);
+        EngineWarmUp engineWarmUp = new EngineWarmUp(2, 1000, 5);
+        engineWarmUp.addTable("stubborn", () -> {
+            loaderStarted.countDown();
+            // ignores interruption, as a loader blocked in native code would
+            while (true) {
+                try {
+                    tableLoading.await();
+                    break;
+                } catch (InterruptedException e) {
+                    // keep loading
+                }
+            }
+            return (Closeable) tableClosed::countDown;
+        });
+        engineWarmUp.start();
+        Assert.assertTrue(loaderStarted.await(1, TimeUnit.MINUTES));
+
+        // When
+        engineWarmUp.close();
+        tableLoading.countDown();
+
+        // Then
+        Assert.assertTrue(tableClosed.await(1, TimeUnit.MINUTES));
+    }
+
+    @Test
+    public void readinessExposedOverJmxTest() throws Exception {
+        // Given
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName(EngineWarmUp.OBJECT_NAME);
+
+        try (EngineWarmUp engineWarmUp = new EngineWarmUp(1, 100, 4)) {
+            engineWarmUp.registerMBean();
+
+            // When
+            engineWarmUp.start();
+            engineWarmUp.awaitReady(1, TimeUnit.MINUTES);
+
+            // Then
+            Assert.assertEquals(true, mBeanServer.getAttribute(objectName, "Ready"));
+            Assert.assertEquals(100L, mBeanServer.getAttribute(objectName, "WarmUpDealCount"));
+        }
+        Assert.assertFalse(mBeanServer.isRegistered(objectName));
+    }
+
+    // the result of analyzing a line, or "error" if it cannot be analyzed
+    private static String analyze(UnaryOperator<String> analyzer, String line) {
+        try {
+            return analyzer.apply(line);
+        } catch (RuntimeException e) {
+            return "error";
+        }
+    }
+}